@@ -14,13 +14,18 @@
 package com.indra.minsait.dvsmart.indexing.adapter.in.rest;
 import com.indra.minsait.dvsmart.indexing.adapter.in.dto.JobIndexRequest;
 import com.indra.minsait.dvsmart.indexing.application.port.in.StartIndexFullUseCase;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressStreamer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.Map;
 import jakarta.validation.*;
 
@@ -37,6 +42,7 @@ import jakarta.validation.*;
 public class BatchIndexingController {
 
     private final StartIndexFullUseCase startIndexingFullUseCase;
+    private final JobProgressStreamer progressStreamer;
 
     @PostMapping("/full")
     public ResponseEntity<Map<String, Object>> startFullIndexing(@Valid @RequestBody JobIndexRequest request) {
@@ -54,4 +60,15 @@ public class BatchIndexingController {
                     "status", "ACCEPTED"
                 ));
     }
+
+    /**
+     * Progreso en vivo de una ejecución (Server-Sent Events, evento "progress"):
+     * frontera, directorios y archivos procesados, ritmo actual y medio, ETA.
+     * El stream se cierra al terminar el job; 404 si la ejecución no se conoce.
+     */
+    @GetMapping(value = "/{executionId}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProgress(@PathVariable Long executionId) {
+        log.info("Received progress subscription for job execution {}", executionId);
+        return progressStreamer.subscribe(executionId);
+    }
 }
\ No newline at end of file
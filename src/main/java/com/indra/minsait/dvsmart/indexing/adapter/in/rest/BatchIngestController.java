@@ -0,0 +1,94 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.indexing.application.port.in.IngestFilesUseCase;
+import com.indra.minsait.dvsmart.indexing.domain.model.IngestRunStatus;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 17:24:15
+ * File: BatchIngestController.java
+ */
+
+/**
+ * API de ingesta push para agentes que recorren el árbol en el propio host.
+ * 
+ * Secuencia:
+ * 1. POST /api/batch/index/ingest?origin=X        → abre la ejecución (job BATCH-INDEX-INGEST)
+ * 2. POST /api/batch/index/ingest/{runId}/batches → lote NDJSON (Content-Encoding: gzip opcional)
+ * 3. POST /api/batch/index/ingest/{runId}/complete → el job termina tras los lotes pendientes
+ * 
+ * El cuerpo de cada lote se lee en streaming al ritmo del job; la respuesta
+ * llega cuando el lote se ha consumido entero.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/batch/index/ingest")
+@RequiredArgsConstructor
+public class BatchIngestController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final IngestFilesUseCase ingestFilesUseCase;
+
+    @PostMapping
+    public ResponseEntity<IngestRunStatus> startRun(
+            @RequestParam(defaultValue = SftpFileEntry.DEFAULT_ORIGIN) String origin) {
+        log.info("Received request to open ingest run for origin [{}]", origin);
+        return ResponseEntity.accepted().body(ingestFilesUseCase.startRun(origin));
+    }
+
+    @PostMapping("/{runId}/batches")
+    public ResponseEntity<IngestRunStatus> ingestBatch(
+            @PathVariable String runId,
+            HttpServletRequest request) throws IOException {
+        
+        InputStream body = request.getInputStream();
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding != null && encoding.toLowerCase().contains("gzip")) {
+            body = new GZIPInputStream(body, GZIP_BUFFER_SIZE);
+        }
+        
+        try (InputStream in = body) {
+            return ResponseEntity.ok(ingestFilesUseCase.ingestBatch(runId, in));
+        }
+    }
+
+    @PostMapping("/{runId}/complete")
+    public ResponseEntity<IngestRunStatus> completeRun(@PathVariable String runId) {
+        log.info("Received request to complete ingest run {}", runId);
+        return ResponseEntity.accepted().body(ingestFilesUseCase.completeRun(runId));
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<IngestRunStatus> getRun(@PathVariable String runId) {
+        return ResponseEntity.ok(ingestFilesUseCase.getRun(runId));
+    }
+}
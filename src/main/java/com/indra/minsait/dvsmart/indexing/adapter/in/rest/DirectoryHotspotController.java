@@ -0,0 +1,56 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryHotspotReport;
+import com.indra.minsait.dvsmart.indexing.domain.service.JobAuditService;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.AuditRecordNotFoundException;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 13:12:07
+ * File: DirectoryHotspotController.java
+ */
+
+/**
+ * Informe de hot-spots de directorios por ejecución: listados más lentos,
+ * directorios más grandes y directorios con más fallos.
+ * 
+ * Endpoints disponibles:
+ * - GET /api/monitoring/hotspots/{jobExecutionId} - Informe parcial (en curso) o
+ *   el guardado en la auditoría (terminada)
+ */
+@RestController
+@RequestMapping("/api/monitoring/hotspots")
+@RequiredArgsConstructor
+public class DirectoryHotspotController {
+
+    private final DirectoryHotspotRegistry hotspotRegistry;
+    private final JobAuditService auditService;
+
+    @GetMapping("/{jobExecutionId}")
+    public ResponseEntity<DirectoryHotspotReport> getHotspots(@PathVariable Long jobExecutionId) {
+        DirectoryHotspotReport report = hotspotRegistry.findRunning(jobExecutionId)
+            .or(() -> auditService.findDirectoryHotspots(jobExecutionId))
+            .orElseThrow(() -> new AuditRecordNotFoundException(jobExecutionId, "directory hotspot report"));
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.jfr.FlightRecordingService;
+import com.indra.minsait.dvsmart.indexing.infrastructure.jfr.FlightRecordingService.RecordingStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 09:56:40
+ * File: FlightRecordingController.java
+ */
+
+/**
+ * Grabaciones JDK Flight Recorder bajo demanda.
+ * 
+ * Endpoints disponibles:
+ * - POST /api/monitoring/jfr/recordings?jobExecutionId=N - Inicia (ligada al job: se detiene al terminar)
+ * - POST /api/monitoring/jfr/recordings/{id}/stop        - Detiene y devuelve el resumen
+ * - GET  /api/monitoring/jfr/recordings                  - Grabaciones conservadas
+ * - GET  /api/monitoring/jfr/recordings/{id}             - Estado y resumen (eventos más lentos)
+ * - GET  /api/monitoring/jfr/recordings/{id}/file        - Descarga del .jfr (JMC, 'jfr print')
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/monitoring/jfr/recordings")
+@RequiredArgsConstructor
+public class FlightRecordingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    @PostMapping
+    public ResponseEntity<RecordingStatus> startRecording(@RequestParam(required = false) Long jobExecutionId) {
+        log.info("Received request to start flight recording (job execution {})", jobExecutionId);
+        return ResponseEntity.accepted().body(flightRecordingService.start(jobExecutionId));
+    }
+
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<RecordingStatus> stopRecording(@PathVariable long id) {
+        log.info("Received request to stop flight recording {}", id);
+        return ResponseEntity.ok(flightRecordingService.stop(id));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RecordingStatus>> listRecordings() {
+        return ResponseEntity.ok(flightRecordingService.list());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RecordingStatus> getRecording(@PathVariable long id) {
+        return ResponseEntity.ok(flightRecordingService.getStatus(id));
+    }
+
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> downloadRecording(@PathVariable long id) {
+        Path file = flightRecordingService.getFile(id);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+            .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.JobExecutionAudit;
+import com.indra.minsait.dvsmart.indexing.domain.model.JobPerformanceStats;
+import com.indra.minsait.dvsmart.indexing.domain.service.JobAuditService;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.AuditRecordNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 14:52:09
+ * File: JobAuditController.java
+ */
+
+/**
+ * Historial de ejecuciones (job_executions_audit), tendencias y regresiones.
+ * 
+ * Los listados son paginados (page, size; más recientes primero) y no
+ * incluyen timeline, hot-spots ni stack trace: el registro completo se
+ * consulta por jobExecutionId.
+ * 
+ * Endpoints disponibles:
+ * - GET /api/monitoring/audit                          - Historial de todas las ejecuciones
+ * - GET /api/monitoring/audit/jobs/{jobName}           - Historial de un job
+ * - GET /api/monitoring/audit/status/{status}          - Historial por estado
+ * - GET /api/monitoring/audit/range?start=&end=        - Historial por rango de inicio
+ * - GET /api/monitoring/audit/regressions              - Ejecuciones marcadas como regresión
+ * - GET /api/monitoring/audit/latest                   - Últimas ejecuciones
+ * - GET /api/monitoring/audit/execution/{id}           - Registro completo
+ * - GET /api/monitoring/audit/stats                    - Métricas de todo el historial por job
+ * - GET /api/monitoring/audit/trends/{jobName}         - Files/s, duración y fallos por intervalo
+ */
+@RestController
+@RequestMapping("/api/monitoring/audit")
+@RequiredArgsConstructor
+public class JobAuditController {
+
+    private static final String DEFAULT_PAGE_SIZE = "20";
+    private static final Duration DEFAULT_TREND_WINDOW = Duration.ofDays(30);
+
+    private final JobAuditService auditService;
+
+    @GetMapping
+    public ResponseEntity<PagedModel<JobExecutionAudit>> getHistory(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(new PagedModel<>(auditService.findHistory(page, size)));
+    }
+
+    @GetMapping("/jobs/{jobName}")
+    public ResponseEntity<PagedModel<JobExecutionAudit>> getHistoryByJob(
+            @PathVariable String jobName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(new PagedModel<>(auditService.findHistoryByJobName(jobName, page, size)));
+    }
+
+    @GetMapping("/status/{status}")
+    public ResponseEntity<PagedModel<JobExecutionAudit>> getHistoryByStatus(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(new PagedModel<>(auditService.findHistoryByStatus(status, page, size)));
+    }
+
+    @GetMapping("/range")
+    public ResponseEntity<PagedModel<JobExecutionAudit>> getHistoryByRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(new PagedModel<>(auditService.findHistoryByRange(start, end, page, size)));
+    }
+
+    @GetMapping("/regressions")
+    public ResponseEntity<PagedModel<JobExecutionAudit>> getRegressions(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(new PagedModel<>(auditService.findRegressions(page, size)));
+    }
+
+    @GetMapping("/latest")
+    public ResponseEntity<List<JobExecutionAudit>> getLatest(@RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(auditService.findHistory(0, size).getContent());
+    }
+
+    @GetMapping("/execution/{jobExecutionId}")
+    public ResponseEntity<JobExecutionAudit> getExecution(@PathVariable Long jobExecutionId) {
+        return ResponseEntity.ok(auditService.findByJobExecutionId(jobExecutionId)
+            .orElseThrow(() -> new AuditRecordNotFoundException(jobExecutionId, "audit record")));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<JobPerformanceStats>> getStats() {
+        return ResponseEntity.ok(auditService.getStatsByJob());
+    }
+
+    /**
+     * Sin rango: los últimos 30 días.
+     */
+    @GetMapping("/trends/{jobName}")
+    public ResponseEntity<List<JobPerformanceStats>> getTrends(
+            @PathVariable String jobName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(defaultValue = "day") String granularity) {
+        Instant to = end != null ? end : Instant.now();
+        Instant from = start != null ? start : to.minus(DEFAULT_TREND_WINDOW);
+        return ResponseEntity.ok(auditService.getTrends(jobName, from, to, granularity));
+    }
+}
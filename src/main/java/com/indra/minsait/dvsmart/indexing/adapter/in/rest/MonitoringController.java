@@ -14,8 +14,13 @@
 package com.indra.minsait.dvsmart.indexing.adapter.in.rest;
 
 import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.LoadBalancedSftpSessionFactory.ReplicaStatus;
 import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpPoolMonitor;
 import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpPoolMonitor.ExtendedPoolStats;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpPoolMonitor.GuardStatus;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpPoolTelemetry.CallerStats;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpPoolTelemetry.TelemetryStats;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpWorkloadClass;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -37,10 +42,21 @@ import java.util.*;
  * - GET  /api/monitoring/sftp-pool           - Estadísticas básicas
  * - GET  /api/monitoring/sftp-pool/extended  - Estadísticas extendidas
  * - GET  /api/monitoring/sftp-pool/health    - Estado de salud
+ * - GET  /api/monitoring/sftp-pool/workloads - Estadísticas por clase de carga
+ * - GET  /api/monitoring/sftp-pool/workloads/{workload} - Estadísticas de un sub-pool
+ * - GET  /api/monitoring/sftp-pool/origins   - Estadísticas por origen y clase de carga
+ * - GET  /api/monitoring/sftp-pool/replicas  - Balanceo de listado entre réplicas
+ * - GET  /api/monitoring/sftp-pool/telemetry - Percentiles de espera/retención/creación/validación por sub-pool
+ * - GET  /api/monitoring/sftp-pool/callers   - Préstamos y percentiles por caller
  * - POST /api/monitoring/sftp-pool/evict     - Forzar limpieza
  * - POST /api/monitoring/sftp-pool/reset     - Reset contadores
  * - POST /api/monitoring/sftp-pool/log       - Log manual
  * 
+ * SFTP Throttle / Circuit Breaker:
+ * - GET  /api/monitoring/sftp-throttle       - Límites y estado del breaker por origen
+ * - PUT  /api/monitoring/sftp-throttle       - Ajuste en caliente de límites (?origin= opcional)
+ * - POST /api/monitoring/sftp-circuit/reset  - Forzar cierre del breaker (?origin= opcional)
+ * 
  */
 @Slf4j
 @RestController
@@ -98,6 +114,37 @@ public class MonitoringController {
         ));
     }
 
+    @GetMapping("/sftp-pool/workloads")
+    public ResponseEntity<Map<String, ExtendedPoolStats>> getWorkloadStats() {
+        return ResponseEntity.ok(poolMonitor.getWorkloadStats());
+    }
+
+    @GetMapping("/sftp-pool/workloads/{workload}")
+    public ResponseEntity<ExtendedPoolStats> getWorkloadStats(@PathVariable String workload) {
+        SftpWorkloadClass workloadClass = SftpWorkloadClass.valueOf(workload.toUpperCase(Locale.ROOT));
+        return ResponseEntity.ok(poolMonitor.getExtendedStats(workloadClass));
+    }
+
+    @GetMapping("/sftp-pool/origins")
+    public ResponseEntity<Map<String, Map<String, CustomLazySftpSessionFactory.PoolStats>>> getOriginStats() {
+        return ResponseEntity.ok(poolMonitor.getOriginStats());
+    }
+
+    @GetMapping("/sftp-pool/replicas")
+    public ResponseEntity<Map<String, List<ReplicaStatus>>> getReplicaStatus() {
+        return ResponseEntity.ok(poolMonitor.getReplicaStatus());
+    }
+
+    @GetMapping("/sftp-pool/telemetry")
+    public ResponseEntity<Map<String, TelemetryStats>> getPoolTelemetry() {
+        return ResponseEntity.ok(poolMonitor.getTelemetry());
+    }
+
+    @GetMapping("/sftp-pool/callers")
+    public ResponseEntity<Map<String, CallerStats>> getCallerStats() {
+        return ResponseEntity.ok(poolMonitor.getCallerStats());
+    }
+
     @PostMapping("/sftp-pool/evict")
     public ResponseEntity<Map<String, Object>> forceEviction() {
         log.info("Manual eviction triggered");
@@ -139,6 +186,34 @@ public class MonitoringController {
         ));
     }
 
+    /* ========================================
+     * SFTP THROTTLE / CIRCUIT BREAKER
+     * ======================================== */
+
+    @GetMapping("/sftp-throttle")
+    public ResponseEntity<Map<String, GuardStatus>> getThrottleStatus() {
+        return ResponseEntity.ok(poolMonitor.getGuardStatus());
+    }
+
+    @PutMapping("/sftp-throttle")
+    public ResponseEntity<Map<String, GuardStatus>> updateThrottle(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) Double requestsPerSecond,
+            @RequestParam(required = false) Integer burst,
+            @RequestParam(required = false) Integer maxConcurrentOperations) {
+        
+        log.warn("SFTP throttle update requested: origin={}, requestsPerSecond={}, burst={}, maxConcurrentOperations={}",
+                 origin != null ? origin : "ALL", requestsPerSecond, burst, maxConcurrentOperations);
+        return ResponseEntity.ok(poolMonitor.updateThrottle(origin, requestsPerSecond, burst, maxConcurrentOperations));
+    }
+
+    @PostMapping("/sftp-circuit/reset")
+    public ResponseEntity<Map<String, GuardStatus>> resetCircuitBreaker(
+            @RequestParam(required = false) String origin) {
+        log.warn("SFTP circuit breaker reset requested: origin={}", origin != null ? origin : "ALL");
+        return ResponseEntity.ok(poolMonitor.resetCircuitBreaker(origin));
+    }
+
     /* ========================================
      * HELPER METHODS
      * ======================================== */
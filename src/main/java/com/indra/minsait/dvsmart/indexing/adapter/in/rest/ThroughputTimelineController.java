@@ -0,0 +1,56 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.ThroughputTimeline;
+import com.indra.minsait.dvsmart.indexing.domain.service.JobAuditService;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.AuditRecordNotFoundException;
+import com.indra.minsait.dvsmart.indexing.infrastructure.timeline.ThroughputTimelineRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 13:55:37
+ * File: ThroughputTimelineController.java
+ */
+
+/**
+ * Perfil de rendimiento por intervalos de una ejecución, en series
+ * columnares listas para dibujar.
+ * 
+ * Endpoints disponibles:
+ * - GET /api/monitoring/timeline/{jobExecutionId} - Intervalos cerrados (en curso) o
+ *   el timeline guardado en la auditoría (terminada)
+ */
+@RestController
+@RequestMapping("/api/monitoring/timeline")
+@RequiredArgsConstructor
+public class ThroughputTimelineController {
+
+    private final ThroughputTimelineRegistry timelineRegistry;
+    private final JobAuditService auditService;
+
+    @GetMapping("/{jobExecutionId}")
+    public ResponseEntity<ThroughputTimeline> getTimeline(@PathVariable Long jobExecutionId) {
+        ThroughputTimeline timeline = timelineRegistry.findRunning(jobExecutionId)
+            .or(() -> auditService.findThroughputTimeline(jobExecutionId))
+            .orElseThrow(() -> new AuditRecordNotFoundException(jobExecutionId, "throughput timeline"));
+        return ResponseEntity.ok(timeline);
+    }
+}
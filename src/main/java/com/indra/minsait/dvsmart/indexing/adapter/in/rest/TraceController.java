@@ -0,0 +1,69 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.SpanTracer;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.SpanTracer.TraceSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 12:06:12
+ * File: TraceController.java
+ */
+
+/**
+ * Trazas por directorio de las ejecuciones de job (SpanTracer).
+ * 
+ * Endpoints disponibles:
+ * - GET /api/monitoring/traces                          - Trazas conservadas
+ * - GET /api/monitoring/traces/{jobExecutionId}         - Resumen: fases y directorios más lentos
+ * - GET /api/monitoring/traces/{jobExecutionId}/spans   - Spans en NDJSON
+ */
+@RestController
+@RequestMapping("/api/monitoring/traces")
+@RequiredArgsConstructor
+public class TraceController {
+
+    private final SpanTracer spanTracer;
+
+    @GetMapping
+    public ResponseEntity<List<TraceSummary>> listTraces() {
+        return ResponseEntity.ok(spanTracer.list());
+    }
+
+    @GetMapping("/{jobExecutionId}")
+    public ResponseEntity<TraceSummary> getTrace(@PathVariable Long jobExecutionId) {
+        return ResponseEntity.ok(spanTracer.getSummary(jobExecutionId));
+    }
+
+    @GetMapping("/{jobExecutionId}/spans")
+    public ResponseEntity<Resource> downloadSpans(@PathVariable Long jobExecutionId) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.inline().filename("trace-" + jobExecutionId + ".ndjson").build().toString())
+            .body(spanTracer.getSpans(jobExecutionId));
+    }
+}
@@ -13,35 +13,58 @@
  */
 package com.indra.minsait.dvsmart.indexing.adapter.out.batch.config;
 
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener.FlightRecordingListener;
 import com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener.JobExecutionAuditListener;
-import com.indra.minsait.dvsmart.indexing.adapter.out.batch.processor.MetadataExtractorProcessor;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener.JobProgressListener;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener.SpanTracingListener;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.partition.OriginPartitioner;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader.ConcurrentDirectoryItemReader;
 import com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader.DirectoryQueueItemReader;
-import com.indra.minsait.dvsmart.indexing.adapter.out.batch.writer.BulkUpsertMongoItemWriter;
-import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader.DirectoryWorkQueueRegistry;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader.RemoteFindItemReader;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader.SpillingDirectoryQueue;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.writer.MetadataChunkItemWriter;
+import com.indra.minsait.dvsmart.indexing.adapter.out.source.FileSourceRegistry;
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
 import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
-import com.indra.minsait.dvsmart.indexing.domain.service.DirectoryDiscoveryService;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilterService;
 import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
-import com.indra.minsait.dvsmart.indexing.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotRegistry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotTracker;
+import com.indra.minsait.dvsmart.indexing.infrastructure.memory.MemoryBackpressureGovernor;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.IndexingMetrics;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.StepMeters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressCounters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressRegistry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.JobTrace;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.SpanTracer;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpOrigin;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpSessionPoolRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.job.Job;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.job.parameters.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.listener.StepExecutionListener;
 import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.StepExecution;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.infrastructure.item.ItemReader;
-import org.springframework.batch.integration.async.AsyncItemProcessor;
-import org.springframework.batch.integration.async.AsyncItemWriter;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
-import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import java.io.IOException;
-import java.util.concurrent.Future;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Author: hahuaranga@indracompany.com
@@ -53,8 +76,8 @@ import java.util.concurrent.Future;
  * Configuración del Job de Indexación Completa.
  * 
  * Flujo:
- * 1. Pre-procesamiento: Descubrir todos los directorios (una sola sesión SFTP)
- * 2. Reader: Lee archivos directorio por directorio (usa pool lazy)
+ * 1. Pre-procesamiento: Descubrir todos los directorios (una sola sesión SFTP, pool DISCOVERY)
+ * 2. Reader: Lee archivos directorio por directorio (usa pool lazy LISTING)
  * 3. Processor: Extrae metadata de cada archivo (paralelo, sin SFTP)
  * 4. Writer: Bulk upsert a MongoDB (paralelo, sin SFTP)
  * 
@@ -69,24 +92,78 @@ import java.util.concurrent.Future;
 public class BatchIndexFullConfig {
 
     private final JobRepository jobRepository;
-    private final DirectoryDiscoveryService directoryDiscoveryService;
-    private final BulkUpsertMongoItemWriter bulkWriter;
     private final BatchConfigProperties batchProps;
-    private final SftpConfigProperties sftpProps;
-    private final MetadataExtractorProcessor metadataExtractorProcessor;
+    private final SftpSessionPoolRegistry sftpPoolRegistry;
+    private final FileSourceRegistry fileSourceRegistry;
+    private final DirectoryWorkQueueRegistry directoryWorkQueueRegistry;
+    private final MetadataChunkItemWriter metadataChunkWriter;
+    private final FileFilterService fileFilterService;
     private final BatchConfigProperties props;
     private final JobExecutionAuditListener auditListener;
-    
-    @Qualifier("sftpOriginTemplate")
-    private final SftpRemoteFileTemplate sftpTemplate;
+    private final MemoryBackpressureGovernor backpressureGovernor;
+    private final IndexingMetrics indexingMetrics;
+    private final JobProgressRegistry progressRegistry;
+    private final JobProgressListener progressListener;
+    private final FlightRecordingListener flightRecordingListener;
+    private final SpanTracer spanTracer;
+    private final SpanTracingListener spanTracingListener;
+    private final DirectoryHotspotRegistry hotspotRegistry;
 
-    @Bean(name = "indexingTaskExecutor")
-    TaskExecutor indexingTaskExecutor() {
+    private boolean isVirtualThreadMode() {
+        return batchProps.getExecutionMode() == BatchConfigProperties.ExecutionMode.VIRTUAL;
+    }
+
+    private boolean isConcurrentChunkMode() {
+        return batchProps.getChunkMode() == BatchConfigProperties.ChunkMode.CONCURRENT;
+    }
+
+    /**
+     * Workers por origen: batch.chunk-workers en modo CONCURRENT, salvo los
+     * orígenes EXEC_FIND (un único stream remoto, un solo worker).
+     */
+    private Map<String, Integer> workersByOrigin() {
+        Map<String, Integer> workers = new LinkedHashMap<>();
+        for (String originName : fileSourceRegistry.getOriginNames()) {
+            boolean streaming = sftpPoolRegistry.findOrigin(originName)
+                .map(origin -> origin.getRemoteFindLister() != null)
+                .orElse(false);
+            workers.put(originName, isConcurrentChunkMode() && !streaming
+                ? Math.max(1, batchProps.getChunkWorkers())
+                : 1);
+        }
+        return workers;
+    }
+
+    /**
+     * Virtual threads con un límite de concurrencia (semáforo), no de hilos.
+     */
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(Math.max(1, concurrencyLimit));
+        return executor;
+    }
+
+    /**
+     * Executor de particiones: un hilo por origen (SFTP o local) en curso,
+     * o por worker en modo CONCURRENT.
+     * 
+     * Con batch.origin-concurrency=0 todos los orígenes se indexan a la vez;
+     * con un valor menor, los orígenes restantes esperan turno en orden FIFO.
+     */
+    @Bean(name = "originTaskExecutor")
+    TaskExecutor originTaskExecutor() {
+        Map<String, Integer> workers = workersByOrigin();
+        int partitions = workers.values().stream().mapToInt(Integer::intValue).sum();
+        int maxWorkers = workers.values().stream().mapToInt(Integer::intValue).max().orElse(1);
+        int concurrency = batchProps.getOriginConcurrency() > 0
+            ? Math.min(batchProps.getOriginConcurrency() * maxWorkers, partitions)
+            : partitions;
+        
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(batchProps.getThreadPoolSize());
-        executor.setMaxPoolSize(batchProps.getThreadPoolSize());
-        executor.setQueueCapacity(batchProps.getQueueCapacity());
-        executor.setThreadNamePrefix("batch-index-async-");
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("batch-index-origin-");
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.initialize();
@@ -95,40 +172,108 @@ public class BatchIndexFullConfig {
 
     /**
      * ✅ SOLUCIÓN: Reader con @StepScope para fresh discovery en cada job
+     * (una instancia por partición/origen).
+     * 
+     * En modo CONCURRENT cada worker del origen lee de una cola compartida
+     * (ConcurrentDirectoryItemReader).
+     * 
+     * El rule set de filtrado (parámetro filterRuleSet) se compila aquí, al
+     * arrancar el step.
+     * 
+     * El origen (SFTP o local) llega como FileSourcePort; en modo VIRTUAL el
+     * reader lista por adelantado los siguientes directorios. Con backend
+     * EXEC_FIND se usa un find remoto en streaming, con el reader SFTP como
+     * fallback si el servidor no permite exec.
      */
     @Bean
     @StepScope  // ✅ CRÍTICO: Nueva instancia por step
-    ItemReader<SftpFileEntry> directoryQueueReader() {
+    ItemStreamReader<SftpFileEntry> directoryQueueReader(
+            @Value("#{stepExecutionContext['" + OriginPartitioner.ORIGIN_KEY + "']}") String originName,
+            @Value("#{stepExecutionContext['" + OriginPartitioner.WORKER_KEY + "']}") Integer worker,
+            @Value("#{stepExecutionContext['" + OriginPartitioner.WORKERS_KEY + "']}") Integer workers,
+            @Value("#{stepExecution.jobExecutionId}") Long jobExecutionId,
+            @Value("#{jobParameters['" + FileFilterService.RULE_SET_PARAM + "']}") String filterRuleSet,
+            @Value("#{stepExecution.stepName}") String stepName,
+            @Value("#{stepExecution.jobExecution.jobInstance.jobName}") String jobName) {
+        
+        FileSourcePort source = fileSourceRegistry.getSource(originName);
+        FileFilter filter = fileFilterService.compile(filterRuleSet);
+        StepMeters meters = indexingMetrics.forStep(jobName, originName, stepName);
+        JobProgressCounters progress = progressRegistry.forExecution(jobExecutionId);
+        JobTrace tracing = spanTracer.forExecution(jobExecutionId);
+        DirectoryHotspotTracker hotspots = hotspotRegistry.forExecution(jobExecutionId);
+        
+        // Modo CONCURRENT: los workers del origen comparten la cola de directorios
+        if (workers != null && workers > 1) {
+            log.info("🔄 Creating NEW ConcurrentDirectoryItemReader for origin [{}] worker {}/{}",
+                     originName, worker, workers);
+            return new ConcurrentDirectoryItemReader(
+                source, filter, directoryWorkQueueRegistry, jobExecutionId, worker, backpressureGovernor, meters,
+                progress, tracing, hotspots);
+        }
         
-        log.info("🔄 Creating NEW DirectoryQueueItemReader instance");
+        log.info("🔄 Creating NEW DirectoryQueueItemReader instance for origin [{}]", originName);
+        DirectoryQueueItemReader directoryReader;
+        if (isVirtualThreadMode()) {
+            // Lectura anticipada limitada a las conexiones LISTING del origen
+            int depth = batchProps.getListingPrefetchDepth() > 0
+                ? Math.min(batchProps.getListingPrefetchDepth(), source.getListingConcurrency())
+                : source.getListingConcurrency();
+            directoryReader = new DirectoryQueueItemReader(
+                source, filter, depth, virtualThreadExecutor("batch-list-" + originName + "-", depth),
+                spillingFrontier(originName), batchProps.getFrontier().getListingAttempts(), backpressureGovernor,
+                meters, progress, tracing, hotspots);
+        } else {
+            directoryReader = new DirectoryQueueItemReader(
+                source, filter, 0, null, spillingFrontier(originName), batchProps.getFrontier().getListingAttempts(),
+                backpressureGovernor, meters, progress, tracing, hotspots);
+        }
         
-        return new DirectoryQueueItemReader(
-            sftpTemplate, 
-            directoryDiscoveryService, 
-            sftpProps.getOrigin().getBaseDir()  // ✅ Pasar baseDir
+        SftpOrigin origin = sftpPoolRegistry.findOrigin(originName).orElse(null);
+        if (origin == null || origin.getRemoteFindLister() == null) {
+            return directoryReader;
+        }
+        return new RemoteFindItemReader(
+            origin.getName(),
+            origin.getRemoteFindLister(),
+            origin.getBaseDirs(),
+            filter,
+            directoryReader,
+            progress
         );
     }
 
-    @Bean
-    AsyncItemProcessor<SftpFileEntry, ArchivoMetadata> asyncMetadataProcessor() {
-        AsyncItemProcessor<SftpFileEntry, ArchivoMetadata> asyncProcessor = 
-            new AsyncItemProcessor<>(metadataExtractorProcessor);
-        asyncProcessor.setTaskExecutor(indexingTaskExecutor());
-        return asyncProcessor;
-    }
-
-    @Bean
-    AsyncItemWriter<ArchivoMetadata> asyncBulkWriter() {
-        return new AsyncItemWriter<>(bulkWriter);
+    /**
+     * Cola del crawl en streaming con batch.frontier.mode=spill, reanudando el
+     * checkpoint del reader si lo hay (null = frontera en memoria con
+     * discovery previo).
+     */
+    private Function<SpillingDirectoryQueue.Checkpoint, SpillingDirectoryQueue> spillingFrontier(String originName) {
+        BatchConfigProperties.Frontier frontier = batchProps.getFrontier();
+        if (frontier.getMode() != BatchConfigProperties.FrontierMode.SPILL) {
+            return null;
+        }
+        Path spillRoot = frontier.getSpillDirectory() == null || frontier.getSpillDirectory().isBlank()
+            ? Path.of(System.getProperty("java.io.tmpdir"), "dvsmart-frontier")
+            : Path.of(frontier.getSpillDirectory());
+        int segmentBytes = (int) Math.min(Integer.MAX_VALUE, Math.max(1, frontier.getSegmentSizeMb()) * 1024L * 1024L);
+        return checkpoint -> SpillingDirectoryQueue.create(spillRoot, originName, frontier.getMemoryEntries(),
+            segmentBytes, frontier.getMaxFreeSegments(), checkpoint);
     }
 
+    /**
+     * Step worker: indexa un único origen (el de su partición).
+     * 
+     * El chunk se transforma entero en el writer (MetadataChunkItemWriter),
+     * sin processor ni un Future por item; en CONCURRENT hay además varios
+     * workers por origen, cada uno en su hilo.
+     */
     @Bean
-    Step indexingStep() {
-        return new StepBuilder("indexingStep", jobRepository)
-                .<SftpFileEntry, Future<ArchivoMetadata>>chunk(props.getChunkSize())
-                .reader(directoryQueueReader())  // ✅ Spring inyectará nueva instancia
-                .processor(asyncMetadataProcessor())
-                .writer(asyncBulkWriter())
+    Step indexingWorkerStep() {
+        return new StepBuilder("indexingWorkerStep", jobRepository)
+                .<SftpFileEntry, SftpFileEntry>chunk(props.getChunkSize())
+                .reader(directoryQueueReader(null, null, null, null, null, null, null))  // ✅ Spring inyectará nueva instancia
+                .writer(metadataChunkWriter)
                 .faultTolerant()
                 .skipLimit(props.getSkipLimit())
                 .skip(RuntimeException.class)
@@ -137,11 +282,41 @@ public class BatchIndexFullConfig {
                 .build();
     }
 
+    /**
+     * Step manager: reparte los orígenes entre particiones concurrentes.
+     * 
+     * Cada origen avanza en su propio hilo con sus propios pools y límites y
+     * transforma y escribe sus chunks en ese hilo, así que ningún origen
+     * acapara el procesamiento.
+     * 
+     * Al terminar se liberan las colas de directorios de los workers CONCURRENT.
+     */
+    @Bean
+    Step indexingStep() {
+        OriginPartitioner partitioner = new OriginPartitioner(workersByOrigin());
+        return new StepBuilder("indexingStep", jobRepository)
+                .partitioner("indexingWorkerStep", partitioner)
+                .step(indexingWorkerStep())
+                .gridSize(partitioner.getPartitionCount())
+                .taskExecutor(originTaskExecutor())
+                .listener(new StepExecutionListener() {
+                    @Override
+                    public ExitStatus afterStep(StepExecution stepExecution) {
+                        directoryWorkQueueRegistry.releaseAll(stepExecution.getJobExecutionId());
+                        return null;
+                    }
+                })
+                .build();
+    }
+
     @Bean(name = "batchIndexFullJob")
     Job batchIndexFullJob() {
         return new JobBuilder("BATCH-INDEX-FULL", jobRepository)
                 .incrementer(new RunIdIncrementer())
                 .listener(auditListener)
+                .listener(progressListener)
+                .listener(flightRecordingListener)
+                .listener(spanTracingListener)
                 .start(indexingStep())
                 .build();
     }
@@ -0,0 +1,169 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.config;
+
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.IngestBatchCompletionPolicy;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.IngestRunRegistry;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener.FlightRecordingListener;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener.JobExecutionAuditListener;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener.JobProgressListener;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader.IngestStreamItemReader;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.writer.MetadataChunkItemWriter;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilterService;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.IngestRunIdleException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.parameters.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.skip.LimitCheckingExceptionHierarchySkipPolicy;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.batch.infrastructure.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import tools.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 16:55:09
+ * File: BatchIndexIngestConfig.java
+ */
+
+/**
+ * Configuración del Job de Ingesta Push (BATCH-INDEX-INGEST).
+ * 
+ * Flujo:
+ * 1. Un agente en el host recorre el árbol en local (mucho más rápido que SFTP)
+ * 2. Envía lotes NDJSON (opcionalmente gzip) a /api/batch/index/ingest/{runId}/batches
+ * 3. Reader: consume cada lote en streaming desde la propia petición HTTP
+ * 4. Writer: el mismo del job completo (metadata del chunk entero + bulk upsert)
+ * 5. Cada lote cierra un chunk y el agente recibe la respuesta cuando está escrito
+ * 
+ * El job se lanza en su propio hilo (ingestLaunchExecutor) porque vive
+ * mientras la ejecución de ingesta esté abierta.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class BatchIndexIngestConfig {
+
+    public static final String RUN_ID_PARAM = "ingestRunId";
+    public static final String ORIGIN_PARAM = "origin";
+
+    private final JobRepository jobRepository;
+    private final BatchConfigProperties props;
+    private final IngestRunRegistry ingestRunRegistry;
+    private final JsonMapper jsonMapper;
+    private final FileFilterService fileFilterService;
+    private final MetadataChunkItemWriter metadataChunkWriter;
+    private final JobExecutionAuditListener auditListener;
+    private final JobProgressListener progressListener;
+    private final FlightRecordingListener flightRecordingListener;
+
+    /**
+     * Hilos que ejecutan los jobs de ingesta (uno por ejecución abierta).
+     */
+    @Bean(name = "ingestLaunchExecutor")
+    TaskExecutor ingestLaunchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(props.getIngest().getMaxConcurrentRuns());
+        executor.setMaxPoolSize(props.getIngest().getMaxConcurrentRuns());
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("batch-ingest-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Reader con @StepScope: una instancia por ejecución de ingesta.
+     */
+    @Bean
+    @StepScope
+    IngestStreamItemReader ingestStreamReader(
+            @Value("#{jobParameters['" + RUN_ID_PARAM + "']}") String runId,
+            @Value("#{stepExecution.jobExecutionId}") Long jobExecutionId) {
+        
+        log.info("🔄 Creating NEW IngestStreamItemReader instance for run {}", runId);
+        return new IngestStreamItemReader(
+            ingestRunRegistry.get(runId),
+            fileFilterService.compile(null),
+            ingestRunRegistry,
+            jobExecutionId,
+            jsonMapper,
+            props.getIngest().getIdleTimeoutMillis()
+        );
+    }
+
+    /**
+     * Misma política que el job completo (RuntimeException hasta skip-limit),
+     * salvo la inactividad de la ejecución, que debe hacer fallar el job.
+     */
+    private SkipPolicy ingestSkipPolicy() {
+        SkipPolicy limited = new LimitCheckingExceptionHierarchySkipPolicy(
+            Set.of(RuntimeException.class), props.getSkipLimit());
+        return (throwable, skipCount) ->
+            !(throwable instanceof IngestRunIdleException) && limited.shouldSkip(throwable, skipCount);
+    }
+
+    /**
+     * Step de ingesta: el chunk se cierra al llegar a chunk-size o con el
+     * último registro de cada lote, y el reader (ChunkListener) responde al
+     * agente tras escribirlo.
+     * 
+     * El builder de ChunkOrientedStep no admite CompletionPolicy: un chunk
+     * solo termina con chunk-size o con el fin de los datos, así que se usa
+     * el builder por CompletionPolicy (el mismo transaction manager sin
+     * recursos que ChunkOrientedStep toma por defecto).
+     */
+    @Bean
+    @SuppressWarnings("removal")
+    Step ingestStep() {
+        IngestStreamItemReader reader = ingestStreamReader(null, null);  // ✅ Spring inyectará nueva instancia
+        return new StepBuilder("ingestStep", jobRepository)
+                .<SftpFileEntry, SftpFileEntry>chunk(
+                    new IngestBatchCompletionPolicy(props.getChunkSize(), reader::endsBatch),
+                    new ResourcelessTransactionManager())
+                .reader(reader)
+                .writer(metadataChunkWriter)
+                .faultTolerant()
+                .skipPolicy(ingestSkipPolicy())
+                .retryLimit(props.getRetryLimit())
+                .retry(IOException.class)
+                .build();
+    }
+
+    @Bean(name = "batchIndexIngestJob")
+    Job batchIndexIngestJob() {
+        return new JobBuilder("BATCH-INDEX-INGEST", jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .listener(auditListener)
+                .listener(progressListener)
+                .listener(flightRecordingListener)
+                .start(ingestStep())
+                .build();
+    }
+}
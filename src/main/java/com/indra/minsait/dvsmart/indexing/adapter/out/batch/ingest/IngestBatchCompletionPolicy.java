@@ -0,0 +1,52 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest;
+
+import org.springframework.batch.infrastructure.repeat.RepeatContext;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+import org.springframework.batch.infrastructure.repeat.policy.SimpleCompletionPolicy;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 17:04:37
+ * File: IngestBatchCompletionPolicy.java
+ */
+
+/**
+ * Política de chunk de la ingesta push: cierra el chunk al llegar a
+ * chunkSize o con el último registro de un lote.
+ * 
+ * El agente solo recibe la respuesta de un lote cuando sus registros están
+ * escritos. Si el chunk siguiera abierto esperando al lote siguiente, un
+ * agente que envía los lotes de uno en uno no lo mandaría nunca y la
+ * ejecución fallaría por inactividad.
+ */
+public class IngestBatchCompletionPolicy extends SimpleCompletionPolicy {
+
+    private final BooleanSupplier batchBoundary;
+
+    /**
+     * @param batchBoundary true si el último registro leído cierra su lote
+     */
+    public IngestBatchCompletionPolicy(int chunkSize, BooleanSupplier batchBoundary) {
+        super(chunkSize);
+        this.batchBoundary = batchBoundary;
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context, RepeatStatus result) {
+        return super.isComplete(context, result) || batchBoundary.getAsBoolean();
+    }
+}
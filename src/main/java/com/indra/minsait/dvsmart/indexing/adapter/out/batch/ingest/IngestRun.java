@@ -0,0 +1,217 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.IngestRunStatus;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.IngestRunIdleException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import java.io.InputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 16:14:02
+ * File: IngestRun.java
+ */
+
+/**
+ * Punto de encuentro entre los hilos HTTP del agente y el reader del job.
+ * 
+ * Cada lote es el InputStream de una petición HTTP aún abierta: el hilo HTTP
+ * lo encola y espera; el reader lo consume registro a registro al ritmo del
+ * procesamiento. No se bufferiza el cuerpo: si el job va lento, el socket
+ * deja de leerse y el control de flujo TCP frena al agente (backpressure).
+ */
+@Slf4j
+public class IngestRun {
+
+    /**
+     * Resultado de un lote consumido.
+     */
+    public record BatchResult(long accepted, long rejected) {
+    }
+
+    /**
+     * Lote pendiente: stream de la petición + futuro que libera al hilo HTTP.
+     */
+    public record Batch(InputStream body, CompletableFuture<BatchResult> done) {
+    }
+
+    @Getter
+    private final String runId;
+    @Getter
+    private final String origin;
+    
+    private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+    private final CompletableFuture<Long> started = new CompletableFuture<>();
+    
+    private final AtomicLong batchesReceived = new AtomicLong();
+    private final AtomicLong recordsAccepted = new AtomicLong();
+    private final AtomicLong recordsRejected = new AtomicLong();
+    
+    private volatile boolean completeRequested = false;
+    private volatile boolean closed = false;
+    private volatile Throwable failure;
+
+    public IngestRun(String runId, String origin) {
+        this.runId = runId;
+        this.origin = origin;
+    }
+
+    // ========================================
+    // LADO HTTP (agente)
+    // ========================================
+
+    /**
+     * Espera a que el job arranque el step y retorna su jobExecutionId.
+     */
+    public Long awaitStarted(long timeoutMillis) {
+        try {
+            return started.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Ingest job did not start within " + timeoutMillis + " ms", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Ingest job failed to start: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while starting ingest job", e);
+        }
+    }
+
+    /**
+     * Encola un lote y bloquea hasta que sus registros están escritos.
+     */
+    public BatchResult submit(InputStream body) {
+        if (completeRequested || closed) {
+            throw new IllegalArgumentException("Ingest run is not accepting batches: " + runId);
+        }
+        
+        Batch batch = new Batch(body, new CompletableFuture<>());
+        batchesReceived.incrementAndGet();
+        batches.add(batch);
+        
+        // Cierre concurrente: el reader ya no drenará la cola
+        if (closed && batches.remove(batch)) {
+            batch.done().completeExceptionally(new IllegalStateException("Ingest run closed: " + runId));
+        }
+        
+        try {
+            return batch.done().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new RuntimeException("Ingest batch failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for ingest batch", e);
+        }
+    }
+
+    /**
+     * Pide el cierre: el reader termina cuando la cola queda vacía.
+     */
+    public void requestComplete() {
+        completeRequested = true;
+    }
+
+    // ========================================
+    // LADO JOB (reader)
+    // ========================================
+
+    /**
+     * El step ha arrancado: libera a quien espera en awaitStarted.
+     */
+    public void markStarted(Long jobExecutionId) {
+        started.complete(jobExecutionId);
+    }
+
+    /**
+     * El lanzamiento del job falló antes de abrir el reader.
+     */
+    public void failStart(Throwable cause) {
+        failure = cause;
+        started.completeExceptionally(cause);
+    }
+
+    /**
+     * Siguiente lote a consumir, o null si la ejecución se ha completado.
+     * 
+     * @throws IngestRunIdleException si no llega ningún lote en idleTimeoutMillis
+     */
+    public Batch nextBatch(long idleTimeoutMillis) throws InterruptedException {
+        long idleSince = System.currentTimeMillis();
+        
+        while (true) {
+            Batch batch = batches.poll(1, TimeUnit.SECONDS);
+            if (batch != null) {
+                return batch;
+            }
+            if (completeRequested && batches.isEmpty()) {
+                return null;
+            }
+            if (idleTimeoutMillis > 0 && System.currentTimeMillis() - idleSince > idleTimeoutMillis) {
+                throw new IngestRunIdleException(
+                    "Ingest run " + runId + " idle for more than " + idleTimeoutMillis + " ms");
+            }
+        }
+    }
+
+    /**
+     * Lote escrito: acumula contadores y libera al hilo HTTP.
+     */
+    public void completeBatch(Batch batch, BatchResult result) {
+        recordsAccepted.addAndGet(result.accepted());
+        recordsRejected.addAndGet(result.rejected());
+        batch.done().complete(result);
+    }
+
+    /**
+     * Cierra la ejecución y libera con error los lotes que no se consumirán.
+     */
+    public void close(Throwable cause) {
+        closed = true;
+        if (cause != null) {
+            failure = cause;
+        }
+        started.completeExceptionally(new IllegalStateException("Ingest run closed: " + runId));
+        
+        Batch pending;
+        while ((pending = batches.poll()) != null) {
+            pending.done().completeExceptionally(failure != null
+                ? failure
+                : new IllegalStateException("Ingest run closed: " + runId));
+        }
+    }
+
+    /**
+     * Instantánea del estado de la ejecución.
+     */
+    public IngestRunStatus toStatus() {
+        return IngestRunStatus.builder()
+                .runId(runId)
+                .origin(origin)
+                .jobExecutionId(started.isDone() && !started.isCompletedExceptionally() ? started.join() : null)
+                .status(closed ? "CLOSED" : completeRequested ? "COMPLETING" : "OPEN")
+                .batchesReceived(batchesReceived.get())
+                .recordsAccepted(recordsAccepted.get())
+                .recordsRejected(recordsRejected.get())
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 16:21:37
+ * File: IngestRunRegistry.java
+ */
+
+/**
+ * Ejecuciones de ingesta abiertas, por runId.
+ */
+@Slf4j
+@Component
+public class IngestRunRegistry {
+
+    private final Map<String, IngestRun> runs = new ConcurrentHashMap<>();
+
+    /**
+     * Registra una nueva ejecución.
+     */
+    public IngestRun open(String runId, String origin) {
+        IngestRun run = new IngestRun(runId, origin);
+        if (runs.putIfAbsent(runId, run) != null) {
+            throw new IllegalStateException("Duplicated ingest run: " + runId);
+        }
+        log.info("📥 Ingest run opened: runId={}, origin={}", runId, origin);
+        return run;
+    }
+
+    /**
+     * Retorna una ejecución abierta.
+     */
+    public IngestRun get(String runId) {
+        IngestRun run = runs.get(runId);
+        if (run == null) {
+            throw new IllegalArgumentException("Unknown or closed ingest run: " + runId);
+        }
+        return run;
+    }
+
+    /**
+     * Elimina una ejecución terminada.
+     */
+    public void remove(String runId) {
+        if (runs.remove(runId) != null) {
+            log.info("📥 Ingest run removed: runId={}", runId);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 16:30:55
+ * File: NdjsonFileRecordParser.java
+ */
+
+/**
+ * Parser incremental (pull) de un lote NDJSON de la ingesta push.
+ * 
+ * Formato, un objeto por línea:
+ * 
+ *   {"path":"/data/files/doc.pdf","size":1024,"mtime":1760870400000}
+ * 
+ * - path: absoluto, con el mismo formato que vería el servidor SFTP del origen
+ * - size: bytes (opcional, 0 por defecto)
+ * - mtime: epoch en milisegundos (opcional, 0 por defecto)
+ * 
+ * Se lee el stream por bloques y solo se mantiene en memoria la línea en
+ * curso (máximo MAX_LINE_BYTES). Las líneas inválidas se cuentan como
+ * rechazadas y se descartan sin abortar el lote.
+ */
+@Slf4j
+public class NdjsonFileRecordParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+
+    /**
+     * Registro tal y como lo envía el agente.
+     */
+    public record IngestFileRecord(String path, Long size, Long mtime) {
+    }
+
+    private final InputStream in;
+    private final String origin;
+    private final JsonMapper jsonMapper;
+    
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private boolean eof = false;
+    
+    private final byte[] line = new byte[MAX_LINE_BYTES];
+    private int lineLength = 0;
+    private boolean lineOverflow = false;
+    
+    @Getter
+    private long accepted = 0;
+    @Getter
+    private long rejected = 0;
+
+    public NdjsonFileRecordParser(InputStream in, String origin, JsonMapper jsonMapper) {
+        this.in = in;
+        this.origin = origin;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Siguiente registro válido del lote, o null al final del stream.
+     */
+    public SftpFileEntry next() throws IOException {
+        while (readLine()) {
+            if (lineOverflow) {
+                rejected++;
+                log.warn("⚠️  Ingest record rejected [{}]: line exceeds {} bytes", origin, MAX_LINE_BYTES);
+                continue;
+            }
+            if (isBlankLine()) {
+                continue;
+            }
+            
+            SftpFileEntry entry = parseLine();
+            if (entry != null) {
+                accepted++;
+                return entry;
+            }
+            rejected++;
+        }
+        return null;
+    }
+
+    /**
+     * Carga en 'line' la siguiente línea. Retorna false al final del stream.
+     */
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        lineOverflow = false;
+        boolean any = false;
+        
+        while (true) {
+            if (position == limit) {
+                if (eof) {
+                    return any;
+                }
+                limit = in.read(buffer);
+                position = 0;
+                if (limit == -1) {
+                    limit = 0;
+                    eof = true;
+                    return any;
+                }
+            }
+            
+            any = true;
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            appendToLine(start, position - start);
+            
+            if (position < limit) {
+                position++;  // consumir '\n'
+                return true;
+            }
+        }
+    }
+
+    private void appendToLine(int start, int length) {
+        if (lineOverflow || length == 0) {
+            return;
+        }
+        if (lineLength + length > MAX_LINE_BYTES) {
+            lineOverflow = true;
+            return;
+        }
+        System.arraycopy(buffer, start, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private boolean isBlankLine() {
+        for (int i = 0; i < lineLength; i++) {
+            if (!Character.isWhitespace(line[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convierte la línea actual en SftpFileEntry, o null si no es válida.
+     */
+    private SftpFileEntry parseLine() {
+        IngestFileRecord record;
+        try {
+            record = jsonMapper.readValue(line, 0, lineLength, IngestFileRecord.class);
+        } catch (JacksonException e) {
+            log.warn("⚠️  Ingest record rejected [{}]: {}", origin, e.getOriginalMessage());
+            return null;
+        }
+        
+        String path = record.path();
+        if (path == null || !path.startsWith("/") || path.endsWith("/")) {
+            log.warn("⚠️  Ingest record rejected [{}]: invalid path '{}'", origin, path);
+            return null;
+        }
+        long size = record.size() != null ? record.size() : 0L;
+        if (size < 0) {
+            log.warn("⚠️  Ingest record rejected [{}]: negative size for {}", origin, path);
+            return null;
+        }
+        
+        return SftpFileEntry.builder()
+                .origin(origin)
+                .fullPath(path)
+                .filename(path.substring(path.lastIndexOf('/') + 1))
+                .size(size)
+                .modificationTime(record.mtime() != null ? record.mtime() : 0L)
+                .isDirectory(false)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.jfr.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.listener.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 09:52:25
+ * File: FlightRecordingListener.java
+ */
+
+/**
+ * Detiene al terminar el job las grabaciones JFR ligadas a su ejecución.
+ */
+@Component
+@RequiredArgsConstructor
+public class FlightRecordingListener implements JobExecutionListener {
+    
+    private final FlightRecordingService flightRecordingService;
+    
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        flightRecordingService.stopForJob(jobExecution.getId());
+    }
+}
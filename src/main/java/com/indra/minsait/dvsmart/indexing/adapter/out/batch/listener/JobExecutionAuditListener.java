@@ -14,6 +14,8 @@
 package com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener;
 
 import com.indra.minsait.dvsmart.indexing.domain.service.JobAuditService;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotRegistry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.timeline.ThroughputTimelineRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.job.JobExecution;
@@ -30,8 +32,8 @@ import org.springframework.stereotype.Component;
  * Listener para auditoría de ejecuciones de jobs.
  * 
  * Se ejecuta:
- * - beforeJob: Al inicio del job (crea registro)
- * - afterJob: Al finalizar el job (actualiza registro)
+ * - beforeJob: Al inicio del job (crea registro, abre el tracker de hot-spots y el timeline)
+ * - afterJob: Al finalizar el job (actualiza registro con el informe de hot-spots y el timeline)
  */
 @Slf4j
 @Component
@@ -39,6 +41,8 @@ import org.springframework.stereotype.Component;
 public class JobExecutionAuditListener implements JobExecutionListener {
     
     private final JobAuditService auditService;
+    private final DirectoryHotspotRegistry hotspotRegistry;
+    private final ThroughputTimelineRegistry timelineRegistry;
     
     @Override
     public void beforeJob(JobExecution jobExecution) {
@@ -49,6 +53,8 @@ public class JobExecutionAuditListener implements JobExecutionListener {
         log.info("════════════════════════════════════════════════════════");
         
         auditService.createAuditRecord(jobExecution);
+        hotspotRegistry.start(jobExecution.getId());
+        timelineRegistry.start(jobExecution.getId());
     }
     
     @Override
@@ -61,6 +67,7 @@ public class JobExecutionAuditListener implements JobExecutionListener {
         log.info("   Exit Code: {}", jobExecution.getExitStatus().getExitCode());
         log.info("════════════════════════════════════════════════════════");
         
-        auditService.updateAuditRecord(jobExecution);
+        auditService.updateAuditRecord(jobExecution, hotspotRegistry.finish(jobExecution.getId()),
+            timelineRegistry.finish(jobExecution.getId()));
     }
 }
\ No newline at end of file
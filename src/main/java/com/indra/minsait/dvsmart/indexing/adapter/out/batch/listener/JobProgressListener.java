@@ -0,0 +1,47 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.listener.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 00:03:27
+ * File: JobProgressListener.java
+ */
+
+/**
+ * Abre y cierra los contadores de progreso en vivo de cada ejecución
+ * (JobProgressRegistry), sin pasar por las tablas de Spring Batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobProgressListener implements JobExecutionListener {
+    
+    private final JobProgressRegistry progressRegistry;
+    
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        progressRegistry.start(jobExecution.getId(), jobExecution.getJobInstance().getJobName());
+    }
+    
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        progressRegistry.finish(jobExecution.getId(), jobExecution.getStatus().name());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.listener;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.SpanTracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.listener.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:58:40
+ * File: SpanTracingListener.java
+ */
+
+/**
+ * Abre y cierra la traza por directorios de cada ejecución (SpanTracer): al
+ * terminar el job se exporta el span raíz y los directorios sin terminar.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpanTracingListener implements JobExecutionListener {
+    
+    private final SpanTracer spanTracer;
+    
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        spanTracer.start(jobExecution.getId(), jobExecution.getJobInstance().getJobName());
+    }
+    
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        spanTracer.finish(jobExecution.getId(), jobExecution.getStatus().name());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.Partitioner;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 12:14:37
+ * File: OriginPartitioner.java
+ */
+
+/**
+ * Partitioner que genera una partición por origen SFTP.
+ * 
+ * Cada partición se ejecuta como un step worker independiente, con su propio
+ * reader, sus propios pools y sus propias métricas (readCount, writeCount...),
+ * lo que permite calcular el throughput por origen en la auditoría.
+ * 
+ * En modo de chunks concurrentes un origen se reparte en varias particiones
+ * worker (WORKER_KEY / WORKERS_KEY) que comparten su cola de directorios.
+ */
+@Slf4j
+public class OriginPartitioner implements Partitioner {
+
+    public static final String ORIGIN_KEY = "origin";
+    public static final String WORKER_KEY = "worker";
+    public static final String WORKERS_KEY = "workers";
+    private static final String PARTITION_PREFIX = "origin-";
+
+    private final Map<String, Integer> workersByOrigin;
+
+    public OriginPartitioner(List<String> originNames) {
+        this(singleWorker(originNames));
+    }
+
+    /**
+     * @param workersByOrigin Particiones worker por origen, en orden de configuración
+     */
+    public OriginPartitioner(Map<String, Integer> workersByOrigin) {
+        this.workersByOrigin = new LinkedHashMap<>(workersByOrigin);
+    }
+
+    private static Map<String, Integer> singleWorker(List<String> originNames) {
+        Map<String, Integer> workers = new LinkedHashMap<>();
+        originNames.forEach(name -> workers.put(name, 1));
+        return workers;
+    }
+
+    /**
+     * Número total de particiones.
+     */
+    public int getPartitionCount() {
+        return workersByOrigin.values().stream().mapToInt(workers -> Math.max(1, workers)).sum();
+    }
+
+    /**
+     * El gridSize se ignora: siempre una partición por origen (o por worker).
+     */
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        
+        workersByOrigin.forEach((originName, configuredWorkers) -> {
+            int workers = Math.max(1, configuredWorkers);
+            for (int worker = 0; worker < workers; worker++) {
+                ExecutionContext context = new ExecutionContext();
+                context.putString(ORIGIN_KEY, originName);
+                context.putInt(WORKER_KEY, worker);
+                context.putInt(WORKERS_KEY, workers);
+                partitions.put(workers == 1
+                    ? PARTITION_PREFIX + originName
+                    : PARTITION_PREFIX + originName + "-w" + worker, context);
+            }
+        });
+        
+        log.info("🧩 Created {} origin partitions: {}", partitions.size(), partitions.keySet());
+        return partitions;
+    }
+}
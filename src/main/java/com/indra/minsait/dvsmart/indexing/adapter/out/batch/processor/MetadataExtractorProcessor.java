@@ -16,10 +16,13 @@ package com.indra.minsait.dvsmart.indexing.adapter.out.batch.processor;
 import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
 import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
 import com.indra.minsait.dvsmart.indexing.domain.service.FileMetadataService;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.IndexingMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.batch.infrastructure.item.ItemProcessor;
 import org.springframework.stereotype.Component;
@@ -35,9 +38,10 @@ import org.springframework.stereotype.Component;
  * 
  * Responsabilidades:
  * - Filtrar directorios
- * - Filtrar archivos por extensión (opcional)
- * - Validar tamaños (opcional)
  * - Delegar extracción de metadata al servicio de dominio
+ * 
+ * Los filtros de archivos (ocultos, temporales, tamaños...) los aplica el
+ * rule set del job (FileFilter) al listar, antes de crear el SftpFileEntry.
  */
 @Slf4j
 @Component
@@ -45,44 +49,16 @@ import org.springframework.stereotype.Component;
 public class MetadataExtractorProcessor implements ItemProcessor<SftpFileEntry, ArchivoMetadata> {
 
     private final FileMetadataService metadataService;
+    private final IndexingMetrics indexingMetrics;
     
-    // Configuración opcional de filtros
-    private static final long MIN_FILE_SIZE = 0;           // 0 bytes = sin filtro
-    private static final long MAX_FILE_SIZE = Long.MAX_VALUE; // Sin límite
-
     @Override
     public ArchivoMetadata process(SftpFileEntry entry) throws Exception {
         
-        // Filtro 1: Skip nulls
-        if (entry == null) {
-            return null;
-        }
-        
-        // Filtro 2: Skip directorios
-        if (entry.isDirectory()) {
-            log.trace("Skipping directory: {}", entry.getFullPath());
-            return null;
-        }
-        
-        // Filtro 3: Skip archivos ocultos
-        if (entry.getFilename().startsWith(".")) {
-            log.trace("Skipping hidden file: {}", entry.getFilename());
-            return null;
-        }
-        
-        // Filtro 4: Skip archivos temporales
-        if (isTemporaryFile(entry.getFilename())) {
-            log.trace("Skipping temporary file: {}", entry.getFilename());
-            return null;
-        }
-        
-        // Filtro 5: Validar tamaño
-        if (entry.getSize() < MIN_FILE_SIZE || entry.getSize() > MAX_FILE_SIZE) {
-            log.warn("Skipping file with invalid size: {} ({} bytes)", 
-                     entry.getFullPath(), entry.getSize());
+        if (!accepts(entry)) {
             return null;
         }
         
+        long start = System.nanoTime();
         // ✅ NUEVO: Capturar errores y retornar metadata con estado FAILED
         try {
             ArchivoMetadata metadata = metadataService.toMetadata(entry);
@@ -94,9 +70,54 @@ public class MetadataExtractorProcessor implements ItemProcessor<SftpFileEntry,
             
             // ✅ CAMBIO: En lugar de lanzar excepción, retornar metadata con error
             return createFailedMetadata(entry, e);
+        } finally {
+            indexingMetrics.current().recordItemProcessing(System.nanoTime() - start);
         }
     }
 
+    /**
+     * Procesa un chunk (o segmento) completo en una sola llamada, con un
+     * ChunkConverter reutilizado entre archivos. Mismos filtros y mismo
+     * tratamiento de errores que process(); los archivos filtrados no
+     * aparecen en el resultado.
+     */
+    public List<ArchivoMetadata> processChunk(List<? extends SftpFileEntry> entries) {
+        FileMetadataService.ChunkConverter converter = metadataService.newChunkConverter();
+        List<ArchivoMetadata> result = new ArrayList<>(entries.size());
+        
+        for (SftpFileEntry entry : entries) {
+            if (!accepts(entry)) {
+                continue;
+            }
+            try {
+                result.add(converter.toMetadata(entry));
+            } catch (Exception e) {
+                log.error("Error processing file: {}", entry.getFullPath(), e);
+                result.add(createFailedMetadata(entry, e));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Entradas indexables (los filtros del rule set ya se aplicaron al listar).
+     */
+    private boolean accepts(SftpFileEntry entry) {
+        
+        // Filtro 1: Skip nulls
+        if (entry == null) {
+            return false;
+        }
+        
+        // Filtro 2: Skip directorios
+        if (entry.isDirectory()) {
+            log.trace("Skipping directory: {}", entry.getFullPath());
+            return false;
+        }
+        
+        return true;
+    }
+
     /**
      * ✅ NUEVO: Crea metadata con estado FAILED cuando hay error
      */
@@ -104,7 +125,7 @@ public class MetadataExtractorProcessor implements ItemProcessor<SftpFileEntry,
         
         String idUnico;
         try {
-            idUnico = metadataService.generateIdUnico(entry.getFullPath());
+            idUnico = metadataService.generateIdUnico(entry.getOrigin(), entry.getFullPath());
         } catch (Exception e) {
             // Fallback: usar hash simple del path
             idUnico = String.valueOf(entry.getFullPath().hashCode());
@@ -122,6 +143,7 @@ public class MetadataExtractorProcessor implements ItemProcessor<SftpFileEntry,
         
         return ArchivoMetadata.builder()
                 .idUnico(idUnico)
+                .sourceOrigin(entry.getOrigin())
                 .sourcePath(entry.getFullPath())
                 .fileName(entry.getFilename())
                 .extension(extractExtension(entry.getFilename()))
@@ -149,16 +171,4 @@ public class MetadataExtractorProcessor implements ItemProcessor<SftpFileEntry,
             return "";
         }
     }
-    
-    /**
-     * Verifica si es un archivo temporal.
-     */
-    private boolean isTemporaryFile(String filename) {
-        String lower = filename.toLowerCase();
-        return lower.endsWith(".tmp") 
-            || lower.endsWith(".temp")
-            || lower.endsWith(".bak")
-            || lower.endsWith("~")
-            || lower.startsWith("~$");  // MS Office temp files
-    }
 }
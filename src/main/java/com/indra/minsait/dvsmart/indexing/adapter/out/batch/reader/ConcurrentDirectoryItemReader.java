@@ -0,0 +1,277 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import com.indra.minsait.dvsmart.indexing.infrastructure.jfr.DirectoryListingEvent;
+import com.indra.minsait.dvsmart.indexing.infrastructure.memory.MemoryBackpressureGovernor;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.StepMeters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressCounters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotTracker;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.DirectoryTrace;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.JobTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 18:15:27
+ * File: ConcurrentDirectoryItemReader.java
+ */
+
+/**
+ * Reader de un worker en modo de chunks concurrentes.
+ * 
+ * Varios workers del mismo origen (particiones) leen de una única
+ * DirectoryWorkQueue: cada uno reclama directorios enteros, los lista y
+ * entrega sus archivos a sus propios chunks, que escribe en su propio bulk.
+ * 
+ * Checkpoint por worker: un directorio se marca completado en el update()
+ * del chunk que escribe su último archivo (o del siguiente), y el contexto
+ * del worker guarda el low-watermark de la cola. En un restart el worker
+ * reanuda desde ese punto en lugar de repetir el discovery completo.
+ * 
+ * La frontera de progreso en vivo es la cola compartida: la registra el
+ * primer worker y se descarta al cerrar el job.
+ * 
+ * Con trazado activo cada listado puede abrir la traza de su directorio
+ * (JobTrace.sampleDirectory), que completan los chunks que lo escriben.
+ * 
+ * Los listados (y sus fallos) alimentan los rankings de hot-spots de la
+ * ejecución (DirectoryHotspotTracker). Un directorio cuyo listado falla y
+ * la política de skip descarta cuenta como completado: si no, el
+ * low-watermark no pasaría de él. Queda en la lista de fallos de hot-spots.
+ */
+@Slf4j
+public class ConcurrentDirectoryItemReader implements ItemStreamReader<SftpFileEntry> {
+
+    private static final String COMPLETED_KEY = "completedDirectories";
+    private static final String DISCOVERED_KEY = "discoveredDirectories";
+    private static final String DIGEST_KEY = "discoveredDirectoriesDigest";
+
+    private final FileSourcePort source;
+    private final FileFilter filter;
+    private final DirectoryWorkQueueRegistry queueRegistry;
+    private final Long jobExecutionId;
+    private final int worker;
+    private final MemoryBackpressureGovernor governor;
+    private final StepMeters meters;
+    private final JobProgressCounters progress;
+    private final JobTrace tracing;
+    private final DirectoryHotspotTracker hotspots;
+    
+    private DirectoryWorkQueue workQueue;
+    private int resumeFrom;
+    private int expectedDirectories;
+    private String expectedDigest;
+    
+    private final Queue<SftpFileEntry> currentDirectoryFiles = new ArrayDeque<>();
+    private int currentIndex = -1;
+    private int failedIndex = -1;
+    private final List<Integer> finishedDirectories = new ArrayList<>();
+    
+    private int totalFilesRead = 0;
+    private int directoriesProcessed = 0;
+
+    public ConcurrentDirectoryItemReader(
+            FileSourcePort source,
+            FileFilter filter,
+            DirectoryWorkQueueRegistry queueRegistry,
+            Long jobExecutionId,
+            int worker,
+            MemoryBackpressureGovernor governor,
+            StepMeters meters,
+            JobProgressCounters progress,
+            JobTrace tracing,
+            DirectoryHotspotTracker hotspots) {
+        this.source = source;
+        this.filter = filter;
+        this.queueRegistry = queueRegistry;
+        this.jobExecutionId = jobExecutionId;
+        this.worker = worker;
+        this.governor = governor;
+        this.meters = meters;
+        this.progress = progress;
+        this.tracing = tracing;
+        this.hotspots = hotspots;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        // Restart: el contexto conserva el checkpoint de la ejecución anterior
+        this.resumeFrom = executionContext.getInt(COMPLETED_KEY, 0);
+        this.expectedDirectories = executionContext.getInt(DISCOVERED_KEY, 0);
+        this.expectedDigest = executionContext.containsKey(DIGEST_KEY) ? executionContext.getString(DIGEST_KEY) : null;
+        
+        log.info("========================================");
+        log.info("🔄 OPEN: ConcurrentDirectoryItemReader [{}] worker {}", source.getOriginName(), worker);
+        if (resumeFrom > 0) {
+            log.info("Resuming after {} completed directories", resumeFrom);
+        }
+        log.info("========================================");
+        
+        this.workQueue = queueRegistry.acquire(jobExecutionId, source.getOriginName());
+        clearCurrentDirectoryFiles();
+        this.currentIndex = -1;
+        this.failedIndex = -1;
+        this.finishedDirectories.clear();
+        this.totalFilesRead = 0;
+        this.directoriesProcessed = 0;
+        
+        if (meters != null) {
+            DirectoryWorkQueue queue = workQueue;
+            meters.gauge("frontier.depth", "Directorios pendientes de listar", queue::remaining);
+            meters.gauge("buffered.files", "Archivos listados pendientes de leer", currentDirectoryFiles::size);
+        }
+        if (progress != null) {
+            progress.registerFrontier(source.getOriginName(), workQueue::remaining);
+        }
+    }
+
+    /**
+     * Llamado al confirmar cada chunk de ESTE worker: sus directorios
+     * terminados ya están escritos.
+     */
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (!finishedDirectories.isEmpty()) {
+            workQueue.complete(finishedDirectories);
+            finishedDirectories.clear();
+        }
+        if (workQueue.size() > 0) {
+            executionContext.putInt(COMPLETED_KEY, workQueue.getCompletedPrefix());
+            executionContext.putInt(DISCOVERED_KEY, workQueue.size());
+            executionContext.putString(DIGEST_KEY, workQueue.getOrderDigest());
+        }
+        executionContext.putInt("directoriesProcessed", directoriesProcessed);
+        executionContext.putInt("totalFilesRead", totalFilesRead);
+    }
+
+    @Override
+    public void close() {
+        log.info("========================================");
+        log.info("🛑 CLOSE: ConcurrentDirectoryItemReader [{}] worker {}", source.getOriginName(), worker);
+        log.info("Final stats: {} files, {} directories", totalFilesRead, directoriesProcessed);
+        log.info("========================================");
+        
+        clearCurrentDirectoryFiles();
+        if (meters != null) {
+            meters.removeGauges();
+        }
+    }
+
+    @Override
+    public SftpFileEntry read() throws Exception {
+        workQueue.ensureDiscovered(source, filter, resumeFrom, expectedDirectories, expectedDigest);
+        
+        // El step sigue leyendo: la política de skip ha descartado el listado fallido
+        if (failedIndex >= 0) {
+            finishedDirectories.add(failedIndex);
+            failedIndex = -1;
+        }
+        
+        while (true) {
+            SftpFileEntry next = currentDirectoryFiles.poll();
+            if (next != null) {
+                totalFilesRead++;
+                if (governor != null) {
+                    governor.itemsReleased(1);
+                }
+                if (progress != null) {
+                    progress.filesRead(1);
+                }
+                return next;
+            }
+            
+            // Directorio actual agotado: se completa con el próximo chunk confirmado
+            if (currentIndex >= 0) {
+                finishedDirectories.add(currentIndex);
+                currentIndex = -1;
+            }
+            
+            if (governor != null) {
+                governor.awaitListingCapacity(source.getOriginName());
+            }
+            DirectoryWorkQueue.Claim claim = workQueue.claim();
+            if (claim == null) {
+                log.info("✅ Worker {} [{}] finished: {} files, {} directories",
+                         worker, source.getOriginName(), totalFilesRead, directoriesProcessed);
+                return null;
+            }
+            
+            loadDirectoryFiles(claim);
+            directoriesProcessed++;
+            if (progress != null) {
+                progress.directoryDone();
+            }
+            
+            if (directoriesProcessed % 100 == 0) {
+                log.info("📊 Progress [{}] worker {}: {} directories processed, {} files indexed",
+                         source.getOriginName(), worker, directoriesProcessed, totalFilesRead);
+            }
+        }
+    }
+
+    private void clearCurrentDirectoryFiles() {
+        if (governor != null) {
+            governor.itemsReleased(currentDirectoryFiles.size());
+        }
+        currentDirectoryFiles.clear();
+    }
+
+    private void loadDirectoryFiles(DirectoryWorkQueue.Claim claim) {
+        try {
+            log.debug("📂 Scanning directory: {}", claim.directory());
+            DirectoryTrace trace = tracing != null
+                ? tracing.sampleDirectory(source.getOriginName(), claim.directory())
+                : null;
+            DirectoryListingEvent event = new DirectoryListingEvent();
+            event.begin();
+            long start = System.nanoTime();
+            List<SftpFileEntry> files = source.listFiles(claim.directory(), filter);
+            long end = System.nanoTime();
+            event.complete(source.getOriginName(), claim.directory(), files.size(), 0);
+            if (trace != null) {
+                trace.listed(start, end, files.size(), 0);
+            }
+            if (meters != null) {
+                meters.recordListing(end - start, files.size());
+            }
+            if (hotspots != null) {
+                hotspots.recordListing(source.getOriginName(), claim.directory(), end - start, files.size(), 0);
+            }
+            currentDirectoryFiles.addAll(files);
+            if (governor != null) {
+                governor.itemsBuffered(files.size());
+            }
+            currentIndex = claim.index();
+        } catch (Exception e) {
+            if (hotspots != null) {
+                hotspots.recordListingFailure(source.getOriginName(), claim.directory(), e);
+            }
+            // Se completa en la siguiente lectura, solo si el fallo se salta
+            failedIndex = claim.index();
+            log.error("❌ Error loading directory [{}]: {}", source.getOriginName(), claim.directory(), e);
+            throw new RuntimeException(
+                "Failed to load directory [" + source.getOriginName() + "]: " + claim.directory(), e);
+        }
+    }
+}
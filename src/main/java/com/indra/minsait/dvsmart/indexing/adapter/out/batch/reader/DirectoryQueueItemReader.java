@@ -13,16 +13,38 @@
  */
 package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
 
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryListing;
 import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
-import com.indra.minsait.dvsmart.indexing.domain.service.DirectoryDiscoveryService;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.DirectoryListingExhaustedException;
+import com.indra.minsait.dvsmart.indexing.infrastructure.jfr.DirectoryListingEvent;
+import com.indra.minsait.dvsmart.indexing.infrastructure.memory.MemoryBackpressureGovernor;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.StepMeters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressCounters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotTracker;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.DirectoryTrace;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.JobTrace;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.sshd.sftp.client.SftpClient;
 import org.springframework.batch.infrastructure.item.ExecutionContext;
-import org.springframework.batch.infrastructure.item.ItemReader;
-import org.springframework.batch.infrastructure.item.ItemStream;
-import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * Author: hahuaranga@indracompany.com
@@ -36,72 +58,230 @@ import java.util.Queue;
  * ESTRATEGIA HYBRID STREAMING:
  * - Primera llamada a read(): Ejecuta discovery completo de directorios
  * - Siguientes llamadas: Procesa archivos directorio por directorio
- * - Memoria: O(D) donde D = archivos en el directorio actual
+ * - Memoria: O(D) donde D = archivos en el directorio actual, más la
+ *   frontera compacta de directorios (DirectoryFrontier: prefijos
+ *   compartidos, el path de cada directorio se materializa al listarlo)
  * 
  * Ventajas:
  * - Discovery se ejecuta solo cuando se lanza el job (no al arrancar la app)
- * - Thread-safe con SftpRemoteFileTemplate
- * - Sesiones SFTP del pool lazy se usan eficientemente
+ * - Independiente del origen: SFTP o filesystem local vía FileSourcePort
+ * 
+ * Lectura anticipada (modo VIRTUAL): con prefetchDepth &gt; 0 se mantienen
+ * hasta prefetchDepth listados en curso sobre el executor de listado,
+ * consumidos en el orden de la cola. El reader sigue siendo secuencial; solo
+ * se solapa la latencia de red de los siguientes directorios.
+ * 
+ * Frontera en disco (batch.frontier.mode=spill): sin discovery previo; el
+ * reader hace el crawl en streaming con una SpillingDirectoryQueue FIFO
+ * (cabeza acotada en memoria, desbordamiento a segmentos mapeados). Cada
+ * directorio se lista una sola vez (archivos + subdirectorios) y sus
+ * subdirectorios se encolan: el heap no depende del tamaño del árbol.
+ * Cada update() confirma en la cola los directorios terminados (todos los
+ * entregados salvo el actual con archivos por leer y los anticipados) y
+ * guarda su checkpoint en el contexto del step: un restart reanuda el crawl
+ * desde él. El directorio en curso sigue pendiente aunque sus subdirectorios
+ * ya estén en la cola: el checkpoint lo recuerda y, al listarlo de nuevo
+ * tras el restart, no se vuelven a encolar. Un listado fallido se reencola al final de la cola hasta
+ * listingAttempts intentos; agotados, el step falla con una excepción que
+ * la política de skip no descarta (saltarlo perdería el subárbol).
+ * 
+ * Backpressure: con un MemoryBackpressureGovernor, cada listado espera si la
+ * presión de memoria es crítica y la lectura anticipada se suspende con
+ * presión elevada; los archivos cargados y aún no leídos cuentan como items
+ * en vuelo.
+ * 
+ * Progreso en vivo: con JobProgressCounters se cuentan directorios y archivos
+ * leídos y se publica la frontera pendiente del origen (SSE de progreso).
+ * 
+ * Trazas: con un JobTrace cada listado (también los anticipados) puede abrir
+ * la traza de su directorio; los spans de chunk los añade el writer.
+ * 
+ * Hot-spots: con un DirectoryHotspotTracker cada listado ofrece su latencia y
+ * su tamaño a los rankings de la ejecución, y los listados fallidos cuentan
+ * como fallos del directorio.
  */
 @Slf4j
-public class DirectoryQueueItemReader implements ItemReader<SftpFileEntry>, ItemStream {
+public class DirectoryQueueItemReader implements ItemStreamReader<SftpFileEntry> {
+
+    private static final String SPILL_DIRECTORY_KEY = "frontierSpillDirectory";
+    private static final String SEGMENTS_KEY = "frontierSegments";
+    private static final String HEAD_OFFSET_KEY = "frontierHeadOffset";
+    private static final String CHECKPOINT_ENTRIES_KEY = "frontierCheckpointEntries";
+    private static final String SUBDIRECTORIES_QUEUED_KEY = "frontierSubdirectoriesQueued";
 
-    private final SftpRemoteFileTemplate sftpTemplate;
-    private final DirectoryDiscoveryService discoveryService;
-    private final String baseDir;
+    private final FileSourcePort source;
+    private final FileFilter filter;
+    private final String originName;
+    private final List<String> baseDirs;
     
-    private Queue<String> directoryQueue;
+    private final int prefetchDepth;
+    private final Executor listingExecutor;
+    
+    private DirectoryFrontier frontier;
+    private int nextDirectory = 0;
+    private final Function<SpillingDirectoryQueue.Checkpoint, SpillingDirectoryQueue> spillingFrontier;
+    private final int listingAttempts;
+    private SpillingDirectoryQueue crawlQueue;
+    private SpillingDirectoryQueue.Checkpoint resumeFrom;
+    private final Map<String, Integer> listingFailures = new HashMap<>();
+    // Directorios pendientes cuyos subdirectorios ya están en la cola
+    private final Set<String> subdirectoriesQueued = new HashSet<>();
+    private String currentDirectory;
+    private boolean crawlCompleted = false;
+    private final MemoryBackpressureGovernor governor;
+    private final StepMeters meters;
+    private final JobProgressCounters progress;
+    private final JobTrace tracing;
+    private final DirectoryHotspotTracker hotspots;
     private Queue<SftpFileEntry> currentDirectoryFiles;
+    private final Deque<PendingListing> prefetched = new ArrayDeque<>();
     
     private int totalFilesRead = 0;
     private int directoriesProcessed = 0;
     private boolean discoveryCompleted = false;
 
     /**
-     * ✅ CAMBIO: Constructor solo recibe baseDir
+     * ✅ CAMBIO: Constructor recibe el origen de archivos (SFTP o local)
+     */
+    public DirectoryQueueItemReader(FileSourcePort source, FileFilter filter) {
+        this(source, filter, 0, null);
+    }
+
+    /**
+     * @param filter          Rule set del job (poda en discovery, exclusión en listado)
+     * @param prefetchDepth   Listados anticipados en curso (0 = sin lectura anticipada)
+     * @param listingExecutor Executor de los listados anticipados
+     */
+    public DirectoryQueueItemReader(FileSourcePort source, FileFilter filter, int prefetchDepth,
+                                    Executor listingExecutor) {
+        this(source, filter, prefetchDepth, listingExecutor, null, 1, null, null, null, null, null);
+    }
+
+    /**
+     * @param spillingFrontier Crea la cola del crawl en streaming, reanudando el
+     *                         checkpoint recibido si no es null (null = discovery
+     *                         previo en memoria)
+     * @param listingAttempts  Intentos de listado de cada directorio del crawl en streaming
+     * @param governor         Backpressure por memoria (null = sin límites)
+     * @param meters           Métricas del step (null = sin métricas)
+     * @param progress         Progreso en vivo del job (null = sin progreso)
+     * @param tracing          Traza del job para muestrear directorios (null = sin trazas)
+     * @param hotspots         Rankings de directorios de la ejecución (null = sin informe)
      */
-    public DirectoryQueueItemReader(
-            SftpRemoteFileTemplate sftpTemplate,
-            DirectoryDiscoveryService discoveryService,
-            String baseDir) {
-        this.sftpTemplate = sftpTemplate;
-        this.discoveryService = discoveryService;
-        this.baseDir = baseDir;
+    public DirectoryQueueItemReader(FileSourcePort source, FileFilter filter, int prefetchDepth,
+                                    Executor listingExecutor,
+                                    Function<SpillingDirectoryQueue.Checkpoint, SpillingDirectoryQueue> spillingFrontier,
+                                    int listingAttempts, MemoryBackpressureGovernor governor, StepMeters meters,
+                                    JobProgressCounters progress, JobTrace tracing,
+                                    DirectoryHotspotTracker hotspots) {
+        this.source = source;
+        this.filter = filter;
+        this.originName = source.getOriginName();
+        this.baseDirs = source.getBaseDirs();
+        this.prefetchDepth = listingExecutor != null ? prefetchDepth : 0;
+        this.listingExecutor = listingExecutor;
+        this.spillingFrontier = spillingFrontier;
+        this.listingAttempts = Math.max(1, listingAttempts);
+        this.governor = governor;
+        this.meters = meters;
+        this.progress = progress;
+        this.tracing = tracing;
+        this.hotspots = hotspots;
         this.currentDirectoryFiles = new LinkedList<>();
     }
 
+    /**
+     * Listado anticipado de un directorio.
+     */
+    private record PendingListing(String directory, CompletableFuture<DirectoryListing> listing) {
+    }
+
     // ✅ NUEVO: Implementar ItemStream para control de ciclo de vida
     @Override
     public void open(ExecutionContext executionContext) {
         log.info("========================================");
-        log.info("🔄 OPEN: Initializing DirectoryQueueItemReader");
-        log.info("Base directory: {}", baseDir);
+        log.info("🔄 OPEN: Initializing DirectoryQueueItemReader [{}]", originName);
+        log.info("Base directories: {}", baseDirs);
+        log.info("Listing prefetch depth: {}", prefetchDepth);
+        log.info("Frontier: {}", spillingFrontier != null ? "streaming crawl (spilling)" : "memory (full discovery)");
         log.info("========================================");
         
         this.discoveryCompleted = false;
-        this.directoryQueue = null;
-        this.currentDirectoryFiles.clear();
+        cancelPrefetched();
+        this.frontier = null;
+        this.nextDirectory = 0;
+        closeCrawlQueue();
+        clearCurrentDirectoryFiles();
         this.totalFilesRead = 0;
         this.directoriesProcessed = 0;
+        this.listingFailures.clear();
+        this.crawlCompleted = false;
+        this.currentDirectory = null;
+        this.resumeFrom = spillingFrontier != null ? readCheckpoint(executionContext) : null;
+        this.subdirectoriesQueued.clear();
+        if (resumeFrom != null) {
+            subdirectoriesQueued.addAll(readSubdirectoriesQueued(executionContext));
+        }
+        
+        if (meters != null) {
+            meters.gauge("frontier.depth", "Directorios pendientes de listar", this::pendingDirectories);
+            meters.gauge("readahead.depth", "Listados anticipados en curso", prefetched::size);
+            meters.gauge("buffered.files", "Archivos listados pendientes de leer", currentDirectoryFiles::size);
+        }
+        if (progress != null) {
+            progress.registerFrontier(originName, this::pendingDirectories);
+        }
     }
 
     @Override
     public void update(ExecutionContext executionContext) {
         executionContext.putInt("directoriesProcessed", directoriesProcessed);
         executionContext.putInt("totalFilesRead", totalFilesRead);
+        if (crawlQueue != null) {
+            // Terminados: todo lo entregado salvo el directorio en curso y los anticipados
+            int pending = prefetched.size() + (currentDirectoryFiles.isEmpty() ? 0 : 1);
+            SpillingDirectoryQueue.Checkpoint checkpoint = crawlQueue.commit(pending);
+            executionContext.putString(SPILL_DIRECTORY_KEY, checkpoint.directory());
+            executionContext.putString(SEGMENTS_KEY, checkpoint.segments());
+            executionContext.putInt(HEAD_OFFSET_KEY, checkpoint.headOffset());
+            executionContext.putLong(CHECKPOINT_ENTRIES_KEY, checkpoint.entries());
+            
+            // El directorio en curso queda pendiente, pero sus subdirectorios ya están en el log
+            ArrayList<String> queued = new ArrayList<>(subdirectoriesQueued);
+            if (!currentDirectoryFiles.isEmpty()) {
+                queued.add(currentDirectory);
+            }
+            executionContext.put(SUBDIRECTORIES_QUEUED_KEY, queued);
+            
+            SpillingDirectoryQueue.SpillStats stats = crawlQueue.getStats();
+            executionContext.putLong("frontierPendingDirectories", crawlQueue.size());
+            executionContext.putLong("frontierSpilledEntries", stats.spilledEntries());
+            executionContext.putLong("frontierSpilledBytes", stats.spilledBytes());
+        }
     }
 
     @Override
     public void close() {
         log.info("========================================");
-        log.info("🛑 CLOSE: Cleaning up DirectoryQueueItemReader");
+        log.info("🛑 CLOSE: Cleaning up DirectoryQueueItemReader [{}]", originName);
         log.info("Final stats: {} files, {} directories", totalFilesRead, directoriesProcessed);
         log.info("========================================");
         
-        if (directoryQueue != null) {
-            directoryQueue.clear();
+        frontier = null;
+        clearCurrentDirectoryFiles();
+        cancelPrefetched();
+        if (crawlQueue != null && !crawlCompleted) {
+            // Crawl sin terminar (fallo o parada): el restart lo reanuda del checkpoint
+            crawlQueue.release();
+            crawlQueue = null;
+        }
+        closeCrawlQueue();
+        if (meters != null) {
+            meters.removeGauges();
+        }
+        if (progress != null) {
+            progress.unregisterFrontier(originName);
         }
-        currentDirectoryFiles.clear();
     }
 
     @Override
@@ -109,35 +289,61 @@ public class DirectoryQueueItemReader implements ItemReader<SftpFileEntry>, Item
         
         // ✅ LAZY DISCOVERY: Solo la primera vez
         if (!discoveryCompleted) {
-            executeDirectoryDiscovery();
+            if (spillingFrontier != null) {
+                startStreamingCrawl();
+            } else {
+                executeDirectoryDiscovery();
+            }
             discoveryCompleted = true;
         }
         
         // Retornar archivos del directorio actual
         if (!currentDirectoryFiles.isEmpty()) {
             totalFilesRead++;
+            if (governor != null) {
+                governor.itemsReleased(1);
+            }
+            if (progress != null) {
+                progress.filesRead(1);
+            }
             return currentDirectoryFiles.poll();
         }
         
         // Si no hay más directorios, terminar
-        if (directoryQueue == null || directoryQueue.isEmpty()) {
+        if (!hasPendingDirectories() && prefetched.isEmpty()) {
             log.info("========================================");
-            log.info("✅ INDEXING COMPLETED");
+            log.info("✅ INDEXING COMPLETED [{}]", originName);
             log.info("Total files indexed: {}", totalFilesRead);
             log.info("Total directories processed: {}", directoriesProcessed);
+            if (crawlQueue != null) {
+                SpillingDirectoryQueue.SpillStats stats = crawlQueue.getStats();
+                log.info("Frontier spill: {} entries, {} KB (peak on disk {} KB), {} segments, {} recycled",
+                         stats.spilledEntries(), stats.spilledBytes() / 1024, stats.peakDiskBytes() / 1024,
+                         stats.segmentsCreated(), stats.segmentsRecycled());
+            }
             log.info("========================================");
+            crawlCompleted = true;
             return null;
         }
         
-        // ✅ CRÍTICO: Cargar siguiente directorio
-        String nextDirectory = directoryQueue.poll();  // ✅ poll() remueve de la queue
-        loadDirectoryFiles(nextDirectory);
-        directoriesProcessed++;
-        
-        // Log progreso
-        if (directoriesProcessed % 100 == 0) {
-            log.info("📊 Progress: {} directories processed, {} files indexed", 
-                     directoriesProcessed, totalFilesRead);
+        // ✅ CRÍTICO: Cargar siguiente directorio (esperando si hay presión de memoria)
+        if (governor != null) {
+            governor.awaitListingCapacity(originName);
+        }
+        boolean listed = prefetchDepth > 0
+            ? loadPrefetchedDirectory()
+            : loadDirectoryFiles(nextDirectoryPath());
+        if (listed) {
+            directoriesProcessed++;
+            if (progress != null) {
+                progress.directoryDone();
+            }
+            
+            // Log progreso
+            if (directoriesProcessed % 100 == 0) {
+                log.info("📊 Progress [{}]: {} directories processed, {} files indexed", 
+                         originName, directoriesProcessed, totalFilesRead);
+            }
         }
         
         return read(); // Recursión para retornar primer archivo
@@ -148,75 +354,250 @@ public class DirectoryQueueItemReader implements ItemReader<SftpFileEntry>, Item
      */
     private void executeDirectoryDiscovery() {
         log.info("========================================");
-        log.info("PHASE 1: DIRECTORY DISCOVERY");
-        log.info("Base directory: {}", baseDir);
+        log.info("PHASE 1: DIRECTORY DISCOVERY [{}]", originName);
+        log.info("Base directories: {}", baseDirs);
         log.info("========================================");
         
         long startTime = System.currentTimeMillis();
         
-        // ✅ Discovery SIEMPRE fresh
-        directoryQueue = discoveryService.discoverDirectories(sftpTemplate, baseDir);
+        // ✅ Discovery SIEMPRE fresh (uno por directorio raíz del origen)
+        frontier = new DirectoryFrontier();
+        for (String baseDir : baseDirs) {
+            source.discoverDirectories(baseDir, filter, frontier);
+        }
         
         long duration = System.currentTimeMillis() - startTime;
         
         log.info("========================================");
         log.info("✅ Discovery completed in {} ms ({} seconds)", duration, duration / 1000);
-        log.info("Total directories to process: {}", directoryQueue.size());
+        log.info("Total directories to process: {} (frontier ~{} KB)",
+                 frontier.size(), frontier.footprintBytes() / 1024);
         log.info("========================================");
-        log.info("PHASE 2: FILE INDEXING");
+        log.info("PHASE 2: FILE INDEXING [{}]", originName);
         log.info("========================================");
     }
 
     /**
-     * ✅ Carga archivos de UN directorio
+     * Crawl en streaming: la cola arranca con los directorios raíz (o con los
+     * pendientes del checkpoint en un restart) y crece con los subdirectorios
+     * de cada listado.
+     */
+    private void startStreamingCrawl() {
+        log.info("========================================");
+        log.info("STREAMING CRAWL [{}] (no upfront discovery)", originName);
+        log.info("Base directories: {}", baseDirs);
+        log.info("========================================");
+        
+        crawlQueue = spillingFrontier.apply(resumeFrom);
+        if (crawlQueue.isResumed()) {
+            log.info("♻️  Resuming streaming crawl [{}] with {} pending directories", originName, crawlQueue.size());
+        } else {
+            subdirectoriesQueued.clear();
+            baseDirs.forEach(crawlQueue::offer);
+        }
+        resumeFrom = null;
+    }
+
+    private static SpillingDirectoryQueue.Checkpoint readCheckpoint(ExecutionContext executionContext) {
+        if (!executionContext.containsKey(SPILL_DIRECTORY_KEY)) {
+            return null;
+        }
+        return new SpillingDirectoryQueue.Checkpoint(
+            executionContext.getString(SPILL_DIRECTORY_KEY),
+            executionContext.getString(SEGMENTS_KEY, ""),
+            executionContext.getInt(HEAD_OFFSET_KEY, 0),
+            executionContext.getLong(CHECKPOINT_ENTRIES_KEY, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> readSubdirectoriesQueued(ExecutionContext executionContext) {
+        Object queued = executionContext.get(SUBDIRECTORIES_QUEUED_KEY);
+        return queued instanceof List<?> list ? (List<String>) list : List.of();
+    }
+
+    /**
+     * Toma el siguiente listado anticipado (en orden de cola) y repone la
+     * ventana de lectura anticipada.
+     * 
+     * @return false si el listado ha fallado y el directorio se ha reencolado
      */
-    private void loadDirectoryFiles(String directory) {
+    private boolean loadPrefetchedDirectory() throws DirectoryListingExhaustedException {
+        fillPrefetchWindow();
+        PendingListing next = prefetched.poll();
+        if (next == null) {
+            // Lectura anticipada suspendida por presión de memoria
+            return loadDirectoryFiles(nextDirectoryPath());
+        }
+        fillPrefetchWindow();
+        
         try {
-            sftpTemplate.execute(session -> {
-                
-                log.debug("📂 Scanning directory: {}", directory);
-                
-                SftpClient.DirEntry[] entries = session.list(directory);
-                int filesInDir = 0;
-                
-                for (SftpClient.DirEntry entry : entries) {
-                    String name = entry.getFilename();
-                    
-                    if (".".equals(name) || "..".equals(name)) {
-                        continue;
-                    }
-                    
-                    // ✅ Solo procesar ARCHIVOS
-                    if (!entry.getAttributes().isDirectory()) {
-                        String fullPath = directory.endsWith("/") 
-                            ? directory + name 
-                            : directory + "/" + name;
-                        
-                        SftpFileEntry fileEntry = SftpFileEntry.builder()
-                                .fullPath(fullPath)
-                                .filename(name)
-                                .size(entry.getAttributes().getSize())
-                                .modificationTime(entry.getAttributes().getModifyTime().toMillis())
-                                .isDirectory(false)
-                                .build();
-                        
-                        currentDirectoryFiles.add(fileEntry);
-                        filesInDir++;
-                    }
-                }
-                
-                if (filesInDir > 0) {
-                    log.debug("📄 Loaded {} files from {}", filesInDir, directory);
-                } else {
-                    log.trace("📭 Empty directory: {}", directory);
+            DirectoryListing listing = next.listing().join();
+            accept(next.directory(), listing);
+            log.debug("📄 Loaded {} files from {} (prefetched)", listing.files().size(), next.directory());
+            return true;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+            return listingFailed(next.directory(), cause);
+        }
+    }
+
+    private void fillPrefetchWindow() {
+        int window = governor == null || governor.allowsReadAhead() ? prefetchDepth : 0;
+        while (prefetched.size() < window && hasPendingDirectories()) {
+            String directory = nextDirectoryPath();
+            prefetched.add(new PendingListing(directory, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return list(directory);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-                
-                return null;
-            });
+            }, listingExecutor)));
+        }
+    }
+
+    private boolean hasPendingDirectories() {
+        if (crawlQueue != null) {
+            return !crawlQueue.isEmpty();
+        }
+        return frontier != null && nextDirectory < frontier.size();
+    }
+
+    private long pendingDirectories() {
+        SpillingDirectoryQueue queue = crawlQueue;
+        if (queue != null) {
+            return queue.size();
+        }
+        DirectoryFrontier current = frontier;
+        return current != null ? Math.max(0, current.size() - nextDirectory) : 0;
+    }
+
+    private String nextDirectoryPath() {
+        return crawlQueue != null ? crawlQueue.poll() : frontier.path(nextDirectory++);
+    }
+
+    /**
+     * En el crawl en streaming el listado incluye los subdirectorios.
+     */
+    private DirectoryListing list(String directory) throws IOException {
+        DirectoryTrace trace = tracing != null ? tracing.sampleDirectory(originName, directory) : null;
+        DirectoryListingEvent event = new DirectoryListingEvent();
+        event.begin();
+        long start = System.nanoTime();
+        DirectoryListing listing;
+        try {
+            listing = crawlQueue != null
+                ? source.listDirectory(directory, filter)
+                : new DirectoryListing(source.listFiles(directory, filter), List.of());
+        } catch (IOException | RuntimeException e) {
+            if (hotspots != null) {
+                hotspots.recordListingFailure(originName, directory, e);
+            }
+            throw e;
+        }
+        long end = System.nanoTime();
+        event.complete(originName, directory, listing.files().size(), listing.subdirectories().size());
+        if (trace != null) {
+            trace.listed(start, end, listing.files().size(), listing.subdirectories().size());
+        }
+        if (meters != null) {
+            meters.recordListing(end - start, listing.files().size());
+        }
+        if (hotspots != null) {
+            hotspots.recordListing(originName, directory, end - start,
+                listing.files().size(), listing.subdirectories().size());
+        }
+        return listing;
+    }
+
+    /**
+     * Carga los archivos del listado y, en el crawl en streaming, encola sus
+     * subdirectorios salvo que ya se encolaran antes del checkpoint reanudado.
+     */
+    private void accept(String directory, DirectoryListing listing) {
+        if (crawlQueue != null) {
+            listingFailures.remove(directory);
+            if (!subdirectoriesQueued.remove(directory)) {
+                listing.subdirectories().forEach(crawlQueue::offer);
+            }
+        }
+        currentDirectory = directory;
+        currentDirectoryFiles.addAll(listing.files());
+        if (governor != null) {
+            governor.itemsBuffered(listing.files().size());
+        }
+    }
+
+    private void clearCurrentDirectoryFiles() {
+        if (governor != null) {
+            governor.itemsReleased(currentDirectoryFiles.size());
+        }
+        currentDirectoryFiles.clear();
+    }
+
+    private void closeCrawlQueue() {
+        if (crawlQueue != null) {
+            crawlQueue.close();
+            crawlQueue = null;
+        }
+    }
+
+    private void cancelPrefetched() {
+        prefetched.forEach(pending -> pending.listing().cancel(false));
+        prefetched.clear();
+    }
+
+    /**
+     * ✅ Carga archivos de UN directorio
+     * 
+     * @return false si el listado ha fallado y el directorio se ha reencolado
+     */
+    private boolean loadDirectoryFiles(String directory) throws DirectoryListingExhaustedException {
+        try {
+            log.debug("📂 Scanning directory: {}", directory);
+            
+            DirectoryListing listing = list(directory);
+            accept(directory, listing);
+            
+            if (!listing.files().isEmpty()) {
+                log.debug("📄 Loaded {} files from {}", listing.files().size(), directory);
+            } else {
+                log.trace("📭 Empty directory: {}", directory);
+            }
+            return true;
             
         } catch (Exception e) {
-            log.error("❌ Error loading directory: {}", directory, e);
-            throw new RuntimeException("Failed to load directory: " + directory, e);
+            return listingFailed(directory, e);
         }
     }
+
+    /**
+     * Listado fallido. Con discovery previo solo se pierden los archivos del
+     * directorio: el fallo llega a la política de skip. En el crawl en
+     * streaming se perdería su subárbol: se reencola al final de la cola y,
+     * agotados los intentos, el step falla.
+     * 
+     * @return false si el directorio se ha reencolado
+     */
+    private boolean listingFailed(String directory, Throwable cause) throws DirectoryListingExhaustedException {
+        if (crawlQueue == null) {
+            log.error("❌ Error loading directory [{}]: {}", originName, directory, cause);
+            throw new RuntimeException("Failed to load directory [" + originName + "]: " + directory, cause);
+        }
+        
+        int attempt = listingFailures.merge(directory, 1, Integer::sum);
+        if (attempt < listingAttempts) {
+            log.warn("⚠️  Listing of {} failed [{}] (attempt {}/{}), re-queued: {}",
+                     directory, originName, attempt, listingAttempts, cause.getMessage());
+            crawlQueue.offer(directory);
+            return false;
+        }
+        
+        // Queda pendiente en el checkpoint: un restart lo vuelve a intentar
+        listingFailures.remove(directory);
+        crawlQueue.offer(directory);
+        log.error("❌ Listing of {} failed [{}] after {} attempts: its subtree cannot be crawled",
+                  directory, originName, attempt, cause);
+        throw new DirectoryListingExhaustedException("Failed to list directory [" + originName + "] after "
+            + attempt + " attempts: " + directory, cause);
+    }
 }
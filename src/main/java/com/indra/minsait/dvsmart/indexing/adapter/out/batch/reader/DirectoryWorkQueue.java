@@ -0,0 +1,184 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import lombok.extern.slf4j.Slf4j;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 18:02:11
+ * File: DirectoryWorkQueue.java
+ */
+
+/**
+ * Cola de directorios de un origen compartida por sus workers concurrentes.
+ * 
+ * - Discovery una sola vez (el primer worker que la abre) y ORDENADO: cada
+ *   directorio tiene un índice estable entre ejecuciones del mismo árbol
+ *   (orden canónico de la DirectoryFrontier; el path de cada directorio se
+ *   materializa al reclamarlo)
+ * - Reparto con granularidad de directorio: un worker reclama un directorio
+ *   entero y escribe sus archivos en sus propios chunks
+ * - Low-watermark: completedPrefix es el número de directorios iniciales
+ *   (por índice) cuyos archivos ya están escritos. Es el punto de reanudación
+ *   seguro ante un restart; lo posterior se reprocesa (upserts idempotentes)
+ * - El restart solo reanuda si el árbol es el mismo: mismo número de
+ *   directorios y mismo digest SHA-256 de sus paths en orden canónico
+ */
+@Slf4j
+public class DirectoryWorkQueue {
+
+    /**
+     * Directorio reclamado por un worker.
+     */
+    public record Claim(int index, String directory) {
+    }
+
+    private final String originName;
+    // Camino rápido de ensureDiscovered(): tras el discovery no se toma el lock
+    private volatile boolean discoveryDone = false;
+    private DirectoryFrontier frontier;
+    private int[] order;
+    private String orderDigest;
+    private int cursor = 0;
+    private final BitSet completed = new BitSet();
+    private int completedPrefix = 0;
+
+    public DirectoryWorkQueue(String originName) {
+        this.originName = originName;
+    }
+
+    /**
+     * Ejecuta el discovery si aún no se ha hecho (los demás workers esperan).
+     * Una vez hecho, la llamada solo lee un volatile: los workers la invocan
+     * en cada read() sin serializarse en el monitor de la cola.
+     * 
+     * @param filter              Rule set del job (poda de subárboles)
+     * @param resumeFrom          Directorios ya completados en la ejecución anterior
+     * @param expectedDirectories Directorios descubiertos en la ejecución anterior
+     *                            (0 si no hay): si el árbol ha cambiado se empieza de cero
+     * @param expectedDigest      Digest del orden canónico de la ejecución anterior
+     *                            (null si no se guardó)
+     */
+    public void ensureDiscovered(FileSourcePort source, FileFilter filter,
+                                 int resumeFrom, int expectedDirectories, String expectedDigest) {
+        if (discoveryDone) {
+            return;
+        }
+        synchronized (this) {
+            if (!discoveryDone) {
+                discover(source, filter, resumeFrom, expectedDirectories, expectedDigest);
+                discoveryDone = true;
+            }
+        }
+    }
+
+    private void discover(FileSourcePort source, FileFilter filter,
+                          int resumeFrom, int expectedDirectories, String expectedDigest) {
+        long startTime = System.currentTimeMillis();
+        DirectoryFrontier discovered = new DirectoryFrontier();
+        for (String baseDir : source.getBaseDirs()) {
+            source.discoverDirectories(baseDir, filter, discovered);
+        }
+        order = discovered.canonicalOrder();
+        frontier = discovered;
+        orderDigest = digest(discovered, order);
+        
+        // Mismo número pero otros directorios (uno renombrado, uno movido): los índices ya no corresponden
+        boolean changed = expectedDirectories != order.length
+            || (expectedDigest != null && !expectedDigest.equals(orderDigest));
+        if (resumeFrom > 0 && changed) {
+            log.warn("⚠️  Directory tree of [{}] changed since last execution ({} → {} directories, digest {}): restarting from the first directory",
+                     originName, expectedDirectories, order.length,
+                     Objects.equals(expectedDigest, orderDigest) ? "unchanged" : "changed");
+            resumeFrom = 0;
+        }
+        resumeFrom = Math.min(resumeFrom, order.length);
+        cursor = resumeFrom;
+        completedPrefix = resumeFrom;
+        completed.set(0, resumeFrom);
+        
+        log.info("✅ Discovery [{}] completed in {} ms: {} directories, frontier ~{} KB (resuming from {})",
+                 originName, System.currentTimeMillis() - startTime, order.length,
+                 frontier.footprintBytes() / 1024, resumeFrom);
+    }
+
+    /**
+     * Reclama el siguiente directorio, o null si no quedan.
+     */
+    public synchronized Claim claim() {
+        if (cursor >= order.length) {
+            return null;
+        }
+        int index = cursor++;
+        return new Claim(index, frontier.path(order[index]));
+    }
+
+    /**
+     * Marca directorios como escritos y avanza el low-watermark.
+     */
+    public synchronized void complete(Collection<Integer> indexes) {
+        indexes.forEach(completed::set);
+        completedPrefix = completed.nextClearBit(completedPrefix);
+    }
+
+    public synchronized int getCompletedPrefix() {
+        return completedPrefix;
+    }
+
+    /**
+     * Digest del orden canónico de los directorios (null antes del discovery).
+     */
+    public synchronized String getOrderDigest() {
+        return orderDigest;
+    }
+
+    /**
+     * Directorios aún sin reclamar.
+     */
+    public synchronized int remaining() {
+        return order == null ? 0 : order.length - cursor;
+    }
+
+    public synchronized int size() {
+        return order == null ? 0 : order.length;
+    }
+
+    /**
+     * SHA-256 de los paths en orden canónico, separados por salto de línea.
+     */
+    private static String digest(DirectoryFrontier frontier, int[] order) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+        for (int node : order) {
+            digest.update(frontier.path(node).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
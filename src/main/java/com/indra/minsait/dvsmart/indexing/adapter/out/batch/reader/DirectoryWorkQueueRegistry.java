@@ -0,0 +1,56 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 18:06:40
+ * File: DirectoryWorkQueueRegistry.java
+ */
+
+/**
+ * Colas de directorios compartidas, por ejecución de job y origen.
+ * 
+ * La cola se crea con el primer worker que la pide y se elimina al terminar
+ * el step manager (no cuando termina el primer worker: uno que arranca tarde
+ * debe ver la misma cola, no una nueva).
+ */
+@Slf4j
+@Component
+public class DirectoryWorkQueueRegistry {
+
+    private final Map<Long, Map<String, DirectoryWorkQueue>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna la cola del origen en esta ejecución (la crea si no existe).
+     */
+    public DirectoryWorkQueue acquire(Long jobExecutionId, String originName) {
+        return queues.computeIfAbsent(jobExecutionId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(originName, DirectoryWorkQueue::new);
+    }
+
+    /**
+     * Elimina las colas de una ejecución (fin del step manager).
+     */
+    public void releaseAll(Long jobExecutionId) {
+        if (queues.remove(jobExecutionId) != null) {
+            log.debug("Directory work queues released for job execution {}", jobExecutionId);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.IngestRun;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.IngestRunRegistry;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.NdjsonFileRecordParser;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.partition.OriginPartitioner;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.listener.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import tools.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 16:42:20
+ * File: IngestStreamItemReader.java
+ */
+
+/**
+ * Reader de la ingesta push: consume los lotes NDJSON que los agentes envían
+ * a la ejecución (IngestRun), uno detrás de otro y registro a registro.
+ * 
+ * - Solo pide al socket los bytes que el step puede procesar (backpressure)
+ * - Libera la petición HTTP de un lote cuando el chunk con su último
+ *   registro está escrito (afterChunk), nunca antes
+ * - Lee un registro por adelantado para saber cuál cierra el lote: el step
+ *   cierra ahí el chunk (IngestBatchCompletionPolicy)
+ * - Un lote cortado (cliente desconectado) falla solo ese lote
+ * - Termina cuando el agente cierra la ejecución y no quedan lotes
+ * - Aplica el rule set por defecto: los registros excluidos se aceptan en el
+ *   lote pero no se indexan
+ */
+@Slf4j
+public class IngestStreamItemReader implements ItemStreamReader<SftpFileEntry>,
+        ChunkListener<SftpFileEntry, SftpFileEntry> {
+
+    /**
+     * Lote leído entero cuyos registros esperan a que se escriba el chunk.
+     */
+    private record ConsumedBatch(IngestRun.Batch batch, IngestRun.BatchResult result) {
+    }
+
+    private final IngestRun run;
+    private final FileFilter filter;
+    private final IngestRunRegistry registry;
+    private final Long jobExecutionId;
+    private final JsonMapper jsonMapper;
+    private final long idleTimeoutMillis;
+    
+    private IngestRun.Batch currentBatch;
+    private NdjsonFileRecordParser currentParser;
+    private SftpFileEntry lookahead;
+    private boolean batchBoundary = false;
+    private final List<ConsumedBatch> unwritten = new ArrayList<>();
+    
+    private long totalFilesRead = 0;
+    private long batchesProcessed = 0;
+
+    public IngestStreamItemReader(
+            IngestRun run,
+            FileFilter filter,
+            IngestRunRegistry registry,
+            Long jobExecutionId,
+            JsonMapper jsonMapper,
+            long idleTimeoutMillis) {
+        this.run = run;
+        this.filter = filter;
+        this.registry = registry;
+        this.jobExecutionId = jobExecutionId;
+        this.jsonMapper = jsonMapper;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        log.info("========================================");
+        log.info("🔄 OPEN: IngestStreamItemReader runId={}, origin={}", run.getRunId(), run.getOrigin());
+        log.info("========================================");
+        
+        this.totalFilesRead = 0;
+        this.batchesProcessed = 0;
+        run.markStarted(jobExecutionId);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putString(OriginPartitioner.ORIGIN_KEY, run.getOrigin());
+        executionContext.putLong("batchesProcessed", batchesProcessed);
+        executionContext.putLong("totalFilesRead", totalFilesRead);
+    }
+
+    @Override
+    public void close() {
+        log.info("========================================");
+        log.info("🛑 CLOSE: IngestStreamItemReader runId={}", run.getRunId());
+        log.info("Final stats: {} files, {} batches", totalFilesRead, batchesProcessed);
+        log.info("========================================");
+        
+        // Lotes leídos cuyo último chunk no llegó a escribirse: el agente debe reenviarlos
+        IllegalStateException closed = new IllegalStateException("Ingest run closed: " + run.getRunId());
+        for (ConsumedBatch consumed : unwritten) {
+            consumed.batch().done().completeExceptionally(closed);
+        }
+        unwritten.clear();
+        if (currentBatch != null) {
+            currentBatch.done().completeExceptionally(closed);
+        }
+        run.close(null);
+        registry.remove(run.getRunId());
+    }
+
+    @Override
+    public SftpFileEntry read() throws Exception {
+        batchBoundary = false;
+        
+        while (true) {
+            if (currentParser == null) {
+                currentBatch = run.nextBatch(idleTimeoutMillis);
+                if (currentBatch == null) {
+                    log.info("========================================");
+                    log.info("✅ INGEST COMPLETED runId={} [{}]", run.getRunId(), run.getOrigin());
+                    log.info("Total files read: {} in {} batches", totalFilesRead, batchesProcessed);
+                    log.info("========================================");
+                    return null;
+                }
+                currentParser = new NdjsonFileRecordParser(currentBatch.body(), run.getOrigin(), jsonMapper);
+                lookahead = nextAccepted(false);
+            }
+            
+            if (lookahead == null) {
+                // Lote sin registros indexables o cortado: ya tiene respuesta
+                continue;
+            }
+            
+            SftpFileEntry entry = lookahead;
+            lookahead = nextAccepted(true);
+            batchBoundary = currentParser == null;
+            totalFilesRead++;
+            return entry;
+        }
+    }
+
+    /**
+     * true si el último registro retornado por read() cierra su lote.
+     */
+    public boolean endsBatch() {
+        return batchBoundary;
+    }
+
+    /**
+     * Notificación del step por CompletionPolicy (TaskletStep).
+     */
+    @Override
+    @SuppressWarnings("removal")
+    public void afterChunk(ChunkContext context) {
+        acknowledgeWritten();
+    }
+
+    @Override
+    public void afterChunk(Chunk<SftpFileEntry> chunk) {
+        acknowledgeWritten();
+    }
+
+    /**
+     * El chunk está escrito: con él, el último registro de cada lote pendiente.
+     */
+    private void acknowledgeWritten() {
+        for (ConsumedBatch consumed : unwritten) {
+            run.completeBatch(consumed.batch(), consumed.result());
+        }
+        unwritten.clear();
+    }
+
+    /**
+     * Siguiente registro aceptado del lote en curso, o null al terminarlo.
+     * 
+     * @param recordsPending hay registros del lote leídos y aún sin escribir
+     */
+    private SftpFileEntry nextAccepted(boolean recordsPending) {
+        while (true) {
+            SftpFileEntry entry;
+            try {
+                entry = currentParser.next();
+            } catch (IOException e) {
+                // Cliente desconectado o gzip corrupto: falla el lote, no el job
+                log.warn("⚠️  Ingest batch aborted runId={} after {} records: {}",
+                         run.getRunId(), currentParser.getAccepted(), e.getMessage());
+                currentBatch.done().completeExceptionally(e);
+                finishBatch();
+                return null;
+            }
+            
+            if (entry == null) {
+                IngestRun.BatchResult result =
+                    new IngestRun.BatchResult(currentParser.getAccepted(), currentParser.getRejected());
+                log.debug("📥 Ingest batch consumed runId={}: {} accepted, {} rejected",
+                          run.getRunId(), result.accepted(), result.rejected());
+                if (recordsPending) {
+                    unwritten.add(new ConsumedBatch(currentBatch, result));
+                } else {
+                    run.completeBatch(currentBatch, result);
+                }
+                finishBatch();
+                return null;
+            }
+            if (accepts(entry)) {
+                return entry;
+            }
+        }
+    }
+
+    private boolean accepts(SftpFileEntry entry) {
+        String path = entry.getFullPath();
+        int slash = path.lastIndexOf('/');
+        return filter.acceptsTree(null, slash > 0 ? path.substring(0, slash) : "/")
+            && filter.acceptsFile(path, entry.getFilename(), entry.getSize(), entry.getModificationTime());
+    }
+
+    private void finishBatch() {
+        batchesProcessed++;
+        currentBatch = null;
+        currentParser = null;
+    }
+}
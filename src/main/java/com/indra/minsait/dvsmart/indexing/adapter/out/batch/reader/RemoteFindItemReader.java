@@ -0,0 +1,223 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.RemoteExecUnavailableException;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressCounters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.RemoteFindLister;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.RemoteFindStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 14:36:12
+ * File: RemoteFindItemReader.java
+ */
+
+/**
+ * Reader que lista el origen con un 'find' remoto por canal exec.
+ * 
+ * Estrategia:
+ * - Un find por directorio raíz del origen, consumido en streaming
+ * - Sin fase de discovery: el árbol completo llega en un único stream
+ * - Rule set del job aplicado a cada entrada: el find no poda, así que los
+ *   subárboles excluidos se descartan al leer (con caché del último directorio)
+ * - Directorios procesados según RemoteFindStream.getDirectoryCount(): find
+ *   recorre en preorden y los archivos de un directorio se intercalan con la
+ *   salida de sus subdirectorios, así que no se pueden contar por cambio de padre
+ * - Fallback: si el servidor no permite exec, delega en el reader SFTP
+ *   (DirectoryQueueItemReader) para toda la ejecución
+ * - Progreso en vivo: sin frontera conocida (el find no la expone), solo
+ *   directorios y archivos leídos
+ */
+@Slf4j
+public class RemoteFindItemReader implements ItemStreamReader<SftpFileEntry> {
+
+    private final String originName;
+    private final RemoteFindLister lister;
+    private final List<String> baseDirs;
+    private final FileFilter filter;
+    private final DirectoryQueueItemReader fallbackReader;
+    private final JobProgressCounters progress;
+    
+    private ExecutionContext executionContext;
+    private RemoteFindStream currentStream;
+    private int baseDirIndex = 0;
+    private boolean fallbackActive = false;
+    
+    // Caché del último directorio evaluado (solo evita recalcular acceptsTree)
+    private String lastDirectory;
+    private boolean lastDirectoryAccepted;
+    
+    // Directorios del stream actual ya sumados al progreso en vivo
+    private long reportedDirectories = 0;
+    
+    private long totalFilesRead = 0;
+    private long directoriesProcessed = 0;
+
+    public RemoteFindItemReader(
+            String originName,
+            RemoteFindLister lister,
+            List<String> baseDirs,
+            FileFilter filter,
+            DirectoryQueueItemReader fallbackReader,
+            JobProgressCounters progress) {
+        this.originName = originName;
+        this.lister = lister;
+        this.baseDirs = baseDirs;
+        this.filter = filter;
+        this.fallbackReader = fallbackReader;
+        this.progress = progress;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        log.info("========================================");
+        log.info("🔄 OPEN: Initializing RemoteFindItemReader [{}]", originName);
+        log.info("Base directories: {}", baseDirs);
+        log.info("========================================");
+        
+        this.executionContext = executionContext;
+        this.currentStream = null;
+        this.baseDirIndex = 0;
+        this.fallbackActive = false;
+        this.totalFilesRead = 0;
+        this.directoriesProcessed = 0;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (fallbackActive) {
+            fallbackReader.update(executionContext);
+            return;
+        }
+        long directories = directoriesProcessed + (currentStream != null ? currentStream.getDirectoryCount() : 0);
+        executionContext.putInt("directoriesProcessed", (int) directories);
+        executionContext.putInt("totalFilesRead", (int) totalFilesRead);
+    }
+
+    @Override
+    public void close() {
+        log.info("========================================");
+        log.info("🛑 CLOSE: Cleaning up RemoteFindItemReader [{}]", originName);
+        log.info("Final stats: {} files, {} directories", totalFilesRead, directoriesProcessed);
+        log.info("========================================");
+        
+        closeCurrentStream();
+        if (fallbackActive) {
+            fallbackReader.close();
+        }
+    }
+
+    @Override
+    public SftpFileEntry read() throws Exception {
+        if (fallbackActive) {
+            return fallbackReader.read();
+        }
+        
+        while (baseDirIndex < baseDirs.size()) {
+            if (currentStream == null) {
+                currentStream = lister.open(baseDirs.get(baseDirIndex));
+                reportedDirectories = 0;
+            }
+            
+            SftpFileEntry entry;
+            try {
+                entry = currentStream.next();
+            } catch (RemoteExecUnavailableException e) {
+                if (totalFilesRead > 0) {
+                    throw e;
+                }
+                return switchToFallback(e);
+            }
+            
+            reportDirectories(entry == null);
+            
+            if (entry != null) {
+                if (!accepts(baseDirs.get(baseDirIndex), entry)) {
+                    continue;
+                }
+                totalFilesRead++;
+                if (progress != null) {
+                    progress.filesRead(1);
+                }
+                return entry;
+            }
+            
+            // Fin del árbol actual: el raíz cuenta como directorio procesado
+            directoriesProcessed += currentStream.getDirectoryCount() + 1;
+            closeCurrentStream();
+            baseDirIndex++;
+        }
+        
+        log.info("========================================");
+        log.info("✅ INDEXING COMPLETED [{}] (remote find)", originName);
+        log.info("Total files indexed: {}", totalFilesRead);
+        log.info("Total directories processed: {}", directoriesProcessed);
+        log.info("========================================");
+        return null;
+    }
+
+    private boolean accepts(String baseDir, SftpFileEntry entry) {
+        String path = entry.getFullPath();
+        int slash = path.lastIndexOf('/');
+        String directory = slash > 0 ? path.substring(0, slash) : "/";
+        if (!directory.equals(lastDirectory)) {
+            lastDirectory = directory;
+            lastDirectoryAccepted = filter.acceptsTree(baseDir, directory);
+        }
+        return lastDirectoryAccepted
+            && filter.acceptsFile(path, entry.getFilename(), entry.getSize(), entry.getModificationTime());
+    }
+
+    /**
+     * Suma al progreso en vivo los directorios emitidos por el find desde la
+     * última lectura (más el raíz al terminar el árbol).
+     */
+    private void reportDirectories(boolean treeFinished) {
+        if (progress == null) {
+            return;
+        }
+        long seen = currentStream.getDirectoryCount() + (treeFinished ? 1 : 0);
+        if (seen > reportedDirectories) {
+            progress.directoriesDone(seen - reportedDirectories);
+            reportedDirectories = seen;
+        }
+    }
+
+    /**
+     * Cambia al listado SFTP estándar para el resto de la ejecución.
+     */
+    private SftpFileEntry switchToFallback(RemoteExecUnavailableException cause) throws Exception {
+        log.warn("⚠️  Remote exec not available for origin [{}], falling back to SFTP listing: {}",
+                 originName, cause.getMessage());
+        
+        closeCurrentStream();
+        fallbackActive = true;
+        fallbackReader.open(executionContext);
+        return fallbackReader.read();
+    }
+
+    private void closeCurrentStream() {
+        if (currentStream != null) {
+            currentStream.close();
+            currentStream = null;
+        }
+    }
+}
@@ -0,0 +1,614 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ * 
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ * 
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ * 
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 21:48:16
+ * File: SpillingDirectoryQueue.java
+ */
+
+/**
+ * Frontera FIFO de directorios con memoria acotada para crawls en streaming.
+ * 
+ * - Log en disco: cada path ofrecido se añade a segmentos de tamaño fijo
+ *   mapeados en memoria (MappedByteBuffer), escritos y leídos
+ *   secuencialmente. Registro: [longitud int][path UTF-8]
+ * - Cabeza en memoria: caché de hasta memoryEntries paths del principio del
+ *   log. Mientras haya paths solo en disco (desbordados), los nuevos no
+ *   entran en la cabeza; se rellena desde el log al vaciarse
+ * 
+ * Checkpoint: commit(pending) da por terminados los paths entregados salvo
+ * los pending últimos y devuelve un Checkpoint (segmentos vivos, offset del
+ * primer path no terminado y fin de cada segmento) que el reader guarda en
+ * el contexto del step. Solo se reciclan los segmentos anteriores al último
+ * checkpoint, y commit fuerza a disco los segmentos escritos: tras una
+ * caída o un fallo del step, create(..., checkpoint) reanuda la cola con
+ * exactamente los paths pendientes del checkpoint. Lo escrito después se
+ * descarta; lo escrito antes se conserva aunque venga del listado de un path
+ * aún pendiente, así que es el reader quien no vuelve a ofrecer los
+ * subdirectorios de ese path al listarlo de nuevo.
+ * 
+ * Reciclado de segmentos: un segmento anterior al checkpoint se reutiliza
+ * (sigue mapeado) para las siguientes escrituras, hasta maxFreeSegments; el
+ * resto se borra. Cada cola mantiene un FileLock sobre su owner.lock: un
+ * directorio cuyo lock se puede tomar pertenece a un proceso muerto o a una
+ * cola liberada con release(), y se borra al crear la siguiente cola salvo
+ * que esa cola lo reanude.
+ * 
+ * Un solo consumidor (el reader); los métodos son synchronized igualmente.
+ */
+@Slf4j
+public class SpillingDirectoryQueue implements AutoCloseable {
+
+    private static final String LOCK_FILE = "owner.lock";
+    private static final String DIRECTORY_PREFIX = "frontier-";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    // Directorios de colas vivas de este proceso: no se sondean (cerrar un
+    // canal sobre su owner.lock liberaría el lock en algunos sistemas)
+    private static final Set<Path> LIVE_DIRECTORIES = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Métricas de desbordamiento a disco.
+     */
+    public record SpillStats(long spilledEntries, long spilledBytes, int segmentsCreated,
+                             int segmentsRecycled, long diskEntries, long peakDiskBytes) {
+    }
+
+    /**
+     * Estado confirmado de la cola.
+     * 
+     * @param directory  Directorio de spill de la cola
+     * @param segments   Segmentos vivos en orden: "fichero:fin,fichero:fin" (vacío = log vacío)
+     * @param headOffset Offset del primer path pendiente en el primer segmento
+     * @param entries    Paths pendientes (incluidos los entregados sin terminar)
+     */
+    public record Checkpoint(String directory, String segments, int headOffset, long entries) {
+    }
+
+    private final String name;
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final int memoryEntries;
+    private final int segmentBytes;
+    private final int maxFreeSegments;
+
+    private final Deque<String> head = new ArrayDeque<>();
+    // Log vivo: del segmento del checkpoint al de escritura, con secuencias consecutivas
+    private final List<Segment> segments = new ArrayList<>();
+    private final Deque<Segment> freeSegments = new ArrayDeque<>();
+    private long logSequence = 0;
+    private int segmentSequence = 0;
+
+    // Posiciones en el log: (secuencia del segmento << 32) | offset
+    private long committedPosition = 0;
+    private long pollPosition = 0;
+    private long cachePosition = 0;
+    private long inFlight = 0;
+    private long diskEntries = 0;
+    private boolean resumed = false;
+
+    private long spilledEntries = 0;
+    private long spilledBytes = 0;
+    private int segmentsRecycled = 0;
+    private long peakDiskBytes = 0;
+    private boolean closed = false;
+
+    /**
+     * Segmento mapeado: contiene registros hasta writePosition.
+     */
+    private static final class Segment {
+
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private long sequence;
+        private int writePosition = 0;
+        private boolean dirty = false;
+        
+        Segment(Path file, MappedByteBuffer buffer, long sequence) {
+            this.file = file;
+            this.buffer = buffer;
+            this.sequence = sequence;
+        }
+        
+        boolean fits(int recordBytes) {
+            return writePosition + recordBytes <= buffer.capacity();
+        }
+    }
+
+    private SpillingDirectoryQueue(String name, Path directory, FileChannel lockChannel, FileLock lock,
+                                   int memoryEntries, int segmentBytes, int maxFreeSegments) {
+        this.name = name;
+        this.directory = directory;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.memoryEntries = memoryEntries;
+        this.segmentBytes = segmentBytes;
+        this.maxFreeSegments = maxFreeSegments;
+    }
+
+    /**
+     * Crea una cola vacía con su propio directorio de spill bajo spillRoot,
+     * borrando antes los directorios huérfanos de procesos caídos.
+     * 
+     * @param name            Nombre de la cola (p. ej. el origen), para logs y el directorio
+     * @param memoryEntries   Paths retenidos en memoria antes de desbordar a disco
+     * @param segmentBytes    Tamaño de cada segmento mapeado
+     * @param maxFreeSegments Segmentos consumidos que se conservan para reutilizar
+     */
+    public static SpillingDirectoryQueue create(Path spillRoot, String name, int memoryEntries,
+                                                int segmentBytes, int maxFreeSegments) {
+        return create(spillRoot, name, memoryEntries, segmentBytes, maxFreeSegments, null);
+    }
+
+    /**
+     * Como create, pero reanuda la cola del checkpoint si su directorio de
+     * spill sigue intacto (isResumed()). Si no (barrido por otra ejecución,
+     * otro tamaño de segmento, registros inválidos) crea una cola vacía.
+     * 
+     * @param resumeFrom Checkpoint guardado por el reader (null = cola nueva)
+     */
+    public static SpillingDirectoryQueue create(Path spillRoot, String name, int memoryEntries,
+                                                int segmentBytes, int maxFreeSegments, Checkpoint resumeFrom) {
+        try {
+            Files.createDirectories(spillRoot);
+            Path resumable = resumeFrom != null && resumeFrom.directory() != null
+                ? Path.of(resumeFrom.directory()).toAbsolutePath()
+                : null;
+            sweepOrphans(spillRoot, resumable);
+            
+            if (resumable != null) {
+                SpillingDirectoryQueue queue = resume(spillRoot, name, Math.max(1, memoryEntries), segmentBytes,
+                    Math.max(0, maxFreeSegments), resumeFrom);
+                if (queue != null) {
+                    return queue;
+                }
+            }
+            
+            Path directory = Files.createTempDirectory(spillRoot, DIRECTORY_PREFIX + sanitize(name) + "-");
+            FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = lockChannel.lock();
+            LIVE_DIRECTORIES.add(directory.toAbsolutePath());
+            
+            log.info("💾 Spilling frontier [{}] at {} (memory head: {} entries, segments: {} KB)",
+                     name, directory, memoryEntries, segmentBytes / 1024);
+            return new SpillingDirectoryQueue(name, directory, lockChannel, lock,
+                Math.max(1, memoryEntries), segmentBytes, Math.max(0, maxFreeSegments));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spill directory under " + spillRoot, e);
+        }
+    }
+
+    public synchronized void offer(String path) {
+        ensureOpen();
+        byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+        int recordBytes = Integer.BYTES + bytes.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Path longer than a spill segment: " + bytes.length + " bytes");
+        }
+        
+        Segment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (tail == null || !tail.fits(recordBytes)) {
+            tail = nextSegment();
+            segments.add(tail);
+        }
+        tail.buffer.putInt(tail.writePosition, bytes.length);
+        tail.buffer.put(tail.writePosition + Integer.BYTES, bytes);
+        tail.writePosition += recordBytes;
+        tail.dirty = true;
+        
+        if (diskEntries == 0 && head.size() < memoryEntries) {
+            head.addLast(path);
+            cachePosition = position(tail.sequence, tail.writePosition);
+            return;
+        }
+        diskEntries++;
+        spilledEntries++;
+        spilledBytes += recordBytes;
+    }
+
+    /**
+     * Siguiente path en orden FIFO, o null si la cola está vacía. El path
+     * queda pendiente en el checkpoint hasta un commit que lo dé por terminado.
+     */
+    public synchronized String poll() {
+        ensureOpen();
+        if (head.isEmpty() && diskEntries > 0) {
+            refillHead();
+        }
+        String path = head.pollFirst();
+        if (path != null) {
+            pollPosition = skipRecord(pollPosition);
+            inFlight++;
+        }
+        return path;
+    }
+
+    /**
+     * Da por terminados los paths entregados salvo los pending últimos,
+     * recicla los segmentos anteriores y fuerza a disco los escritos.
+     * 
+     * @param pending Paths entregados aún no terminados (los más recientes)
+     * @return Checkpoint desde el que reanudar la cola
+     */
+    public synchronized Checkpoint commit(int pending) {
+        ensureOpen();
+        long keep = Math.max(0, Math.min(pending, inFlight));
+        for (; inFlight > keep; inFlight--) {
+            committedPosition = skipRecord(committedPosition);
+        }
+        if (segments.isEmpty()) {
+            return new Checkpoint(directory.toAbsolutePath().toString(), "", 0, 0);
+        }
+        
+        committedPosition = normalize(committedPosition);
+        pollPosition = normalize(pollPosition);
+        cachePosition = normalize(cachePosition);
+        while (segments.get(0).sequence < (committedPosition >>> 32)) {
+            recycle(segments.remove(0));
+        }
+        StringJoiner marks = new StringJoiner(",");
+        for (Segment segment : segments) {
+            if (segment.dirty) {
+                segment.buffer.force();
+                segment.dirty = false;
+            }
+            marks.add(segment.file.getFileName() + ":" + segment.writePosition);
+        }
+        return new Checkpoint(directory.toAbsolutePath().toString(), marks.toString(),
+            (int) committedPosition, inFlight + head.size() + diskEntries);
+    }
+
+    public synchronized boolean isEmpty() {
+        return head.isEmpty() && diskEntries == 0;
+    }
+
+    public synchronized long size() {
+        return head.size() + diskEntries;
+    }
+
+    /**
+     * La cola continúa la de un checkpoint (create con resumeFrom).
+     */
+    public synchronized boolean isResumed() {
+        return resumed;
+    }
+
+    public synchronized SpillStats getStats() {
+        return new SpillStats(spilledEntries, spilledBytes, segmentSequence, segmentsRecycled,
+            diskEntries, peakDiskBytes);
+    }
+
+    /**
+     * Libera los segmentos y borra el directorio de spill.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        releaseLock();
+        deleteRecursively(directory);
+        
+        if (spilledEntries > 0) {
+            log.info("💾 Spilling frontier [{}] closed: {} entries ({} KB) spilled, {} segments created, {} recycled",
+                     name, spilledEntries, spilledBytes / 1024, segmentSequence, segmentsRecycled);
+        }
+    }
+
+    /**
+     * Libera la cola conservando el directorio de spill, para que un restart
+     * del step la reanude desde su último checkpoint.
+     */
+    public synchronized void release() {
+        if (closed) {
+            return;
+        }
+        long pending = inFlight + head.size() + diskEntries;
+        releaseLock();
+        log.info("💾 Spilling frontier [{}] released with {} pending directories, kept at {} for restart",
+                 name, pending, directory);
+    }
+
+    private void releaseLock() {
+        closed = true;
+        head.clear();
+        segments.clear();
+        freeSegments.clear();
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("⚠️  Cannot release spill lock of [{}]: {}", name, e.getMessage());
+        }
+        LIVE_DIRECTORIES.remove(directory.toAbsolutePath());
+    }
+
+    /**
+     * Mueve a la cabeza hasta memoryEntries paths desbordados, desde el
+     * principio del log.
+     */
+    private void refillHead() {
+        while (head.size() < memoryEntries && diskEntries > 0) {
+            cachePosition = normalize(cachePosition);
+            Segment segment = segmentAt(cachePosition);
+            int offset = (int) cachePosition;
+            int length = segment.buffer.getInt(offset);
+            byte[] bytes = new byte[length];
+            segment.buffer.get(offset + Integer.BYTES, bytes);
+            head.addLast(new String(bytes, StandardCharsets.UTF_8));
+            cachePosition = position(segment.sequence, offset + Integer.BYTES + length);
+            diskEntries--;
+        }
+    }
+
+    /**
+     * Posición del registro siguiente al de position.
+     */
+    private long skipRecord(long position) {
+        long current = normalize(position);
+        Segment segment = segmentAt(current);
+        int offset = (int) current;
+        return position(segment.sequence, offset + Integer.BYTES + segment.buffer.getInt(offset));
+    }
+
+    /**
+     * Lleva una posición al final de un segmento completo al inicio del siguiente.
+     */
+    private long normalize(long position) {
+        Segment segment = segmentAt(position);
+        Segment tail = segments.get(segments.size() - 1);
+        while ((int) position >= segment.writePosition && segment != tail) {
+            position = position(segment.sequence + 1, 0);
+            segment = segmentAt(position);
+        }
+        return position;
+    }
+
+    private Segment segmentAt(long position) {
+        return segments.get((int) ((position >>> 32) - segments.get(0).sequence));
+    }
+
+    private static long position(long sequence, int offset) {
+        return (sequence << 32) | offset;
+    }
+
+    private Segment nextSegment() {
+        Segment recycled = freeSegments.pollFirst();
+        if (recycled != null) {
+            segmentsRecycled++;
+            recycled.sequence = logSequence++;
+            recycled.writePosition = 0;
+            return recycled;
+        }
+        
+        Path file = directory.resolve(String.format(SEGMENT_PREFIX + "%06d" + SEGMENT_SUFFIX, segmentSequence++));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // El mapeo sigue siendo válido tras cerrar el canal
+            Segment segment = new Segment(file, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes),
+                logSequence++);
+            peakDiskBytes = Math.max(peakDiskBytes,
+                (long) (segments.size() + freeSegments.size() + 1) * segmentBytes);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spill segment " + file, e);
+        }
+    }
+
+    private void recycle(Segment segment) {
+        if (freeSegments.size() < maxFreeSegments) {
+            freeSegments.addLast(segment);
+            return;
+        }
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            log.warn("⚠️  Cannot delete spill segment {}: {}", segment.file, e.getMessage());
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Spilling frontier [" + name + "] is closed");
+        }
+    }
+
+    /**
+     * Reanuda la cola de un checkpoint: mapea sus segmentos, valida los
+     * registros pendientes y borra los segmentos que no figuran en él.
+     * 
+     * @return la cola reanudada, o null si el directorio ya no sirve
+     */
+    private static SpillingDirectoryQueue resume(Path spillRoot, String name, int memoryEntries, int segmentBytes,
+                                                 int maxFreeSegments, Checkpoint checkpoint) throws IOException {
+        Path directory = Path.of(checkpoint.directory()).toAbsolutePath();
+        if (!Files.isDirectory(directory) || !spillRoot.toAbsolutePath().equals(directory.getParent())) {
+            log.warn("⚠️  Spill directory {} of [{}] is gone: restarting the crawl", directory, name);
+            return null;
+        }
+        
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            log.warn("⚠️  Spill directory {} of [{}] is in use: restarting the crawl", directory, name);
+            return null;
+        }
+        LIVE_DIRECTORIES.add(directory);
+        
+        SpillingDirectoryQueue queue = new SpillingDirectoryQueue(name, directory, lockChannel, lock,
+            memoryEntries, segmentBytes, maxFreeSegments);
+        try {
+            queue.restore(checkpoint);
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️  Cannot resume spilling frontier [{}] from {}: {} - restarting the crawl",
+                     name, directory, e.getMessage());
+            queue.close();
+            return null;
+        }
+        
+        log.info("♻️  Spilling frontier [{}] resumed at {} with {} pending directories in {} segments",
+                 name, directory, checkpoint.entries(), queue.segments.size());
+        return queue;
+    }
+
+    private void restore(Checkpoint checkpoint) throws IOException {
+        Set<String> live = new HashSet<>();
+        if (!checkpoint.segments().isEmpty()) {
+            for (String mark : checkpoint.segments().split(",")) {
+                int separator = mark.lastIndexOf(':');
+                String fileName = mark.substring(0, separator);
+                int end = Integer.parseInt(mark.substring(separator + 1));
+                Path file = directory.resolve(fileName);
+                if (!fileName.startsWith(SEGMENT_PREFIX) || Files.size(file) != segmentBytes || end > segmentBytes) {
+                    throw new IOException("Segment " + fileName + " does not match the checkpoint");
+                }
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    Segment segment = new Segment(file, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes),
+                        logSequence++);
+                    segment.writePosition = end;
+                    segments.add(segment);
+                }
+                live.add(fileName);
+            }
+        }
+        
+        // Segmentos escritos después del checkpoint o ya libres
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                segmentSequence = Math.max(segmentSequence, Integer.parseInt(
+                    fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length())) + 1);
+                if (!live.contains(fileName)) {
+                    Files.delete(file);
+                }
+            }
+        }
+        
+        if (!segments.isEmpty()) {
+            committedPosition = position(0, checkpoint.headOffset());
+            pollPosition = committedPosition;
+            cachePosition = committedPosition;
+        }
+        diskEntries = checkpoint.entries();
+        
+        // Los registros pendientes deben llegar exactamente al final del log
+        long position = committedPosition;
+        for (long i = 0; i < diskEntries; i++) {
+            position = normalize(position);
+            Segment segment = segmentAt(position);
+            int offset = (int) position;
+            int length = offset + Integer.BYTES <= segment.writePosition ? segment.buffer.getInt(offset) : -1;
+            if (length < 0 || offset + Integer.BYTES + length > segment.writePosition) {
+                throw new IOException("Corrupt record at " + segment.file.getFileName() + ":" + offset);
+            }
+            position = position(segment.sequence, offset + Integer.BYTES + length);
+        }
+        if (!segments.isEmpty() && (segmentAt(position) != segments.get(segments.size() - 1)
+                || (int) position != segments.get(segments.size() - 1).writePosition)) {
+            throw new IOException("Checkpoint entries do not reach the end of the log");
+        }
+        resumed = true;
+    }
+
+    /**
+     * Borra los directorios de spill cuyo owner.lock no está retenido (su
+     * proceso terminó sin cerrar la cola), salvo el que se va a reanudar.
+     */
+    private static void sweepOrphans(Path spillRoot, Path resumable) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spillRoot, DIRECTORY_PREFIX + "*")) {
+            for (Path candidate : stream) {
+                if (!candidate.toAbsolutePath().equals(resumable) && isOrphan(candidate)) {
+                    log.info("🧹 Removing orphan spill directory {}", candidate);
+                    deleteRecursively(candidate);
+                }
+            }
+        }
+    }
+
+    private static boolean isOrphan(Path candidate) {
+        Path lockFile = candidate.resolve(LOCK_FILE);
+        if (!Files.isDirectory(candidate) || LIVE_DIRECTORIES.contains(candidate.toAbsolutePath())) {
+            return false;
+        }
+        if (!Files.exists(lockFile)) {
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            FileLock probe = channel.tryLock();
+            if (probe == null) {
+                return false;
+            }
+            probe.release();
+            return true;
+        } catch (OverlappingFileLockException | IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteRecursively(Path root) {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("⚠️  Cannot delete {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("⚠️  Cannot delete spill directory {}: {}", root, e.getMessage());
+        }
+    }
+
+    private static String sanitize(String value) {
+        return value == null ? "origin" : value.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+}
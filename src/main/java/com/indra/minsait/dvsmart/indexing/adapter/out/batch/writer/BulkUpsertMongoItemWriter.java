@@ -15,17 +15,28 @@ package com.indra.minsait.dvsmart.indexing.adapter.out.batch.writer;
 
 import com.indra.minsait.dvsmart.indexing.adapter.out.persistence.mongodb.entity.DisorganizedFilesIndexDocument;
 import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotRegistry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotTracker;
+import com.indra.minsait.dvsmart.indexing.infrastructure.jfr.BulkWriteEvent;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.IndexingMetrics;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressCounters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressRegistry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.timeline.ThroughputTimelineRecorder;
+import com.indra.minsait.dvsmart.indexing.infrastructure.timeline.ThroughputTimelineRegistry;
 import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
 import org.springframework.batch.infrastructure.item.Chunk;
 import org.springframework.batch.infrastructure.item.ItemWriter;
-import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Author: hahuaranga@indracompany.com
@@ -43,6 +54,10 @@ import org.springframework.stereotype.Component;
  * Para 11M archivos:
  * - Sin bulk: ~15-30 horas
  * - Con bulk: ~30-60 minutos
+ * 
+ * Los archivos con indexación FAILED cuentan como fallos de su directorio en
+ * el informe de hot-spots de la ejecución, y la latencia de cada bulk write
+ * alimenta el timeline de rendimiento por intervalos.
  */
 @Slf4j
 @Component
@@ -50,56 +65,70 @@ import org.springframework.stereotype.Component;
 public class BulkUpsertMongoItemWriter implements ItemWriter<ArchivoMetadata> {
 
     private final MongoTemplate mongoTemplate;
+    private final IndexingMetrics indexingMetrics;
+    private final JobProgressRegistry progressRegistry;
+    private final DirectoryHotspotRegistry hotspotRegistry;
+    private final ThroughputTimelineRegistry timelineRegistry;
+
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
 
     @Override
     public void write(Chunk<? extends ArchivoMetadata> chunk) {
         
-        BulkOperations bulkOps = mongoTemplate.bulkOps(
-            BulkOperations.BulkMode.UNORDERED,
-            DisorganizedFilesIndexDocument.class
-        );
+        // Directo al driver: sin Query/Update ni la conversión de Spring. Cada
+        // filtro y update se codifica a BSON en un buffer reutilizado por el chunk
+        MongoCollection<BsonDocument> collection = mongoTemplate
+            .getCollection(mongoTemplate.getCollectionName(DisorganizedFilesIndexDocument.class))
+            .withDocumentClass(BsonDocument.class);
+        List<UpdateOneModel<BsonDocument>> operations = new ArrayList<>(chunk.size());
+        UpsertDocumentEncoder encoder = new UpsertDocumentEncoder();
         
         int successCount = 0;
         int failedCount = 0;
+        DirectoryHotspotTracker hotspots = hotspotRegistry.current();
         
         for (ArchivoMetadata metadata : chunk) {
-            Query query = new Query(Criteria.where("idUnico").is(metadata.getIdUnico()));
-            
-            Update update = new Update()
-                    .set("sourcePath", metadata.getSourcePath())
-                    .set("fileName", metadata.getFileName())
-                    .set("extension", metadata.getExtension())
-                    .set("fileSize", metadata.getFileSize())
-                    .set("lastModificationDate", metadata.getLastModificationDate())
-                    
-                    // ✅ Control de indexación (con error)
-                    .set("indexing_status", metadata.getIndexing_status())
-                    .set("indexing_indexedAt", metadata.getIndexing_indexedAt())
-                    .set("indexing_errorDescription", metadata.getIndexing_errorDescription())  // ✅ CAMBIO
-                    
-                    // Estado inicial de reorganización (solo si indexación exitosa)
-                    .set("reorg_status", "FAILED".equals(metadata.getIndexing_status()) 
-                        ? "SKIPPED"   // ✅ Si falla indexación, skip reorganización
-                        : "PENDING")
-                    .set("reorg_attempts", 0)
-                    
-                    .setOnInsert("idUnico", metadata.getIdUnico());
-            
-            bulkOps.upsert(query, update);
+            boolean failed = "FAILED".equals(metadata.getIndexing_status());
+            operations.add(new UpdateOneModel<>(encoder.filter(metadata.getIdUnico()), encoder.update(metadata),
+                UPSERT));
             
             // ✅ NUEVO: Contar éxitos y fallos
-            if ("FAILED".equals(metadata.getIndexing_status())) {
+            if (failed) {
                 failedCount++;
+                if (hotspots != null) {
+                    hotspots.recordFileFailure(metadata.getSourceOrigin(), parentDirectory(metadata.getSourcePath()),
+                        metadata.getIndexing_errorDescription());
+                }
             } else {
                 successCount++;
             }
         }
         
+        if (operations.isEmpty()) {
+            return;
+        }
+        
+        BulkWriteEvent event = new BulkWriteEvent();
+        event.begin();
         try {
-            BulkWriteResult result = bulkOps.execute();
+            long start = System.nanoTime();
+            BulkWriteResult result = collection.bulkWrite(operations, UNORDERED);
             
-            int inserted = result.getInsertedCount();
+            int inserted = result.getUpserts().size();
             int updated = result.getModifiedCount();
+            event.complete(collection.getNamespace().getCollectionName(),
+                operations.size(), inserted, updated, failedCount, true);
+            long elapsed = System.nanoTime() - start;
+            indexingMetrics.current().recordWrite(elapsed, operations.size(), inserted, updated, failedCount);
+            ThroughputTimelineRecorder timeline = timelineRegistry.current();
+            if (timeline != null) {
+                timeline.recordBulkWrite(elapsed);
+            }
+            JobProgressCounters progress = progressRegistry.current();
+            if (progress != null) {
+                progress.filesWritten(operations.size());
+            }
             
             // ✅ NUEVO: Log mejorado con conteo de errores
             log.info("Bulk write completed: {} inserted, {} updated | Success: {}, Failed: {}", 
@@ -115,8 +144,18 @@ public class BulkUpsertMongoItemWriter implements ItemWriter<ArchivoMetadata> {
             }
             
         } catch (Exception e) {
+            event.complete(collection.getNamespace().getCollectionName(),
+                operations.size(), 0, 0, failedCount, false);
             log.error("Error in bulk write operation", e);
             throw new RuntimeException("Failed to write batch to MongoDB", e);
         }
     }
+
+    private static String parentDirectory(String path) {
+        if (path == null) {
+            return null;
+        }
+        int slash = path.lastIndexOf('/');
+        return slash > 0 ? path.substring(0, slash) : "/";
+    }
 }
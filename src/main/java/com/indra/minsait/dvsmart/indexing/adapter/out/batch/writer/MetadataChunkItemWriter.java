@@ -0,0 +1,153 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.writer;
+
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.processor.MetadataExtractorProcessor;
+import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.IndexingMetrics;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.DirectoryTrace;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.JobTrace;
+import com.indra.minsait.dvsmart.indexing.infrastructure.tracing.SpanTracer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 18:52:06
+ * File: MetadataChunkItemWriter.java
+ */
+
+/**
+ * Writer que transforma el chunk completo de entradas en metadata y lo
+ * delega en el bulk upsert.
+ * 
+ * Sustituye a AsyncItemProcessor + AsyncItemWriter: la extracción de
+ * metadata cuesta del orden de un microsegundo por archivo, menos que el
+ * submit, el Future y el cambio de contexto por item. Aquí un chunk es una
+ * sola llamada con digest y builders reutilizados (ChunkConverter).
+ * 
+ * Con batch.processing-parallelism > 0 los chunks mayores que
+ * batch.processing-segment-size se parten en segmentos sobre un ForkJoinPool
+ * propio, conservando el orden de los documentos.
+ * 
+ * Si el chunk contiene archivos de directorios muestreados por el SpanTracer,
+ * se les añaden los spans process y write del chunk.
+ */
+@Slf4j
+@Component
+public class MetadataChunkItemWriter implements ItemWriter<SftpFileEntry>, DisposableBean {
+
+    private final MetadataExtractorProcessor processor;
+    private final BulkUpsertMongoItemWriter bulkWriter;
+    private final int segmentSize;
+    private final ForkJoinPool pool;   // null = sin reparto
+    private final IndexingMetrics indexingMetrics;
+    private final SpanTracer spanTracer;
+
+    public MetadataChunkItemWriter(
+            MetadataExtractorProcessor processor,
+            BulkUpsertMongoItemWriter bulkWriter,
+            BatchConfigProperties props,
+            IndexingMetrics indexingMetrics,
+            SpanTracer spanTracer) {
+        this.processor = processor;
+        this.bulkWriter = bulkWriter;
+        this.indexingMetrics = indexingMetrics;
+        this.spanTracer = spanTracer;
+        this.segmentSize = Math.max(1, props.getProcessingSegmentSize());
+        this.pool = props.getProcessingParallelism() > 0
+            ? new ForkJoinPool(props.getProcessingParallelism())
+            : null;
+        
+        log.info("🧮 Chunk processing: {} (segment size {})",
+                 pool != null ? "fork-join, parallelism " + pool.getParallelism() : "step thread",
+                 segmentSize);
+    }
+
+    @Override
+    public void write(Chunk<? extends SftpFileEntry> chunk) throws Exception {
+        List<? extends SftpFileEntry> entries = chunk.getItems();
+        JobTrace tracing = spanTracer.current();
+        Map<DirectoryTrace, int[]> traced = tracing != null ? tracing.match(entries) : null;
+        
+        long start = System.nanoTime();
+        List<ArchivoMetadata> metadata = pool != null && entries.size() > segmentSize
+            ? pool.invoke(new SegmentTask(entries))
+            : processor.processChunk(entries);
+        long processed = System.nanoTime();
+        indexingMetrics.current().recordChunkProcessing(processed - start);
+        
+        Exception failure = null;
+        try {
+            // Chunk solo con archivos filtrados (directorios, ocultos, temporales): sin bulk
+            if (!metadata.isEmpty()) {
+                bulkWriter.write(new Chunk<>(metadata));
+            }
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (traced != null) {
+                tracing.chunkWritten(traced, entries.size(), metadata.size(), start, processed, System.nanoTime(),
+                    failure);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Divide el segmento en mitades hasta segmentSize y concatena en orden.
+     */
+    private class SegmentTask extends RecursiveTask<List<ArchivoMetadata>> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final transient List<? extends SftpFileEntry> entries;
+        
+        SegmentTask(List<? extends SftpFileEntry> entries) {
+            this.entries = entries;
+        }
+        
+        @Override
+        protected List<ArchivoMetadata> compute() {
+            if (entries.size() <= segmentSize) {
+                return processor.processChunk(entries);
+            }
+            
+            int middle = entries.size() / 2;
+            SegmentTask right = new SegmentTask(entries.subList(middle, entries.size()));
+            right.fork();
+            List<ArchivoMetadata> result = new ArrayList<>(entries.size());
+            result.addAll(new SegmentTask(entries.subList(0, middle)).compute());
+            result.addAll(right.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.writer;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import org.bson.RawBsonDocument;
+import org.bson.io.BasicOutputBuffer;
+import java.time.Instant;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 21:04:37
+ * File: UpsertDocumentEncoder.java
+ */
+
+/**
+ * Codifica el filtro y el update del bulk upsert de cada archivo
+ * directamente a BSON, sin el grafo intermedio de BsonDocument, BsonString
+ * y sus entradas.
+ * 
+ * Los campos se escriben sobre un BasicOutputBuffer reutilizado en todo el
+ * chunk; por documento solo se copia el resultado a su propio byte[]
+ * (RawBsonDocument), que el driver envía sin volver a codificar. El bulk
+ * retiene los documentos hasta ejecutarse, así que esa copia es necesaria.
+ * 
+ * Una instancia por chunk: no es thread-safe.
+ */
+public final class UpsertDocumentEncoder {
+
+    private static final byte STRING = 0x02;
+    private static final byte DOCUMENT = 0x03;
+    private static final byte DATE_TIME = 0x09;
+    private static final byte NULL = 0x0A;
+    private static final byte INT32 = 0x10;
+    private static final byte INT64 = 0x12;
+
+    private static final String TIPO_DOCUMENTO = "business_tipoDocumento";
+    private static final String CODIGO_CLIENTE = "business_codigoCliente";
+    private static final String ANIO = "business_anio";
+    private static final String MES = "business_mes";
+
+    private final BasicOutputBuffer buffer = new BasicOutputBuffer(512);
+
+    /**
+     * Filtro del upsert: { idUnico }.
+     */
+    public RawBsonDocument filter(String idUnico) {
+        int document = startDocument();
+        writeString("idUnico", idUnico);
+        endDocument(document);
+        return toRawDocument();
+    }
+
+    /**
+     * Update del upsert: $set con la metadata del archivo, $unset con los
+     * campos business_* que las reglas no extrajeron y $setOnInsert con el
+     * idUnico.
+     */
+    public RawBsonDocument update(ArchivoMetadata metadata) {
+        boolean failed = "FAILED".equals(metadata.getIndexing_status());
+        int document = startDocument();
+        
+        int set = startDocument("$set");
+        writeString("sourceOrigin", metadata.getSourceOrigin());
+        writeString("sourcePath", metadata.getSourcePath());
+        writeString("fileName", metadata.getFileName());
+        writeString("extension", metadata.getExtension());
+        writeInt64("fileSize", metadata.getFileSize());
+        writeDateTime("lastModificationDate", metadata.getLastModificationDate());
+        
+        // ✅ Control de indexación (con error)
+        writeString("indexing_status", metadata.getIndexing_status());
+        writeDateTime("indexing_indexedAt", metadata.getIndexing_indexedAt());
+        writeString("indexing_errorDescription", metadata.getIndexing_errorDescription());
+        
+        // Estado inicial de reorganización (solo si indexación exitosa)
+        writeString("reorg_status", failed ? "SKIPPED" : "PENDING");
+        writeInt32("reorg_attempts", 0);
+        
+        // Metadata de negocio: los campos extraídos por las reglas
+        if (metadata.getBusiness_tipoDocumento() != null) {
+            writeString(TIPO_DOCUMENTO, metadata.getBusiness_tipoDocumento());
+        }
+        if (metadata.getBusiness_codigoCliente() != null) {
+            writeString(CODIGO_CLIENTE, metadata.getBusiness_codigoCliente());
+        }
+        if (metadata.getBusiness_anio() != null) {
+            writeInt32(ANIO, metadata.getBusiness_anio());
+        }
+        if (metadata.getBusiness_mes() != null) {
+            writeInt32(MES, metadata.getBusiness_mes());
+        }
+        endDocument(set);
+        
+        // Los no extraídos se eliminan: un valor de un crawl anterior (otras
+        // reglas, archivo movido) no debe quedarse en el índice
+        if (metadata.getBusiness_tipoDocumento() == null || metadata.getBusiness_codigoCliente() == null
+                || metadata.getBusiness_anio() == null || metadata.getBusiness_mes() == null) {
+            int unset = startDocument("$unset");
+            unsetIfNull(TIPO_DOCUMENTO, metadata.getBusiness_tipoDocumento());
+            unsetIfNull(CODIGO_CLIENTE, metadata.getBusiness_codigoCliente());
+            unsetIfNull(ANIO, metadata.getBusiness_anio());
+            unsetIfNull(MES, metadata.getBusiness_mes());
+            endDocument(unset);
+        }
+        
+        int setOnInsert = startDocument("$setOnInsert");
+        writeString("idUnico", metadata.getIdUnico());
+        endDocument(setOnInsert);
+        
+        endDocument(document);
+        return toRawDocument();
+    }
+
+    /**
+     * Documento raíz: vacía el buffer y reserva su longitud.
+     */
+    private int startDocument() {
+        buffer.truncateToPosition(0);
+        buffer.writeInt32(0);
+        return 0;
+    }
+
+    private int startDocument(String name) {
+        buffer.writeByte(DOCUMENT);
+        buffer.writeCString(name);
+        int start = buffer.getPosition();
+        buffer.writeInt32(0);
+        return start;
+    }
+
+    private void endDocument(int start) {
+        buffer.writeByte(0);
+        buffer.writeInt32(start, buffer.getPosition() - start);
+    }
+
+    private void writeString(String name, String value) {
+        if (value == null) {
+            writeNull(name);
+            return;
+        }
+        buffer.writeByte(STRING);
+        buffer.writeCString(name);
+        buffer.writeString(value);
+    }
+
+    private void writeInt32(String name, int value) {
+        buffer.writeByte(INT32);
+        buffer.writeCString(name);
+        buffer.writeInt32(value);
+    }
+
+    private void writeInt64(String name, Long value) {
+        if (value == null) {
+            writeNull(name);
+            return;
+        }
+        buffer.writeByte(INT64);
+        buffer.writeCString(name);
+        buffer.writeInt64(value);
+    }
+
+    private void writeDateTime(String name, Instant value) {
+        if (value == null) {
+            writeNull(name);
+            return;
+        }
+        buffer.writeByte(DATE_TIME);
+        buffer.writeCString(name);
+        buffer.writeInt64(value.toEpochMilli());
+    }
+
+    private void unsetIfNull(String name, Object value) {
+        if (value == null) {
+            buffer.writeByte(STRING);
+            buffer.writeCString(name);
+            buffer.writeString("");
+        }
+    }
+
+    private void writeNull(String name) {
+        buffer.writeByte(NULL);
+        buffer.writeCString(name);
+    }
+
+    private RawBsonDocument toRawDocument() {
+        return new RawBsonDocument(buffer.toByteArray());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.persistence.mongodb.config;
+
+import com.indra.minsait.dvsmart.indexing.adapter.out.persistence.mongodb.entity.JobExecutionAuditDocument;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 14:34:26
+ * File: JobExecutionAuditIndexes.java
+ */
+
+/**
+ * Índices de job_executions_audit para las consultas de historial, tendencias
+ * y línea base de regresiones (JobExecutionAuditRepository).
+ * 
+ * Spring Data no crea los índices de las anotaciones salvo con
+ * auto-index-creation, así que se crean al arrancar (createIndex es
+ * idempotente). Un fallo solo se registra: las consultas siguen funcionando,
+ * aunque sin índice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobExecutionAuditIndexes {
+
+    private final MongoTemplate mongoTemplate;
+    private final BatchConfigProperties batchProps;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (!batchProps.getAudit().isCreateIndexes()) {
+            return;
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(JobExecutionAuditDocument.class);
+        int created = 0;
+        created += create(indexOps, new Index().on("jobExecutionId", Sort.Direction.ASC));
+        created += create(indexOps, new Index().on("startTime", Sort.Direction.DESC));
+        created += create(indexOps, new Index()
+            .on("jobName", Sort.Direction.ASC).on("startTime", Sort.Direction.DESC));
+        created += create(indexOps, new Index()
+            .on("status", Sort.Direction.ASC).on("startTime", Sort.Direction.DESC));
+        created += create(indexOps, new Index()
+            .on("jobName", Sort.Direction.ASC).on("status", Sort.Direction.ASC).on("startTime", Sort.Direction.DESC));
+        created += create(indexOps, new Index()
+            .on("regressionDetected", Sort.Direction.ASC).on("startTime", Sort.Direction.DESC));
+        log.info("✅ Audit history indexes ensured on {}: {}/6",
+                 mongoTemplate.getCollectionName(JobExecutionAuditDocument.class), created);
+    }
+
+    /**
+     * @return 1 si el índice existe o se ha creado
+     */
+    private int create(IndexOperations indexOps, Index index) {
+        try {
+            indexOps.createIndex(index);
+            return 1;
+        } catch (Exception e) {
+            // P.ej. un índice con las mismas claves y otro nombre (auto-index-creation)
+            log.warn("⚠️  Could not create audit index {}: {}", index.getIndexKeys().toJson(), e.getMessage());
+            return 0;
+        }
+    }
+}
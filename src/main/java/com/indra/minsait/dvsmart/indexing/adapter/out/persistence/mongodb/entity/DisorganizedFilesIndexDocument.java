@@ -39,7 +39,10 @@ public class DisorganizedFilesIndexDocument {
     private String id;
     
     @Indexed(unique = true)
-    private String idUnico;           // SHA-256 del path completo
+    private String idUnico;           // SHA-256 del path completo (con el id-prefix del origen, si lo declara)
+    
+    @Indexed
+    private String sourceOrigin;      // Origen SFTP (multi-origen)
     
     // ========== METADATA DEL ARCHIVO ==========
     private String sourcePath;         // ✅ NUEVO (antes rutaOrigen)
@@ -18,6 +18,10 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryHotspotReport;
+import com.indra.minsait.dvsmart.indexing.domain.model.OriginIndexingStats;
+import com.indra.minsait.dvsmart.indexing.domain.model.PerformanceRegressionCheck;
+import com.indra.minsait.dvsmart.indexing.domain.model.ThroughputTimeline;
 import java.time.Instant;
 import java.util.Map;
 
@@ -77,6 +81,20 @@ public class JobExecutionAuditDocument {
     private Long rollbackCount;
     private Double filesPerSecond;
     
+    // Métricas por origen SFTP (clave = nombre del origen)
+    private Map<String, OriginIndexingStats> originStats;
+    
+    // Directorios más lentos, más grandes y con más fallos
+    private DirectoryHotspotReport directoryHotspots;
+    
+    // Rendimiento por intervalos (columnar)
+    private ThroughputTimeline throughputTimeline;
+    
+    // Regresión de throughput frente a las ejecuciones anteriores del job
+    @Indexed
+    private Boolean regressionDetected;
+    private PerformanceRegressionCheck regressionCheck;
+    
     // Información de errores
     private String errorDescription;
     private String errorStackTrace;
@@ -14,8 +14,15 @@
 package com.indra.minsait.dvsmart.indexing.adapter.out.persistence.mongodb.repository;
 
 import com.indra.minsait.dvsmart.indexing.adapter.out.persistence.mongodb.entity.JobExecutionAuditDocument;
+import com.indra.minsait.dvsmart.indexing.domain.model.JobPerformanceStats;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,9 +33,83 @@ import java.util.Optional;
 
 /**
  * Repositorio para auditoría de ejecuciones de jobs.
+ * 
+ * Las consultas de historial excluyen los campos voluminosos (timeline,
+ * hot-spots y stack trace), que se consultan por jobExecutionId. Todas
+ * ordenan por startTime y se apoyan en los índices que crea
+ * JobExecutionAuditIndexes.
  */
 @Repository
 public interface JobExecutionAuditRepository extends MongoRepository<JobExecutionAuditDocument, String> {
+    
+    String SUMMARY_FIELDS = "{ 'throughputTimeline': 0, 'directoryHotspots': 0, 'errorStackTrace': 0 }";
+    
+    // Acumuladores comunes de tendencias y stats
+    String PERFORMANCE_GROUP_FIELDS = ""
+        + "runs: { $sum: 1 }, "
+        + "failedRuns: { $sum: { $cond: [ { $eq: [ '$status', 'FAILED' ] }, 1, 0 ] } }, "
+        + "regressions: { $sum: { $cond: [ { $eq: [ '$regressionDetected', true ] }, 1, 0 ] } }, "
+        + "avgFilesPerSecond: { $avg: '$filesPerSecond' }, "
+        + "minFilesPerSecond: { $min: '$filesPerSecond' }, "
+        + "maxFilesPerSecond: { $max: '$filesPerSecond' }, "
+        + "avgDurationMs: { $avg: '$durationMs' }, "
+        + "filesIndexed: { $sum: '$totalFilesIndexed' }, "
+        + "filesFailed: { $sum: '$totalFilesFailed' }, "
+        + "lastStartTime: { $max: '$startTime' }";
+    
+    String PERFORMANCE_PROJECT_FIELDS = ""
+        + "_id: 0, runs: 1, failedRuns: 1, regressions: 1, avgFilesPerSecond: 1, minFilesPerSecond: 1, "
+        + "maxFilesPerSecond: 1, avgDurationMs: 1, filesIndexed: 1, filesFailed: 1, lastStartTime: 1, "
+        + "failureRate: { $divide: [ '$failedRuns', '$runs' ] }, "
+        + "fileFailureRate: { $cond: [ { $gt: [ { $add: [ '$filesIndexed', '$filesFailed' ] }, 0 ] }, "
+        + "{ $divide: [ '$filesFailed', { $add: [ '$filesIndexed', '$filesFailed' ] } ] }, 0 ] }";
    
     Optional<JobExecutionAuditDocument> findByJobExecutionId(Long jobExecutionId);
+    
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    Page<JobExecutionAuditDocument> findSummaries(Pageable pageable);
+    
+    @Query(value = "{ 'jobName': ?0 }", fields = SUMMARY_FIELDS)
+    Page<JobExecutionAuditDocument> findSummariesByJobName(String jobName, Pageable pageable);
+    
+    @Query(value = "{ 'status': ?0 }", fields = SUMMARY_FIELDS)
+    Page<JobExecutionAuditDocument> findSummariesByStatus(String status, Pageable pageable);
+    
+    @Query(value = "{ 'startTime': { $gte: ?0, $lt: ?1 } }", fields = SUMMARY_FIELDS)
+    Page<JobExecutionAuditDocument> findSummariesByStartTimeRange(Instant start, Instant end, Pageable pageable);
+    
+    @Query(value = "{ 'regressionDetected': true }", fields = SUMMARY_FIELDS)
+    Page<JobExecutionAuditDocument> findRegressions(Pageable pageable);
+    
+    /**
+     * Línea base de regresiones: throughput de las ejecuciones COMPLETED del
+     * job anteriores a una fecha (el Pageable limita y ordena).
+     */
+    @Query(value = "{ 'jobName': ?0, 'status': 'COMPLETED', 'filesPerSecond': { $gt: 0 }, 'startTime': { $lt: ?1 } }",
+           fields = "{ 'filesPerSecond': 1, 'startTime': 1 }")
+    List<JobExecutionAuditDocument> findBaseline(String jobName, Instant before, Pageable pageable);
+    
+    /**
+     * Tendencias de un job por intervalo ($dateTrunc, MongoDB 5.0+).
+     * 
+     * @param unit hour, day, week o month
+     */
+    @Aggregation(pipeline = {
+        "{ $match: { 'jobName': ?0, 'startTime': { $gte: ?1, $lt: ?2 }, 'endTime': { $ne: null } } }",
+        "{ $group: { _id: { $dateTrunc: { date: '$startTime', unit: ?3 } }, " + PERFORMANCE_GROUP_FIELDS + " } }",
+        "{ $sort: { _id: 1 } }",
+        "{ $project: { jobName: { $literal: ?0 }, bucketStart: '$_id', " + PERFORMANCE_PROJECT_FIELDS + " } }"
+    })
+    List<JobPerformanceStats> aggregateTrends(String jobName, Instant start, Instant end, String unit);
+    
+    /**
+     * Métricas de todo el historial, por job.
+     */
+    @Aggregation(pipeline = {
+        "{ $match: { 'endTime': { $ne: null } } }",
+        "{ $group: { _id: '$jobName', " + PERFORMANCE_GROUP_FIELDS + " } }",
+        "{ $sort: { _id: 1 } }",
+        "{ $project: { jobName: '$_id', " + PERFORMANCE_PROJECT_FIELDS + " } }"
+    })
+    List<JobPerformanceStats> aggregateStatsByJob();
 }
@@ -0,0 +1,106 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.source;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.IdUnicoRules;
+import com.indra.minsait.dvsmart.indexing.domain.service.DirectoryDiscoveryService;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpSessionPoolRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 15:48:50
+ * File: FileSourceConfig.java
+ */
+
+/**
+ * Configuración de los orígenes de archivos.
+ * 
+ * Cada origen configurado (sftp.origin / sftp.origins[n]) se expone como un
+ * FileSourcePort según su tipo:
+ * - SFTP: pools del SftpSessionPoolRegistry
+ * - LOCAL: lectura directa de localRoot (p. ej. montaje NFS), sin conexiones
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class FileSourceConfig {
+
+    private final SftpConfigProperties props;
+    private final SftpSessionPoolRegistry sftpPoolRegistry;
+    private final DirectoryDiscoveryService directoryDiscoveryService;
+    private final BatchConfigProperties batchProps;
+    private FileSourceRegistry sourceRegistry;
+
+    @Bean
+    FileSourceRegistry fileSourceRegistry() {
+        List<FileSourcePort> sources = new ArrayList<>();
+        for (SftpConfigProperties.Origin origin : props.resolveOrigins()) {
+            if (origin.getSource() == SftpConfigProperties.SourceType.LOCAL) {
+                if (origin.getLocalRoot() == null || origin.getLocalRoot().isBlank()) {
+                    throw new IllegalStateException(
+                        "Local origin [" + origin.getName() + "] requires local-root");
+                }
+                sources.add(new LocalFileSourceAdapter(
+                    origin.getName(),
+                    Path.of(origin.getLocalRoot()),
+                    origin.resolveBaseDirs(),
+                    origin.getLocalParallelism()));
+            } else {
+                sources.add(new SftpFileSourceAdapter(
+                    sftpPoolRegistry.getOrigin(origin.getName()),
+                    directoryDiscoveryService,
+                    batchProps.getExecutionMode() == BatchConfigProperties.ExecutionMode.VIRTUAL));
+            }
+        }
+        
+        sourceRegistry = new FileSourceRegistry(sources);
+        return sourceRegistry;
+    }
+
+    /**
+     * Prefijos de idUnico por origen (sftp.origins[n].id-prefix).
+     */
+    @Bean
+    IdUnicoRules idUnicoRules() {
+        IdUnicoRules rules = props.resolveIdUnicoRules();
+        for (SftpConfigProperties.Origin origin : props.resolveOrigins()) {
+            String prefix = rules.prefixFor(origin.getName());
+            log.info("🔑 Origin [{}] idUnico: {}", origin.getName(),
+                prefix == null ? "SHA-256(path)" : "SHA-256(" + prefix + ":path)");
+        }
+        return rules;
+    }
+
+    /**
+     * Limpieza al apagar la aplicación.
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (sourceRegistry != null) {
+            log.info("Shutting down local file sources...");
+            sourceRegistry.destroy();
+        }
+    }
+}
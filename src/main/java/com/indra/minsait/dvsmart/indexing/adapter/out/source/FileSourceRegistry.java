@@ -0,0 +1,81 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.source;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 15:41:12
+ * File: FileSourceRegistry.java
+ */
+
+/**
+ * Registro de orígenes de archivos (SFTP y locales), en orden de configuración.
+ * 
+ * Es la fuente de verdad de los orígenes que indexa el job: el particionador
+ * crea una partición por cada nombre registrado aquí.
+ */
+@Slf4j
+public class FileSourceRegistry {
+
+    private final Map<String, FileSourcePort> sources;
+
+    public FileSourceRegistry(Collection<FileSourcePort> sources) {
+        Map<String, FileSourcePort> byName = new LinkedHashMap<>();
+        for (FileSourcePort source : sources) {
+            if (byName.putIfAbsent(source.getOriginName(), source) != null) {
+                throw new IllegalStateException("Duplicated origin name: " + source.getOriginName());
+            }
+        }
+        this.sources = Collections.unmodifiableMap(byName);
+        log.info("File Source Registry initialized with origins: {}", this.sources.keySet());
+    }
+
+    /**
+     * Retorna un origen por nombre.
+     */
+    public FileSourcePort getSource(String name) {
+        FileSourcePort source = sources.get(name);
+        if (source == null) {
+            throw new IllegalArgumentException("Unknown origin: " + name);
+        }
+        return source;
+    }
+
+    /**
+     * Nombres de los orígenes, en orden de configuración.
+     */
+    public List<String> getOriginNames() {
+        return new ArrayList<>(sources.keySet());
+    }
+
+    /**
+     * Libera los recursos de los orígenes locales.
+     */
+    public void destroy() {
+        sources.values().forEach(source -> {
+            if (source instanceof LocalFileSourceAdapter local) {
+                local.shutdown();
+            }
+        });
+    }
+}
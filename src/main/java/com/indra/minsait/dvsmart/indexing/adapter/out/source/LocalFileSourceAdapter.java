@@ -0,0 +1,250 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.source;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryListing;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 15:24:37
+ * File: LocalFileSourceAdapter.java
+ */
+
+/**
+ * Adaptador de filesystem local (p. ej. montaje NFS) del puerto FileSourcePort.
+ * 
+ * Mapeo de paths: localRoot es el directorio local equivalente a la raíz '/'
+ * del servidor SFTP. El path lógico /data/a.pdf se lee de localRoot/data/a.pdf
+ * y se indexa como /data/a.pdf, de modo que con el mismo id-prefix el idUnico
+ * coincide con el de un crawl SFTP del mismo árbol.
+ * 
+ * Rendimiento:
+ * - Discovery en paralelo (ForkJoinPool, una tarea por directorio con DirectoryStream)
+ * - Listado con walkFileTree de profundidad 1: los BasicFileAttributes llegan
+ *   con cada entrada, sin una llamada stat adicional por archivo
+ * - Sin red: sirve también como origen de referencia para benchmarks
+ * 
+ * Equivalencia con SFTP:
+ * - Un directorio raíz (o localRoot) que sea un enlace simbólico se sigue,
+ *   igual que el opendir de SFTP y find -H
+ * - Los enlaces interiores a directorios no se siguen ni se indexan: ni se
+ *   recorren en el discovery ni se emiten como archivo en el listado
+ * - Los enlaces a archivos se indexan con sus propios atributos (igual que READDIR)
+ * - mtime truncado a segundos (SFTP v3 solo informa segundos)
+ */
+@Slf4j
+public class LocalFileSourceAdapter implements FileSourcePort {
+
+    private final String originName;
+    private final Path localRoot;
+    private final List<String> baseDirs;
+    private final ForkJoinPool discoveryPool;
+
+    public LocalFileSourceAdapter(String originName, Path localRoot, List<String> baseDirs, int parallelism) {
+        this.originName = originName;
+        this.localRoot = localRoot;
+        this.baseDirs = List.copyOf(baseDirs);
+        this.discoveryPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        
+        log.info("Local file source [{}] configured: root={}, parallelism={}",
+                 originName, localRoot, discoveryPool.getParallelism());
+    }
+
+    @Override
+    public String getOriginName() {
+        return originName;
+    }
+
+    @Override
+    public List<String> getBaseDirs() {
+        return baseDirs;
+    }
+
+    @Override
+    public void discoverDirectories(String baseDir, FileFilter filter, DirectoryFrontier frontier) {
+        Path start = toLocalPath(baseDir);
+        // Sin NOFOLLOW_LINKS: el directorio raíz se sigue si es un enlace
+        if (!Files.isDirectory(start)) {
+            throw new RuntimeException("Local base directory not found: " + start);
+        }
+        
+        log.info("Starting local directory discovery from: {} ({})", baseDir, start);
+        
+        AtomicLong counter = new AtomicLong();
+        discoveryPool.invoke(new DiscoveryTask(start, frontier.addRoot(baseDir), frontier, counter, filter));
+        
+        log.info("Local directory discovery completed. Total: {}", counter.get());
+    }
+
+    @Override
+    public int getListingConcurrency() {
+        return discoveryPool.getParallelism();
+    }
+
+    @Override
+    public List<SftpFileEntry> listFiles(String directory, FileFilter filter) throws IOException {
+        return list(directory, filter, null);
+    }
+
+    @Override
+    public DirectoryListing listDirectory(String directory, FileFilter filter) throws IOException {
+        List<String> subdirectories = new ArrayList<>();
+        return new DirectoryListing(list(directory, filter, subdirectories), subdirectories);
+    }
+
+    /**
+     * Archivos aceptados y, si subdirectories no es null, también los
+     * subdirectorios no podados (sin seguir enlaces simbólicos).
+     */
+    private List<SftpFileEntry> list(String directory, FileFilter filter, List<String> subdirectories)
+            throws IOException {
+        Path localDir = toLocalPath(directory);
+        // walkFileTree no sigue un enlace de partida: se resuelve (solo los
+        // directorios raíz pueden serlo, el discovery no sigue los interiores)
+        if (Files.isSymbolicLink(localDir)) {
+            localDir = localDir.toRealPath();
+        }
+        Path start = localDir;
+        List<SftpFileEntry> files = new ArrayList<>();
+        
+        Files.walkFileTree(start, EnumSet.noneOf(java.nio.file.FileVisitOption.class), 1,
+            new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    // Con maxDepth=1 los subdirectorios también llegan aquí
+                    if (attrs.isDirectory()) {
+                        String name = file.getFileName().toString();
+                        if (subdirectories != null && !attrs.isSymbolicLink()
+                                && filter.acceptsDirectory(directory, name)) {
+                            subdirectories.add(directory.endsWith("/") ? directory + name : directory + "/" + name);
+                        }
+                    } else if (attrs.isSymbolicLink() && Files.isDirectory(file)) {
+                        // Enlace a un directorio: no se sigue ni es un archivo
+                        log.debug("Skipping symbolic link to directory: {}", file);
+                    } else {
+                        String name = file.getFileName().toString();
+                        long modificationTime = attrs.lastModifiedTime().to(TimeUnit.SECONDS) * 1000L;
+                        if (filter.acceptsFileIn(directory, name, attrs.size(), modificationTime)) {
+                            files.add(SftpFileEntry.builder()
+                                    .origin(originName)
+                                    .parentDirectory(directory)
+                                    .filename(name)
+                                    .size(attrs.size())
+                                    .modificationTime(modificationTime)
+                                    .isDirectory(false)
+                                    .build());
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                    if (file.equals(start)) {
+                        throw exc;
+                    }
+                    log.warn("⚠️  Cannot read local entry {}: {}", file, exc.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        
+        return files;
+    }
+
+    /**
+     * Path lógico (SFTP) → path local bajo localRoot.
+     */
+    private Path toLocalPath(String logicalPath) {
+        String relative = logicalPath.startsWith("/") ? logicalPath.substring(1) : logicalPath;
+        return relative.isEmpty() ? localRoot : localRoot.resolve(relative);
+    }
+
+    /**
+     * Cierra el pool de discovery.
+     */
+    public void shutdown() {
+        discoveryPool.shutdown();
+    }
+
+    /**
+     * Tarea de discovery: cuenta un directorio (ya añadido a la frontera) y
+     * lanza una subtarea por cada subdirectorio, añadido como hijo.
+     */
+    private static class DiscoveryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path localDir;
+        private final int node;
+        private final transient DirectoryFrontier frontier;
+        private final transient AtomicLong counter;
+        private final transient FileFilter filter;
+
+        DiscoveryTask(Path localDir, int node, DirectoryFrontier frontier, AtomicLong counter,
+                      FileFilter filter) {
+            this.localDir = localDir;
+            this.node = node;
+            this.frontier = frontier;
+            this.counter = counter;
+            this.filter = filter;
+        }
+
+        @Override
+        protected void compute() {
+            long count = counter.incrementAndGet();
+            if (count % 1000 == 0) {
+                log.info("Discovered {} directories...", count);
+            }
+            
+            // Path lógico solo si el rule set tiene reglas de directorio
+            String logicalDir = filter.prunesDirectories() ? frontier.path(node) : null;
+            List<DiscoveryTask> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(localDir)) {
+                for (Path child : stream) {
+                    if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                        String name = child.getFileName().toString();
+                        // Directorio podado por el rule set: su subárbol no se recorre
+                        if (filter.acceptsDirectory(logicalDir, name)) {
+                            subtasks.add(new DiscoveryTask(child, frontier.add(node, name), frontier, counter, filter));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("⚠️  Cannot read local directory {}: {}", localDir, e.getMessage());
+            }
+            
+            invokeAll(subtasks);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.source;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryListing;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.DirectoryDiscoveryService;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpOrigin;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpWorkloadClass;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 15:10:05
+ * File: SftpFileSourceAdapter.java
+ */
+
+/**
+ * Adaptador SFTP del puerto FileSourcePort.
+ * 
+ * Clases de carga SFTP:
+ * - Discovery: sub-pool DISCOVERY
+ * - Listado de archivos: sub-pool LISTING (balanceado entre réplicas si las hay)
+ */
+@Slf4j
+public class SftpFileSourceAdapter implements FileSourcePort {
+
+    private final SftpOrigin origin;
+    private final DirectoryDiscoveryService discoveryService;
+    private final boolean concurrentDiscovery;
+
+    /**
+     * @param concurrentDiscovery Discovery en paralelo sobre virtual threads,
+     *                            limitado al tamaño del pool DISCOVERY
+     */
+    public SftpFileSourceAdapter(
+            SftpOrigin origin,
+            DirectoryDiscoveryService discoveryService,
+            boolean concurrentDiscovery) {
+        this.origin = origin;
+        this.discoveryService = discoveryService;
+        this.concurrentDiscovery = concurrentDiscovery;
+    }
+
+    @Override
+    public String getOriginName() {
+        return origin.getName();
+    }
+
+    @Override
+    public List<String> getBaseDirs() {
+        return origin.getBaseDirs();
+    }
+
+    @Override
+    public void discoverDirectories(String baseDir, FileFilter filter, DirectoryFrontier frontier) {
+        SftpRemoteFileTemplate template = origin.getTemplate(SftpWorkloadClass.DISCOVERY);
+        if (concurrentDiscovery) {
+            discoveryService.discoverDirectoriesConcurrently(
+                template, baseDir, origin.getWorkloadCapacity(SftpWorkloadClass.DISCOVERY), filter, frontier);
+        } else {
+            discoveryService.discoverDirectories(template, baseDir, filter, frontier);
+        }
+    }
+
+    @Override
+    public int getListingConcurrency() {
+        return origin.getWorkloadCapacity(SftpWorkloadClass.LISTING);
+    }
+
+    @Override
+    public List<SftpFileEntry> listFiles(String directory, FileFilter filter) {
+        return list(directory, filter, null);
+    }
+
+    @Override
+    public DirectoryListing listDirectory(String directory, FileFilter filter) {
+        List<String> subdirectories = new ArrayList<>();
+        return new DirectoryListing(list(directory, filter, subdirectories), subdirectories);
+    }
+
+    /**
+     * Un único READDIR: archivos aceptados y, si subdirectories no es null,
+     * también los subdirectorios no podados.
+     */
+    private List<SftpFileEntry> list(String directory, FileFilter filter, List<String> subdirectories) {
+        return origin.getTemplate(SftpWorkloadClass.LISTING).execute(session -> {
+            
+            SftpClient.DirEntry[] entries = session.list(directory);
+            List<SftpFileEntry> files = new ArrayList<>(entries.length);
+            
+            for (SftpClient.DirEntry entry : entries) {
+                String name = entry.getFilename();
+                
+                if (".".equals(name) || "..".equals(name)) {
+                    continue;
+                }
+                
+                // ✅ Solo procesar ARCHIVOS
+                if (!entry.getAttributes().isDirectory()) {
+                    long size = entry.getAttributes().getSize();
+                    long modificationTime = entry.getAttributes().getModifyTime().toMillis();
+                    
+                    // Excluidos por el rule set: ni SftpFileEntry ni paso por el chunk
+                    if (!filter.acceptsFileIn(directory, name, size, modificationTime)) {
+                        continue;
+                    }
+                    
+                    files.add(SftpFileEntry.builder()
+                            .origin(origin.getName())
+                            .parentDirectory(directory)
+                            .filename(name)
+                            .size(size)
+                            .modificationTime(modificationTime)
+                            .isDirectory(false)
+                            .build());
+                } else if (subdirectories != null && filter.acceptsDirectory(directory, name)) {
+                    subdirectories.add(directory.endsWith("/") ? directory + name : directory + "/" + name);
+                }
+            }
+            return files;
+        });
+    }
+}
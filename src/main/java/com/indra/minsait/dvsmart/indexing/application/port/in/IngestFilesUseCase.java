@@ -0,0 +1,50 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.application.port.in;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.IngestRunStatus;
+import java.io.InputStream;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 16:07:41
+ * File: IngestFilesUseCase.java
+ */
+
+/**
+ * Ingesta push: un agente que recorre el árbol en el propio host envía lotes
+ * NDJSON de {path,size,mtime} que se procesan en el job BATCH-INDEX-INGEST.
+ */
+public interface IngestFilesUseCase {
+    
+    /**
+     * Abre una ejecución de ingesta y lanza su job.
+     */
+    IngestRunStatus startRun(String origin);
+    
+    /**
+     * Entrega un lote NDJSON. Bloquea hasta que el job lo ha consumido.
+     */
+    IngestRunStatus ingestBatch(String runId, InputStream ndjson);
+    
+    /**
+     * Cierra la ejecución: el job termina tras consumir los lotes pendientes.
+     */
+    IngestRunStatus completeRun(String runId);
+    
+    /**
+     * Estado actual de una ejecución abierta.
+     */
+    IngestRunStatus getRun(String runId);
+}
@@ -0,0 +1,72 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.application.port.out;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryListing;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 15:02:44
+ * File: FileSourcePort.java
+ */
+
+/**
+ * Puerto de salida: origen de archivos a indexar.
+ * 
+ * Abstrae el acceso al árbol de directorios (SFTP, filesystem local/NFS...).
+ * Todos los paths son lógicos: los mismos que vería el servidor SFTP, de modo
+ * que un mismo archivo produce el mismo SftpFileEntry (y el mismo idUnico)
+ * sea cual sea la implementación.
+ */
+public interface FileSourcePort {
+
+    /**
+     * Nombre del origen (etiqueta sourceOrigin; clave de su id-prefix en IdUnicoRules).
+     */
+    String getOriginName();
+
+    /**
+     * Directorios raíz a indexar.
+     */
+    List<String> getBaseDirs();
+
+    /**
+     * Descubre recursivamente todos los directorios bajo baseDir (incluido),
+     * sin recorrer los subárboles que el filtro poda, y los añade a la
+     * frontera (baseDir como raíz, el resto como nodos hijo).
+     */
+    void discoverDirectories(String baseDir, FileFilter filter, DirectoryFrontier frontier);
+
+    /**
+     * Lista los archivos (no directorios) de un directorio que acepta el filtro.
+     */
+    List<SftpFileEntry> listFiles(String directory, FileFilter filter) throws IOException;
+
+    /**
+     * Lista en una sola operación los archivos y los subdirectorios (no
+     * podados por el filtro) de un directorio: crawl sin discovery previo.
+     */
+    DirectoryListing listDirectory(String directory, FileFilter filter) throws IOException;
+
+    /**
+     * Listados concurrentes que el origen admite (p. ej. conexiones del pool
+     * LISTING). Limita la lectura anticipada en modo virtual threads.
+     */
+    int getListingConcurrency();
+}
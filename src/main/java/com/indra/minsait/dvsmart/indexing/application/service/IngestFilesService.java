@@ -0,0 +1,146 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.application.service;
+
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.config.BatchIndexIngestConfig;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.IngestRun;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.IngestRunRegistry;
+import com.indra.minsait.dvsmart.indexing.application.port.in.IngestFilesUseCase;
+import com.indra.minsait.dvsmart.indexing.domain.model.IngestRunStatus;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.JobAlreadyRunningException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 17:10:48
+ * File: IngestFilesService.java
+ */
+
+/**
+ * Orquesta las ejecuciones de ingesta push.
+ * 
+ * Cada ejecución es un job BATCH-INDEX-INGEST normal (auditado por
+ * JobExecutionAuditListener) que vive mientras el agente envía lotes.
+ */
+@Slf4j
+@Service
+public class IngestFilesService implements IngestFilesUseCase {
+
+    private static final Pattern ORIGIN_NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final JobOperator jobOperator;
+    private final Job batchIndexIngestJob;
+    private final TaskExecutor ingestLaunchExecutor;
+    private final IngestRunRegistry runRegistry;
+    private final BatchConfigProperties props;
+
+    public IngestFilesService(
+            JobOperator jobOperator,
+            @Qualifier("batchIndexIngestJob") Job batchIndexIngestJob,
+            @Qualifier("ingestLaunchExecutor") TaskExecutor ingestLaunchExecutor,
+            IngestRunRegistry runRegistry,
+            BatchConfigProperties props) {
+        this.jobOperator = jobOperator;
+        this.batchIndexIngestJob = batchIndexIngestJob;
+        this.ingestLaunchExecutor = ingestLaunchExecutor;
+        this.runRegistry = runRegistry;
+        this.props = props;
+    }
+
+    @Override
+    public IngestRunStatus startRun(String origin) {
+        if (origin == null || !ORIGIN_NAME.matcher(origin).matches()) {
+            throw new IllegalArgumentException("Invalid origin name: " + origin);
+        }
+        
+        String runId = UUID.randomUUID().toString();
+        IngestRun run = runRegistry.open(runId, origin);
+        
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addLocalDateTime("timestamp", LocalDateTime.now(), true)
+                .addString(BatchIndexIngestConfig.RUN_ID_PARAM, runId)
+                .addString(BatchIndexIngestConfig.ORIGIN_PARAM, origin)
+                .toJobParameters();
+        log.info("Starting INGEST JOB with parameters: {}", jobParameters);
+        
+        try {
+            ingestLaunchExecutor.execute(() -> {
+                try {
+                    JobExecution execution = jobOperator.run(batchIndexIngestJob, jobParameters);
+                    if (execution.isRunning()) {
+                        return;  // JobOperator asíncrono: el reader cerrará la ejecución
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to launch ingest job for run {}", runId, e);
+                    run.failStart(e);
+                }
+                // Si el step nunca arrancó, el reader no ha podido desregistrarla
+                run.close(null);
+                runRegistry.remove(runId);
+            });
+        } catch (TaskRejectedException e) {
+            runRegistry.remove(runId);
+            throw new JobAlreadyRunningException(
+                "Too many ingest runs in progress (max " + props.getIngest().getMaxConcurrentRuns() + ")", e);
+        }
+        
+        try {
+            Long jobExecutionId = run.awaitStarted(props.getIngest().getStartTimeoutMillis());
+            log.info("Ingest run started: runId={}, origin={}, jobExecutionId={}", runId, origin, jobExecutionId);
+        } catch (RuntimeException e) {
+            run.close(e);
+            runRegistry.remove(runId);
+            throw e;
+        }
+        return run.toStatus();
+    }
+
+    @Override
+    public IngestRunStatus ingestBatch(String runId, InputStream ndjson) {
+        IngestRun run = runRegistry.get(runId);
+        IngestRun.BatchResult result = run.submit(ndjson);
+        
+        IngestRunStatus status = run.toStatus();
+        status.setBatchAccepted(result.accepted());
+        status.setBatchRejected(result.rejected());
+        return status;
+    }
+
+    @Override
+    public IngestRunStatus completeRun(String runId) {
+        IngestRun run = runRegistry.get(runId);
+        run.requestComplete();
+        log.info("Ingest run completion requested: runId={}", runId);
+        return run.toStatus();
+    }
+
+    @Override
+    public IngestRunStatus getRun(String runId) {
+        return runRegistry.get(runId).toStatus();
+    }
+}
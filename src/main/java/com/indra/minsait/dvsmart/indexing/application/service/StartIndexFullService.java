@@ -14,6 +14,7 @@
 package com.indra.minsait.dvsmart.indexing.application.service;
 
 import com.indra.minsait.dvsmart.indexing.application.port.in.StartIndexFullUseCase;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilterService;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -40,13 +41,15 @@ public class StartIndexFullService implements StartIndexFullUseCase {
 	private final JobOperator jobOperator;
 	
 	private final Job batchIndexFullJob;
+	
+	private final FileFilterService fileFilterService;
     
     @Override
     public Long execute(@NotBlank(message = "Job name is required") String string, Map<String, Object> map) {
         log.info("Starting FULL INDEXING JOB");
         
         try {
-            validatePrerequisites();
+            validatePrerequisites(map);
             
             JobParametersBuilder paramsBuilder = new JobParametersBuilder();
             paramsBuilder.addLocalDateTime("timestamp", LocalDateTime.now(), true);
@@ -81,9 +84,13 @@ public class StartIndexFullService implements StartIndexFullUseCase {
      * Validaciones antes de ejecutar el job.
      * Evita iniciar si hay problemas conocidos.
      */
-    private void validatePrerequisites() {
+    private void validatePrerequisites(Map<String, Object> parameters) {
         log.debug("Validating job prerequisites...");
         
+        // Rule set de filtrado: nombre existente y expresiones válidas
+        Object ruleSet = parameters.get(FileFilterService.RULE_SET_PARAM);
+        fileFilterService.validate(ruleSet instanceof String name ? name : null);
+        
         // TODO: Agregar validaciones específicas si son necesarias
         // Ejemplos:
         // - Verificar conectividad MongoDB
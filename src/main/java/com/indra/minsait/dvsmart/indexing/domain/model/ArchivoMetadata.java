@@ -26,6 +26,7 @@ public class ArchivoMetadata {
     
     // Identificación
     private String idUnico;
+    private String sourceOrigin;         // Origen SFTP del que procede el archivo
     
     // Metadata del archivo
     private String sourcePath;           // ✅ CAMBIO: antes rutaOrigen
@@ -38,4 +39,10 @@ public class ArchivoMetadata {
     private String indexing_status;      // ✅ NUEVO
     private Instant indexing_indexedAt;  // ✅ NUEVO
     private String indexing_errorDescription;  // ✅ CAMBIO: Agregar campo
+    
+    // Metadata de negocio derivada del path (null si ninguna regla la extrae)
+    private String business_tipoDocumento;
+    private String business_codigoCliente;
+    private Integer business_anio;
+    private Integer business_mes;
 }
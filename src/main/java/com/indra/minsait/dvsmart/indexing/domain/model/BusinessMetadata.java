@@ -0,0 +1,52 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 20:12:33
+ * File: BusinessMetadata.java
+ */
+
+/**
+ * Metadata de negocio derivada del path de un archivo (campos business_*).
+ * 
+ * Cualquier campo puede ser null si ninguna regla lo extrae.
+ */
+public record BusinessMetadata(
+        String tipoDocumento,
+        String codigoCliente,
+        Integer anio,
+        Integer mes) {
+
+    public static final BusinessMetadata EMPTY = new BusinessMetadata(null, null, null, null);
+
+    public boolean isComplete() {
+        return tipoDocumento != null && codigoCliente != null && anio != null && mes != null;
+    }
+
+    /**
+     * Completa los campos null con los de other (los propios tienen prioridad).
+     */
+    public BusinessMetadata orElse(BusinessMetadata other) {
+        if (isComplete() || other == null || other == EMPTY) {
+            return this;
+        }
+        return new BusinessMetadata(
+            tipoDocumento != null ? tipoDocumento : other.tipoDocumento,
+            codigoCliente != null ? codigoCliente : other.codigoCliente,
+            anio != null ? anio : other.anio,
+            mes != null ? mes : other.mes);
+    }
+}
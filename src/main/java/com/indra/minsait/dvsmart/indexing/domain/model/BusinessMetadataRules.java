@@ -0,0 +1,41 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 21:26:18
+ * File: BusinessMetadataRules.java
+ */
+
+/**
+ * Reglas de extracción de metadata de negocio a partir del path.
+ * 
+ * Cada regla es una expresión regular con grupos con nombre tipoDocumento,
+ * codigoCliente, anio y/o mes. Las reglas de directorio se evalúan sobre el
+ * directorio del archivo (una vez por directorio); las de archivo sobre el
+ * nombre y solo completan los campos que el directorio no aportó.
+ */
+@Data
+public class BusinessMetadataRules {
+    private List<String> directoryPatterns = new ArrayList<>();
+    private List<String> filePatterns = new ArrayList<>();
+
+    // Directorios con su metadata en caché (LRU: al llenarse sale el menos usado)
+    private int directoryCacheSize = 10000;
+}
@@ -0,0 +1,274 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 21:06:42
+ * File: DirectoryFrontier.java
+ */
+
+/**
+ * Frontera de directorios del crawl con prefijos compartidos.
+ * 
+ * Cada directorio es un nodo (índice int) con un puntero al padre y su
+ * nombre en UTF-8; el path absoluto no se guarda, se materializa con
+ * path(index) solo cuando hace falta (listar el directorio). Los prefijos
+ * comunes (/data/clientes/2024/...) existen una sola vez en memoria.
+ * 
+ * Disposición:
+ * - parents / nameRefs: dos arrays int paralelos (8 bytes por directorio)
+ *   en páginas de 16K entradas: crecer no copia ni deja la mitad del array
+ *   sin usar, como pasaría duplicando un int[]
+ * - Nombres empaquetados en páginas de 64 KB: [longitud u16][bytes UTF-8]
+ * 
+ * Frente a un Queue&lt;String&gt; de paths absolutos (String + byte[] +
+ * nodo de la cola, ~190-300 bytes por directorio con paths de 120 a 240
+ * caracteres) el coste es de ~10 bytes más el nombre del último segmento.
+ * 
+ * Solo admite añadir (append-only): los índices son estables. Thread-safe
+ * para el discovery concurrente.
+ */
+public final class DirectoryFrontier {
+
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_NAME_BYTES = PAGE_SIZE - 2;
+    private static final int NO_PARENT = -1;
+    private static final int NODE_PAGE_BITS = 14;
+    private static final int NODE_PAGE_SIZE = 1 << NODE_PAGE_BITS;
+    private static final int NODE_PAGE_MASK = NODE_PAGE_SIZE - 1;
+
+    private int[][] parents = new int[4][];
+    private int[][] nameRefs = new int[4][];
+    private int nodePageCount = 0;
+    private byte[][] pages = new byte[4][];
+    private int pageCount = 0;
+    private int pagePosition = PAGE_SIZE;
+    private int size = 0;
+
+    /**
+     * Añade un directorio raíz (path absoluto completo, p. ej. un baseDir).
+     * 
+     * @return índice del nodo
+     */
+    public synchronized int addRoot(String path) {
+        return append(NO_PARENT, path);
+    }
+
+    /**
+     * Añade un subdirectorio de parent.
+     * 
+     * @param name Nombre del subdirectorio (un solo segmento, sin '/')
+     * @return índice del nodo
+     */
+    public synchronized int add(int parent, String name) {
+        if (parent < 0 || parent >= size) {
+            throw new IndexOutOfBoundsException("Unknown parent directory: " + parent);
+        }
+        return append(parent, name);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Materializa el path absoluto de un directorio.
+     */
+    public synchronized String path(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Unknown directory: " + index);
+        }
+        
+        int depth = 0;
+        int length = 0;
+        int[] chain = new int[16];
+        for (int node = index; node != NO_PARENT; node = parent(node)) {
+            if (depth == chain.length) {
+                chain = Arrays.copyOf(chain, depth * 2);
+            }
+            chain[depth++] = node;
+            length += nameLength(nameRef(node)) + 1;
+        }
+        
+        byte[] bytes = new byte[length];
+        int position = 0;
+        for (int i = depth - 1; i >= 0; i--) {
+            int ref = nameRef(chain[i]);
+            int nameLength = nameLength(ref);
+            if (i < depth - 1 && (position == 0 || bytes[position - 1] != '/')) {
+                bytes[position++] = '/';
+            }
+            System.arraycopy(pages[ref >>> PAGE_BITS], (ref & PAGE_MASK) + 2, bytes, position, nameLength);
+            position += nameLength;
+        }
+        return new String(bytes, 0, position, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Orden canónico de los directorios: recorrido en profundidad con los
+     * hijos de cada directorio ordenados por nombre (bytes UTF-8) y las
+     * raíces en orden de alta. No depende del orden en que el discovery
+     * (concurrente) los encontró: el mismo árbol produce el mismo orden.
+     * 
+     * @return índices de nodo en orden canónico
+     */
+    public synchronized int[] canonicalOrder() {
+        // Hijos agrupados por padre (bucket 0 = raíces)
+        int[] start = new int[size + 2];
+        for (int i = 0; i < size; i++) {
+            start[parent(i) + 2]++;
+        }
+        for (int bucket = 1; bucket < start.length; bucket++) {
+            start[bucket] += start[bucket - 1];
+        }
+        int[] children = new int[size];
+        int[] fill = Arrays.copyOf(start, start.length);
+        for (int i = 0; i < size; i++) {
+            children[fill[parent(i) + 1]++] = i;
+        }
+        
+        int[] buffer = new int[size];
+        for (int bucket = 1; bucket < start.length - 1; bucket++) {
+            if (start[bucket + 1] - start[bucket] > 1) {
+                sortByName(children, buffer, start[bucket], start[bucket + 1]);
+            }
+        }
+        
+        // Preorden iterativo (buffer como pila)
+        int[] order = new int[size];
+        int emitted = 0;
+        int top = 0;
+        for (int i = start[1] - 1; i >= 0; i--) {
+            buffer[top++] = children[i];
+        }
+        while (top > 0) {
+            int node = buffer[--top];
+            order[emitted++] = node;
+            for (int i = start[node + 2] - 1; i >= start[node + 1]; i--) {
+                buffer[top++] = children[i];
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Memoria aproximada retenida por la estructura, en bytes.
+     */
+    public synchronized long footprintBytes() {
+        return 8L * nodePageCount * NODE_PAGE_SIZE + (long) pageCount * PAGE_SIZE;
+    }
+
+    private int append(int parent, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Directory name too long (" + bytes.length + " bytes)");
+        }
+        if (size == nodePageCount << NODE_PAGE_BITS) {
+            if (nodePageCount == parents.length) {
+                parents = Arrays.copyOf(parents, nodePageCount * 2);
+                nameRefs = Arrays.copyOf(nameRefs, nodePageCount * 2);
+            }
+            parents[nodePageCount] = new int[NODE_PAGE_SIZE];
+            nameRefs[nodePageCount++] = new int[NODE_PAGE_SIZE];
+        }
+        if (pagePosition + 2 + bytes.length > PAGE_SIZE) {
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            pages[pageCount++] = new byte[PAGE_SIZE];
+            pagePosition = 0;
+        }
+        
+        byte[] page = pages[pageCount - 1];
+        page[pagePosition] = (byte) (bytes.length >>> 8);
+        page[pagePosition + 1] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, page, pagePosition + 2, bytes.length);
+        
+        parents[size >>> NODE_PAGE_BITS][size & NODE_PAGE_MASK] = parent;
+        nameRefs[size >>> NODE_PAGE_BITS][size & NODE_PAGE_MASK] = ((pageCount - 1) << PAGE_BITS) | pagePosition;
+        pagePosition += 2 + bytes.length;
+        return size++;
+    }
+
+    private int parent(int node) {
+        return parents[node >>> NODE_PAGE_BITS][node & NODE_PAGE_MASK];
+    }
+
+    private int nameRef(int node) {
+        return nameRefs[node >>> NODE_PAGE_BITS][node & NODE_PAGE_MASK];
+    }
+
+    private int nameLength(int ref) {
+        byte[] page = pages[ref >>> PAGE_BITS];
+        int offset = ref & PAGE_MASK;
+        return ((page[offset] & 0xFF) << 8) | (page[offset + 1] & 0xFF);
+    }
+
+    /**
+     * Comparación de nombres byte a byte sin signo (orden de code points).
+     */
+    private int compareNames(int a, int b) {
+        int refA = nameRef(a);
+        int refB = nameRef(b);
+        byte[] pageA = pages[refA >>> PAGE_BITS];
+        byte[] pageB = pages[refB >>> PAGE_BITS];
+        int offsetA = (refA & PAGE_MASK) + 2;
+        int offsetB = (refB & PAGE_MASK) + 2;
+        int lengthA = nameLength(refA);
+        int lengthB = nameLength(refB);
+        int mismatch = Arrays.mismatch(pageA, offsetA, offsetA + lengthA, pageB, offsetB, offsetB + lengthB);
+        if (mismatch < 0) {
+            return 0;
+        }
+        if (mismatch == lengthA || mismatch == lengthB) {
+            return lengthA - lengthB;
+        }
+        return Byte.toUnsignedInt(pageA[offsetA + mismatch]) - Byte.toUnsignedInt(pageB[offsetB + mismatch]);
+    }
+
+    /**
+     * Merge sort de nodes[from, to) por nombre (sin boxing de los índices).
+     */
+    private void sortByName(int[] nodes, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sortByName(nodes, buffer, from, middle);
+        sortByName(nodes, buffer, middle, to);
+        if (compareNames(nodes[middle - 1], nodes[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(nodes, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compareNames(buffer[left], buffer[right]) <= 0)) {
+                nodes[i] = buffer[left++];
+            } else {
+                nodes[i] = buffer[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 12:31:44
+ * File: DirectoryHotspot.java
+ */
+
+/**
+ * Directorio destacado en el informe de hot-spots de una ejecución.
+ * 
+ * Según la lista en la que aparece se rellenan los campos del listado
+ * (listMillis, files, subdirectories) o los de fallos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryHotspot {
+    private String origin;                     // Origen del directorio
+    private String directory;                  // Path del directorio
+    private Double listMillis;                 // Latencia del listado
+    private Integer files;                     // Archivos listados (tras filtros)
+    private Integer subdirectories;            // Subdirectorios listados (crawl en streaming)
+    private Long failures;                     // Fallos de listado y de archivos
+    private Long failuresOverestimate;         // Máximo exceso posible del recuento (contador acotado)
+    private String lastError;                  // Último error registrado
+}
@@ -0,0 +1,47 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 12:33:10
+ * File: DirectoryHotspotReport.java
+ */
+
+/**
+ * Informe de directorios problemáticos de una ejecución: los de listado más
+ * lento, los de más entradas y los de más fallos (top-K acotado de cada
+ * uno). Se guarda con el registro de auditoría del job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryHotspotReport {
+    private Integer topK;                              // Tamaño de cada lista
+    private Long directoriesListed;                    // Listados registrados
+    private Long listingFailures;                      // Listados fallidos
+    private Long fileFailures;                         // Archivos con indexing_status=FAILED
+    private Instant generatedAt;                       // Momento del informe
+    private List<DirectoryHotspot> slowestListings;    // Mayor latencia de listado
+    private List<DirectoryHotspot> largestDirectories; // Más entradas (archivos + subdirectorios)
+    private List<DirectoryHotspot> mostFailures;       // Más fallos
+}
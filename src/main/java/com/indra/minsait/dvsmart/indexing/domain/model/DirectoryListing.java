@@ -0,0 +1,32 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 22:03:54
+ * File: DirectoryListing.java
+ */
+
+/**
+ * Listado de un directorio en un solo paso: archivos aceptados por el filtro
+ * y subdirectorios no podados (paths absolutos). Lo usa el crawl en
+ * streaming, que no hace discovery previo.
+ */
+public record DirectoryListing(
+        List<SftpFileEntry> files,
+        List<String> subdirectories) {
+}
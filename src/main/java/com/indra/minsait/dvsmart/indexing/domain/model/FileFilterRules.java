@@ -0,0 +1,51 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.Data;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 19:21:40
+ * File: FileFilterRules.java
+ */
+
+/**
+ * Reglas de un conjunto de filtros de indexación (rule set).
+ * 
+ * Los valores por defecto reproducen los filtros históricos del processor:
+ * archivos ocultos, temporales (.tmp, .temp, .bak, ~, ~$) y sin límite de
+ * tamaño. Los globs usan '*' y '?' sobre el nombre, sin distinguir mayúsculas.
+ */
+@Data
+public class FileFilterRules {
+    
+    // --- Archivos ---
+    private boolean excludeHidden = true;                 // Nombres que empiezan por '.'
+    private List<String> includeGlobs = new ArrayList<>();  // Vacío = todos
+    private List<String> excludeGlobs = new ArrayList<>(List.of("*~", "~$*"));
+    private List<String> excludeExtensions = new ArrayList<>(List.of("tmp", "temp", "bak"));
+    private List<String> excludePathPatterns = new ArrayList<>();  // Regex sobre el path completo
+    private long minSize = 0;                             // Bytes
+    private long maxSize = Long.MAX_VALUE;                // Bytes
+    private Duration minAge;                              // mtime al menos esta antigüedad
+    private Duration maxAge;                              // mtime como mucho esta antigüedad
+    
+    // --- Directorios (poda: el subárbol no se lista) ---
+    private List<String> excludeDirectories = new ArrayList<>();        // Globs sobre el nombre
+    private List<String> excludeDirectoryPatterns = new ArrayList<>();  // Regex sobre el path completo
+}
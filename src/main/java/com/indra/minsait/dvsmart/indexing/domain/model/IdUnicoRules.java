@@ -0,0 +1,49 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.Data;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 21:41:07
+ * File: IdUnicoRules.java
+ */
+
+/**
+ * Prefijo del idUnico de cada origen.
+ * 
+ * El idUnico es el SHA-256 del path en UTF-8 o, si el origen declara un
+ * prefijo (sftp.origins[n].id-prefix), de "prefijo:path". El prefijo es una
+ * elección explícita y no se deriva del nombre del origen: orígenes sin
+ * prefijo (o con el mismo) que exponen el mismo árbol, p. ej. un origen LOCAL
+ * sobre el montaje NFS de un servidor SFTP, comparten idUnico y se
+ * deduplican; renombrar un origen no cambia los idUnico ya indexados.
+ */
+@Data
+public class IdUnicoRules {
+
+    // Nombre del origen -> prefijo (orígenes sin entrada: sin prefijo)
+    private Map<String, String> originPrefixes = new HashMap<>();
+
+    /**
+     * Prefijo del origen, o null si el idUnico es el hash del path a secas.
+     */
+    public String prefixFor(String origin) {
+        String prefix = origin == null ? null : originPrefixes.get(origin);
+        return prefix == null || prefix.isBlank() ? null : prefix;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 16:05:18
+ * File: IngestRunStatus.java
+ */
+
+/**
+ * Estado de una ejecución de ingesta push (agente en el host → API).
+ * 
+ * Los campos batch* solo se informan en la respuesta a un lote concreto.
+ */
+@Data
+@Builder
+public class IngestRunStatus {
+    
+    private String runId;
+    private String origin;
+    private Long jobExecutionId;
+    private String status;            // OPEN, COMPLETING, CLOSED
+    
+    private long batchesReceived;
+    private long recordsAccepted;
+    private long recordsRejected;
+    
+    private Long batchAccepted;
+    private Long batchRejected;
+}
@@ -63,6 +63,11 @@ public class JobExecutionAudit {
     private Long commitCount;                  // Commits totales
     private Long rollbackCount;                // Rollbacks totales
     private Double filesPerSecond;             // Throughput (archivos/segundo)
+    private Map<String, OriginIndexingStats> originStats; // Métricas por origen SFTP
+    private DirectoryHotspotReport directoryHotspots; // Hot-spots de directorios
+    private ThroughputTimeline throughputTimeline; // Rendimiento por intervalos
+    private Boolean regressionDetected;        // Throughput por debajo de la línea base
+    private PerformanceRegressionCheck regressionCheck; // Detalle de la comparación
     
     // Información de errores
     private String errorDescription;           // Descripción del error principal
@@ -0,0 +1,51 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 14:21:40
+ * File: JobPerformanceStats.java
+ */
+
+/**
+ * Métricas agregadas de las ejecuciones terminadas de un job: por intervalo
+ * de tiempo (tendencias, bucketStart) o de todo el historial (stats).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobPerformanceStats {
+    private String jobName;                    // Nombre del job
+    private Instant bucketStart;               // Inicio del intervalo (null = todo el historial)
+    private Instant lastStartTime;             // Inicio de la última ejecución agregada
+    private Long runs;                         // Ejecuciones terminadas
+    private Long failedRuns;                   // Ejecuciones FAILED
+    private Long regressions;                  // Ejecuciones marcadas como regresión
+    private Double failureRate;                // failedRuns / runs
+    private Double avgFilesPerSecond;          // Throughput medio
+    private Double minFilesPerSecond;          // Throughput mínimo
+    private Double maxFilesPerSecond;          // Throughput máximo
+    private Double avgDurationMs;              // Duración media
+    private Long filesIndexed;                 // Archivos indexados
+    private Long filesFailed;                  // Archivos fallidos
+    private Double fileFailureRate;            // filesFailed / (filesIndexed + filesFailed)
+}
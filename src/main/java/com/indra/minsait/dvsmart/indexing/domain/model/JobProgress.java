@@ -0,0 +1,57 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.Instant;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 23:41:06
+ * File: JobProgress.java
+ */
+
+/**
+ * Progreso en vivo de una ejecución de job (evento SSE "progress").
+ * 
+ * Los ritmos "current" corresponden al último intervalo de muestreo y los
+ * "average" a una media móvil exponencial. El ETA solo cubre el trabajo ya
+ * descubierto: en el crawl en streaming la frontera crece mientras se lista,
+ * así que es una cota inferior hasta que deja de crecer.
+ */
+@Data
+@Builder
+public class JobProgress {
+    
+    private Long jobExecutionId;
+    private String jobName;
+    private String status;            // RUNNING, COMPLETED, FAILED, STOPPED...
+    private Instant startTime;
+    private Instant timestamp;
+    private long elapsedSeconds;
+    
+    private long pendingDirectories;  // Frontera: descubiertos sin listar
+    private long directoriesDone;
+    private long directoriesDiscovered;
+    private long filesRead;
+    private long filesWritten;
+    
+    private double currentFilesPerSecond;
+    private double averageFilesPerSecond;
+    private double currentDirectoriesPerSecond;
+    private double averageDirectoriesPerSecond;
+    
+    private Long etaSeconds;          // null = sin estimación todavía
+}
@@ -0,0 +1,43 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 12:31:56
+ * File: OriginIndexingStats.java
+ */
+
+/**
+ * Métricas de indexación de un origen SFTP dentro de una ejecución.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OriginIndexingStats {
+    private String origin;                     // Nombre del origen
+    private String status;                     // Estado del step worker del origen
+    private Long filesProcessed;               // Archivos leídos
+    private Long filesIndexed;                 // Archivos escritos
+    private Long filesSkipped;                 // Archivos saltados
+    private Long directoriesProcessed;         // Directorios listados
+    private Long durationMs;                   // Duración del worker
+    private Double filesPerSecond;             // Throughput del origen
+}
@@ -0,0 +1,48 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 14:18:03
+ * File: PerformanceRegressionCheck.java
+ */
+
+/**
+ * Resultado de comparar el throughput de una ejecución con la línea base de
+ * las ejecuciones COMPLETED anteriores del mismo job. Se guarda con el
+ * registro de auditoría, también cuando no hay regresión.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerformanceRegressionCheck {
+    private Boolean regression;                // true = throughput anómalamente bajo
+    private Double filesPerSecond;             // Throughput de la ejecución
+    private Integer baselineRuns;              // Ejecuciones de la línea base
+    private Double baselineMean;               // Media de filesPerSecond de la línea base
+    private Double baselineStdDev;             // Desviación típica de la línea base
+    private Double threshold;                  // Throughput mínimo sin regresión
+    private Double zScore;                     // Desviaciones respecto a la media (null si es 0)
+    private Double stdDevThreshold;            // Desviaciones configuradas
+    private String reason;                     // Explicación del resultado
+    private Instant evaluatedAt;               // Momento de la evaluación
+}
@@ -25,13 +25,35 @@ import lombok.Data;
 /**
  * Representa una entrada de archivo en el listado de SFTP.
  * Modelo intermedio antes de convertir a ArchivoMetadata.
+ * 
+ * Los listados por directorio no construyen fullPath: todas las entradas de
+ * un directorio comparten la misma instancia de 'parentDirectory' y el path
+ * completo se materializa en el primer getFullPath() (al convertir a
+ * ArchivoMetadata, justo antes de la escritura).
  */
 @Data
 @Builder
 public class SftpFileEntry {
+    
+    // Nombre del origen cuando solo se configura 'sftp.origin' (modo legacy)
+    public static final String DEFAULT_ORIGIN = "default";
+    
+    private String origin;            // Origen SFTP (emea, latam, ...)
+    private String parentDirectory;   // Directorio padre compartido (/data/files), opcional
     private String fullPath;          // Path completo (/data/files/doc.pdf)
     private String filename;          // Nombre del archivo (doc.pdf)
     private long size;                // Tamaño en bytes
     private long modificationTime;    // Unix timestamp (millis)
     private boolean isDirectory;      // true si es directorio
+    
+    /**
+     * Path completo; si la entrada se creó con 'parentDirectory' se construye
+     * (una vez) a partir del directorio y el nombre.
+     */
+    public String getFullPath() {
+        if (fullPath == null && parentDirectory != null) {
+            fullPath = parentDirectory.endsWith("/") ? parentDirectory + filename : parentDirectory + "/" + filename;
+        }
+        return fullPath;
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 13:31:24
+ * File: ThroughputTimeline.java
+ */
+
+/**
+ * Perfil de rendimiento de una ejecución por intervalos (timeline).
+ * 
+ * Formato columnar: cada lista es una serie con un valor por intervalo, en el
+ * mismo orden que offsetSeconds (fin del intervalo desde startTime). Ocupa
+ * poco en el registro de auditoría y se dibuja directamente (eje X =
+ * offsetSeconds). El último intervalo puede ser más corto.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThroughputTimeline {
+    private Instant startTime;                // Inicio de la ejecución
+    private Integer intervalSeconds;          // Duración de cada intervalo (crece al compactar)
+    private Long heapMaxMb;                   // Heap máximo de la JVM
+    
+    private List<Long> offsetSeconds;         // Fin de cada intervalo
+    private List<Long> filesRead;             // Archivos leídos en el intervalo
+    private List<Long> filesWritten;          // Archivos escritos en el intervalo
+    private List<Double> filesPerSecond;      // Ritmo de escritura del intervalo
+    private List<Long> bulkWrites;            // Bulk writes terminados en el intervalo
+    private List<Double> bulkP50Millis;       // Latencia p50 del bulk write
+    private List<Double> bulkP99Millis;       // Latencia p99 del bulk write
+    private List<Double> bulkMaxMillis;       // Latencia máxima del bulk write
+    private List<Integer> sftpActiveSessions; // Sesiones SFTP prestadas al cerrar el intervalo
+    private List<Double> sftpPoolUtilization; // Sesiones prestadas / máximo (%)
+    private List<Long> heapUsedMb;            // Heap usado al cerrar el intervalo
+}
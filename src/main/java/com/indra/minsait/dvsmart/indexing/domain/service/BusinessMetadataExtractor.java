@@ -0,0 +1,184 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadata;
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadataRules;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 20:18:47
+ * File: BusinessMetadataExtractor.java
+ */
+
+/**
+ * Extrae la metadata de negocio (business_*) del path de cada archivo.
+ * 
+ * - Reglas compiladas una sola vez al arrancar (indexing.business.*)
+ * - Reglas de directorio: se evalúan una vez por directorio y el resultado
+ *   se reutiliza para todos sus archivos (caché LRU acotada compartida entre
+ *   hilos: al llenarse solo sale el directorio usado hace más tiempo)
+ * - Reglas de archivo: se evalúan sobre el nombre y solo completan los
+ *   campos que el directorio no aportó
+ */
+@Slf4j
+@Service
+public class BusinessMetadataExtractor {
+
+    private static final String TIPO_DOCUMENTO = "tipoDocumento";
+    private static final String CODIGO_CLIENTE = "codigoCliente";
+    private static final String ANIO = "anio";
+    private static final String MES = "mes";
+
+    private final List<PathRule> directoryRules;
+    private final List<PathRule> fileRules;
+    private final Map<String, BusinessMetadata> directoryCache;
+
+    public BusinessMetadataExtractor(BusinessMetadataRules rules) {
+        this.directoryRules = compile(rules.getDirectoryPatterns());
+        this.fileRules = compile(rules.getFilePatterns());
+        this.directoryCache = new DirectoryCache(Math.max(1, rules.getDirectoryCacheSize()));
+        
+        if (isEnabled()) {
+            log.info("🏷️  Business metadata rules: {} directory, {} file",
+                     directoryRules.size(), fileRules.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return !directoryRules.isEmpty() || !fileRules.isEmpty();
+    }
+
+    /**
+     * Metadata derivada del directorio (con caché por directorio).
+     */
+    public BusinessMetadata forDirectory(String directory) {
+        if (directoryRules.isEmpty()) {
+            return BusinessMetadata.EMPTY;
+        }
+        synchronized (directoryCache) {
+            BusinessMetadata cached = directoryCache.get(directory);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        BusinessMetadata extracted = extract(directoryRules, directory);
+        synchronized (directoryCache) {
+            directoryCache.put(directory, extracted);
+        }
+        return extracted;
+    }
+
+    /**
+     * Completa la metadata del directorio con las reglas de archivo.
+     */
+    public BusinessMetadata forFile(BusinessMetadata directoryMetadata, String filename) {
+        if (fileRules.isEmpty() || directoryMetadata.isComplete()) {
+            return directoryMetadata;
+        }
+        return directoryMetadata.orElse(extract(fileRules, filename));
+    }
+
+    private BusinessMetadata extract(List<PathRule> rules, String value) {
+        BusinessMetadata result = BusinessMetadata.EMPTY;
+        for (PathRule rule : rules) {
+            Matcher matcher = rule.pattern().matcher(value);
+            if (!matcher.find()) {
+                continue;
+            }
+            // La primera regla que aporta un campo gana
+            result = result.orElse(new BusinessMetadata(
+                rule.group(matcher, TIPO_DOCUMENTO),
+                rule.group(matcher, CODIGO_CLIENTE),
+                parseInt(rule.group(matcher, ANIO), 1, 9999),
+                parseInt(rule.group(matcher, MES), 1, 12)));
+            if (result.isComplete()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static Integer parseInt(String value, int min, int max) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            return parsed >= min && parsed <= max ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static List<PathRule> compile(List<String> patterns) {
+        List<PathRule> rules = new ArrayList<>();
+        for (String regex : patterns) {
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid business metadata pattern: " + e.getMessage(), e);
+            }
+            Map<String, Integer> groups = pattern.namedGroups();
+            if (!groups.containsKey(TIPO_DOCUMENTO) && !groups.containsKey(CODIGO_CLIENTE)
+                    && !groups.containsKey(ANIO) && !groups.containsKey(MES)) {
+                throw new IllegalArgumentException("Business metadata pattern without named groups ("
+                    + TIPO_DOCUMENTO + ", " + CODIGO_CLIENTE + ", " + ANIO + ", " + MES + "): " + regex);
+            }
+            rules.add(new PathRule(pattern, groups));
+        }
+        return List.copyOf(rules);
+    }
+
+    /**
+     * Caché LRU por directorio (orden de acceso). Se consulta solo al cambiar
+     * de directorio, así que el lock apenas tiene contención.
+     */
+    private static final class DirectoryCache extends LinkedHashMap<String, BusinessMetadata> {
+        
+        private final int maxEntries;
+        
+        DirectoryCache(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BusinessMetadata> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    /**
+     * Regla compilada y sus grupos con nombre.
+     */
+    private record PathRule(Pattern pattern, Map<String, Integer> groups) {
+        
+        String group(Matcher matcher, String name) {
+            Integer index = groups.get(name);
+            return index != null ? matcher.group(index) : null;
+        }
+    }
+}
@@ -13,14 +13,21 @@
  */
 package com.indra.minsait.dvsmart.indexing.domain.service;
 
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.infrastructure.jfr.DirectoryDiscoveryEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.sshd.sftp.client.SftpClient;
 import org.springframework.integration.file.remote.session.Session;
 import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
 import org.springframework.stereotype.Service;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Author: hahuaranga@indracompany.com
@@ -39,23 +46,26 @@ public class DirectoryDiscoveryService {
      * Descubre recursivamente todos los directorios bajo baseDir.
      * Usa template para manejo automático de sesiones.
      * 
-     * @param sftpTemplate Template configurado
+     * @param sftpTemplate Template del sub-pool DISCOVERY
      * @param baseDir Directorio raíz
-     * @return Cola thread-safe de directorios
+     * @param filter Filtro del job: los directorios podados no se recorren
+     * @param frontier Frontera donde se añaden baseDir y sus subdirectorios
      */
-    public Queue<String> discoverDirectories(
+    public void discoverDirectories(
             SftpRemoteFileTemplate sftpTemplate,
-            String baseDir) {
+            String baseDir,
+            FileFilter filter,
+            DirectoryFrontier frontier) {
         
         log.info("Starting directory discovery from: {}", baseDir);
         
-        Queue<String> directories = new ConcurrentLinkedQueue<>();
+        int root = frontier.addRoot(baseDir);
         
         try {
             // ✅ Una sola sesión para todo el escaneo (más eficiente)
             sftpTemplate.execute(session -> {
                 try {
-					scanRecursive(session, baseDir, directories);
+					scanRecursive(session, root, frontier, filter);
 				} catch (Exception e) {
 					// TODO Auto-generated catch block
 					e.printStackTrace();
@@ -63,8 +73,7 @@ public class DirectoryDiscoveryService {
                 return null;
             });
             
-            log.info("Directory discovery completed. Total: {}", directories.size());
-            return directories;
+            log.info("Directory discovery completed. Total: {}", frontier.size() - root);
             
         } catch (Exception e) {
             log.error("Failed to discover directories", e);
@@ -72,24 +81,142 @@ public class DirectoryDiscoveryService {
         }
     }
 
+    /**
+     * Descubre recursivamente todos los directorios bajo baseDir listando
+     * varios directorios a la vez, cada uno en su propio virtual thread.
+     * 
+     * La concurrencia la limita un semáforo del tamaño del pool DISCOVERY
+     * (no el número de hilos): nunca hay más listados en curso que sesiones,
+     * así que ninguna tarea espera en el pool. El orden de la cola resultante
+     * no es determinista.
+     * 
+     * @param sftpTemplate Template del sub-pool DISCOVERY
+     * @param baseDir Directorio raíz
+     * @param maxConcurrency Listados simultáneos (conexiones del pool DISCOVERY)
+     * @param filter Filtro del job: los directorios podados no se recorren
+     * @param frontier Frontera donde se añaden baseDir y sus subdirectorios
+     */
+    public void discoverDirectoriesConcurrently(
+            SftpRemoteFileTemplate sftpTemplate,
+            String baseDir,
+            int maxConcurrency,
+            FileFilter filter,
+            DirectoryFrontier frontier) {
+        
+        log.info("Starting concurrent directory discovery from: {} (max {} concurrent listings)",
+                 baseDir, maxConcurrency);
+        
+        int root = frontier.addRoot(baseDir);
+        
+        ConcurrentScan scan = new ConcurrentScan(sftpTemplate, frontier, Math.max(1, maxConcurrency), filter);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            scan.submit(executor, root);
+            try {
+                scan.done.join();
+            } catch (CompletionException e) {
+                executor.shutdownNow();
+                log.error("Failed to discover directories", e.getCause());
+                throw new RuntimeException("Directory discovery failed", e.getCause());
+            }
+        }
+        
+        log.info("Directory discovery completed. Total: {}", frontier.size() - root);
+    }
+
+    /**
+     * Estado compartido de un discovery concurrente: cada directorio es una
+     * tarea (solo su índice en la frontera: el path se materializa al
+     * listarlo); el scan termina cuando no quedan tareas pendientes.
+     */
+    private static class ConcurrentScan {
+        
+        private final SftpRemoteFileTemplate template;
+        private final DirectoryFrontier frontier;
+        private final Semaphore permits;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger dirCount = new AtomicInteger();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final FileFilter filter;
+        
+        ConcurrentScan(SftpRemoteFileTemplate template, DirectoryFrontier frontier, int maxConcurrency,
+                       FileFilter filter) {
+            this.template = template;
+            this.frontier = frontier;
+            this.permits = new Semaphore(maxConcurrency);
+            this.filter = filter;
+        }
+        
+        void submit(ExecutorService executor, int node) {
+            pending.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    if (done.isDone()) {
+                        return;
+                    }
+                    String directory = frontier.path(node);
+                    for (String name : listSubdirectories(directory)) {
+                        int child = frontier.add(node, name);
+                        int count = dirCount.incrementAndGet();
+                        if (count % 1000 == 0) {
+                            log.info("Discovered {} directories...", count);
+                        }
+                        submit(executor, child);
+                    }
+                } catch (Exception e) {
+                    done.completeExceptionally(e);
+                } finally {
+                    if (pending.decrementAndGet() == 0) {
+                        done.complete(null);
+                    }
+                }
+            });
+        }
+        
+        private List<String> listSubdirectories(String directory) throws InterruptedException {
+            SftpClient.DirEntry[] entries;
+            DirectoryDiscoveryEvent event = new DirectoryDiscoveryEvent();
+            permits.acquire();
+            try {
+                event.begin();
+                entries = template.execute(session -> session.list(directory));
+            } finally {
+                permits.release();
+            }
+            
+            List<String> children = new ArrayList<>();
+            for (SftpClient.DirEntry entry : entries) {
+                String name = entry.getFilename();
+                if (!".".equals(name) && !"..".equals(name) && entry.getAttributes().isDirectory()
+                        && filter.acceptsDirectory(directory, name)) {
+                    children.add(name);
+                }
+            }
+            event.complete(directory, entries.length, children.size());
+            return children;
+        }
+    }
+
     /** 
      * Escaneo recursivo BFS interno (dentro de una sesión).
+     * 
+     * La propia frontera es la cola BFS: los hijos se añaden al final y se
+     * recorren por índice desde la raíz.
      */
     private void scanRecursive(
             Session<SftpClient.DirEntry> session,
-            String baseDir,
-            Queue<String> directories) throws Exception {
-        
-        Queue<String> toExplore = new LinkedList<>();
-        toExplore.add(baseDir);
-        directories.add(baseDir);
+            int root,
+            DirectoryFrontier frontier,
+            FileFilter filter) throws Exception {
         
         int dirCount = 0;
         
-        while (!toExplore.isEmpty()) {
-            String currentDir = toExplore.poll();
+        for (int node = root; node < frontier.size(); node++) {
+            String currentDir = frontier.path(node);
             
+            DirectoryDiscoveryEvent event = new DirectoryDiscoveryEvent();
+            event.begin();
             SftpClient.DirEntry[] entries = session.list(currentDir);
+            int subdirectories = 0;
             
             for (SftpClient.DirEntry entry : entries) {
                 String name = entry.getFilename();
@@ -99,19 +226,21 @@ public class DirectoryDiscoveryService {
                 }
                 
                 if (entry.getAttributes().isDirectory()) {
-                    String fullPath = currentDir.endsWith("/") 
-                        ? currentDir + name 
-                        : currentDir + "/" + name;
+                    // Directorio podado por el rule set: su subárbol no se lista
+                    if (!filter.acceptsDirectory(currentDir, name)) {
+                        continue;
+                    }
                     
-                    directories.add(fullPath);
-                    toExplore.add(fullPath);
+                    frontier.add(node, name);
                     dirCount++;
+                    subdirectories++;
                     
                     if (dirCount % 1000 == 0) {
                         log.info("Discovered {} directories...", dirCount);
                     }
                 }
             }
+            event.complete(currentDir, entries.length, subdirectories);
         }
     }
 }
@@ -0,0 +1,196 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 19:38:51
+ * File: FileFilter.java
+ */
+
+/**
+ * Filtro de indexación compilado a partir de un rule set.
+ * 
+ * Se compila una vez al arrancar el step y se aplica:
+ * - En el discovery: los directorios excluidos no se encolan ni se recorren
+ *   (se poda el subárbol completo, nunca se lista)
+ * - En el listado: los archivos excluidos se descartan antes de construir
+ *   su SftpFileEntry
+ * 
+ * Las comprobaciones van de la más barata a la más cara (nombre, tamaño,
+ * mtime, regex sobre el path). Inmutable: compartido por todos los hilos.
+ */
+public final class FileFilter {
+
+    private final String name;
+    private final boolean excludeHidden;
+    private final NameMatcher includeNames;       // null = todos
+    private final NameMatcher excludeNames;
+    private final long minSize;
+    private final long maxSize;
+    private final long oldestModificationTime;
+    private final long newestModificationTime;
+    private final Pattern excludePaths;           // null = sin reglas
+    private final NameMatcher excludeDirectoryNames;
+    private final Pattern excludeDirectoryPaths;  // null = sin reglas
+
+    private FileFilter(String name, FileFilterRules rules, Instant referenceTime) {
+        this.name = name;
+        this.excludeHidden = rules.isExcludeHidden();
+        NameMatcher include = NameMatcher.compile(rules.getIncludeGlobs());
+        this.includeNames = include.isEmpty() ? null : include;
+        this.excludeNames = NameMatcher.compile(rules.getExcludeGlobs(), rules.getExcludeExtensions());
+        this.minSize = rules.getMinSize();
+        this.maxSize = rules.getMaxSize();
+        this.oldestModificationTime = rules.getMaxAge() != null
+            ? referenceTime.minus(rules.getMaxAge()).toEpochMilli()
+            : Long.MIN_VALUE;
+        this.newestModificationTime = rules.getMinAge() != null
+            ? referenceTime.minus(rules.getMinAge()).toEpochMilli()
+            : Long.MAX_VALUE;
+        this.excludePaths = combine(name, rules.getExcludePathPatterns());
+        this.excludeDirectoryNames = NameMatcher.compile(rules.getExcludeDirectories());
+        this.excludeDirectoryPaths = combine(name, rules.getExcludeDirectoryPatterns());
+    }
+
+    /**
+     * @param referenceTime Instante desde el que se miden minAge/maxAge (arranque del step)
+     * @throws IllegalArgumentException si alguna expresión regular no es válida
+     */
+    public static FileFilter compile(String name, FileFilterRules rules, Instant referenceTime) {
+        return new FileFilter(name, rules, referenceTime);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * true si el archivo se indexa.
+     */
+    public boolean acceptsFile(String fullPath, String filename, long size, long modificationTime) {
+        return acceptsAttributes(filename, size, modificationTime)
+            && (excludePaths == null || !excludePaths.matcher(fullPath).find());
+    }
+
+    /**
+     * Igual que acceptsFile, para listados: el path completo solo se
+     * construye si hay reglas de path.
+     */
+    public boolean acceptsFileIn(String directory, String filename, long size, long modificationTime) {
+        return acceptsAttributes(filename, size, modificationTime)
+            && (excludePaths == null || !excludePaths.matcher(join(directory, filename)).find());
+    }
+
+    private boolean acceptsAttributes(String filename, long size, long modificationTime) {
+        if (excludeHidden && filename.startsWith(".")) {
+            return false;
+        }
+        if (excludeNames.matches(filename)) {
+            return false;
+        }
+        if (includeNames != null && !includeNames.matches(filename)) {
+            return false;
+        }
+        if (size < minSize || size > maxSize) {
+            return false;
+        }
+        return modificationTime >= oldestModificationTime && modificationTime <= newestModificationTime;
+    }
+
+    /**
+     * true si hay reglas de directorio (el discovery puede podar).
+     */
+    public boolean prunesDirectories() {
+        return !excludeDirectoryNames.isEmpty() || excludeDirectoryPaths != null;
+    }
+
+    /**
+     * true si el directorio (y por tanto su subárbol) se recorre.
+     */
+    public boolean acceptsDirectory(String path) {
+        if (!prunesDirectories()) {
+            return true;
+        }
+        int slash = path.lastIndexOf('/', path.length() - 2);
+        String directoryName = stripTrailingSlash(path.substring(slash + 1));
+        if (excludeDirectoryNames.matches(directoryName)) {
+            return false;
+        }
+        return excludeDirectoryPaths == null || !excludeDirectoryPaths.matcher(path).find();
+    }
+
+    /**
+     * Igual que acceptsDirectory, para el discovery: el path del
+     * subdirectorio solo se construye si hay reglas de path.
+     */
+    public boolean acceptsDirectory(String parent, String directoryName) {
+        if (!prunesDirectories()) {
+            return true;
+        }
+        if (excludeDirectoryNames.matches(directoryName)) {
+            return false;
+        }
+        return excludeDirectoryPaths == null
+            || !excludeDirectoryPaths.matcher(join(parent, directoryName)).find();
+    }
+
+    /**
+     * Para listados planos (find remoto, ingesta): true si ningún directorio
+     * entre baseDir (excluido) y directory (incluido) está podado.
+     */
+    public boolean acceptsTree(String baseDir, String directory) {
+        if (!prunesDirectories()) {
+            return true;
+        }
+        int start = baseDir != null && directory.startsWith(baseDir) ? baseDir.length() : 0;
+        if (start > 0 && baseDir.endsWith("/")) {
+            start--;
+        }
+        int next = directory.indexOf('/', start + 1);
+        while (next > 0) {
+            if (next > start + 1 && !acceptsDirectory(directory.substring(0, next))) {
+                return false;
+            }
+            next = directory.indexOf('/', next + 1);
+        }
+        return directory.length() <= start + 1 || acceptsDirectory(directory);
+    }
+
+    private static String join(String directory, String name) {
+        return directory.endsWith("/") ? directory + name : directory + "/" + name;
+    }
+
+    private static String stripTrailingSlash(String value) {
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    private static Pattern combine(String ruleSet, List<String> regexes) {
+        if (regexes == null || regexes.isEmpty()) {
+            return null;
+        }
+        try {
+            return Pattern.compile(String.join("|", regexes.stream().map(regex -> "(?:" + regex + ")").toList()));
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException(
+                "Invalid path pattern in filter rule set [" + ruleSet + "]: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.FileFilterProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.time.Instant;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 19:46:27
+ * File: FileFilterService.java
+ */
+
+/**
+ * Resuelve y compila los rule sets de filtrado (indexing.filters.*).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileFilterService {
+
+    /**
+     * Parámetro de job con el nombre del rule set.
+     */
+    public static final String RULE_SET_PARAM = "filterRuleSet";
+
+    private final FileFilterProperties properties;
+
+    /**
+     * Compila el rule set indicado (o el de por defecto si es null/vacío).
+     * 
+     * @throws IllegalArgumentException si el rule set no existe o no es válido
+     */
+    public FileFilter compile(String ruleSetName) {
+        String name = resolveName(ruleSetName);
+        long startTime = System.nanoTime();
+        FileFilter filter = FileFilter.compile(name, getRules(name), Instant.now());
+        log.info("🧹 Filter rule set [{}] compiled in {} µs", name, (System.nanoTime() - startTime) / 1000);
+        return filter;
+    }
+
+    /**
+     * Valida el rule set antes de lanzar un job (nombre existente y regex válidas).
+     */
+    public void validate(String ruleSetName) {
+        String name = resolveName(ruleSetName);
+        FileFilter.compile(name, getRules(name), Instant.now());
+    }
+
+    private String resolveName(String ruleSetName) {
+        return ruleSetName == null || ruleSetName.isBlank() ? properties.getDefaultRuleSet() : ruleSetName;
+    }
+
+    private FileFilterRules getRules(String name) {
+        FileFilterRules rules = properties.getRuleSets().get(name);
+        if (rules != null) {
+            return rules;
+        }
+        // Sin configuración: el rule set por defecto son los filtros históricos
+        if (name.equals(properties.getDefaultRuleSet())) {
+            return new FileFilterRules();
+        }
+        throw new IllegalArgumentException("Unknown filter rule set: " + name
+            + " (available: " + properties.getRuleSets().keySet() + ")");
+    }
+}
@@ -14,13 +14,18 @@
 package com.indra.minsait.dvsmart.indexing.domain.service;
 
 import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadata;
+import com.indra.minsait.dvsmart.indexing.domain.model.IdUnicoRules;
 import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Arrays;
 
 
 /**
@@ -35,18 +40,27 @@ import java.time.Instant;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileMetadataService {
 
+    private static final ThreadLocal<IdHasher> ID_HASHER = ThreadLocal.withInitial(IdHasher::new);
+
+    private final BusinessMetadataExtractor businessExtractor;
+    private final IdUnicoRules idUnicoRules;
+
 	/**
 	 * Convierte un SftpFileEntry a ArchivoMetadata con todos los campos calculados.
 	 */
 	public ArchivoMetadata toMetadata(SftpFileEntry entry) {
 	    String extension = extractExtension(entry.getFilename());
-	    String idUnico = generateIdUnico(entry.getFullPath());
+	    String idUnico = generateIdUnico(entry.getOrigin(), entry.getFullPath());
 	    
 	    try {
+	        BusinessMetadata business = businessExtractor.forFile(
+	            businessExtractor.forDirectory(directoryOf(entry.getFullPath())), entry.getFilename());
 			return ArchivoMetadata.builder()
 			        .idUnico(idUnico)
+			        .sourceOrigin(entry.getOrigin())
 			        .sourcePath(entry.getFullPath())              // ✅ CAMBIO
 			        .fileName(entry.getFilename())                // ✅ CAMBIO
 			        .extension(extension)
@@ -57,11 +71,16 @@ public class FileMetadataService {
 			        // ✅ NUEVO: Estado inicial de indexación
 			        .indexing_status("COMPLETED")                 // ✅ NUEVO
 			        .indexing_indexedAt(Instant.now())            // ✅ NUEVO
+			        .business_tipoDocumento(business.tipoDocumento())
+			        .business_codigoCliente(business.codigoCliente())
+			        .business_anio(business.anio())
+			        .business_mes(business.mes())
 			        .build();
 		} catch (Exception e) {
 	        // Retornar metadata con error
 	        return ArchivoMetadata.builder()
 	                .idUnico(String.valueOf(entry.getFullPath().hashCode()))
+	                .sourceOrigin(entry.getOrigin())
 	                .sourcePath(entry.getFullPath())
 	                .fileName(entry.getFilename())
 	                .fileSize(entry.getSize())
@@ -72,40 +91,185 @@ public class FileMetadataService {
 		}
 	}
 
+    /**
+     * Crea un conversor para un chunk completo, usado por un único hilo.
+     */
+    public ChunkConverter newChunkConverter() {
+        return new ChunkConverter();
+    }
+
+    /**
+     * Conversor de un chunk: usa el IdHasher del hilo y comparte un único
+     * indexedAt, en lugar de crearlos por archivo. No es thread-safe: uno por
+     * chunk (o segmento) y por hilo.
+     * 
+     * Los archivos llegan agrupados por directorio: la metadata de negocio del
+     * último directorio se reutiliza sin extraer el path del directorio (con
+     * listados por directorio basta comparar la instancia compartida).
+     */
+    public class ChunkConverter {
+        
+        private final IdHasher hasher = ID_HASHER.get();
+        private final Instant indexedAt = Instant.now();
+        private String lastDirectory;
+        private BusinessMetadata lastDirectoryMetadata;
+        
+        private ChunkConverter() {
+        }
+        
+        public ArchivoMetadata toMetadata(SftpFileEntry entry) {
+            BusinessMetadata business = businessExtractor.forFile(
+                directoryMetadata(entry), entry.getFilename());
+            return ArchivoMetadata.builder()
+                    .idUnico(generateIdUnico(entry.getOrigin(), entry.getFullPath()))
+                    .sourceOrigin(entry.getOrigin())
+                    .sourcePath(entry.getFullPath())
+                    .fileName(entry.getFilename())
+                    .extension(extractExtension(entry.getFilename()))
+                    .fileSize(entry.getSize())
+                    .lastModificationDate(Instant.ofEpochMilli(entry.getModificationTime()))
+                    .indexing_status("COMPLETED")
+                    .indexing_indexedAt(indexedAt)
+                    .business_tipoDocumento(business.tipoDocumento())
+                    .business_codigoCliente(business.codigoCliente())
+                    .business_anio(business.anio())
+                    .business_mes(business.mes())
+                    .build();
+        }
+        
+        private BusinessMetadata directoryMetadata(SftpFileEntry entry) {
+            String parent = entry.getParentDirectory();
+            if (parent != null && (parent.length() == 1 || !parent.endsWith("/"))) {
+                if (parent != lastDirectory) {
+                    lastDirectory = parent;
+                    lastDirectoryMetadata = businessExtractor.forDirectory(parent);
+                }
+                return lastDirectoryMetadata;
+            }
+            String fullPath = entry.getFullPath();
+            int end = Math.max(fullPath.lastIndexOf('/'), 1);
+            if (lastDirectory == null || lastDirectory.length() != end || !fullPath.startsWith(lastDirectory)) {
+                lastDirectory = fullPath.substring(0, end);
+                lastDirectoryMetadata = businessExtractor.forDirectory(lastDirectory);
+            }
+            return lastDirectoryMetadata;
+        }
+        
+        public String generateIdUnico(String origin, String fullPath) {
+            return hasher.hash(idUnicoRules.prefixFor(origin), fullPath);
+        }
+    }
+
+    /**
+     * Genera un ID único para un archivo de un origen concreto.
+     * 
+     * Se usa el prefijo configurado para el origen (IdUnicoRules), nunca su
+     * nombre: sin prefijo el idUnico es el hash del path a secas, igual que
+     * en la configuración legacy de un solo origen.
+     */
+    public String generateIdUnico(String origin, String fullPath) {
+        return ID_HASHER.get().hash(idUnicoRules.prefixFor(origin), fullPath);
+    }
+
     /**
      * Genera un ID único basado en el path completo usando SHA-256.
      */
     public String generateIdUnico(String fullPath) {
+        return ID_HASHER.get().hash(null, fullPath);
+    }
+
+    private static MessageDigest newDigest() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(fullPath.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hashBytes);
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             log.error("SHA-256 algorithm not available", e);
             throw new RuntimeException("Failed to generate unique ID", e);
         }
     }
 
+    private static String directoryOf(String fullPath) {
+        return fullPath.substring(0, Math.max(fullPath.lastIndexOf('/'), 1));
+    }
+
     /**
      * Extrae la extensión del archivo.
      */
     private String extractExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
+        int lastDot = filename == null ? -1 : filename.lastIndexOf('.');
+        if (lastDot < 0) {
             return "";
         }
-        int lastDot = filename.lastIndexOf('.');
+        // toLowerCase() devuelve la misma instancia si ya está en minúsculas
         return filename.substring(lastDot + 1).toLowerCase();
     }
 
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : bytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
+    /**
+     * Estado reutilizable del hash de idUnico, uno por hilo: digest, buffer
+     * de bytes del path, resultado del digest y caracteres hex. Por archivo
+     * solo se asigna el String final.
+     * 
+     * El hash es el SHA-256 de "prefijo:path" en UTF-8 (o del path si el
+     * origen no tiene prefijo), igual que antes: se codifica cada parte por
+     * separado sin concatenar Strings.
+     */
+    private static final class IdHasher {
+        
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+        private static final int HASH_LENGTH = 32;
+        
+        private final MessageDigest digest = newDigest();
+        private final byte[] hashBytes = new byte[HASH_LENGTH];
+        private final char[] hex = new char[HASH_LENGTH * 2];
+        private byte[] buffer = new byte[512];
+        
+        String hash(String prefix, String fullPath) {
+            int length = 0;
+            if (prefix != null) {
+                length = encode(prefix, length);
+                buffer[length++] = ':';
+            }
+            length = encode(fullPath, length);
+            
+            try {
+                digest.update(buffer, 0, length);
+                digest.digest(hashBytes, 0, HASH_LENGTH);
+            } catch (DigestException e) {
+                digest.reset();
+                throw new RuntimeException("Failed to generate unique ID", e);
+            }
+            
+            for (int i = 0; i < HASH_LENGTH; i++) {
+                hex[i * 2] = HEX[(hashBytes[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX[hashBytes[i] & 0xf];
+            }
+            return new String(hex);
+        }
+        
+        /**
+         * Codifica en UTF-8 a partir de offset. Camino rápido sin asignaciones
+         * para ASCII; con otros caracteres se usa getBytes().
+         */
+        private int encode(String value, int offset) {
+            // +1 reserva el separador ':' tras el prefijo
+            ensureCapacity(offset + value.length() + 1);
+            int position = offset;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    ensureCapacity(offset + encoded.length + 1);
+                    System.arraycopy(encoded, 0, buffer, offset, encoded.length);
+                    return offset + encoded.length;
+                }
+                buffer[position++] = (byte) c;
+            }
+            return position;
+        }
+        
+        private void ensureCapacity(int capacity) {
+            if (buffer.length < capacity) {
+                buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
             }
-            hexString.append(hex);
         }
-        return hexString.toString();
     }
-}
\ No newline at end of file
+}
@@ -15,24 +15,39 @@ package com.indra.minsait.dvsmart.indexing.domain.service;
 
 import com.indra.minsait.dvsmart.indexing.adapter.out.persistence.mongodb.entity.JobExecutionAuditDocument;
 import com.indra.minsait.dvsmart.indexing.adapter.out.persistence.mongodb.repository.JobExecutionAuditRepository;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryHotspotReport;
 import com.indra.minsait.dvsmart.indexing.domain.model.JobExecutionAudit;
+import com.indra.minsait.dvsmart.indexing.domain.model.JobPerformanceStats;
+import com.indra.minsait.dvsmart.indexing.domain.model.PerformanceRegressionCheck;
+import com.indra.minsait.dvsmart.indexing.domain.model.ThroughputTimeline;
+import com.indra.minsait.dvsmart.indexing.domain.model.OriginIndexingStats;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.job.JobExecution;
 import org.springframework.batch.core.step.StepExecution;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import java.net.InetAddress;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -46,6 +61,10 @@ import java.io.StringWriter;
 /**
  * Servicio de dominio para auditoría de ejecuciones de jobs.
  * ✅ Trabaja SOLO con modelos de dominio (JobExecutionAudit)
+ * 
+ * Al cerrar una ejecución COMPLETED compara su throughput con la línea base
+ * de las ejecuciones anteriores del mismo job y guarda el resultado
+ * (regressionDetected, regressionCheck).
  */
 @Slf4j
 @Service
@@ -53,6 +72,13 @@ import java.io.StringWriter;
 public class JobAuditService {
     
     private final JobExecutionAuditRepository auditRepository;
+    private final BatchConfigProperties batchProps;
+    
+    // Clave del ExecutionContext que identifica el origen de un step worker
+    private static final String ORIGIN_KEY = "origin";
+    
+    // Unidades de $dateTrunc admitidas en las tendencias
+    private static final Set<String> TREND_UNITS = Set.of("hour", "day", "week", "month");
     
     @Value("${spring.application.name:dvsmart-indexing-api}")
     private String serviceName;
@@ -86,8 +112,12 @@ public class JobAuditService {
     
     /**
      * Actualiza el registro de auditoría al finalizar el job.
+     * 
+     * @param hotspots Informe de hot-spots de directorios (null = sin informe)
+     * @param timeline Rendimiento por intervalos (null = sin timeline)
      */
-    public void updateAuditRecord(JobExecution jobExecution) {
+    public void updateAuditRecord(JobExecution jobExecution, DirectoryHotspotReport hotspots,
+                                  ThroughputTimeline timeline) {
         try {
             // 1. Buscar el registro existente por jobExecutionId
             Optional<JobExecutionAuditDocument> existingAudit = 
@@ -122,10 +152,13 @@ public class JobAuditService {
                 auditDoc.setDurationFormatted(formatDuration(durationMs));
             }
             
-            // Obtener métricas del step
+            // Obtener métricas del step (manager si el job está particionado por origen)
             Collection<StepExecution> stepExecutions = jobExecution.getStepExecutions();
             if (!stepExecutions.isEmpty()) {
-                StepExecution stepExecution = stepExecutions.iterator().next();
+                StepExecution stepExecution = stepExecutions.stream()
+                        .filter(step -> !step.getExecutionContext().containsKey(ORIGIN_KEY))
+                        .findFirst()
+                        .orElse(stepExecutions.iterator().next());
                 
                 auditDoc.setReadCount(stepExecution.getReadCount());
                 auditDoc.setWriteCount(stepExecution.getWriteCount());
@@ -143,6 +176,27 @@ public class JobAuditService {
                     double filesPerSecond = stepExecution.getWriteCount() / seconds;
                     auditDoc.setFilesPerSecond(filesPerSecond);
                 }
+                
+                // Métricas por origen (steps worker de cada partición)
+                Map<String, OriginIndexingStats> originStats = buildOriginStats(stepExecutions);
+                if (!originStats.isEmpty()) {
+                    auditDoc.setOriginStats(originStats);
+                    auditDoc.setTotalDirectoriesProcessed(originStats.values().stream()
+                            .mapToLong(OriginIndexingStats::getDirectoriesProcessed)
+                            .sum());
+                }
+            }
+            
+            if (hotspots != null) {
+                auditDoc.setDirectoryHotspots(hotspots);
+            }
+            if (timeline != null) {
+                auditDoc.setThroughputTimeline(timeline);
+            }
+            
+            // Regresión de throughput frente a las ejecuciones anteriores
+            if (jobExecution.getStatus() == BatchStatus.COMPLETED && auditDoc.getFilesPerSecond() != null) {
+                evaluateRegression(auditDoc);
             }
             
             // Capturar errores si existen
@@ -170,10 +224,254 @@ public class JobAuditService {
         }
     }
     
+    /**
+     * Informe de hot-spots guardado con la auditoría de una ejecución.
+     */
+    public Optional<DirectoryHotspotReport> findDirectoryHotspots(Long jobExecutionId) {
+        return auditRepository.findByJobExecutionId(jobExecutionId)
+                .map(JobExecutionAuditDocument::getDirectoryHotspots);
+    }
+    
+    /**
+     * Timeline de rendimiento guardado con la auditoría de una ejecución.
+     */
+    public Optional<ThroughputTimeline> findThroughputTimeline(Long jobExecutionId) {
+        return auditRepository.findByJobExecutionId(jobExecutionId)
+                .map(JobExecutionAuditDocument::getThroughputTimeline);
+    }
+    
+    // ========================================
+    // CONSULTAS DE HISTORIAL
+    // ========================================
+    
+    /**
+     * Registro completo de una ejecución.
+     */
+    public Optional<JobExecutionAudit> findByJobExecutionId(Long jobExecutionId) {
+        return auditRepository.findByJobExecutionId(jobExecutionId).map(this::toDomain);
+    }
+    
+    /**
+     * Historial de ejecuciones, más recientes primero (sin timeline, hot-spots
+     * ni stack trace).
+     */
+    public Page<JobExecutionAudit> findHistory(int page, int size) {
+        return auditRepository.findSummaries(historyPage(page, size)).map(this::toDomain);
+    }
+    
+    public Page<JobExecutionAudit> findHistoryByJobName(String jobName, int page, int size) {
+        return auditRepository.findSummariesByJobName(jobName, historyPage(page, size)).map(this::toDomain);
+    }
+    
+    public Page<JobExecutionAudit> findHistoryByStatus(String status, int page, int size) {
+        return auditRepository.findSummariesByStatus(status.toUpperCase(Locale.ROOT), historyPage(page, size))
+                .map(this::toDomain);
+    }
+    
+    public Page<JobExecutionAudit> findHistoryByRange(Instant start, Instant end, int page, int size) {
+        requireRange(start, end);
+        return auditRepository.findSummariesByStartTimeRange(start, end, historyPage(page, size))
+                .map(this::toDomain);
+    }
+    
+    /**
+     * Ejecuciones marcadas como regresión de throughput.
+     */
+    public Page<JobExecutionAudit> findRegressions(int page, int size) {
+        return auditRepository.findRegressions(historyPage(page, size)).map(this::toDomain);
+    }
+    
+    /**
+     * Tendencias de un job: files/s, duración y tasa de fallos por intervalo.
+     * 
+     * @param granularity hour, day, week o month
+     */
+    public List<JobPerformanceStats> getTrends(String jobName, Instant start, Instant end, String granularity) {
+        requireRange(start, end);
+        String unit = granularity.toLowerCase(Locale.ROOT);
+        if (!TREND_UNITS.contains(unit)) {
+            throw new IllegalArgumentException("Unsupported granularity '" + granularity
+                    + "' (expected one of hour, day, week, month)");
+        }
+        return auditRepository.aggregateTrends(jobName, start, end, unit);
+    }
+    
+    /**
+     * Métricas de todo el historial, por job.
+     */
+    public List<JobPerformanceStats> getStatsByJob() {
+        return auditRepository.aggregateStatsByJob();
+    }
+    
     // ========================================
     // MÉTODOS PRIVADOS - LÓGICA DE DOMINIO
     // ========================================
     
+    private Pageable historyPage(int page, int size) {
+        int maxPageSize = Math.max(1, batchProps.getAudit().getMaxPageSize());
+        return PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), maxPageSize),
+                Sort.by(Sort.Direction.DESC, "startTime"));
+    }
+    
+    private void requireRange(Instant start, Instant end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("start (" + start + ") must be before end (" + end + ")");
+        }
+    }
+    
+    /**
+     * Compara el throughput de la ejecución con las últimas ejecuciones
+     * COMPLETED del mismo job y guarda el resultado en el documento.
+     */
+    private void evaluateRegression(JobExecutionAuditDocument auditDoc) {
+        BatchConfigProperties.Audit config = batchProps.getAudit();
+        if (!config.isRegressionEnabled() || auditDoc.getStartTime() == null) {
+            return;
+        }
+        
+        List<Double> baseline = auditRepository.findBaseline(
+                    auditDoc.getJobName(),
+                    auditDoc.getStartTime(),
+                    PageRequest.of(0, Math.max(1, config.getRegressionBaselineRuns()),
+                            Sort.by(Sort.Direction.DESC, "startTime")))
+                .stream()
+                .map(JobExecutionAuditDocument::getFilesPerSecond)
+                .filter(Objects::nonNull)
+                .toList();
+        
+        PerformanceRegressionCheck check = evaluateRegression(auditDoc.getFilesPerSecond(), baseline, config);
+        auditDoc.setRegressionCheck(check);
+        auditDoc.setRegressionDetected(check.getRegression());
+        
+        if (Boolean.TRUE.equals(check.getRegression())) {
+            log.warn("📉 PERFORMANCE REGRESSION in {} (execution {}): {}",
+                     auditDoc.getJobName(), auditDoc.getJobExecutionId(), check.getReason());
+        }
+    }
+    
+    /**
+     * Regresión = throughput por debajo de media - N desviaciones típicas de
+     * la línea base y, además, por debajo de media * (1 - caída mínima). La
+     * caída mínima evita falsos positivos con líneas base muy estables
+     * (desviación casi nula).
+     */
+    private static PerformanceRegressionCheck evaluateRegression(double filesPerSecond, List<Double> baseline,
+                                                                 BatchConfigProperties.Audit config) {
+        int runs = baseline.size();
+        double sigmas = config.getRegressionStdDevThreshold();
+        PerformanceRegressionCheck.PerformanceRegressionCheckBuilder check = PerformanceRegressionCheck.builder()
+                .filesPerSecond(round(filesPerSecond))
+                .baselineRuns(runs)
+                .stdDevThreshold(sigmas)
+                .evaluatedAt(Instant.now());
+        
+        int minRuns = Math.max(2, config.getRegressionMinBaselineRuns());
+        if (runs < minRuns) {
+            return check
+                    .regression(false)
+                    .reason(String.format(Locale.ROOT,
+                            "Not enough baseline: %d previous COMPLETED runs, %d required", runs, minRuns))
+                    .build();
+        }
+        
+        double mean = baseline.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double variance = baseline.stream().mapToDouble(value -> (value - mean) * (value - mean)).sum() / (runs - 1);
+        double stdDev = Math.sqrt(variance);
+        double threshold = Math.min(mean - sigmas * stdDev, mean * (1 - config.getRegressionMinRelativeDrop()));
+        Double zScore = stdDev > 0 ? round((filesPerSecond - mean) / stdDev) : null;
+        boolean regression = filesPerSecond < threshold;
+        
+        String reason = regression
+                ? String.format(Locale.ROOT,
+                        "Throughput %.1f files/s is below the threshold %.1f files/s "
+                        + "(baseline of %d runs: mean %.1f, stddev %.1f, z=%s, limit %.1f stddev / %.0f%% drop)",
+                        filesPerSecond, threshold, runs, mean, stdDev, zScore != null ? zScore : "n/a", sigmas,
+                        config.getRegressionMinRelativeDrop() * 100)
+                : String.format(Locale.ROOT,
+                        "Throughput %.1f files/s within baseline (threshold %.1f files/s, mean %.1f of %d runs)",
+                        filesPerSecond, threshold, mean, runs);
+        
+        return check
+                .regression(regression)
+                .baselineMean(round(mean))
+                .baselineStdDev(round(stdDev))
+                .threshold(round(threshold))
+                .zScore(zScore)
+                .reason(reason)
+                .build();
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+    
+    /**
+     * Construye las métricas por origen a partir de los steps worker.
+     * 
+     * En modo de chunks concurrentes un origen tiene varios workers: se suman
+     * sus contadores y la duración va del primer inicio al último fin.
+     */
+    private Map<String, OriginIndexingStats> buildOriginStats(Collection<StepExecution> stepExecutions) {
+        Map<String, List<StepExecution>> workersByOrigin = new LinkedHashMap<>();
+        for (StepExecution step : stepExecutions) {
+            if (step.getExecutionContext().containsKey(ORIGIN_KEY)) {
+                workersByOrigin.computeIfAbsent(step.getExecutionContext().getString(ORIGIN_KEY),
+                        key -> new ArrayList<>()).add(step);
+            }
+        }
+        
+        Map<String, OriginIndexingStats> result = new LinkedHashMap<>();
+        workersByOrigin.forEach((origin, workers) -> {
+            long filesProcessed = 0;
+            long filesIndexed = 0;
+            long filesSkipped = 0;
+            long directoriesProcessed = 0;
+            LocalDateTime start = null;
+            LocalDateTime end = null;
+            boolean finished = true;
+            String status = BatchStatus.COMPLETED.name();
+            
+            for (StepExecution step : workers) {
+                filesProcessed += step.getReadCount();
+                filesIndexed += step.getWriteCount();
+                filesSkipped += step.getReadSkipCount() + step.getProcessSkipCount();
+                directoriesProcessed += step.getExecutionContext().getInt("directoriesProcessed", 0);
+                
+                // El peor estado de los workers es el del origen
+                if (step.getStatus() != BatchStatus.COMPLETED) {
+                    status = step.getStatus().name();
+                }
+                if (step.getStartTime() == null || step.getEndTime() == null) {
+                    finished = false;
+                    continue;
+                }
+                start = start == null || step.getStartTime().isBefore(start) ? step.getStartTime() : start;
+                end = end == null || step.getEndTime().isAfter(end) ? step.getEndTime() : end;
+            }
+            
+            Long durationMs = null;
+            Double filesPerSecond = null;
+            if (finished && start != null) {
+                durationMs = Duration.between(start, end).toMillis();
+                if (durationMs > 0) {
+                    filesPerSecond = filesIndexed / (durationMs / 1000.0);
+                }
+            }
+            
+            result.put(origin, OriginIndexingStats.builder()
+                    .origin(origin)
+                    .status(status)
+                    .filesProcessed(filesProcessed)
+                    .filesIndexed(filesIndexed)
+                    .filesSkipped(filesSkipped)
+                    .directoriesProcessed(directoriesProcessed)
+                    .durationMs(durationMs)
+                    .filesPerSecond(filesPerSecond)
+                    .build());
+        });
+        return result;
+    }
+    
     /**
      * Convierte el stack trace de una excepción a String, limitado a N líneas
      */
@@ -332,6 +630,11 @@ public class JobAuditService {
                 .commitCount(audit.getCommitCount())
                 .rollbackCount(audit.getRollbackCount())
                 .filesPerSecond(audit.getFilesPerSecond())
+                .originStats(audit.getOriginStats())
+                .directoryHotspots(audit.getDirectoryHotspots())
+                .throughputTimeline(audit.getThroughputTimeline())
+                .regressionDetected(audit.getRegressionDetected())
+                .regressionCheck(audit.getRegressionCheck())
                 .errorDescription(audit.getErrorDescription())
                 .errorStackTrace(audit.getErrorStackTrace())
                 .failureCount(audit.getFailureCount())
@@ -343,4 +646,46 @@ public class JobAuditService {
                 .build();
     }
     
+    /**
+     * ✅ Mapea entidad MongoDB → modelo de dominio.
+     */
+    private JobExecutionAudit toDomain(JobExecutionAuditDocument document) {
+        return JobExecutionAudit.builder()
+                .auditId(document.getAuditId())
+                .jobExecutionId(document.getJobExecutionId())
+                .serviceName(document.getServiceName())
+                .jobName(document.getJobName())
+                .startTime(document.getStartTime())
+                .endTime(document.getEndTime())
+                .durationMs(document.getDurationMs())
+                .durationFormatted(document.getDurationFormatted())
+                .status(document.getStatus())
+                .exitCode(document.getExitCode())
+                .exitDescription(document.getExitDescription())
+                .totalFilesIndexed(document.getTotalFilesIndexed())
+                .totalFilesProcessed(document.getTotalFilesProcessed())
+                .totalFilesSkipped(document.getTotalFilesSkipped())
+                .totalFilesFailed(document.getTotalFilesFailed())
+                .totalDirectoriesProcessed(document.getTotalDirectoriesProcessed())
+                .readCount(document.getReadCount())
+                .writeCount(document.getWriteCount())
+                .commitCount(document.getCommitCount())
+                .rollbackCount(document.getRollbackCount())
+                .filesPerSecond(document.getFilesPerSecond())
+                .originStats(document.getOriginStats())
+                .directoryHotspots(document.getDirectoryHotspots())
+                .throughputTimeline(document.getThroughputTimeline())
+                .regressionDetected(document.getRegressionDetected())
+                .regressionCheck(document.getRegressionCheck())
+                .errorDescription(document.getErrorDescription())
+                .errorStackTrace(document.getErrorStackTrace())
+                .failureCount(document.getFailureCount())
+                .jobParameters(document.getJobParameters())
+                .hostname(document.getHostname())
+                .instanceId(document.getInstanceId())
+                .createdAt(document.getCreatedAt())
+                .updatedAt(document.getUpdatedAt())
+                .build();
+    }
+    
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 19:31:08
+ * File: NameMatcher.java
+ */
+
+/**
+ * Conjunto de globs sobre nombres de archivo/directorio compilado una vez.
+ * 
+ * Sin distinguir mayúsculas. Cada glob se clasifica al compilar:
+ * - Literal ("Thumbs.db") o sufijo ("*~", extensiones): trie de sufijos,
+ *   recorrido desde el final del nombre
+ * - Prefijo ("~$*"): trie de prefijos
+ * - Resto ("IMG_????.*"): una única expresión regular combinada
+ * 
+ * Los casos habituales se resuelven recorriendo el nombre una vez, sin
+ * asignar memoria. Inmutable tras compilar: thread-safe.
+ */
+final class NameMatcher {
+
+    private final Node suffixes = new Node();
+    private final Node prefixes = new Node();
+    private final Pattern pattern;
+    private final boolean matchAll;
+    private final boolean empty;
+
+    private NameMatcher(Collection<String> globs, Collection<String> extensions) {
+        List<String> regexes = new ArrayList<>();
+        boolean all = false;
+        
+        for (String extension : extensions) {
+            String normalized = normalize(extension);
+            if (normalized.startsWith("*.")) {
+                normalized = normalized.substring(2);
+            } else if (normalized.startsWith(".")) {
+                normalized = normalized.substring(1);
+            }
+            if (!normalized.isEmpty()) {
+                insertReversed(suffixes, "." + normalized).open = true;
+            }
+        }
+        
+        for (String glob : globs) {
+            String normalized = normalize(glob);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            if (normalized.equals("*")) {
+                all = true;
+            } else if (!hasWildcard(normalized)) {
+                insertReversed(suffixes, normalized).exact = true;
+            } else if (normalized.charAt(0) == '*' && !hasWildcard(normalized.substring(1))) {
+                insertReversed(suffixes, normalized.substring(1)).open = true;
+            } else if (normalized.charAt(normalized.length() - 1) == '*'
+                    && !hasWildcard(normalized.substring(0, normalized.length() - 1))) {
+                insert(prefixes, normalized.substring(0, normalized.length() - 1)).open = true;
+            } else {
+                regexes.add("(?:" + globToRegex(normalized) + ")");
+            }
+        }
+        
+        this.matchAll = all;
+        this.pattern = regexes.isEmpty()
+            ? null
+            : Pattern.compile(String.join("|", regexes), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        this.empty = !all && regexes.isEmpty() && suffixes.keys.length == 0 && prefixes.keys.length == 0;
+    }
+
+    static NameMatcher compile(Collection<String> globs) {
+        return new NameMatcher(globs, List.of());
+    }
+
+    static NameMatcher compile(Collection<String> globs, Collection<String> extensions) {
+        return new NameMatcher(globs, extensions);
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    boolean matches(String name) {
+        if (matchAll) {
+            return true;
+        }
+        return matchesSuffix(name)
+            || matchesPrefix(name)
+            || (pattern != null && pattern.matcher(name).matches());
+    }
+
+    private boolean matchesSuffix(String name) {
+        Node node = suffixes;
+        for (int i = name.length() - 1; i >= 0; i--) {
+            node = node.child(Character.toLowerCase(name.charAt(i)));
+            if (node == null) {
+                return false;
+            }
+            if (node.open || (i == 0 && node.exact)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesPrefix(String name) {
+        Node node = prefixes;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.child(Character.toLowerCase(name.charAt(i)));
+            if (node == null) {
+                return false;
+            }
+            if (node.open) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String glob) {
+        return glob == null ? "" : glob.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasWildcard(String value) {
+        return value.indexOf('*') >= 0 || value.indexOf('?') >= 0;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    private static Node insert(Node root, String value) {
+        Node node = root;
+        for (int i = 0; i < value.length(); i++) {
+            node = node.getOrAdd(value.charAt(i));
+        }
+        return node;
+    }
+
+    private static Node insertReversed(Node root, String value) {
+        Node node = root;
+        for (int i = value.length() - 1; i >= 0; i--) {
+            node = node.getOrAdd(value.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Nodo del trie: pocos hijos por nodo, búsqueda lineal en arrays.
+     */
+    private static final class Node {
+        
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean open;    // Patrón consumido con comodín: coincide lo que reste del nombre
+        private boolean exact;   // Patrón consumido: coincide solo si el nombre también
+        
+        Node child(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+        
+        Node getOrAdd(char key) {
+            Node existing = child(key);
+            if (existing != null) {
+                return existing;
+            }
+            int size = keys.length;
+            keys = Arrays.copyOf(keys, size + 1);
+            children = Arrays.copyOf(children, size + 1);
+            keys[size] = key;
+            children[size] = new Node();
+            return children[size];
+        }
+    }
+}
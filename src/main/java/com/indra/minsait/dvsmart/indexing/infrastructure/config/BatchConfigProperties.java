@@ -28,8 +28,271 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "batch")
 public class BatchConfigProperties {
     private int chunkSize = 100;
-    private int threadPoolSize = 20;
-    private int queueCapacity = 1000;
     private int retryLimit = 3;
     private int skipLimit = 5;
+    
+    // Orígenes SFTP indexados en paralelo (0 = todos a la vez)
+    private int originConcurrency = 0;
+    
+    // PLATFORM: listado y discovery en los hilos del step. VIRTUAL: discovery
+    // SFTP concurrente y listados anticipados en virtual threads, limitados al
+    // tamaño de sus pools SFTP
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+    
+    // BATCH: un worker por origen que transforma el chunk completo en el
+    // writer. CONCURRENT: chunkWorkers workers por origen, cada uno lee
+    // directorios de una cola compartida y escribe su propio bulk
+    private ChunkMode chunkMode = ChunkMode.BATCH;
+    private int chunkWorkers = 4;
+    
+    // Hilos fork-join que reparten la transformación de un chunk grande
+    // (0 = el chunk se transforma en el hilo del step) y tamaño de segmento
+    private int processingParallelism = 0;
+    private int processingSegmentSize = 250;
+    
+    // Directorios listados por adelantado en modo VIRTUAL (0 = tamaño del pool
+    // LISTING; nunca supera ese tamaño)
+    private int listingPrefetchDepth = 0;
+    
+    /**
+     * Modelo de ejecución de las tareas bloqueantes del job.
+     */
+    public enum ExecutionMode {
+        PLATFORM,
+        VIRTUAL
+    }
+    
+    /**
+     * Modelo de ejecución de los chunks del step de indexación.
+     */
+    public enum ChunkMode {
+        BATCH,
+        CONCURRENT
+    }
+    
+    // Frontera de directorios del reader secuencial (modo BATCH)
+    private Frontier frontier = new Frontier();
+    
+    @Getter
+    @Setter
+    public static class Frontier {
+        // MEMORY: discovery completo previo en una DirectoryFrontier compacta.
+        // SPILL: crawl en streaming sin discovery previo; la cola FIFO de
+        // directorios pendientes mantiene memoryEntries paths en memoria y
+        // desborda el resto a segmentos mapeados en disco
+        private FrontierMode mode = FrontierMode.MEMORY;
+        
+        private int memoryEntries = 100000;
+        
+        // Directorio de los segmentos (vacío = java.io.tmpdir/dvsmart-frontier)
+        private String spillDirectory = "";
+        
+        private int segmentSizeMb = 64;
+        
+        // Segmentos consumidos que se conservan mapeados para reutilizar
+        private int maxFreeSegments = 2;
+        
+        // Intentos de listado de un directorio en el crawl en streaming: un
+        // fallo lo reencola al final de la cola; agotados, el step falla
+        private int listingAttempts = 3;
+    }
+    
+    /**
+     * Almacenamiento de la frontera de directorios pendientes.
+     */
+    public enum FrontierMode {
+        MEMORY,
+        SPILL
+    }
+    
+    // Governor de memoria: frena listado y lectura anticipada según la
+    // ocupación del heap tras GC y los items en vuelo
+    private Backpressure backpressure = new Backpressure();
+    
+    @Getter
+    @Setter
+    public static class Backpressure {
+        private boolean enabled = true;
+        
+        // Ocupación del heap tras GC (0-1): ELEVATED suspende la lectura
+        // anticipada; CRITICAL además frena los listados
+        private double elevatedHeapRatio = 0.75;
+        private double criticalHeapRatio = 0.90;
+        
+        // Items en vuelo (listados sin leer + tareas en cola del executor)
+        // por encima de los cuales se frenan los listados
+        private long maxInFlightItems = 50000;
+        
+        private long pollIntervalMillis = 200;
+        
+        // Espera máxima por listado; después se lista igualmente (nunca bloquea)
+        private long maxWaitMillis = 60000;
+    }
+    
+    // Progreso en vivo (SSE /api/batch/index/{executionId}/progress)
+    private Progress progress = new Progress();
+    
+    @Getter
+    @Setter
+    public static class Progress {
+        // Intervalo entre eventos enviados a los suscriptores
+        private long intervalMillis = 1000;
+        
+        // Ventana de la media móvil exponencial del ritmo (segundos)
+        private long rateWindowSeconds = 60;
+        
+        // Ejecuciones terminadas cuyo último estado se conserva
+        private int retainedExecutions = 32;
+        
+        // Tiempo máximo de una suscripción (0 = hasta que termina el job)
+        private long emitterTimeoutMillis = 0;
+    }
+    
+    // Grabaciones JFR bajo demanda (/api/monitoring/jfr)
+    private FlightRecording flightRecording = new FlightRecording();
+    
+    @Getter
+    @Setter
+    public static class FlightRecording {
+        // Directorio de los .jfr (vacío = java.io.tmpdir/dvsmart-jfr)
+        private String directory = "";
+        
+        // Configuración JFR de base (default | profile) más los eventos dvsmart.*
+        private String settings = "default";
+        
+        // Una grabación se detiene sola al superar esta duración o tamaño
+        private long maxDurationMinutes = 60;
+        private long maxSizeMb = 512;
+        
+        // Eventos más lentos incluidos en el resumen
+        private int topEvents = 20;
+        
+        // Grabaciones terminadas que se conservan (archivo y resumen)
+        private int retainedRecordings = 10;
+    }
+    
+    // Trazas por directorio list → process → write (SpanTracer)
+    private Tracing tracing = new Tracing();
+    
+    @Getter
+    @Setter
+    public static class Tracing {
+        private boolean enabled = true;
+        
+        // Probabilidad de trazar cada directorio y máximo por ejecución
+        private double sampleRatio = 0.01;
+        private int maxDirectoriesPerExecution = 5000;
+        
+        // Destino de los spans: file (NDJSON por ejecución) | memory
+        private TraceExporter exporter = TraceExporter.FILE;
+        
+        // Directorio de los NDJSON (vacío = java.io.tmpdir/dvsmart-traces)
+        private String directory = "";
+        
+        // Spans conservados por ejecución con exporter=memory
+        private int maxSpansInMemory = 100000;
+        
+        // Spans pendientes de escribir; con la cola llena se descartan
+        private int exportQueueCapacity = 10000;
+        
+        // Ejecuciones terminadas cuyas trazas se conservan
+        private int retainedExecutions = 10;
+        
+        // Directorios más lentos incluidos en el resumen
+        private int topDirectories = 20;
+    }
+    
+    public enum TraceExporter {
+        FILE,
+        MEMORY
+    }
+    
+    // Directorios más lentos, más grandes y con más fallos por ejecución
+    private Hotspots hotspots = new Hotspots();
+    
+    @Getter
+    @Setter
+    public static class Hotspots {
+        private boolean enabled = true;
+        
+        // Directorios conservados en cada ranking
+        private int topK = 20;
+        
+        // Contadores del ranking de fallos (aproximado con más directorios)
+        private int failureCapacity = 200;
+    }
+    
+    // Timeline de rendimiento por intervalos guardado con la auditoría
+    private Timeline timeline = new Timeline();
+    
+    @Getter
+    @Setter
+    public static class Timeline {
+        private boolean enabled = true;
+        
+        // Duración de cada intervalo
+        private int intervalSeconds = 30;
+        
+        // Intervalos guardados; por encima se fusionan por parejas
+        private int maxSamples = 1440;
+    }
+    
+    // Historial de auditoría (JobAuditController) y detección de regresiones
+    private Audit audit = new Audit();
+    
+    @Getter
+    @Setter
+    public static class Audit {
+        // Crear al arrancar los índices de las consultas de historial
+        private boolean createIndexes = true;
+        
+        // Tamaño máximo de página de los endpoints de historial
+        private int maxPageSize = 200;
+        
+        // Comparar el throughput de cada ejecución COMPLETED con las anteriores
+        private boolean regressionEnabled = true;
+        
+        // Ejecuciones anteriores de la línea base (y mínimo para evaluar)
+        private int regressionBaselineRuns = 20;
+        private int regressionMinBaselineRuns = 5;
+        
+        // Regresión = por debajo de media - N desviaciones y de media * (1 - caída mínima)
+        private double regressionStdDevThreshold = 2.0;
+        private double regressionMinRelativeDrop = 0.10;
+    }
+    
+    // Instrumentación del driver MongoDB (MongoCommandTelemetry)
+    private Mongo mongo = new Mongo();
+    
+    @Getter
+    @Setter
+    public static class Mongo {
+        private boolean enabled = true;
+        
+        // Espera de conexión + duración a partir de la cual un comando es lento
+        private long slowCommandThresholdMillis = 500;
+        
+        // Máximo de comandos lentos registrados en el log por minuto
+        private int maxSlowLogsPerMinute = 60;
+        
+        // Incluir el comando (sin los documentos del lote) en el log, truncado
+        private boolean logCommandBody = false;
+        private int maxLoggedChars = 512;
+    }
+    
+    // Ingesta push desde agentes (job BATCH-INDEX-INGEST)
+    private Ingest ingest = new Ingest();
+    
+    @Getter
+    @Setter
+    public static class Ingest {
+        // Ejecuciones de ingesta simultáneas (hilos de lanzamiento del job)
+        private int maxConcurrentRuns = 4;
+        
+        // Espera máxima a que el job arranque al abrir una ejecución
+        private long startTimeoutMillis = 30000;
+        
+        // Sin lotes durante este tiempo la ejecución falla (0 = sin límite)
+        private long idleTimeoutMillis = 300000;
+    }
 }
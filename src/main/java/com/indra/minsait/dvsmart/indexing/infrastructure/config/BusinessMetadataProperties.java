@@ -0,0 +1,33 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.config;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadataRules;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 20:14:05
+ * File: BusinessMetadataProperties.java
+ */
+
+/**
+ * Reglas de metadata de negocio configuradas en indexing.business.*.
+ * 
+ * Enlaza las propiedades sobre el modelo de dominio BusinessMetadataRules,
+ * que es lo que recibe BusinessMetadataExtractor.
+ */
+@ConfigurationProperties(prefix = "indexing.business")
+public class BusinessMetadataProperties extends BusinessMetadataRules {
+}
@@ -0,0 +1,43 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.config;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 19:24:12
+ * File: FileFilterProperties.java
+ */
+
+/**
+ * Conjuntos de reglas de filtrado seleccionables por job.
+ * 
+ * indexing.filters.rule-sets.<nombre>.* define cada rule set; un job usa el
+ * indicado en el parámetro 'filterRuleSet' o, si no lo trae, default-rule-set.
+ * Si el rule set por defecto no está configurado se usan los filtros
+ * históricos (FileFilterRules con valores por defecto).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "indexing.filters")
+public class FileFilterProperties {
+    private String defaultRuleSet = "default";
+    private Map<String, FileFilterRules> ruleSets = new LinkedHashMap<>();
+}
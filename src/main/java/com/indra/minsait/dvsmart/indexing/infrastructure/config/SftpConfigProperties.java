@@ -13,9 +13,17 @@
  */
 package com.indra.minsait.dvsmart.indexing.infrastructure.config;
 
+import com.indra.minsait.dvsmart.indexing.domain.model.IdUnicoRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpListingBackend;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpWorkloadClass;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Author: hahuaranga@indracompany.com
@@ -28,18 +36,103 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "sftp")
 public class SftpConfigProperties {
     
+    // Origen único (legacy). Se usa solo si 'origins' está vacío.
     private Origin origin = new Origin();
     
+    // Orígenes con nombre, indexados en paralelo por el mismo job
+    private List<Origin> origins = new ArrayList<>();
+    
+    /**
+     * Orígenes efectivos: la lista 'origins' si está configurada,
+     * o el origen legacy 'origin' con nombre 'default'.
+     */
+    public List<Origin> resolveOrigins() {
+        if (!origins.isEmpty()) {
+            return origins;
+        }
+        return List.of(origin);
+    }
+    
+    /**
+     * Prefijos de idUnico declarados por los orígenes efectivos.
+     */
+    public IdUnicoRules resolveIdUnicoRules() {
+        IdUnicoRules rules = new IdUnicoRules();
+        for (Origin configured : resolveOrigins()) {
+            if (configured.getIdPrefix() != null) {
+                rules.getOriginPrefixes().put(configured.getName(), configured.getIdPrefix());
+            }
+        }
+        return rules;
+    }
+    
+    /**
+     * Tipo de origen de archivos.
+     */
+    public enum SourceType {
+        SFTP,
+        LOCAL
+    }
+    
     @Getter
     @Setter
     public static class Origin {
+        private String name = SftpFileEntry.DEFAULT_ORIGIN;
+        // Prefijo del idUnico: SHA-256(prefijo:path). Sin prefijo, SHA-256(path).
+        // Orígenes con el mismo prefijo (o sin él) que ven el mismo árbol
+        // comparten idUnico; el nombre del origen no interviene.
+        private String idPrefix;
         private String host;
         private int port = 22;
         private String user;
         private String password;
         private String baseDir;
+        
+        // Varios directorios raíz por origen (si se indica, prevalece sobre baseDir)
+        private List<String> baseDirs = new ArrayList<>();
         private int timeout = 30000;
         private Pool pool = new Pool();
+        
+        // Sub-pools por clase de carga (discovery, listing, content).
+        // Las clases no configuradas heredan la configuración de 'pool'.
+        private Map<SftpWorkloadClass, Pool> workloads = new EnumMap<>(SftpWorkloadClass.class);
+        
+        // Protección del servidor origen (compartido con otros procesos)
+        private Throttle throttle = new Throttle();
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+        
+        // Réplicas espejo del origen: el listado se reparte entre el host
+        // principal y estas réplicas (discovery y contenido van al principal)
+        private List<Replica> replicas = new ArrayList<>();
+        private ReplicaBalancing replicaBalancing = new ReplicaBalancing();
+        
+        // Backend de listado: SFTP (READDIR) o EXEC_FIND (find remoto por canal exec)
+        private SftpListingBackend listingBackend = SftpListingBackend.SFTP;
+        private ExecFind execFind = new ExecFind();
+        
+        // Tipo de origen: SFTP o filesystem local (p. ej. montaje NFS)
+        private SourceType source = SourceType.SFTP;
+        // Directorio local equivalente a la raíz '/' del servidor (solo LOCAL)
+        private String localRoot;
+        // Hilos del discovery local (0 = número de CPUs)
+        private int localParallelism = 0;
+        
+        /**
+         * Resuelve la configuración de pool para una clase de carga.
+         */
+        public Pool resolvePool(SftpWorkloadClass workload) {
+            return workloads.getOrDefault(workload, pool);
+        }
+        
+        /**
+         * Directorios raíz a indexar en este origen.
+         */
+        public List<String> resolveBaseDirs() {
+            if (!baseDirs.isEmpty()) {
+                return baseDirs;
+            }
+            return List.of(baseDir != null ? baseDir : "/");
+        }
     }
     
     @Getter
@@ -62,4 +155,72 @@ public class SftpConfigProperties {
         private long timeBetweenEvictionRunsMillis = 60000;
         private long minEvictableIdleTimeMillis = 300000; // 5 minutos
     }
-}
\ No newline at end of file
+    
+    @Getter
+    @Setter
+    public static class Throttle {
+        // Operaciones SFTP por segundo (0 = sin límite)
+        private double requestsPerSecond = 0;
+        
+        // Tokens acumulables para absorber picos
+        private int burst = 50;
+        
+        // Operaciones SFTP simultáneas (0 = sin límite)
+        private int maxConcurrentOperations = 0;
+    }
+    
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        
+        // Fallos consecutivos que abren el circuito (pausa del crawl)
+        private int failureThreshold = 3;
+        
+        // Tiempo en OPEN antes de probar de nuevo el origen
+        private long openDurationMillis = 30000;
+        
+        // Pausa máxima de una operación antes de fallar (0 = esperar indefinidamente)
+        private long maxPauseMillis = 1800000; // 30 minutos
+    }
+    
+    @Getter
+    @Setter
+    public static class Replica {
+        private String host;
+        
+        // Si no se indican, se heredan del origen
+        private Integer port;
+        private String user;
+        private String password;
+    }
+    
+    @Getter
+    @Setter
+    public static class ReplicaBalancing {
+        // Fallos consecutivos que expulsan temporalmente una réplica (0 = nunca)
+        private int ejectAfterFailures = 3;
+        
+        // Tiempo de expulsión antes de volver a recibir peticiones
+        private long ejectionMillis = 60000;
+        
+        // Latencia media (EWMA) de listado que expulsa una réplica (0 = sin límite)
+        private long slowThresholdMillis = 10000;
+        
+        // Peso de la última muestra en la EWMA de latencia
+        private double latencyEwmaAlpha = 0.2;
+    }
+    
+    @Getter
+    @Setter
+    public static class ExecFind {
+        // Binario find remoto (GNU find, necesita -printf)
+        private String command = "find";
+        
+        // Entradas en memoria entre el find remoto y el reader (backpressure)
+        private int queueCapacity = 10000;
+        
+        // Timeout de apertura del canal exec y de espera del exit status
+        private long openTimeoutMillis = 30000;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.exception;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 13:08:41
+ * File: AuditRecordNotFoundException.java
+ */
+
+/**
+ * Excepción lanzada al pedir datos de auditoría (p.ej. el informe de hot-spots)
+ * de una ejecución sin registro de auditoría o sin esos datos. El
+ * GlobalExceptionHandler la mapea a HTTP 404 NOT FOUND.
+ */
+public class AuditRecordNotFoundException extends RuntimeException {
+    
+	private static final long serialVersionUID = 1L;
+
+	public AuditRecordNotFoundException(Long jobExecutionId, String what) {
+        super("No " + what + " found for job execution " + jobExecutionId);
+    }
+}
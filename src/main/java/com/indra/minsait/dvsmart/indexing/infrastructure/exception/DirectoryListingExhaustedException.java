@@ -0,0 +1,36 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.exception;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 19:27:45
+ * File: DirectoryListingExhaustedException.java
+ */
+
+/**
+ * Excepción lanzada por el crawl en streaming cuando un directorio agota sus
+ * intentos de listado (batch.frontier.listing-attempts): sin su listado se
+ * perdería todo su subárbol. Es checked a propósito: la política de skip del
+ * step solo descarta RuntimeException, así que el step falla y puede
+ * reanudarse desde el checkpoint de la frontera.
+ */
+public class DirectoryListingExhaustedException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+    public DirectoryListingExhaustedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.exception;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 09:31:16
+ * File: FlightRecordingNotFoundException.java
+ */
+
+/**
+ * Excepción lanzada al consultar una grabación JFR desconocida o ya
+ * descartada. El GlobalExceptionHandler la mapea a HTTP 404 NOT FOUND.
+ */
+public class FlightRecordingNotFoundException extends RuntimeException {
+    
+	private static final long serialVersionUID = 1L;
+
+	public FlightRecordingNotFoundException(long recordingId) {
+        super("Flight recording " + recordingId + " not found");
+    }
+}
@@ -90,5 +90,58 @@ public class GlobalExceptionHandler {
                     "message", ex.getMessage(),
                     "detail", "Please wait for the current job to complete before starting a new one"
                 ));
+    }
+    
+    /**
+     * Progreso de una ejecución desconocida (o terminada hace tiempo).
+     * Retorna HTTP 404 NOT FOUND.
+     */
+    @ExceptionHandler(JobExecutionNotTrackedException.class)
+    public ResponseEntity<Map<String, Object>> handleJobExecutionNotTracked(JobExecutionNotTrackedException ex) {
+        log.warn("Job progress not available: {}", ex.getMessage());
+        
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(Map.of(
+                    "timestamp", Instant.now().toString(),
+                    "status", HttpStatus.NOT_FOUND.value(),
+                    "error", "Not Found",
+                    "message", ex.getMessage()
+                ));
+    }
+    
+    /**
+     * Ejecución sin registro de auditoría (o sin el dato pedido).
+     * Retorna HTTP 404 NOT FOUND.
+     */
+    @ExceptionHandler(AuditRecordNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleAuditRecordNotFound(AuditRecordNotFoundException ex) {
+        log.warn("Audit data not available: {}", ex.getMessage());
+        
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(Map.of(
+                    "timestamp", Instant.now().toString(),
+                    "status", HttpStatus.NOT_FOUND.value(),
+                    "error", "Not Found",
+                    "message", ex.getMessage()
+                ));
+    }
+    
+    /**
+     * Grabación JFR desconocida o ya descartada. Retorna HTTP 404 NOT FOUND.
+     */
+    @ExceptionHandler(FlightRecordingNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleFlightRecordingNotFound(FlightRecordingNotFoundException ex) {
+        log.warn("Flight recording not available: {}", ex.getMessage());
+        
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(Map.of(
+                    "timestamp", Instant.now().toString(),
+                    "status", HttpStatus.NOT_FOUND.value(),
+                    "error", "Not Found",
+                    "message", ex.getMessage()
+                ));
     }    
 }
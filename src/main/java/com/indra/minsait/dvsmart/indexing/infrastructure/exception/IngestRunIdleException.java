@@ -0,0 +1,34 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.exception;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 17:02:33
+ * File: IngestRunIdleException.java
+ */
+
+/**
+ * Excepción lanzada cuando una ejecución de ingesta push no recibe lotes
+ * durante más de batch.ingest.idle-timeout-millis. No es saltable: hace
+ * fallar el job para que la auditoría registre la ejecución abandonada.
+ */
+public class IngestRunIdleException extends RuntimeException {
+    
+	private static final long serialVersionUID = 1L;
+
+	public IngestRunIdleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.exception;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 23:52:40
+ * File: JobExecutionNotTrackedException.java
+ */
+
+/**
+ * Excepción lanzada al pedir el progreso (o la traza) de una ejecución que no
+ * está en curso ni entre las últimas terminadas. El GlobalExceptionHandler la
+ * mapea a HTTP 404 NOT FOUND.
+ */
+public class JobExecutionNotTrackedException extends RuntimeException {
+    
+	private static final long serialVersionUID = 1L;
+
+	public JobExecutionNotTrackedException(Long jobExecutionId) {
+        super("Job execution " + jobExecutionId + " is not running nor recently finished");
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.exception;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 13:44:52
+ * File: RemoteExecUnavailableException.java
+ */
+
+/**
+ * Excepción lanzada cuando el servidor SFTP no permite ejecutar comandos
+ * por canal exec (o el comando no existe) antes de haber emitido ninguna
+ * entrada. Permite al llamador volver al listado SFTP estándar.
+ */
+public class RemoteExecUnavailableException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public RemoteExecUnavailableException(String message) {
+        super(message);
+    }
+
+    public RemoteExecUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
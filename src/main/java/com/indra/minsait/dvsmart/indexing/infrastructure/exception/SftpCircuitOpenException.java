@@ -0,0 +1,37 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.exception;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 10:02:18
+ * File: SftpCircuitOpenException.java
+ */
+
+/**
+ * Excepción lanzada cuando el circuit breaker SFTP permanece abierto más
+ * tiempo del permitido (max-pause-millis) y la operación deja de esperar.
+ */
+public class SftpCircuitOpenException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SftpCircuitOpenException(String message) {
+        super(message);
+    }
+
+    public SftpCircuitOpenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.hotspot;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryHotspotReport;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 12:51:58
+ * File: DirectoryHotspotRegistry.java
+ */
+
+/**
+ * Trackers de hot-spots de las ejecuciones en curso.
+ * 
+ * El JobExecutionAuditListener abre el tracker al empezar el job y, al
+ * terminar, lo cierra y guarda su informe en el registro de auditoría; a
+ * partir de ahí el informe se consulta desde la auditoría.
+ */
+@Component
+@RequiredArgsConstructor
+public class DirectoryHotspotRegistry {
+
+    private final BatchConfigProperties batchProps;
+    private final Map<Long, DirectoryHotspotTracker> executions = new ConcurrentHashMap<>();
+
+    /**
+     * Abre el tracker de una ejecución (null si está deshabilitado).
+     */
+    public DirectoryHotspotTracker start(Long jobExecutionId) {
+        BatchConfigProperties.Hotspots config = batchProps.getHotspots();
+        if (!config.isEnabled()) {
+            return null;
+        }
+        return executions.computeIfAbsent(jobExecutionId,
+            id -> new DirectoryHotspotTracker(config.getTopK(), config.getFailureCapacity()));
+    }
+
+    /**
+     * Cierra el tracker y devuelve su informe final (null si no se abrió).
+     */
+    public DirectoryHotspotReport finish(Long jobExecutionId) {
+        DirectoryHotspotTracker tracker = executions.remove(jobExecutionId);
+        return tracker != null ? tracker.report() : null;
+    }
+
+    /**
+     * Informe parcial de una ejecución en curso.
+     */
+    public Optional<DirectoryHotspotReport> findRunning(Long jobExecutionId) {
+        return Optional.ofNullable(executions.get(jobExecutionId)).map(DirectoryHotspotTracker::report);
+    }
+
+    public DirectoryHotspotTracker forExecution(Long jobExecutionId) {
+        return jobExecutionId != null ? executions.get(jobExecutionId) : null;
+    }
+
+    /**
+     * Tracker de la ejecución del step que corre en el hilo actual.
+     */
+    public DirectoryHotspotTracker current() {
+        if (executions.isEmpty()) {
+            return null;
+        }
+        StepContext context = StepSynchronizationManager.getContext();
+        return context != null
+            ? forExecution(context.getStepExecution().getJobExecutionId())
+            : null;
+    }
+}
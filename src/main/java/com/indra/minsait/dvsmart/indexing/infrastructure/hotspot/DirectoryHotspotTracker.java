@@ -0,0 +1,107 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.hotspot;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryHotspot;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryHotspotReport;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 12:47:35
+ * File: DirectoryHotspotTracker.java
+ */
+
+/**
+ * Hot-spots de directorios de una ejecución: top-K por latencia de listado,
+ * top-K por número de entradas y recuento acotado de fallos.
+ * 
+ * Memoria fija (3 × K entradas más la tabla de fallos) sea cual sea el
+ * tamaño del árbol. Los readers registran cada listado desde sus propios
+ * hilos (también los de lectura anticipada); el writer, los archivos
+ * fallidos.
+ */
+public class DirectoryHotspotTracker {
+
+    private final int topK;
+    private final TopK<DirectoryHotspot> slowest;
+    private final TopK<DirectoryHotspot> largest;
+    private final FailureCounter failures;
+    private final LongAdder directoriesListed = new LongAdder();
+    private final LongAdder listingFailures = new LongAdder();
+    private final LongAdder fileFailures = new LongAdder();
+
+    DirectoryHotspotTracker(int topK, int failureCapacity) {
+        this.topK = Math.max(0, topK);
+        this.slowest = new TopK<>(this.topK);
+        this.largest = new TopK<>(this.topK);
+        this.failures = new FailureCounter(Math.max(this.topK, failureCapacity));
+    }
+
+    /**
+     * Listado terminado de un directorio.
+     */
+    public void recordListing(String origin, String directory, long nanos, int files, int subdirectories) {
+        directoriesListed.increment();
+        slowest.offer(nanos, () -> hotspot(origin, directory, nanos, files, subdirectories));
+        largest.offer((long) files + subdirectories, () -> hotspot(origin, directory, nanos, files, subdirectories));
+    }
+
+    public void recordListingFailure(String origin, String directory, Throwable error) {
+        listingFailures.increment();
+        failures.record(origin, directory, describe(error));
+    }
+
+    /**
+     * Archivo con indexing_status=FAILED.
+     */
+    public void recordFileFailure(String origin, String directory, String error) {
+        fileFailures.increment();
+        failures.record(origin, directory, error);
+    }
+
+    public DirectoryHotspotReport report() {
+        return DirectoryHotspotReport.builder()
+            .topK(topK)
+            .directoriesListed(directoriesListed.sum())
+            .listingFailures(listingFailures.sum())
+            .fileFailures(fileFailures.sum())
+            .generatedAt(Instant.now())
+            .slowestListings(slowest.snapshot())
+            .largestDirectories(largest.snapshot())
+            .mostFailures(failures.top(topK))
+            .build();
+    }
+
+    private static DirectoryHotspot hotspot(String origin, String directory, long nanos, int files,
+                                            int subdirectories) {
+        return DirectoryHotspot.builder()
+            .origin(origin)
+            .directory(directory)
+            .listMillis(Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 1000) / 1000.0)
+            .files(files)
+            .subdirectories(subdirectories)
+            .build();
+    }
+
+    private static String describe(Throwable error) {
+        if (error == null) {
+            return null;
+        }
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+}
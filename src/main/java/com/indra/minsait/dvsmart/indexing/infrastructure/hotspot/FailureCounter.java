@@ -0,0 +1,100 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.hotspot;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryHotspot;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 12:42:19
+ * File: FailureCounter.java
+ */
+
+/**
+ * Recuento acotado de fallos por directorio (algoritmo Space-Saving).
+ * 
+ * Se siguen como mucho 'capacity' directorios. Con la tabla llena, un
+ * directorio nuevo sustituye al de menor recuento y hereda ese recuento como
+ * posible exceso (overestimate): todo directorio con más fallos reales que
+ * el menor recuento de la tabla está garantizado en ella. Los fallos son
+ * raros frente a los listados, así que basta un lock.
+ */
+final class FailureCounter {
+
+    private static final int MAX_ERROR_LENGTH = 300;
+
+    private static final class Counter {
+        private final String origin;
+        private final String directory;
+        private long count;
+        private final long overestimate;
+        private String lastError;
+
+        Counter(String origin, String directory, long count, long overestimate) {
+            this.origin = origin;
+            this.directory = directory;
+            this.count = count;
+            this.overestimate = overestimate;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    FailureCounter(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    synchronized void record(String origin, String directory, String error) {
+        String key = origin + '\u0000' + directory;
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            long inherited = 0;
+            if (counters.size() >= capacity) {
+                Counter evicted = counters.values().stream()
+                    .min(Comparator.comparingLong(candidate -> candidate.count))
+                    .orElseThrow();
+                counters.remove(evicted.origin + '\u0000' + evicted.directory);
+                inherited = evicted.count;
+            }
+            counter = new Counter(origin, directory, inherited, inherited);
+            counters.put(key, counter);
+        }
+        counter.count++;
+        if (error != null) {
+            counter.lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        }
+    }
+
+    /**
+     * Los 'limit' directorios con más fallos.
+     */
+    synchronized List<DirectoryHotspot> top(int limit) {
+        return counters.values().stream()
+            .sorted(Comparator.comparingLong((Counter counter) -> counter.count).reversed())
+            .limit(Math.max(0, limit))
+            .map(counter -> DirectoryHotspot.builder()
+                .origin(counter.origin)
+                .directory(counter.directory)
+                .failures(counter.count)
+                .failuresOverestimate(counter.overestimate)
+                .lastError(counter.lastError)
+                .build())
+            .toList();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.hotspot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 12:38:02
+ * File: TopK.java
+ */
+
+/**
+ * Los K valores de mayor puntuación vistos hasta ahora (min-heap acotado).
+ * 
+ * Una vez lleno, el umbral (la menor puntuación retenida) se publica en un
+ * campo volatile: las ofertas que no lo superan, que son casi todas, se
+ * descartan sin bloquear ni construir el valor.
+ */
+final class TopK<T> {
+
+    private record Scored<T>(long score, T value) {
+    }
+
+    private final int capacity;
+    private final PriorityQueue<Scored<T>> heap;
+    private volatile long threshold = Long.MIN_VALUE;
+
+    TopK(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.heap = new PriorityQueue<>(Math.max(1, this.capacity), Comparator.comparingLong(Scored::score));
+    }
+
+    /**
+     * @param value se construye solo si la puntuación entra en el top-K
+     */
+    void offer(long score, Supplier<T> value) {
+        if (capacity == 0 || score <= threshold) {
+            return;
+        }
+        synchronized (this) {
+            if (heap.size() < capacity) {
+                heap.add(new Scored<>(score, value.get()));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Scored<>(score, value.get()));
+            }
+            if (heap.size() == capacity) {
+                threshold = heap.peek().score();
+            }
+        }
+    }
+
+    /**
+     * Valores retenidos, de mayor a menor puntuación.
+     */
+    synchronized List<T> snapshot() {
+        List<Scored<T>> sorted = new ArrayList<>(heap);
+        sorted.sort(Comparator.comparingLong(Scored<T>::score).reversed());
+        return sorted.stream().map(Scored::value).toList();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 09:19:51
+ * File: BulkWriteEvent.java
+ */
+
+/**
+ * Evento JFR: bulk upsert de un chunk en MongoDB.
+ */
+@Name(BulkWriteEvent.NAME)
+@Label("Mongo Bulk Write")
+@Category({"DVSmart", "MongoDB"})
+@Description("Bulk upsert de un chunk de metadatos")
+@StackTrace(false)
+public class BulkWriteEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "dvsmart.BulkWrite";
+
+    @Label("Collection")
+    String collection;
+
+    @Label("Operations")
+    int operations;
+
+    @Label("Inserted")
+    int inserted;
+
+    @Label("Modified")
+    int modified;
+
+    @Label("Failed Items")
+    int failed;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    public void complete(String collection, int operations, int inserted, int modified, int failed,
+                         boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.collection = collection;
+            this.operations = operations;
+            this.inserted = inserted;
+            this.modified = modified;
+            this.failed = failed;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
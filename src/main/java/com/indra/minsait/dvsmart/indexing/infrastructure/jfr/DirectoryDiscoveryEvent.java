@@ -0,0 +1,59 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 09:15:02
+ * File: DirectoryDiscoveryEvent.java
+ */
+
+/**
+ * Evento JFR: listado de un directorio durante el discovery (BFS o
+ * concurrente).
+ */
+@Name(DirectoryDiscoveryEvent.NAME)
+@Label("Directory Discovery")
+@Category({"DVSmart", "Indexing"})
+@Description("Listado de un directorio en la fase de discovery")
+@StackTrace(false)
+public class DirectoryDiscoveryEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "dvsmart.DirectoryDiscovery";
+
+    @Label("Path")
+    String path;
+
+    @Label("Entries")
+    int entries;
+
+    @Label("Subdirectories")
+    int subdirectories;
+
+    public void complete(String path, int entries, int subdirectories) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.entries = entries;
+            this.subdirectories = subdirectories;
+            commit();
+        }
+    }
+}
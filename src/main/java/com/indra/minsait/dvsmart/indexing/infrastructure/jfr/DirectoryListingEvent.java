@@ -0,0 +1,66 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 09:12:44
+ * File: DirectoryListingEvent.java
+ */
+
+/**
+ * Evento JFR: listado de un directorio por los readers (archivos del
+ * directorio, más subdirectorios en el crawl en streaming).
+ * 
+ * Uso: begin() antes del listado y complete(...) después; con JFR sin
+ * grabar, begin/complete no hacen nada.
+ */
+@Name(DirectoryListingEvent.NAME)
+@Label("Directory Listing")
+@Category({"DVSmart", "Indexing"})
+@Description("Listado de un directorio del origen por un reader")
+@StackTrace(false)
+public class DirectoryListingEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "dvsmart.DirectoryListing";
+
+    @Label("Origin")
+    String origin;
+
+    @Label("Path")
+    String path;
+
+    @Label("Files")
+    int files;
+
+    @Label("Subdirectories")
+    int subdirectories;
+
+    public void complete(String origin, String path, int files, int subdirectories) {
+        end();
+        if (shouldCommit()) {
+            this.origin = origin;
+            this.path = path;
+            this.files = files;
+            this.subdirectories = subdirectories;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.jfr;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.FlightRecordingNotFoundException;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.JobExecutionNotTrackedException;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressCounters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 09:38:02
+ * File: FlightRecordingService.java
+ */
+
+/**
+ * Grabaciones JDK Flight Recorder bajo demanda, opcionalmente ligadas a una
+ * ejecución de job (se detienen solas al terminar el job).
+ * 
+ * Cada grabación usa la configuración JFR de base (batch.flight-recording.settings)
+ * y activa sin umbral los eventos propios (dvsmart.*: listados, discovery,
+ * préstamos de sesión SFTP y bulk writes). Al detenerse se escribe el .jfr y
+ * se resume: por tipo de evento (propios, GC, contención de monitores,
+ * parks, sockets) recuento y duraciones, y los N eventos más lentos. Así se
+ * distingue si un bajón de throughput viene de SFTP, Mongo, GC o locks sin
+ * conectar un profiler.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlightRecordingService {
+
+    private static final List<String> CUSTOM_EVENTS = List.of(
+        DirectoryListingEvent.NAME,
+        DirectoryDiscoveryEvent.NAME,
+        SftpSessionBorrowEvent.NAME,
+        BulkWriteEvent.NAME);
+    
+    // Eventos de la JVM que separan E/S de GC y contención
+    private static final Set<String> JVM_EVENTS = Set.of(
+        "jdk.GarbageCollection",
+        "jdk.GCPhasePause",
+        "jdk.JavaMonitorEnter",
+        "jdk.JavaMonitorWait",
+        "jdk.ThreadPark",
+        "jdk.SocketRead",
+        "jdk.SocketWrite");
+    
+    // Esperas que también hacen los hilos ociosos (pools, executors): cuentan
+    // en las estadísticas por tipo pero no entran en el ranking de lentos
+    private static final Set<String> IDLE_WAIT_EVENTS = Set.of("jdk.ThreadPark", "jdk.JavaMonitorWait");
+    
+    private static final Set<String> SKIPPED_FIELDS = Set.of("startTime", "duration", "eventThread", "stackTrace");
+
+    private final BatchConfigProperties batchProps;
+    private final JobProgressRegistry progressRegistry;
+    private final AtomicLong ids = new AtomicLong();
+    private final NavigableMap<Long, RecordingSession> recordings = new ConcurrentSkipListMap<>();
+
+    /**
+     * Grabación en curso.
+     */
+    private static final class RecordingSession {
+        private final long id;
+        private final Long jobExecutionId;
+        private final Recording recording;
+        private final Path file;
+        private final Instant startTime;
+        private volatile RecordingSummary summary;
+
+        RecordingSession(long id, Long jobExecutionId, Recording recording, Path file) {
+            this.id = id;
+            this.jobExecutionId = jobExecutionId;
+            this.recording = recording;
+            this.file = file;
+            this.startTime = Instant.now();
+        }
+
+        boolean isRunning() {
+            RecordingState state = recording.getState();
+            return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+        }
+    }
+
+    /**
+     * Inicia una grabación. Con jobExecutionId el job debe estar en curso; si
+     * ya tiene una grabación activa se devuelve esa.
+     */
+    public synchronized RecordingStatus start(Long jobExecutionId) {
+        if (jobExecutionId != null) {
+            progressRegistry.find(jobExecutionId)
+                .filter(JobProgressCounters::isRunning)
+                .orElseThrow(() -> new JobExecutionNotTrackedException(jobExecutionId));
+            for (RecordingSession session : recordings.values()) {
+                if (jobExecutionId.equals(session.jobExecutionId) && session.isRunning()) {
+                    return status(session);
+                }
+            }
+        }
+        
+        BatchConfigProperties.FlightRecording config = batchProps.getFlightRecording();
+        evictFinished(Math.max(0, config.getRetainedRecordings() - 1));
+        
+        long id = ids.incrementAndGet();
+        String name = jobExecutionId != null ? "dvsmart-job-" + jobExecutionId : "dvsmart-" + id;
+        try {
+            Path file = recordingDirectory().resolve(name + "-" + id + ".jfr");
+            Recording recording = new Recording(Configuration.getConfiguration(config.getSettings()));
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.setDestination(file);
+            recording.setMaxSize(config.getMaxSizeMb() * 1024 * 1024);
+            recording.setDuration(Duration.ofMinutes(Math.max(1, config.getMaxDurationMinutes())));
+            CUSTOM_EVENTS.forEach(event -> recording.enable(event).withThreshold(Duration.ZERO));
+            recording.start();
+            
+            RecordingSession session = new RecordingSession(id, jobExecutionId, recording, file);
+            recordings.put(id, session);
+            log.info("🎥 Flight recording {} started ({}), file {}", id, name, file);
+            return status(session);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not start flight recording: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Detiene la grabación (si sigue en curso) y devuelve su resumen.
+     */
+    public RecordingStatus stop(long recordingId) {
+        RecordingSession session = find(recordingId);
+        stop(session);
+        return status(session);
+    }
+
+    /**
+     * Detiene las grabaciones ligadas a un job que termina.
+     */
+    public void stopForJob(Long jobExecutionId) {
+        for (RecordingSession session : recordings.values()) {
+            if (jobExecutionId.equals(session.jobExecutionId) && session.isRunning()) {
+                log.info("🎥 Job execution {} finished: stopping flight recording {}", jobExecutionId, session.id);
+                stop(session);
+            }
+        }
+    }
+
+    public RecordingStatus getStatus(long recordingId) {
+        return status(find(recordingId));
+    }
+
+    public List<RecordingStatus> list() {
+        return recordings.values().stream().map(this::status).toList();
+    }
+
+    /**
+     * Archivo .jfr de una grabación terminada (para JMC o 'jfr print').
+     */
+    public Path getFile(long recordingId) {
+        RecordingSession session = find(recordingId);
+        if (session.isRunning()) {
+            throw new IllegalArgumentException("Flight recording " + recordingId + " is still running");
+        }
+        return session.file;
+    }
+
+    private RecordingSession find(long recordingId) {
+        RecordingSession session = recordings.get(recordingId);
+        if (session == null) {
+            throw new FlightRecordingNotFoundException(recordingId);
+        }
+        return session;
+    }
+
+    private void stop(RecordingSession session) {
+        synchronized (session) {
+            if (session.recording.getState() == RecordingState.RUNNING) {
+                session.recording.stop();
+            }
+        }
+    }
+
+    /**
+     * Estado y, si la grabación terminó (a mano, por duración o con el job),
+     * su resumen: se calcula una vez, al consultarla.
+     */
+    private RecordingStatus status(RecordingSession session) {
+        RecordingState state = session.recording.getState();
+        RecordingSummary summary = null;
+        if (!session.isRunning()) {
+            summary = summarize(session);
+        }
+        return new RecordingStatus(
+            session.id,
+            session.recording.getName(),
+            session.jobExecutionId,
+            state.name(),
+            session.startTime,
+            session.recording.getStopTime(),
+            session.file.toString(),
+            fileSize(session.file),
+            summary);
+    }
+
+    private RecordingSummary summarize(RecordingSession session) {
+        synchronized (session) {
+            if (session.summary == null && Files.exists(session.file)) {
+                try {
+                    session.summary = readSummary(session.file, batchProps.getFlightRecording().getTopEvents());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read flight recording " + session.file, e);
+                }
+                session.recording.close();
+            }
+            return session.summary;
+        }
+    }
+
+    /**
+     * Recorre el .jfr en streaming: estadísticas por tipo y un heap con los
+     * topEvents eventos más largos (sin las esperas ociosas).
+     */
+    static RecordingSummary readSummary(Path file, int topEvents) throws IOException {
+        Map<String, long[]> byType = new TreeMap<>();   // count, totalNanos, maxNanos
+        PriorityQueue<RecordedEvent> slowest = new PriorityQueue<>(Comparator.comparing(RecordedEvent::getDuration));
+        long total = 0;
+        
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String type = event.getEventType().getName();
+                if (!CUSTOM_EVENTS.contains(type) && !JVM_EVENTS.contains(type)) {
+                    continue;
+                }
+                total++;
+                long nanos = event.getDuration().toNanos();
+                long[] stats = byType.computeIfAbsent(type, key -> new long[3]);
+                stats[0]++;
+                stats[1] += nanos;
+                stats[2] = Math.max(stats[2], nanos);
+                
+                if (!IDLE_WAIT_EVENTS.contains(type)) {
+                    slowest.add(event);
+                    if (slowest.size() > Math.max(1, topEvents)) {
+                        slowest.poll();
+                    }
+                }
+            }
+        }
+        
+        Map<String, EventTypeStats> types = new LinkedHashMap<>();
+        byType.forEach((type, stats) -> types.put(type, new EventTypeStats(
+            stats[0], millis(stats[1]), millis(stats[2]), millis(stats[1] / Math.max(1, stats[0])))));
+        
+        List<SlowEvent> events = new ArrayList<>(slowest.size());
+        while (!slowest.isEmpty()) {
+            events.add(slowEvent(slowest.poll()));
+        }
+        events.sort(Comparator.comparingDouble(SlowEvent::durationMillis).reversed());
+        return new RecordingSummary(total, types, events);
+    }
+
+    private static SlowEvent slowEvent(RecordedEvent event) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (ValueDescriptor descriptor : event.getFields()) {
+            String name = descriptor.getName();
+            if (SKIPPED_FIELDS.contains(name)) {
+                continue;
+            }
+            Object value = event.getValue(name);
+            if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                fields.put(name, value);
+            } else if (value instanceof RecordedClass recordedClass) {
+                fields.put(name, recordedClass.getName());
+            } else if (value instanceof RecordedThread recordedThread) {
+                fields.put(name, recordedThread.getJavaName());
+            }
+        }
+        RecordedThread thread = event.getThread();
+        return new SlowEvent(
+            event.getEventType().getName(),
+            event.getStartTime(),
+            millis(event.getDuration().toNanos()),
+            thread != null ? thread.getJavaName() : null,
+            fields);
+    }
+
+    /**
+     * Descarta las grabaciones terminadas más antiguas (y su archivo).
+     */
+    private void evictFinished(int retained) {
+        List<RecordingSession> finished = recordings.values().stream()
+            .filter(session -> !session.isRunning())
+            .toList();
+        for (int i = 0; i < finished.size() - retained; i++) {
+            RecordingSession session = finished.get(i);
+            recordings.remove(session.id);
+            session.recording.close();
+            try {
+                Files.deleteIfExists(session.file);
+            } catch (IOException e) {
+                log.warn("⚠️ Could not delete flight recording file {}: {}", session.file, e.getMessage());
+            }
+        }
+    }
+
+    private Path recordingDirectory() throws IOException {
+        String configured = batchProps.getFlightRecording().getDirectory();
+        Path directory = configured == null || configured.isBlank()
+            ? Path.of(System.getProperty("java.io.tmpdir"), "dvsmart-jfr")
+            : Path.of(configured);
+        return Files.createDirectories(directory);
+    }
+
+    private static long fileSize(Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recordings.values().forEach(session -> {
+            stop(session);
+            session.recording.close();
+        });
+    }
+
+    public record RecordingStatus(
+        long id,
+        String name,
+        Long jobExecutionId,
+        String state,
+        Instant startTime,
+        Instant stopTime,
+        String file,
+        long fileSizeBytes,
+        RecordingSummary summary
+    ) {}
+
+    public record RecordingSummary(
+        long totalEvents,
+        Map<String, EventTypeStats> eventTypes,
+        List<SlowEvent> slowestEvents
+    ) {}
+
+    public record EventTypeStats(
+        long count,
+        double totalMillis,
+        double maxMillis,
+        double avgMillis
+    ) {}
+
+    public record SlowEvent(
+        String type,
+        Instant startTime,
+        double durationMillis,
+        String thread,
+        Map<String, Object> fields
+    ) {}
+}
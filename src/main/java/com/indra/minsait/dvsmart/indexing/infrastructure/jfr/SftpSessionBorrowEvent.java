@@ -0,0 +1,75 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 09:17:38
+ * File: SftpSessionBorrowEvent.java
+ */
+
+/**
+ * Evento JFR: préstamo de una sesión de un sub-pool SFTP, con el estado del
+ * pool al obtenerla.
+ */
+@Name(SftpSessionBorrowEvent.NAME)
+@Label("SFTP Session Borrow")
+@Category({"DVSmart", "SFTP"})
+@Description("Espera para obtener una sesión del pool SFTP")
+@StackTrace(false)
+public class SftpSessionBorrowEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "dvsmart.SftpSessionBorrow";
+
+    @Label("Pool")
+    String pool;
+
+    @Label("Active")
+    int active;
+
+    @Label("Idle")
+    int idle;
+
+    @Label("Waiters")
+    int waiters;
+
+    @Label("Max Total")
+    int maxTotal;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * El estado del pool solo se consulta si el evento se registra.
+     */
+    public void complete(String poolName, GenericObjectPool<?> pool, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.pool = poolName;
+            this.active = pool.getNumActive();
+            this.idle = pool.getNumIdle();
+            this.waiters = pool.getNumWaiters();
+            this.maxTotal = pool.getMaxTotal();
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
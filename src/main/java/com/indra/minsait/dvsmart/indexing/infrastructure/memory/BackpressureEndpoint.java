@@ -0,0 +1,41 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.memory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 22:58:30
+ * File: BackpressureEndpoint.java
+ */
+
+/**
+ * Endpoint actuator /actuator/backpressure: estado del governor de memoria.
+ */
+@Component
+@Endpoint(id = "backpressure")
+@RequiredArgsConstructor
+public class BackpressureEndpoint {
+
+    private final MemoryBackpressureGovernor governor;
+
+    @ReadOperation
+    public MemoryBackpressureGovernor.GovernorState state() {
+        return governor.getState();
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.memory;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 22:41:07
+ * File: MemoryBackpressureGovernor.java
+ */
+
+/**
+ * Governor de backpressure por memoria del pipeline de indexación.
+ * 
+ * Señales:
+ * - Ocupación del heap TRAS GC (collection usage de los pools de heap que
+ *   la soportan, típicamente old gen): no reacciona a la basura pendiente de
+ *   recoger, solo a lo que sobrevive. Los pools se configuran con un umbral
+ *   de collection usage y las notificaciones de la JVM refrescan el estado
+ *   en cuanto un GC lo supera
+ * - Items en vuelo: archivos listados aún no leídos por los readers más las
+ *   tareas en cola de los executors registrados
+ * 
+ * Niveles:
+ * - NORMAL: sin restricciones
+ * - ELEVATED: se suspende la lectura anticipada de listados
+ * - CRITICAL (o demasiados items en vuelo): además, cada listado espera a
+ *   que baje la presión, como mucho maxWaitMillis (nunca bloquea del todo)
+ */
+@Slf4j
+@Component
+public class MemoryBackpressureGovernor implements NotificationListener {
+
+    /**
+     * Nivel de presión de memoria.
+     */
+    public enum PressureLevel {
+        NORMAL,
+        ELEVATED,
+        CRITICAL
+    }
+
+    /**
+     * Estado expuesto por actuator.
+     */
+    public record GovernorState(
+            boolean enabled,
+            PressureLevel level,
+            double heapOccupancyAfterGc,
+            long bufferedItems,
+            long queuedTasks,
+            long inFlightItems,
+            long maxInFlightItems,
+            boolean readAheadAllowed,
+            boolean listingThrottled,
+            long throttledListings,
+            long throttledMillis,
+            long thresholdNotifications,
+            Instant lastLevelChange) {
+    }
+
+    private final BatchConfigProperties.Backpressure config;
+    private final List<MemoryPoolMXBean> heapPools;
+    private final NotificationEmitter emitter;
+    
+    private final LongAdder bufferedItems = new LongAdder();
+    private final Map<String, LongSupplier> queuedTaskSources = new ConcurrentHashMap<>();
+    
+    private volatile PressureLevel level = PressureLevel.NORMAL;
+    private volatile double occupancy = 0;
+    private volatile long lastRefreshNanos = 0;
+    private volatile Instant lastLevelChange = Instant.now();
+    
+    private final AtomicLong throttledListings = new AtomicLong();
+    private final AtomicLong throttledMillis = new AtomicLong();
+    private final AtomicLong thresholdNotifications = new AtomicLong();
+
+    public MemoryBackpressureGovernor(BatchConfigProperties props) {
+        this.config = props.getBackpressure();
+        this.heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .filter(MemoryPoolMXBean::isCollectionUsageThresholdSupported)
+            // Generación joven: tras un GC el survivor suele estar lleno sin que haya presión
+            .filter(pool -> !pool.getName().contains("Eden") && !pool.getName().contains("Survivor"))
+            .toList();
+        
+        if (!config.isEnabled()) {
+            this.emitter = null;
+            log.info("Memory backpressure governor disabled");
+            return;
+        }
+        
+        for (MemoryPoolMXBean pool : heapPools) {
+            long max = pool.getUsage().getMax();
+            if (max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * config.getElevatedHeapRatio()));
+            }
+        }
+        this.emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener(this, null, null);
+        
+        log.info("Memory backpressure governor initialized: pools={}, elevated={}, critical={}, maxInFlight={}",
+                 heapPools.stream().map(MemoryPoolMXBean::getName).toList(),
+                 config.getElevatedHeapRatio(), config.getCriticalHeapRatio(), config.getMaxInFlightItems());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (emitter != null) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                log.debug("Memory notification listener already removed");
+            }
+        }
+    }
+
+    /**
+     * Notificación de la JVM: un GC ha dejado un pool por encima del umbral.
+     */
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            thresholdNotifications.incrementAndGet();
+            refresh();
+        }
+    }
+
+    /**
+     * Registra una fuente de tareas en cola (p. ej. la cola del executor).
+     */
+    public void registerQueue(String name, LongSupplier queuedTasks) {
+        queuedTaskSources.put(name, queuedTasks);
+    }
+
+    /**
+     * Un reader ha cargado count archivos de un listado.
+     */
+    public void itemsBuffered(int count) {
+        bufferedItems.add(count);
+    }
+
+    /**
+     * Un reader ha entregado (o descartado) count archivos cargados.
+     */
+    public void itemsReleased(int count) {
+        bufferedItems.add(-count);
+    }
+
+    /**
+     * true si la lectura anticipada de listados está permitida.
+     */
+    public boolean allowsReadAhead() {
+        return !config.isEnabled() || (currentLevel() == PressureLevel.NORMAL && !overInFlightLimit());
+    }
+
+    /**
+     * Espera antes de un listado mientras la presión sea crítica o haya
+     * demasiados items en vuelo, siempre que haya algo en vuelo que pueda
+     * drenarse. Nunca más de maxWaitMillis.
+     */
+    public void awaitListingCapacity(String origin) {
+        if (!config.isEnabled() || !listingThrottled()) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        long deadline = start + config.getMaxWaitMillis() * 1_000_000L;
+        log.debug("⏸️  Listing throttled [{}]: level={}, inFlight={}", origin, level, inFlightItems());
+        try {
+            while (listingThrottled() && System.nanoTime() < deadline) {
+                Thread.sleep(Math.max(1, config.getPollIntervalMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        long waited = (System.nanoTime() - start) / 1_000_000L;
+        throttledListings.incrementAndGet();
+        throttledMillis.addAndGet(waited);
+        if (System.nanoTime() >= deadline) {
+            log.warn("⚠️  Listing [{}] resumed after {} ms under memory pressure (level={}, inFlight={})",
+                     origin, waited, level, inFlightItems());
+        }
+    }
+
+    public GovernorState getState() {
+        long buffered = bufferedItems.sum();
+        long queued = queuedTasks();
+        return new GovernorState(
+            config.isEnabled(),
+            currentLevel(),
+            occupancy,
+            buffered,
+            queued,
+            buffered + queued,
+            config.getMaxInFlightItems(),
+            allowsReadAhead(),
+            config.isEnabled() && listingThrottled(),
+            throttledListings.get(),
+            throttledMillis.get(),
+            thresholdNotifications.get(),
+            lastLevelChange);
+    }
+
+    private boolean listingThrottled() {
+        boolean pressure = currentLevel() == PressureLevel.CRITICAL || overInFlightLimit();
+        return pressure && inFlightItems() > 0;
+    }
+
+    private boolean overInFlightLimit() {
+        return config.getMaxInFlightItems() > 0 && inFlightItems() > config.getMaxInFlightItems();
+    }
+
+    private long inFlightItems() {
+        return Math.max(0, bufferedItems.sum()) + queuedTasks();
+    }
+
+    private long queuedTasks() {
+        long queued = 0;
+        for (LongSupplier source : queuedTaskSources.values()) {
+            queued += source.getAsLong();
+        }
+        return queued;
+    }
+
+    /**
+     * Nivel actual; la ocupación tras GC se relee como mucho una vez por pollInterval.
+     */
+    private PressureLevel currentLevel() {
+        if (System.nanoTime() - lastRefreshNanos > config.getPollIntervalMillis() * 1_000_000L) {
+            refresh();
+        }
+        return level;
+    }
+
+    private synchronized void refresh() {
+        lastRefreshNanos = System.nanoTime();
+        double worst = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (afterGc != null && afterGc.getMax() > 0) {
+                worst = Math.max(worst, (double) afterGc.getUsed() / afterGc.getMax());
+            }
+        }
+        occupancy = worst;
+        
+        PressureLevel next = worst >= config.getCriticalHeapRatio() ? PressureLevel.CRITICAL
+            : worst >= config.getElevatedHeapRatio() ? PressureLevel.ELEVATED
+            : PressureLevel.NORMAL;
+        if (next != level) {
+            log.info("🧠 Memory pressure {} → {} (heap after GC: {}%, in flight: {})",
+                     level, next, Math.round(worst * 100), inFlightItems());
+            level = next;
+            lastLevelChange = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 23:07:52
+ * File: IndexingMetrics.java
+ */
+
+/**
+ * Métricas Micrometer de las fases del crawl y de la escritura.
+ * 
+ * Todas las series llevan las etiquetas job, origin y step (el step worker de
+ * la partición), de modo que en /actuator/metrics o /actuator/prometheus se
+ * ve qué origen y qué fase limita un job en curso:
+ * 
+ * - dvsmart.indexing.listing.duration / listing.entries: listado por directorio
+ * - dvsmart.indexing.sftp.session.borrow: espera al pool SFTP (+ workload)
+ * - dvsmart.indexing.process.duration: transformación (por chunk o por item)
+ * - dvsmart.indexing.write.duration / write.size: bulk upsert
+ * - dvsmart.indexing.documents{result=inserted|modified|failed}
+ * - dvsmart.indexing.frontier.depth / readahead.depth / buffered.files: gauges
+ *   de los readers activos
+ * 
+ * Fuera de un step (p. ej. el préstamo de sesiones de un listado anticipado)
+ * job y step valen "none".
+ */
+@Component
+@RequiredArgsConstructor
+public class IndexingMetrics {
+
+    public static final String PREFIX = "dvsmart.indexing.";
+    private static final String NONE = "none";
+    // Clave del origen en el contexto de la partición (OriginPartitioner)
+    private static final String ORIGIN_KEY = "origin";
+    private static final int MAX_CACHED_EXECUTIONS = 1024;
+
+    private final MeterRegistry registry;
+    private final Map<Tags, StepMeters> stepMeters = new ConcurrentHashMap<>();
+    private final Map<Tags, Timer> borrowTimers = new ConcurrentHashMap<>();
+    private final Map<Long, StepMeters> byStepExecution = new ConcurrentHashMap<>();
+
+    /**
+     * Medidores de un step concreto.
+     */
+    public StepMeters forStep(String job, String origin, String step) {
+        return stepMeters.computeIfAbsent(tags(job, origin, step), tags -> new StepMeters(registry, tags));
+    }
+
+    /**
+     * Medidores del step que se ejecuta en el hilo actual (writer, processor).
+     * Cacheados por StepExecution: sin construir etiquetas por item.
+     */
+    public StepMeters current() {
+        StepExecution execution = currentStepExecution();
+        if (execution == null) {
+            return forStep(NONE, NONE, NONE);
+        }
+        StepMeters meters = byStepExecution.get(execution.getId());
+        if (meters == null) {
+            if (byStepExecution.size() >= MAX_CACHED_EXECUTIONS) {
+                byStepExecution.clear();
+            }
+            meters = forStep(
+                execution.getJobExecution().getJobInstance().getJobName(),
+                execution.getExecutionContext().getString(ORIGIN_KEY, NONE),
+                execution.getStepName());
+            byStepExecution.put(execution.getId(), meters);
+        }
+        return meters;
+    }
+
+    /**
+     * Espera para obtener una sesión de un sub-pool SFTP.
+     */
+    public void recordSessionBorrow(String origin, String workload, long nanos) {
+        StepExecution execution = currentStepExecution();
+        Tags tags = tags(
+            execution != null ? execution.getJobExecution().getJobInstance().getJobName() : NONE,
+            origin,
+            execution != null ? execution.getStepName() : NONE).and("workload", workload);
+        borrowTimers.computeIfAbsent(tags, key -> Timer.builder(PREFIX + "sftp.session.borrow")
+                .description("Espera para obtener una sesión del pool SFTP")
+                .tags(key)
+                .publishPercentileHistogram()
+                .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static StepExecution currentStepExecution() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context != null ? context.getStepExecution() : null;
+    }
+
+    private static Tags tags(String job, String origin, String step) {
+        return Tags.of("job", valueOrNone(job), "origin", valueOrNone(origin), "step", valueOrNone(step));
+    }
+
+    private static String valueOrNone(String value) {
+        return value == null || value.isBlank() ? NONE : value;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 23:20:14
+ * File: StepMeters.java
+ */
+
+/**
+ * Medidores de un step de indexación, etiquetados con job, origin y step.
+ * 
+ * Se resuelven una vez por step (IndexingMetrics los cachea): registrar un
+ * valor es una llamada directa al Timer/Counter, sin buscar en el registry.
+ * Los gauges de profundidad apuntan a un reader concreto y se retiran al
+ * cerrarlo (removeGauges).
+ */
+public class StepMeters {
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final List<Meter> gauges = new CopyOnWriteArrayList<>();
+
+    private final Timer listingDuration;
+    private final DistributionSummary listingEntries;
+    private final Timer chunkProcessing;
+    private final Timer itemProcessing;
+    private final Timer writeDuration;
+    private final DistributionSummary writeSize;
+    private final Counter inserted;
+    private final Counter modified;
+    private final Counter failed;
+
+    StepMeters(MeterRegistry registry, Tags tags) {
+        this.registry = registry;
+        this.tags = tags;
+        
+        this.listingDuration = Timer.builder(IndexingMetrics.PREFIX + "listing.duration")
+            .description("Latencia del listado de un directorio")
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.listingEntries = DistributionSummary.builder(IndexingMetrics.PREFIX + "listing.entries")
+            .description("Archivos aceptados por listado de directorio")
+            .tags(tags)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(1_000_000.0)
+            .register(registry);
+        this.chunkProcessing = Timer.builder(IndexingMetrics.PREFIX + "process.duration")
+            .description("Transformación a ArchivoMetadata")
+            .tags(tags)
+            .tag("granularity", "chunk")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.itemProcessing = Timer.builder(IndexingMetrics.PREFIX + "process.duration")
+            .description("Transformación a ArchivoMetadata")
+            .tags(tags)
+            .tag("granularity", "item")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.writeDuration = Timer.builder(IndexingMetrics.PREFIX + "write.duration")
+            .description("Latencia del bulk upsert en MongoDB")
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.writeSize = DistributionSummary.builder(IndexingMetrics.PREFIX + "write.size")
+            .description("Operaciones por bulk upsert")
+            .tags(tags)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(100_000.0)
+            .register(registry);
+        this.inserted = documents("inserted");
+        this.modified = documents("modified");
+        this.failed = documents("failed");
+    }
+
+    private Counter documents(String result) {
+        return Counter.builder(IndexingMetrics.PREFIX + "documents")
+            .description("Documentos escritos por resultado")
+            .tags(tags)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    public void recordListing(long nanos, int entries) {
+        listingDuration.record(nanos, TimeUnit.NANOSECONDS);
+        listingEntries.record(entries);
+    }
+
+    public void recordChunkProcessing(long nanos) {
+        chunkProcessing.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordItemProcessing(long nanos) {
+        itemProcessing.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordWrite(long nanos, int operations, int insertedCount, int modifiedCount, int failedCount) {
+        writeDuration.record(nanos, TimeUnit.NANOSECONDS);
+        writeSize.record(operations);
+        inserted.increment(insertedCount);
+        modified.increment(modifiedCount);
+        failed.increment(failedCount);
+    }
+
+    /**
+     * Registra un gauge de profundidad (frontera, lectura anticipada...) del
+     * step. Un gauge anterior con el mismo nombre se sustituye.
+     */
+    public void gauge(String name, String description, Supplier<Number> value) {
+        Meter.Id id = new Meter.Id(IndexingMetrics.PREFIX + name, tags, null, description, Meter.Type.GAUGE);
+        Meter previous = registry.remove(id);
+        if (previous != null) {
+            gauges.remove(previous);
+        }
+        gauges.add(Gauge.builder(IndexingMetrics.PREFIX + name, value)
+            .description(description)
+            .tags(tags)
+            .strongReference(true)
+            .register(registry));
+    }
+
+    /**
+     * Retira los gauges del step (al cerrar su reader).
+     */
+    public void removeGauges() {
+        gauges.forEach(registry::remove);
+        gauges.clear();
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.mongo;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.IndexingMetrics;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.stereotype.Component;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:04:26
+ * File: MongoCommandTelemetry.java
+ */
+
+/**
+ * Instrumentación del driver MongoDB (CommandListener + ConnectionPoolListener).
+ * 
+ * Se registra en el MongoClient autoconfigurado (MongoTelemetryConfig), el
+ * mismo que usan el MongoTemplate del BulkUpsertMongoItemWriter y el
+ * JobExecutionAuditRepository, y publica en el mismo registro Micrometer que
+ * IndexingMetrics:
+ * 
+ * - dvsmart.indexing.mongo.connection.checkout.wait{result}: espera en la cola
+ *   del pool del driver (result=checked_out o el motivo del fallo)
+ * - dvsmart.indexing.mongo.command.duration{command,collection,status}:
+ *   tiempo desde el envío hasta la respuesta (red + servidor)
+ * - dvsmart.indexing.mongo.bulk.operations / bulk.bytes{command,collection}:
+ *   operaciones y bytes BSON de cada lote insert/update/delete
+ * - dvsmart.indexing.mongo.command.slow{command,collection}: comandos cuya
+ *   espera + duración supera el umbral
+ * 
+ * Los comandos lentos se registran en el log (como mucho
+ * max-slow-logs-per-minute por minuto) con el desglose cola / comando, de
+ * modo que se distingue la espera por conexión del tiempo de red y servidor.
+ * 
+ * Con el driver síncrono los eventos de checkout y de inicio de comando se
+ * emiten en el hilo que ejecuta la operación: la espera del checkout se
+ * asocia al primer comando que ese hilo envía a continuación.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoCommandTelemetry implements CommandListener, ConnectionPoolListener {
+
+    private static final String PREFIX = IndexingMetrics.PREFIX + "mongo.";
+    private static final String NONE = "none";
+    // Campo con los documentos del lote en cada comando de escritura
+    private static final Map<String, String> WRITE_PAYLOADS = Map.of(
+        "insert", "documents",
+        "update", "updates",
+        "delete", "deletes");
+    // Campos internos del driver que no aportan nada al log
+    private static final Set<String> OMITTED_FIELDS = Set.of("lsid", "$clusterTime", "txnNumber");
+    // Tope de comandos en vuelo: evita crecer si se pierde algún evento final
+    private static final int MAX_IN_FLIGHT = 10000;
+
+    private final MeterRegistry registry;
+    private final BatchConfigProperties props;
+
+    private final Map<Tags, Timer> commandTimers = new ConcurrentHashMap<>();
+    private final Map<Tags, Timer> checkoutTimers = new ConcurrentHashMap<>();
+    private final Map<Tags, DistributionSummary> bulkOperations = new ConcurrentHashMap<>();
+    private final Map<Tags, DistributionSummary> bulkBytes = new ConcurrentHashMap<>();
+    private final Map<Tags, Counter> slowCounters = new ConcurrentHashMap<>();
+    private final Map<Integer, InFlightCommand> inFlight = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> lastCheckoutNanos = ThreadLocal.withInitial(() -> new long[] {-1});
+
+    private final AtomicLong slowLogWindowStart = new AtomicLong();
+    private final AtomicInteger slowLogsInWindow = new AtomicInteger();
+    private final AtomicLong suppressedSlowLogs = new AtomicLong();
+
+    /**
+     * Datos de un comando enviado que se necesitan al recibir la respuesta.
+     */
+    private record InFlightCommand(
+        Tags tags,
+        String database,
+        String collection,
+        long checkoutNanos,
+        int operations,
+        long bytes,
+        String body) {
+    }
+
+    // ========================================================================
+    // CONNECTION POOL
+    // ========================================================================
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        checkoutTimer("checked_out").record(nanos, TimeUnit.NANOSECONDS);
+        lastCheckoutNanos.get()[0] = nanos;
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        checkoutTimer(event.getReason().name().toLowerCase(Locale.ROOT)).record(nanos, TimeUnit.NANOSECONDS);
+        
+        if (TimeUnit.NANOSECONDS.toMillis(nanos) >= props.getMongo().getSlowCommandThresholdMillis()
+                && acquireSlowLogSlot()) {
+            log.warn("🐢 Mongo connection checkout failed after {} ms: reason={}, server={}",
+                TimeUnit.NANOSECONDS.toMillis(nanos),
+                event.getReason(),
+                event.getServerId().getAddress());
+        }
+    }
+
+    // ========================================================================
+    // COMMANDS
+    // ========================================================================
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        long[] checkout = lastCheckoutNanos.get();
+        long checkoutNanos = checkout[0];
+        checkout[0] = -1;
+        
+        if (inFlight.size() >= MAX_IN_FLIGHT) {
+            inFlight.clear();
+        }
+        
+        BsonDocument command = event.getCommand();
+        String commandName = event.getCommandName();
+        String collection = collectionOf(commandName, command);
+        Tags tags = Tags.of("command", commandName, "collection", collection);
+        
+        int operations = -1;
+        long bytes = -1;
+        String payloadField = WRITE_PAYLOADS.get(commandName);
+        if (payloadField != null && command.get(payloadField) instanceof BsonArray payload) {
+            operations = payload.size();
+            bytes = 0;
+            for (BsonValue document : payload) {
+                if (document.isDocument()) {
+                    bytes += bsonSize(document.asDocument());
+                }
+            }
+            summary(bulkOperations, tags, "bulk.operations", "Operaciones por lote de escritura", "operations")
+                .record(operations);
+            summary(bulkBytes, tags, "bulk.bytes", "Tamaño BSON de los documentos del lote", "bytes")
+                .record(bytes);
+        }
+        
+        BatchConfigProperties.Mongo config = props.getMongo();
+        String body = config.isLogCommandBody() ? describe(command, payloadField, config.getMaxLoggedChars()) : null;
+        inFlight.put(event.getRequestId(),
+            new InFlightCommand(tags, event.getDatabaseName(), collection, checkoutNanos, operations, bytes, body));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getCommandName(), "success",
+            event.getElapsedTime(TimeUnit.NANOSECONDS), null);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Throwable failure = event.getThrowable();
+        complete(event.getRequestId(), event.getCommandName(), "failure",
+            event.getElapsedTime(TimeUnit.NANOSECONDS),
+            failure != null ? failure.getClass().getSimpleName() + ": " + failure.getMessage() : "unknown");
+    }
+
+    private void complete(int requestId, String commandName, String status, long nanos, String failure) {
+        InFlightCommand command = inFlight.remove(requestId);
+        Tags tags = command != null ? command.tags() : Tags.of("command", commandName, "collection", NONE);
+        commandTimer(tags.and("status", status)).record(nanos, TimeUnit.NANOSECONDS);
+        
+        long checkoutNanos = command != null ? Math.max(0, command.checkoutNanos()) : 0;
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(checkoutNanos + nanos);
+        if (totalMillis < props.getMongo().getSlowCommandThresholdMillis()) {
+            return;
+        }
+        
+        slowCounters.computeIfAbsent(tags, key -> Counter.builder(PREFIX + "command.slow")
+                .description("Comandos MongoDB por encima del umbral de lentitud")
+                .tags(key)
+                .register(registry))
+            .increment();
+        
+        if (!acquireSlowLogSlot()) {
+            return;
+        }
+        log.warn("🐢 Slow Mongo command {} on {}.{}: total={} ms (checkout={} ms, command={} ms), "
+                + "operations={}, bytes={}, status={}{}{}",
+            commandName,
+            command != null ? command.database() : NONE,
+            command != null ? command.collection() : NONE,
+            totalMillis,
+            TimeUnit.NANOSECONDS.toMillis(checkoutNanos),
+            TimeUnit.NANOSECONDS.toMillis(nanos),
+            command != null && command.operations() >= 0 ? command.operations() : "-",
+            command != null && command.bytes() >= 0 ? command.bytes() : "-",
+            status,
+            failure != null ? ", error=" + failure : "",
+            command != null && command.body() != null ? ", command=" + command.body() : "");
+    }
+
+    // ========================================================================
+    // HELPERS
+    // ========================================================================
+
+    /**
+     * Limita los logs de comandos lentos a max-slow-logs-per-minute; al abrir
+     * una ventana nueva informa de los descartados en la anterior.
+     */
+    private boolean acquireSlowLogSlot() {
+        long now = System.currentTimeMillis();
+        long windowStart = slowLogWindowStart.get();
+        if (now - windowStart >= 60_000 && slowLogWindowStart.compareAndSet(windowStart, now)) {
+            slowLogsInWindow.set(0);
+            long suppressed = suppressedSlowLogs.getAndSet(0);
+            if (suppressed > 0) {
+                log.warn("🐢 {} slow Mongo commands not logged in the last minute", suppressed);
+            }
+        }
+        if (slowLogsInWindow.incrementAndGet() <= props.getMongo().getMaxSlowLogsPerMinute()) {
+            return true;
+        }
+        suppressedSlowLogs.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Colección del comando: el valor de su primer campo ({"update": "files"})
+     * o el campo collection de un getMore.
+     */
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : NONE;
+    }
+
+    /**
+     * Tamaño BSON de un documento. Los documentos del lote llegan como vistas
+     * sobre el buffer ya serializado: se lee la longitud de su cabecera sin
+     * recorrerlos. Solo los documentos construidos en memoria se codifican.
+     */
+    static long bsonSize(BsonDocument document) {
+        if (document instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        try (BsonReader reader = document.asBsonReader()) {
+            if (reader instanceof BsonBinaryReader binary) {
+                return binary.getBsonInput().readInt32();
+            }
+        }
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            new BsonDocumentCodec().encode(writer, document, EncoderContext.builder().build());
+        }
+        return buffer.getPosition();
+    }
+
+    /**
+     * JSON truncado del comando sin los documentos del lote ni campos internos.
+     */
+    private static String describe(BsonDocument command, String payloadField, int maxChars) {
+        BsonDocument body = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.equals(payloadField) && !OMITTED_FIELDS.contains(key)) {
+                body.put(key, value);
+            }
+        });
+        return body.toJson(JsonWriterSettings.builder().maxLength(Math.max(1, maxChars)).build());
+    }
+
+    private Timer checkoutTimer(String result) {
+        return checkoutTimers.computeIfAbsent(Tags.of("result", result),
+            tags -> Timer.builder(PREFIX + "connection.checkout.wait")
+                .description("Espera para obtener una conexión del pool del driver MongoDB")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Timer commandTimer(Tags tags) {
+        return commandTimers.computeIfAbsent(tags, key -> Timer.builder(PREFIX + "command.duration")
+            .description("Duración de los comandos MongoDB (red + servidor)")
+            .tags(key)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+
+    private DistributionSummary summary(
+            Map<Tags, DistributionSummary> cache,
+            Tags tags,
+            String name,
+            String description,
+            String baseUnit) {
+        return cache.computeIfAbsent(tags, key -> DistributionSummary.builder(PREFIX + name)
+            .description(description)
+            .baseUnit(baseUnit)
+            .tags(key)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+}
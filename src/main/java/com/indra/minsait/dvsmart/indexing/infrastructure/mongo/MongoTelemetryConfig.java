@@ -0,0 +1,52 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.mongo;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:09:48
+ * File: MongoTelemetryConfig.java
+ */
+
+/**
+ * Registra MongoCommandTelemetry en el MongoClient autoconfigurado por Spring
+ * Boot. Al ser el único cliente de la aplicación, cubre tanto el bulk upsert
+ * del índice como la auditoría de ejecuciones.
+ */
+@Slf4j
+@Configuration
+public class MongoTelemetryConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTelemetryCustomizer(
+            MongoCommandTelemetry telemetry,
+            BatchConfigProperties props) {
+        return builder -> {
+            if (!props.getMongo().isEnabled()) {
+                log.info("Mongo driver telemetry disabled");
+                return;
+            }
+            builder.addCommandListener(telemetry)
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(telemetry));
+            log.info("📈 Mongo driver telemetry enabled (slow threshold {} ms)",
+                props.getMongo().getSlowCommandThresholdMillis());
+        };
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.progress;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.JobProgress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 23:44:31
+ * File: JobProgressCounters.java
+ */
+
+/**
+ * Contadores de progreso de una ejecución de job.
+ * 
+ * Los readers y el writer solo incrementan LongAdders (sin locks en el camino
+ * caliente); la frontera de cada origen se consulta bajo demanda a través del
+ * LongSupplier que registra su reader. El cálculo de ritmos y ETA (sample)
+ * lo hace el hilo de muestreo, una vez por intervalo.
+ */
+public class JobProgressCounters {
+
+    private final Long jobExecutionId;
+    private final String jobName;
+    private final Instant startTime;
+    
+    private final LongAdder directoriesDone = new LongAdder();
+    private final LongAdder filesRead = new LongAdder();
+    private final LongAdder filesWritten = new LongAdder();
+    private final Map<String, LongSupplier> frontiers = new ConcurrentHashMap<>();
+    
+    private volatile String status = "RUNNING";
+    private volatile Instant endTime;
+    
+    // Estado del muestreo (solo desde sample)
+    private long lastSampleNanos;
+    private long lastFilesWritten;
+    private long lastDirectoriesDone;
+    private double averageFilesPerSecond = Double.NaN;
+    private double averageDirectoriesPerSecond = Double.NaN;
+    private JobProgress lastSample;
+
+    JobProgressCounters(Long jobExecutionId, String jobName) {
+        this.jobExecutionId = jobExecutionId;
+        this.jobName = jobName;
+        this.startTime = Instant.now();
+        this.lastSampleNanos = System.nanoTime();
+    }
+
+    public void directoryDone() {
+        directoriesDone.increment();
+    }
+
+    public void directoriesDone(long count) {
+        directoriesDone.add(count);
+    }
+
+    public void filesRead(long count) {
+        filesRead.add(count);
+    }
+
+    public void filesWritten(long count) {
+        filesWritten.add(count);
+    }
+
+    /**
+     * Registra la frontera (directorios pendientes) de un origen. Los workers
+     * de un mismo origen comparten cola: basta el primer registro.
+     */
+    public void registerFrontier(String origin, LongSupplier pendingDirectories) {
+        frontiers.putIfAbsent(origin, pendingDirectories);
+    }
+
+    public void unregisterFrontier(String origin) {
+        frontiers.remove(origin);
+    }
+
+    void finish(String finalStatus) {
+        this.endTime = Instant.now();
+        this.status = finalStatus;
+        this.frontiers.clear();
+    }
+
+    public Long getJobExecutionId() {
+        return jobExecutionId;
+    }
+
+    public boolean isRunning() {
+        return endTime == null;
+    }
+
+    public long getFilesRead() {
+        return filesRead.sum();
+    }
+
+    public long getFilesWritten() {
+        return filesWritten.sum();
+    }
+
+    /**
+     * Toma una muestra: ritmo del último intervalo, media móvil exponencial
+     * (ventana rateWindowSeconds, ponderada por la duración real del
+     * intervalo) y ETA del trabajo descubierto.
+     * 
+     * Con ejecuciones terminadas devuelve el último estado, con el estado final.
+     */
+    synchronized JobProgress sample(long rateWindowSeconds) {
+        if (!isRunning() && lastSample != null && status.equals(lastSample.getStatus())) {
+            return lastSample;
+        }
+        
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastSampleNanos) / 1e9);
+        long written = filesWritten.sum();
+        long directories = directoriesDone.sum();
+        long read = filesRead.sum();
+        long pending = pendingDirectories();
+        
+        double currentFiles = (written - lastFilesWritten) / seconds;
+        double currentDirectories = (directories - lastDirectoriesDone) / seconds;
+        double alpha = 1 - Math.exp(-seconds / Math.max(1, rateWindowSeconds));
+        averageFilesPerSecond = ewma(averageFilesPerSecond, currentFiles, alpha);
+        averageDirectoriesPerSecond = ewma(averageDirectoriesPerSecond, currentDirectories, alpha);
+        
+        lastSampleNanos = now;
+        lastFilesWritten = written;
+        lastDirectoriesDone = directories;
+        
+        Instant timestamp = Instant.now();
+        lastSample = JobProgress.builder()
+            .jobExecutionId(jobExecutionId)
+            .jobName(jobName)
+            .status(status)
+            .startTime(startTime)
+            .timestamp(timestamp)
+            .elapsedSeconds(Duration.between(startTime, endTime != null ? endTime : timestamp).toSeconds())
+            .pendingDirectories(pending)
+            .directoriesDone(directories)
+            .directoriesDiscovered(directories + pending)
+            .filesRead(read)
+            .filesWritten(written)
+            .currentFilesPerSecond(round(currentFiles))
+            .averageFilesPerSecond(round(averageFilesPerSecond))
+            .currentDirectoriesPerSecond(round(currentDirectories))
+            .averageDirectoriesPerSecond(round(averageDirectoriesPerSecond))
+            .etaSeconds(isRunning() ? eta(pending, directories, read, written) : Long.valueOf(0))
+            .build();
+        return lastSample;
+    }
+
+    /**
+     * Última muestra si es reciente (maxAgeMillis) y corresponde al estado
+     * actual; si no, una nueva.
+     */
+    synchronized JobProgress latest(long rateWindowSeconds, long maxAgeMillis) {
+        if (lastSample != null && status.equals(lastSample.getStatus())
+                && lastSample.getTimestamp().plusMillis(maxAgeMillis).isAfter(Instant.now())) {
+            return lastSample;
+        }
+        return sample(rateWindowSeconds);
+    }
+
+    private long pendingDirectories() {
+        long pending = 0;
+        for (LongSupplier frontier : frontiers.values()) {
+            pending += Math.max(0, frontier.getAsLong());
+        }
+        return pending;
+    }
+
+    /**
+     * Archivos pendientes estimados (directorios en la frontera por la media
+     * de archivos por directorio, más los leídos aún sin escribir) al ritmo
+     * medio de escritura.
+     */
+    private Long eta(long pending, long directories, long read, long written) {
+        if (directories == 0 || !(averageFilesPerSecond > 0)) {
+            return null;
+        }
+        double filesPerDirectory = (double) read / directories;
+        double remainingFiles = pending * filesPerDirectory + Math.max(0, read - written);
+        return (long) Math.ceil(remainingFiles / averageFilesPerSecond);
+    }
+
+    private static double ewma(double average, double value, double alpha) {
+        return Double.isNaN(average) ? value : average + alpha * (value - average);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
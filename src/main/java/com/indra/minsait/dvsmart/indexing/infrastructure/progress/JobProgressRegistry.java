@@ -0,0 +1,94 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.progress;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.stereotype.Component;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 23:49:12
+ * File: JobProgressRegistry.java
+ */
+
+/**
+ * Registro en memoria del progreso de las ejecuciones de job.
+ * 
+ * El JobProgressListener abre y cierra cada ejecución; los readers y el
+ * writer obtienen sus contadores por jobExecutionId. De las ejecuciones
+ * terminadas se conservan las últimas batch.progress.retained-executions
+ * para los suscriptores que llegan tarde.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobProgressRegistry {
+
+    private final BatchConfigProperties batchProps;
+    private final Map<Long, JobProgressCounters> executions = new ConcurrentHashMap<>();
+    private final Deque<Long> finished = new ConcurrentLinkedDeque<>();
+
+    public JobProgressCounters start(Long jobExecutionId, String jobName) {
+        return executions.computeIfAbsent(jobExecutionId, id -> new JobProgressCounters(id, jobName));
+    }
+
+    public void finish(Long jobExecutionId, String status) {
+        JobProgressCounters counters = executions.get(jobExecutionId);
+        if (counters == null) {
+            return;
+        }
+        counters.finish(status);
+        finished.add(jobExecutionId);
+        
+        int retained = Math.max(0, batchProps.getProgress().getRetainedExecutions());
+        while (finished.size() > retained) {
+            Long evicted = finished.poll();
+            if (evicted != null) {
+                executions.remove(evicted);
+            }
+        }
+        log.debug("Progress of job execution {} closed with status {}", jobExecutionId, status);
+    }
+
+    public Optional<JobProgressCounters> find(Long jobExecutionId) {
+        return Optional.ofNullable(executions.get(jobExecutionId));
+    }
+
+    /**
+     * Contadores de una ejecución en curso (null si no se registró: job sin
+     * JobProgressListener).
+     */
+    public JobProgressCounters forExecution(Long jobExecutionId) {
+        return jobExecutionId != null ? executions.get(jobExecutionId) : null;
+    }
+
+    /**
+     * Contadores de la ejecución del step que corre en el hilo actual.
+     */
+    public JobProgressCounters current() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context != null
+            ? forExecution(context.getStepExecution().getJobExecutionId())
+            : null;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.progress;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.JobProgress;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.JobExecutionNotTrackedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 23:58:03
+ * File: JobProgressStreamer.java
+ */
+
+/**
+ * Difusión del progreso de las ejecuciones por Server-Sent Events.
+ * 
+ * Un único hilo muestrea cada batch.progress.interval-millis las ejecuciones
+ * con suscriptores (una muestra por ejecución, compartida por todos sus
+ * suscriptores) y envía un evento "progress" con el JobProgress. Al terminar
+ * el job se envía el estado final y se cierran las suscripciones.
+ */
+@Slf4j
+@Component
+public class JobProgressStreamer {
+
+    private static final String EVENT_NAME = "progress";
+
+    private final JobProgressRegistry registry;
+    private final BatchConfigProperties.Progress config;
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public JobProgressStreamer(JobProgressRegistry registry, BatchConfigProperties batchProps) {
+        this.registry = registry;
+        this.config = batchProps.getProgress();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-progress-sse");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100, config.getIntervalMillis());
+        this.scheduler.scheduleAtFixedRate(this::broadcast, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre una suscripción al progreso de una ejecución. El primer evento se
+     * envía de inmediato.
+     */
+    public SseEmitter subscribe(Long jobExecutionId) {
+        JobProgressCounters counters = registry.find(jobExecutionId)
+            .orElseThrow(() -> new JobExecutionNotTrackedException(jobExecutionId));
+        
+        SseEmitter emitter = new SseEmitter(config.getEmitterTimeoutMillis());
+        subscribers.computeIfAbsent(jobExecutionId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(jobExecutionId, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobExecutionId, emitter));
+        emitter.onError(error -> unsubscribe(jobExecutionId, emitter));
+        
+        log.info("📡 Progress subscription opened for job execution {} ({} subscribers)",
+                 jobExecutionId, subscribers.get(jobExecutionId).size());
+        scheduler.execute(() -> send(counters, List.of(emitter), false));
+        return emitter;
+    }
+
+    private void unsubscribe(Long jobExecutionId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobExecutionId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void broadcast() {
+        subscribers.forEach((jobExecutionId, emitters) -> {
+            JobProgressCounters counters = registry.find(jobExecutionId).orElse(null);
+            if (counters == null) {
+                // Ejecución descartada del registro: cerrar sin más eventos
+                emitters.forEach(SseEmitter::complete);
+                subscribers.remove(jobExecutionId);
+                return;
+            }
+            send(counters, emitters, true);
+        });
+    }
+
+    /**
+     * @param resample false = reutiliza la última muestra (no acorta el
+     *                 intervalo de ritmo del resto de suscriptores)
+     */
+    private void send(JobProgressCounters counters, List<SseEmitter> emitters, boolean resample) {
+        try {
+            boolean finished = !counters.isRunning();
+            JobProgress progress = resample
+                ? counters.sample(config.getRateWindowSeconds())
+                : counters.latest(config.getRateWindowSeconds(), config.getIntervalMillis());
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(progress.getTimestamp().toEpochMilli()))
+                        .data(progress));
+                    if (finished) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado: Spring invoca onError/onCompletion
+                    log.debug("Progress subscriber of job execution {} dropped: {}",
+                              counters.getJobExecutionId(), e.getMessage());
+                    unsubscribe(counters.getJobExecutionId(), emitter);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Error sampling progress of job execution {}", counters.getJobExecutionId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+        scheduler.shutdownNow();
+    }
+}
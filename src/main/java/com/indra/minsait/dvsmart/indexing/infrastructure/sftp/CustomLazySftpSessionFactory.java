@@ -13,6 +13,7 @@
  */
 package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
 
+import com.indra.minsait.dvsmart.indexing.infrastructure.jfr.SftpSessionBorrowEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
@@ -20,7 +21,11 @@ import org.apache.sshd.sftp.client.SftpClient;
 import org.springframework.integration.file.remote.session.Session;
 import org.springframework.integration.file.remote.session.SessionFactory;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
 
 
 /**
@@ -37,27 +42,43 @@ import java.time.Duration;
  * - Validación pre-uso: Verifica salud antes de retornar
  * - Eviction: Cierra conexiones inactivas automáticamente
  * - Thread-safe: Seguro para uso concurrente
+ * - Guardia: rate limiting y circuit breaker delante de cada operación
+ * - Telemetría: espera de préstamo, retención, creación y validación, con
+ *   desglose por caller (SftpPoolTelemetry)
  */
 @Slf4j
 public class CustomLazySftpSessionFactory implements SessionFactory<SftpClient.DirEntry> {
 
+    private final String poolName;
     private final GenericObjectPool<Session<SftpClient.DirEntry>> pool;
     private final SftpSessionPooledObjectFactory pooledFactory;
+    private final SftpOperationGuard guard;
+    private final LongConsumer borrowWaitRecorder;   // nanos de espera por préstamo
+    private final SftpPoolTelemetry telemetry = new SftpPoolTelemetry();
+    private volatile LongConsumer listingLatencyRecorder = nanos -> { };   // nanos de list/listNames/exists
+    private volatile BooleanSupplier failoverAvailable = () -> false;      // otra réplica puede atender
 
     public CustomLazySftpSessionFactory(
+            String poolName,
             SessionFactory<SftpClient.DirEntry> targetFactory,
             int maxPoolSize,
             int initialSize,
             long maxWaitMillis,
             boolean testOnBorrow,
             long timeBetweenEvictionRunsMillis,
-            long minEvictableIdleTimeMillis) {
+            long minEvictableIdleTimeMillis,
+            SftpOperationGuard guard,
+            LongConsumer borrowWaitRecorder) {
 
-        log.info("Initializing Lazy SFTP Session Pool: maxSize={}, initialSize={}, lazy={}",
-                maxPoolSize, initialSize, initialSize == 0);
+        this.poolName = poolName;
+        this.guard = guard;
+        this.borrowWaitRecorder = borrowWaitRecorder;
+        
+        log.info("Initializing Lazy SFTP Session Pool [{}]: maxSize={}, initialSize={}, lazy={}",
+                poolName, maxPoolSize, initialSize, initialSize == 0);
 
         // Factory que crea sesiones bajo demanda
-        this.pooledFactory = new SftpSessionPooledObjectFactory(targetFactory);
+        this.pooledFactory = new SftpSessionPooledObjectFactory(targetFactory, telemetry);
 
         // Configuración del pool
         GenericObjectPoolConfig<Session<SftpClient.DirEntry>> config = new GenericObjectPoolConfig<>();
@@ -88,7 +109,7 @@ public class CustomLazySftpSessionFactory implements SessionFactory<SftpClient.D
         
         // Pre-crear sesiones iniciales si se especifica
         if (initialSize > 0) {
-            log.info("Pre-creating {} initial sessions...", initialSize);
+            log.info("Pre-creating {} initial sessions for pool [{}]...", initialSize, poolName);
             for (int i = 0; i < initialSize; i++) {
                 try {
                     pool.addObject();
@@ -98,133 +119,299 @@ public class CustomLazySftpSessionFactory implements SessionFactory<SftpClient.D
             }
         }
         
-        log.info("SFTP Session Pool initialized successfully");
+        log.info("SFTP Session Pool [{}] initialized successfully", poolName);
     }
 
     @Override
     public Session<SftpClient.DirEntry> getSession() {
+        SftpSessionBorrowEvent event = new SftpSessionBorrowEvent();
+        event.begin();
+        SftpPoolTelemetry.CallerTelemetry caller = telemetry.resolveCaller();
+        long start = System.nanoTime();
         try {
-            log.debug("Borrowing session from pool (active={}, idle={})",
-                    pool.getNumActive(), pool.getNumIdle());
+            log.debug("Borrowing session from pool [{}] (active={}, idle={})",
+                    poolName, pool.getNumActive(), pool.getNumIdle());
             
-            Session<SftpClient.DirEntry> session = pool.borrowObject();
+            Session<SftpClient.DirEntry> session = guard.executeUnthrottled("borrow", this::borrowFromPool, failoverAvailable);
+            long waitNanos = System.nanoTime() - start;
+            borrowWaitRecorder.accept(waitNanos);
+            telemetry.recordBorrow(caller, waitNanos);
+            event.complete(poolName, pool, true);
             
-            log.debug("Session borrowed successfully (active={}, idle={})",
-                    pool.getNumActive(), pool.getNumIdle());
+            log.debug("Session borrowed successfully from [{}] (active={}, idle={})",
+                    poolName, pool.getNumActive(), pool.getNumIdle());
             
-            return new PooledSftpSession(session, pool);
+            return new PooledSftpSession(session, pool, guard, telemetry, caller,
+                                         nanos -> listingLatencyRecorder.accept(nanos),
+                                         () -> failoverAvailable.getAsBoolean());
             
         } catch (Exception e) {
-            log.error("Failed to borrow session from pool", e);
-            throw new RuntimeException("Could not obtain SFTP session", e);
+            telemetry.recordFailure(caller, System.nanoTime() - start);
+            event.complete(poolName, pool, false);
+            log.error("Failed to borrow session from pool [{}]", poolName, e);
+            throw new RuntimeException("Could not obtain SFTP session from pool: " + poolName, e);
+        }
+    }
+
+    /**
+     * Préstamo del pool adaptado a SftpOperation (para el circuit breaker).
+     */
+    private Session<SftpClient.DirEntry> borrowFromPool() throws IOException {
+        try {
+            return pool.borrowObject();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not create SFTP session for pool: " + poolName, e);
         }
     }
 
     /**
      * Wrapper que devuelve la sesión al pool al cerrarse.
+     * 
+     * Todas las operaciones pasan por la guardia (rate limiter + circuit breaker).
+     * Las operaciones de lectura idempotentes (list, listNames, exists) se reintentan
+     * tras una pausa del breaker con una sesión nueva del pool.
      */
     private static class PooledSftpSession implements Session<SftpClient.DirEntry> {
         
-        private final Session<SftpClient.DirEntry> delegate;
+        private volatile Session<SftpClient.DirEntry> delegate;
         private final GenericObjectPool<Session<SftpClient.DirEntry>> pool;
+        private final SftpOperationGuard guard;
+        private final SftpPoolTelemetry telemetry;
+        private final SftpPoolTelemetry.CallerTelemetry caller;
+        private final LongConsumer listingLatencyRecorder;
+        private final BooleanSupplier failoverAvailable;
+        private final long borrowedAt = System.nanoTime();
         private volatile boolean closed = false;
 
         public PooledSftpSession(
                 Session<SftpClient.DirEntry> delegate,
-                GenericObjectPool<Session<SftpClient.DirEntry>> pool) {
+                GenericObjectPool<Session<SftpClient.DirEntry>> pool,
+                SftpOperationGuard guard,
+                SftpPoolTelemetry telemetry,
+                SftpPoolTelemetry.CallerTelemetry caller,
+                LongConsumer listingLatencyRecorder,
+                BooleanSupplier failoverAvailable) {
             this.delegate = delegate;
             this.pool = pool;
+            this.guard = guard;
+            this.telemetry = telemetry;
+            this.caller = caller;
+            this.listingLatencyRecorder = listingLatencyRecorder;
+            this.failoverAvailable = failoverAvailable;
+        }
+
+        /**
+         * Mide solo la llamada al servidor (sin esperas del rate limiter ni
+         * pausas del breaker) y la reporta si termina bien.
+         */
+        private <T> T timed(SftpOperationGuard.SftpOperation<T> op) throws IOException {
+            long start = System.nanoTime();
+            T result = op.call();
+            listingLatencyRecorder.accept(System.nanoTime() - start);
+            return result;
         }
 
         @Override
         public void close() {
             if (!closed) {
                 closed = true;
+                telemetry.recordReturn(caller, System.nanoTime() - borrowedAt);
+                Session<SftpClient.DirEntry> current = delegate;
+                if (current == null) {
+                    return;
+                }
                 try {
                     log.debug("Returning session to pool");
-                    pool.returnObject(delegate);
+                    pool.returnObject(current);
                 } catch (Exception e) {
                     log.warn("Error returning session to pool", e);
                 }
             }
         }
 
+        /**
+         * Sesión subyacente actual (puede haberse renovado tras un fallo).
+         */
+        private Session<SftpClient.DirEntry> current() throws IOException {
+            Session<SftpClient.DirEntry> current = delegate;
+            if (current == null) {
+                throw new IOException("SFTP session not available (renewal failed)");
+            }
+            return current;
+        }
+
+        /**
+         * Invalida la sesión actual y toma una nueva del pool.
+         * 
+         * El wrapper sigue siendo un único préstamo (un borrow en getSession y
+         * un return en close): la renovación solo cuenta como invalidación.
+         * El timeout del pool (NoSuchElementException) se propaga tal cual
+         * para que la guardia no lo cuente como fallo del origen.
+         */
+        private void renewDelegate() {
+            try {
+                Session<SftpClient.DirEntry> old = delegate;
+                if (old != null) {
+                    delegate = null;
+                    pool.invalidateObject(old);
+                    telemetry.recordInvalidation();
+                }
+                delegate = pool.borrowObject();
+                log.debug("SFTP session renewed after circuit pause");
+            } catch (NoSuchElementException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not renew SFTP session", e);
+            }
+        }
+
         @Override
         public boolean remove(String path) throws IOException {
-            return delegate.remove(path);
+            return guard.execute("remove", () -> current().remove(path), null);
         }
 
         @Override
         public SftpClient.DirEntry[] list(String path) throws IOException {
-            return delegate.list(path);
+            return guard.execute("list", () -> timed(() -> current().list(path)), this::renewDelegate,
+                                 failoverAvailable);
         }
 
         @Override
         public void read(String source, java.io.OutputStream outputStream) throws IOException {
-            delegate.read(source, outputStream);
+            guard.execute("read", () -> {
+                current().read(source, outputStream);
+                return null;
+            }, null);
         }
 
         @Override
         public void write(java.io.InputStream inputStream, String destination) throws IOException {
-            delegate.write(inputStream, destination);
+            guard.execute("write", () -> {
+                current().write(inputStream, destination);
+                return null;
+            }, null);
         }
 
         @Override
         public void append(java.io.InputStream inputStream, String destination) throws IOException {
-            delegate.append(inputStream, destination);
+            guard.execute("append", () -> {
+                current().append(inputStream, destination);
+                return null;
+            }, null);
         }
 
         @Override
         public boolean mkdir(String directory) throws IOException {
-            return delegate.mkdir(directory);
+            return guard.execute("mkdir", () -> current().mkdir(directory), null);
         }
 
         @Override
         public boolean rmdir(String directory) throws IOException {
-            return delegate.rmdir(directory);
+            return guard.execute("rmdir", () -> current().rmdir(directory), null);
         }
 
         @Override
         public void rename(String pathFrom, String pathTo) throws IOException {
-            delegate.rename(pathFrom, pathTo);
+            guard.execute("rename", () -> {
+                current().rename(pathFrom, pathTo);
+                return null;
+            }, null);
         }
 
         @Override
         public boolean isOpen() {
-            return !closed && delegate.isOpen();
+            Session<SftpClient.DirEntry> current = delegate;
+            return !closed && current != null && current.isOpen();
         }
 
         @Override
         public boolean exists(String path) throws IOException {
-            return delegate.exists(path);
+            return guard.execute("exists", () -> timed(() -> current().exists(path)), this::renewDelegate,
+                                 failoverAvailable);
         }
 
         @Override
         public String[] listNames(String path) throws IOException {
-            return delegate.listNames(path);
+            return guard.execute("listNames", () -> timed(() -> current().listNames(path)), this::renewDelegate,
+                                 failoverAvailable);
         }
 
         @Override
         public java.io.InputStream readRaw(String source) throws IOException {
-            return delegate.readRaw(source);
+            return guard.execute("readRaw", () -> current().readRaw(source), null);
         }
 
         @Override
         public boolean finalizeRaw() throws IOException {
-            return delegate.finalizeRaw();
+            return current().finalizeRaw();
         }
 
         @Override
         public Object getClientInstance() {
-            return delegate.getClientInstance();
+            try {
+                return current().getClientInstance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
 
         @Override
         public String getHostPort() {
-            return delegate.getHostPort();
+            try {
+                return current().getHostPort();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
 
+    /**
+     * Guardia (rate limiter + circuit breaker) aplicada a las sesiones del pool.
+     */
+    public SftpOperationGuard getGuard() {
+        return guard;
+    }
+
+    /**
+     * Registra el receptor de la latencia de list/listNames/exists (nanos),
+     * medida sin esperas de la guardia. Lo usa el balanceador de réplicas.
+     */
+    public void setListingLatencyRecorder(LongConsumer listingLatencyRecorder) {
+        this.listingLatencyRecorder = listingLatencyRecorder != null ? listingLatencyRecorder : nanos -> { };
+    }
+
+    /**
+     * Registra si otra réplica puede atender las operaciones de este pool.
+     * Mientras lo indique, el préstamo y list/listNames/exists no esperan a
+     * que se cierre el circuito: fallan para que el balanceador cambie de réplica.
+     */
+    public void setFailoverAvailable(BooleanSupplier failoverAvailable) {
+        this.failoverAvailable = failoverAvailable != null ? failoverAvailable : () -> false;
+    }
+
+    /**
+     * Telemetría de préstamos del pool.
+     */
+    public SftpPoolTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    /**
+     * Nombre del pool (clase de carga a la que sirve).
+     */
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * Conexiones máximas del pool.
+     */
+    public int getMaxSize() {
+        return pool.getMaxTotal();
+    }
+
     /**
      * Retorna estadísticas del pool (útil para monitoring).
      */
@@ -250,8 +437,8 @@ public class CustomLazySftpSessionFactory implements SessionFactory<SftpClient.D
      * Cierra el pool y todas sus conexiones.
      */
     public void destroy() {
-        log.info("Closing SFTP session pool...");
+        log.info("Closing SFTP session pool [{}]...", poolName);
         pool.close();
-        log.info("SFTP session pool closed");
+        log.info("SFTP session pool [{}] closed", poolName);
     }
 }
@@ -0,0 +1,139 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 13:52:30
+ * File: FindPrintfParser.java
+ */
+
+/**
+ * Parser incremental de la salida de:
+ * 
+ *   find &lt;baseDir&gt; -mindepth 1 -printf '%y\t%s\t%T@\t%p\0'
+ * 
+ * Cada registro termina en NUL (los nombres de archivo pueden contener
+ * saltos de línea o tabuladores, nunca NUL). Se lee el stream por bloques y
+ * solo se mantiene en memoria el registro en curso.
+ * 
+ * Formato de registro: tipo, tamaño, mtime (segundos con fracción), path.
+ */
+public class FindPrintfParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    private final String origin;
+
+    public FindPrintfParser(String origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * Receptor de entradas parseadas.
+     */
+    @FunctionalInterface
+    public interface EntryHandler {
+        void accept(SftpFileEntry entry) throws InterruptedException;
+    }
+
+    /**
+     * Parsea el stream completo, entregando cada entrada al handler.
+     * 
+     * @return Número de registros parseados
+     */
+    public long parse(InputStream in, EntryHandler handler) throws IOException, InterruptedException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        long records = 0;
+        int read;
+        
+        while ((read = in.read(buffer)) != -1) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == 0) {
+                    append(record, buffer, start, i - start);
+                    handler.accept(parseRecord(record.toString(StandardCharsets.UTF_8)));
+                    record.reset();
+                    records++;
+                    start = i + 1;
+                }
+            }
+            append(record, buffer, start, read - start);
+        }
+        
+        if (record.size() > 0) {
+            throw new IOException("Truncated find output: last record has no NUL terminator");
+        }
+        return records;
+    }
+
+    /**
+     * Acumula bytes del registro en curso. El límite se aplica al registro
+     * completo, sin depender de cómo llegue troceado en las lecturas.
+     */
+    private static void append(ByteArrayOutputStream record, byte[] buffer, int offset, int length) throws IOException {
+        if (record.size() + length > MAX_RECORD_BYTES) {
+            throw new IOException("find output record exceeds " + MAX_RECORD_BYTES + " bytes");
+        }
+        record.write(buffer, offset, length);
+    }
+
+    /**
+     * Convierte un registro "%y\t%s\t%T@\t%p" en SftpFileEntry.
+     */
+    SftpFileEntry parseRecord(String record) throws IOException {
+        int t1 = record.indexOf('\t');
+        int t2 = t1 < 0 ? -1 : record.indexOf('\t', t1 + 1);
+        int t3 = t2 < 0 ? -1 : record.indexOf('\t', t2 + 1);
+        if (t3 < 0) {
+            throw new IOException("Malformed find record: " + record);
+        }
+        
+        String type = record.substring(0, t1);
+        String path = record.substring(t3 + 1);
+        int lastSlash = path.lastIndexOf('/');
+        
+        try {
+            return SftpFileEntry.builder()
+                    .origin(origin)
+                    .fullPath(path)
+                    .filename(lastSlash >= 0 ? path.substring(lastSlash + 1) : path)
+                    .size(Long.parseLong(record.substring(t1 + 1, t2)))
+                    .modificationTime(toMillis(record.substring(t2 + 1, t3)))
+                    .isDirectory("d".equals(type))
+                    .build();
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed find record: " + record, e);
+        }
+    }
+
+    /**
+     * %T@ viene en segundos con fracción ("1700000000.1234567890").
+     * Se trunca a segundos: SFTP v3 solo informa segundos y el índice debe
+     * ser idéntico al del listado SFTP.
+     */
+    private long toMillis(String epochSeconds) {
+        int dot = epochSeconds.indexOf('.');
+        String seconds = dot >= 0 ? epochSeconds.substring(0, dot) : epochSeconds;
+        return Long.parseLong(seconds) * 1000L;
+    }
+}
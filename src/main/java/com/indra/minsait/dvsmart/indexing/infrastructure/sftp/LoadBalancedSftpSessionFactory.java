@@ -0,0 +1,484 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.SftpCircuitOpenException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.springframework.integration.file.remote.session.Session;
+import org.springframework.integration.file.remote.session.SessionFactory;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 13:02:18
+ * File: LoadBalancedSftpSessionFactory.java
+ */
+
+/**
+ * SessionFactory que reparte las sesiones entre réplicas espejo de un origen.
+ * 
+ * Características:
+ * - Selección por menor número de peticiones en curso (least outstanding),
+ *   con desempate rotatorio
+ * - Expulsión temporal de réplicas con fallos consecutivos o latencia
+ *   (EWMA de list/listNames/exists) por encima del umbral. La latencia mide
+ *   solo la llamada al servidor, sin esperas del rate limiter ni del breaker
+ * - Las réplicas con el circuit breaker abierto no reciben tráfico. Si el
+ *   circuito se abre durante un listado, la guardia de la réplica no pausa
+ *   mientras quede otra réplica disponible: el listado se repite en ella
+ * - Nunca expulsa la última réplica sana
+ * - Si el préstamo de sesión falla en una réplica se intenta con la siguiente
+ * - Si list/listNames/exists falla en una réplica se repite en la siguiente
+ *   réplica sana antes de propagar el error: un fallo puntual de un espejo no
+ *   deja un directorio sin indexar
+ * 
+ * Las réplicas deben ser espejos exactos: el path (y por tanto el idUnico) no
+ * depende del host que atendió el listado.
+ */
+@Slf4j
+public class LoadBalancedSftpSessionFactory implements SessionFactory<SftpClient.DirEntry> {
+
+    private final String name;
+    private final List<Replica> replicas;
+    private final int ejectAfterFailures;
+    private final long ejectionMillis;
+    private final long slowThresholdMillis;
+    private final double latencyEwmaAlpha;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    // Muestras mínimas antes de evaluar la latencia de una réplica
+    private static final int MIN_LATENCY_SAMPLES = 5;
+
+    public LoadBalancedSftpSessionFactory(
+            String name,
+            List<CustomLazySftpSessionFactory> pools,
+            int ejectAfterFailures,
+            long ejectionMillis,
+            long slowThresholdMillis,
+            double latencyEwmaAlpha) {
+        
+        if (pools.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica pool is required for " + name);
+        }
+        
+        this.name = name;
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.ejectionMillis = ejectionMillis;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.latencyEwmaAlpha = latencyEwmaAlpha;
+        
+        for (Replica replica : replicas) {
+            replica.pool.setListingLatencyRecorder(nanos -> recordLatency(replica, nanos / 1_000_000));
+            replica.pool.setFailoverAvailable(() -> hasOtherAvailable(replica));
+        }
+        
+        log.info("Load-balanced SFTP SessionFactory [{}] initialized with {} replicas", name, replicas.size());
+    }
+
+    @Override
+    public Session<SftpClient.DirEntry> getSession() {
+        Set<Replica> tried = new HashSet<>();
+        RuntimeException lastError = null;
+        
+        while (tried.size() < replicas.size()) {
+            Replica replica = select(tried, false);
+            tried.add(replica);
+            
+            try {
+                return new ReplicaSession(borrow(replica), replica);
+                
+            } catch (RuntimeException e) {
+                lastError = e;
+                log.warn("⚠️  Could not borrow session from replica [{}], trying next: {}",
+                         replica.pool.getPoolName(), e.getMessage());
+            }
+        }
+        
+        throw lastError;
+    }
+
+    /**
+     * Toma una sesión del pool de la réplica contando la petición en curso.
+     */
+    private Session<SftpClient.DirEntry> borrow(Replica replica) {
+        replica.outstanding.incrementAndGet();
+        try {
+            return replica.pool.getSession();
+        } catch (RuntimeException e) {
+            replica.outstanding.decrementAndGet();
+            recordFailure(replica, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Elige la réplica disponible (no expulsada y con el circuito cerrado) con
+     * menos peticiones en curso. Si no hay ninguna y healthyOnly es false, la
+     * que antes vuelve de entre las no probadas.
+     */
+    private Replica select(Set<Replica> exclude, boolean healthyOnly) {
+        long now = System.currentTimeMillis();
+        int size = replicas.size();
+        int start = Math.floorMod(rotation.getAndIncrement(), size);
+        
+        Replica best = null;
+        Replica fallback = null;
+        
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (exclude.contains(candidate)) {
+                continue;
+            }
+            if (candidate.isEjected(now) || !candidate.isCircuitAvailable()) {
+                if (fallback == null || candidate.ejectedUntil < fallback.ejectedUntil) {
+                    fallback = candidate;
+                }
+                continue;
+            }
+            if (best == null || candidate.outstanding.get() < best.outstanding.get()) {
+                best = candidate;
+            }
+        }
+        
+        return best != null || healthyOnly ? best : fallback;
+    }
+
+    /**
+     * Indica si alguna otra réplica puede atender ya (no expulsada y con el
+     * circuito disponible). Si no, la guardia de la réplica pausa como sin réplicas.
+     */
+    private boolean hasOtherAvailable(Replica replica) {
+        long now = System.currentTimeMillis();
+        for (Replica other : replicas) {
+            if (other != replica && !other.isEjected(now) && other.isCircuitAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordSuccess(Replica replica) {
+        replica.requests.incrementAndGet();
+        replica.consecutiveFailures.set(0);
+    }
+
+    private void recordLatency(Replica replica, long elapsedMillis) {
+        double ewma;
+        long samples;
+        synchronized (replica) {
+            replica.latencySamples++;
+            replica.ewmaLatencyMillis = replica.latencySamples == 1
+                ? elapsedMillis
+                : latencyEwmaAlpha * elapsedMillis + (1 - latencyEwmaAlpha) * replica.ewmaLatencyMillis;
+            ewma = replica.ewmaLatencyMillis;
+            samples = replica.latencySamples;
+        }
+        
+        if (slowThresholdMillis > 0 && samples >= MIN_LATENCY_SAMPLES && ewma > slowThresholdMillis) {
+            eject(replica, String.format("slow (EWMA %.0f ms > %d ms)", ewma, slowThresholdMillis));
+        }
+    }
+
+    private void recordFailure(Replica replica, Exception error) {
+        replica.requests.incrementAndGet();
+        replica.failures.incrementAndGet();
+        int failures = replica.consecutiveFailures.incrementAndGet();
+        
+        if (ejectAfterFailures > 0 && failures >= ejectAfterFailures) {
+            eject(replica, failures + " consecutive failures, last: " + error.getMessage());
+        }
+    }
+
+    /**
+     * Expulsa temporalmente una réplica, salvo que sea la última sana.
+     */
+    private synchronized void eject(Replica replica, String reason) {
+        long now = System.currentTimeMillis();
+        if (replica.isEjected(now)) {
+            return;
+        }
+        
+        boolean otherHealthy = replicas.stream().anyMatch(r -> r != replica && !r.isEjected(now));
+        if (!otherHealthy) {
+            log.warn("⚠️  Replica [{}] is unhealthy ({}) but it is the last healthy one, keeping it",
+                     replica.pool.getPoolName(), reason);
+            return;
+        }
+        
+        replica.ejectedUntil = now + ejectionMillis;
+        replica.ejections.incrementAndGet();
+        replica.consecutiveFailures.set(0);
+        synchronized (replica) {
+            replica.latencySamples = 0;
+            replica.ewmaLatencyMillis = 0;
+        }
+        
+        log.warn("⛔ Replica [{}] ejected for {} ms: {}", replica.pool.getPoolName(), ejectionMillis, reason);
+    }
+
+    /**
+     * Pools de todas las réplicas (incluido el host principal).
+     */
+    public List<CustomLazySftpSessionFactory> getPools() {
+        return replicas.stream().map(r -> r.pool).toList();
+    }
+
+    /**
+     * Estado actual de cada réplica.
+     */
+    public List<ReplicaStatus> getStatus() {
+        long now = System.currentTimeMillis();
+        List<ReplicaStatus> result = new ArrayList<>();
+        
+        for (Replica replica : replicas) {
+            boolean ejected = replica.isEjected(now);
+            result.add(new ReplicaStatus(
+                replica.pool.getPoolName(),
+                replica.outstanding.get(),
+                replica.requests.get(),
+                replica.failures.get(),
+                replica.ejections.get(),
+                replica.ewmaLatencyMillis,
+                ejected,
+                ejected ? Instant.ofEpochMilli(replica.ejectedUntil) : null
+            ));
+        }
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public record ReplicaStatus(
+        String poolName,
+        int outstanding,
+        long requests,
+        long failures,
+        long ejections,
+        double ewmaLatencyMillis,
+        boolean ejected,
+        Instant ejectedUntil
+    ) {}
+
+    /**
+     * Estado de balanceo de una réplica.
+     */
+    private static class Replica {
+        private final CustomLazySftpSessionFactory pool;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong ejections = new AtomicLong();
+        private volatile long ejectedUntil = 0;
+        private volatile double ewmaLatencyMillis = 0;
+        private long latencySamples = 0;
+
+        Replica(CustomLazySftpSessionFactory pool) {
+            this.pool = pool;
+        }
+
+        boolean isEjected(long now) {
+            return ejectedUntil > now;
+        }
+
+        boolean isCircuitAvailable() {
+            return pool.getGuard().getCircuitBreaker().isAvailable();
+        }
+    }
+
+    /**
+     * Operación de listado sobre la sesión de una réplica.
+     */
+    @FunctionalInterface
+    private interface ListingCall<T> {
+        T call(Session<SftpClient.DirEntry> session) throws IOException;
+    }
+
+    /**
+     * Sesión que registra los errores de las operaciones de listado, las repite
+     * en otra réplica sana si fallan y libera el contador de peticiones en
+     * curso al cerrarse.
+     */
+    private class ReplicaSession implements Session<SftpClient.DirEntry> {
+        
+        private volatile Session<SftpClient.DirEntry> delegate;
+        private volatile Replica replica;
+        private volatile boolean closed = false;
+
+        ReplicaSession(Session<SftpClient.DirEntry> delegate, Replica replica) {
+            this.delegate = delegate;
+            this.replica = replica;
+        }
+
+        /**
+         * Ejecuta la operación y, si falla, la repite en las réplicas sanas que
+         * aún no se han probado con esta sesión. Un error de ruta (NO_SUCH_FILE,
+         * PERMISSION_DENIED...) no penaliza a la réplica, pero también se repite
+         * por si el espejo va retrasado respecto al resto.
+         */
+        private synchronized <T> T withFailover(String operation, ListingCall<T> call) throws IOException {
+            Set<Replica> tried = new HashSet<>();
+            
+            while (true) {
+                try {
+                    T result = call.call(delegate);
+                    recordSuccess(replica);
+                    return result;
+                    
+                } catch (IOException | RuntimeException e) {
+                    // El breaker de la réplica ya la aparta del tráfico mientras esté abierto
+                    if (!SftpOperationGuard.isPathError(e) && !(e instanceof SftpCircuitOpenException)) {
+                        recordFailure(replica, e);
+                    }
+                    Replica failed = replica;
+                    if (!switchReplica(tried)) {
+                        throw e;
+                    }
+                    log.warn("⚠️  SFTP {} failed on replica [{}], retrying on [{}]: {}",
+                             operation, failed.pool.getPoolName(), replica.pool.getPoolName(), e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Cambia la sesión a la siguiente réplica sana no probada.
+         * 
+         * @return false si no queda ninguna
+         */
+        private boolean switchReplica(Set<Replica> tried) {
+            tried.add(replica);
+            
+            while (true) {
+                Replica next = select(tried, true);
+                if (next == null) {
+                    return false;
+                }
+                tried.add(next);
+                
+                Session<SftpClient.DirEntry> session;
+                try {
+                    session = borrow(next);
+                } catch (RuntimeException e) {
+                    log.warn("⚠️  Could not borrow session from replica [{}], trying next: {}",
+                             next.pool.getPoolName(), e.getMessage());
+                    continue;
+                }
+                
+                releaseCurrent();
+                delegate = session;
+                replica = next;
+                return true;
+            }
+        }
+
+        private void releaseCurrent() {
+            replica.outstanding.decrementAndGet();
+            delegate.close();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                releaseCurrent();
+            }
+        }
+
+        @Override
+        public SftpClient.DirEntry[] list(String path) throws IOException {
+            return withFailover("list", session -> session.list(path));
+        }
+
+        @Override
+        public String[] listNames(String path) throws IOException {
+            return withFailover("listNames", session -> session.listNames(path));
+        }
+
+        @Override
+        public boolean exists(String path) throws IOException {
+            return withFailover("exists", session -> session.exists(path));
+        }
+
+        @Override
+        public boolean remove(String path) throws IOException {
+            return delegate.remove(path);
+        }
+
+        @Override
+        public void read(String source, java.io.OutputStream outputStream) throws IOException {
+            delegate.read(source, outputStream);
+        }
+
+        @Override
+        public void write(java.io.InputStream inputStream, String destination) throws IOException {
+            delegate.write(inputStream, destination);
+        }
+
+        @Override
+        public void append(java.io.InputStream inputStream, String destination) throws IOException {
+            delegate.append(inputStream, destination);
+        }
+
+        @Override
+        public boolean mkdir(String directory) throws IOException {
+            return delegate.mkdir(directory);
+        }
+
+        @Override
+        public boolean rmdir(String directory) throws IOException {
+            return delegate.rmdir(directory);
+        }
+
+        @Override
+        public void rename(String pathFrom, String pathTo) throws IOException {
+            delegate.rename(pathFrom, pathTo);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed && delegate.isOpen();
+        }
+
+        @Override
+        public java.io.InputStream readRaw(String source) throws IOException {
+            return delegate.readRaw(source);
+        }
+
+        @Override
+        public boolean finalizeRaw() throws IOException {
+            return delegate.finalizeRaw();
+        }
+
+        @Override
+        public Object getClientInstance() {
+            return delegate.getClientInstance();
+        }
+
+        @Override
+        public String getHostPort() {
+            return delegate.getHostPort();
+        }
+    }
+}
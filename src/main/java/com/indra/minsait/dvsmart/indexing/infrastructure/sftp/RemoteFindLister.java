@@ -0,0 +1,197 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.RemoteExecUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.client.channel.ChannelExec;
+import org.apache.sshd.client.channel.ClientChannelEvent;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.springframework.integration.file.remote.session.Session;
+import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 14:18:26
+ * File: RemoteFindLister.java
+ */
+
+/**
+ * Listado masivo de un árbol remoto mediante 'find' por canal SSH exec.
+ * 
+ * Para árboles profundos, los round-trips READDIR de SFTP dominan el tiempo
+ * de listado. Un único find remoto vuelca el árbol completo a velocidad de
+ * disco, en streaming y con memoria acotada (ver RemoteFindStream).
+ * 
+ * El canal exec se abre sobre la sesión SSH de una sesión SFTP del pool
+ * DISCOVERY (ocioso en este modo, ya que no hay discovery BFS).
+ * 
+ * Si el servidor deniega exec o no dispone de find (exit 126/127) antes de
+ * emitir ningún registro, el stream lanza RemoteExecUnavailableException para
+ * que el llamador vuelva al listado SFTP. Un exec rechazado sin respuesta (el
+ * canal queda abierto sin salida ni exit status) se detecta con el mismo
+ * open-timeout-millis.
+ * 
+ * find se lanza con -H para seguir un directorio raíz que sea un enlace
+ * simbólico, igual que el listado SFTP (los enlaces interiores no se siguen).
+ */
+@Slf4j
+public class RemoteFindLister {
+
+    private final String originName;
+    private final SftpRemoteFileTemplate template;
+    private final String findCommand;
+    private final int queueCapacity;
+    private final long openTimeoutMillis;
+
+    public RemoteFindLister(
+            String originName,
+            SftpRemoteFileTemplate template,
+            String findCommand,
+            int queueCapacity,
+            long openTimeoutMillis) {
+        this.originName = originName;
+        this.template = template;
+        this.findCommand = findCommand;
+        this.queueCapacity = queueCapacity;
+        this.openTimeoutMillis = openTimeoutMillis;
+    }
+
+    /**
+     * Lanza el find remoto sobre baseDir y retorna el stream de archivos.
+     */
+    public RemoteFindStream open(String baseDir) {
+        String command = buildCommand(baseDir);
+        RemoteFindStream stream = new RemoteFindStream(originName + ":" + baseDir, queueCapacity);
+        
+        Thread producer = new Thread(() -> produce(stream, baseDir, command), "remote-find-" + originName);
+        producer.setDaemon(true);
+        stream.start(producer);
+        
+        log.info("🔎 Remote find started [{}]: {}", originName, command);
+        return stream;
+    }
+
+    private void produce(RemoteFindStream stream, String baseDir, String command) {
+        Throwable error = null;
+        try {
+            template.execute(session -> {
+                runFind(session, stream, command);
+                return null;
+            });
+        } catch (Exception e) {
+            RemoteExecUnavailableException unavailable = findCause(e, RemoteExecUnavailableException.class);
+            error = unavailable != null ? unavailable : e;
+        } finally {
+            if (stream.isClosed()) {
+                log.debug("Remote find [{}] cancelled for {}", originName, baseDir);
+            }
+            stream.complete(stream.isClosed() ? null : error);
+        }
+    }
+
+    private void runFind(Session<SftpClient.DirEntry> session, RemoteFindStream stream, String command) throws IOException {
+        if (!(session.getClientInstance() instanceof SftpClient sftpClient)) {
+            throw new RemoteExecUnavailableException("SFTP session does not expose an SSH client session");
+        }
+        
+        ChannelExec channel;
+        try {
+            channel = sftpClient.getClientSession().createExecChannel(command);
+            channel.open().verify(openTimeoutMillis);
+        } catch (IOException e) {
+            throw new RemoteExecUnavailableException("Exec channel refused by server [" + originName + "]", e);
+        }
+        stream.attachChannel(channel);
+        
+        AtomicBoolean outputSeen = new AtomicBoolean();
+        AtomicBoolean silent = new AtomicBoolean();
+        CompletableFuture.delayedExecutor(openTimeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (!outputSeen.get() && channel.getExitStatus() == null && channel.isOpen()) {
+                silent.set(true);
+                channel.close(true);
+            }
+        });
+        
+        try {
+            long records;
+            try {
+                records = new FindPrintfParser(originName).parse(channel.getInvertedOut(), entry -> {
+                    outputSeen.set(true);
+                    stream.offer(entry);
+                });
+            } catch (IOException e) {
+                if (silent.get()) {
+                    throw new RemoteExecUnavailableException(
+                        "Remote find produced no output in " + openTimeoutMillis + " ms [" + originName + "]", e);
+                }
+                throw e;
+            }
+            
+            channel.waitFor(EnumSet.of(ClientChannelEvent.CLOSED, ClientChannelEvent.EXIT_STATUS), openTimeoutMillis);
+            Integer exitStatus = channel.getExitStatus();
+            
+            if (records == 0 && (silent.get() || exitStatus == null || exitStatus == 126 || exitStatus == 127)) {
+                throw new RemoteExecUnavailableException(
+                    "Remote find not available [" + originName + "] (exit status " + exitStatus + ")");
+            }
+            if (exitStatus == null) {
+                throw new IOException("Remote find ended without exit status after " + records + " records");
+            }
+            if (exitStatus != 0) {
+                // find devuelve 1 si algún subdirectorio no es legible; lo listado es válido
+                log.warn("⚠️  Remote find [{}] ended with exit status {} after {} records (unreadable directories?)",
+                         originName, exitStatus, records);
+            }
+            
+            log.info("✅ Remote find completed [{}]: {} records ({} files, {} directories)",
+                     originName, records, stream.getFileCount(), stream.getDirectoryCount());
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Remote find interrupted", e);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Comando remoto: baseDir entrecomillado para el shell; stderr descartado
+     * para que los avisos de permisos no llenen la ventana del canal.
+     */
+    String buildCommand(String baseDir) {
+        return findCommand + " -H " + shellQuote(baseDir)
+            + " -mindepth 1 -printf '%y\\t%s\\t%T@\\t%p\\0' 2>/dev/null";
+    }
+
+    private static String shellQuote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
+    private static <T extends Throwable> T findCause(Throwable error, Class<T> type) {
+        Throwable current = error;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            current = current.getCause();
+        }
+        return null;
+    }
+}
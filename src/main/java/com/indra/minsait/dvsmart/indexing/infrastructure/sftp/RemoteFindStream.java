@@ -0,0 +1,162 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.RemoteExecUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 14:05:41
+ * File: RemoteFindStream.java
+ */
+
+/**
+ * Stream de entradas producido por un 'find' remoto.
+ * 
+ * Un hilo productor parsea la salida del canal exec y deja los archivos en
+ * una cola acotada; el consumidor (reader del step) los toma con next().
+ * Si el consumidor va más lento, el productor se bloquea y deja de leer del
+ * canal, de modo que la memoria usada está limitada por la capacidad de la cola.
+ */
+@Slf4j
+public class RemoteFindStream implements AutoCloseable {
+
+    // Marca de fin de stream (se compara por identidad)
+    private static final SftpFileEntry END = SftpFileEntry.builder().build();
+
+    private final String description;
+    private final BlockingQueue<SftpFileEntry> queue;
+    private final AtomicLong files = new AtomicLong();
+    private final AtomicLong directories = new AtomicLong();
+    
+    private volatile Throwable failure;
+    private volatile AutoCloseable channel;
+    private volatile Thread producer;
+    private volatile boolean closed = false;
+    private boolean finished = false;
+
+    RemoteFindStream(String description, int queueCapacity) {
+        this.description = description;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Siguiente archivo del stream, o null al terminar.
+     * 
+     * @throws RemoteExecUnavailableException si el servidor no permite exec
+     * @throws IOException si el find remoto falló a mitad de stream
+     */
+    public SftpFileEntry next() throws IOException, InterruptedException {
+        if (finished) {
+            return null;
+        }
+        
+        SftpFileEntry entry = queue.take();
+        if (entry != END) {
+            return entry;
+        }
+        
+        finished = true;
+        Throwable error = failure;
+        if (error == null) {
+            return null;
+        }
+        if (error instanceof RemoteExecUnavailableException unavailable) {
+            throw unavailable;
+        }
+        throw new IOException("Remote find failed: " + description, error);
+    }
+
+    /**
+     * Directorios vistos hasta ahora (excluido el directorio raíz).
+     */
+    public long getDirectoryCount() {
+        return directories.get();
+    }
+
+    /**
+     * Archivos entregados a la cola hasta ahora.
+     */
+    public long getFileCount() {
+        return files.get();
+    }
+
+    /* ========================================
+     * LADO PRODUCTOR
+     * ======================================== */
+
+    void start(Thread producerThread) {
+        this.producer = producerThread;
+        producerThread.start();
+    }
+
+    void attachChannel(AutoCloseable channel) {
+        this.channel = channel;
+    }
+
+    void offer(SftpFileEntry entry) throws InterruptedException {
+        if (entry.isDirectory()) {
+            directories.incrementAndGet();
+            return;
+        }
+        files.incrementAndGet();
+        queue.put(entry);
+    }
+
+    void complete(Throwable error) {
+        this.failure = error;
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // Solo ocurre tras close(): el consumidor ya no espera el fin
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Cancela el find remoto y libera el hilo productor.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        
+        AutoCloseable current = channel;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (Exception e) {
+                log.debug("Error closing remote find channel: {}", e.getMessage());
+            }
+        }
+        
+        Thread thread = producer;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        queue.clear();
+    }
+}
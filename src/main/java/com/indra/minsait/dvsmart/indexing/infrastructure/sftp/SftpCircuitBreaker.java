@@ -0,0 +1,283 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.SftpCircuitOpenException;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 10:19:36
+ * File: SftpCircuitBreaker.java
+ */
+
+/**
+ * Circuit breaker para el servidor SFTP origen.
+ * 
+ * A diferencia de un breaker clásico, en estado OPEN las operaciones NO fallan:
+ * se bloquean (pausan el crawl) hasta que expira open-duration-millis. Entonces
+ * pasa a HALF_OPEN y deja pasar una única operación de prueba:
+ * - Éxito: vuelve a CLOSED y el crawl se reanuda automáticamente
+ * - Fallo: vuelve a OPEN y se espera otro periodo
+ * 
+ * Solo si la pausa total de una operación supera max-pause-millis (si > 0)
+ * se lanza SftpCircuitOpenException.
+ * 
+ * El estado se protege con un ReentrantLock (no synchronized + wait): en modo
+ * virtual threads una operación en pausa no bloquea su carrier thread.
+ */
+@Slf4j
+public class SftpCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final long maxPauseMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+
+    // Estado (protegido por 'lock')
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtMillis = 0;
+    private boolean probeInFlight = false;
+    private long totalOpens = 0;
+    private long totalPausedMillis = 0;
+    private String lastFailure;
+
+    public SftpCircuitBreaker(boolean enabled, int failureThreshold, long openDurationMillis, long maxPauseMillis) {
+        this.enabled = enabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = Math.max(0, openDurationMillis);
+        this.maxPauseMillis = Math.max(0, maxPauseMillis);
+        
+        log.info("SFTP circuit breaker initialized: enabled={}, failureThreshold={}, openDurationMillis={}, maxPauseMillis={}",
+                enabled, this.failureThreshold, this.openDurationMillis, this.maxPauseMillis);
+    }
+
+    /**
+     * Bloquea mientras el circuito esté abierto.
+     * En HALF_OPEN solo deja pasar una operación de prueba a la vez.
+     */
+    public void awaitPermission(String operation) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        
+        lock.lock();
+        try {
+            awaitPermissionLocked(operation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitPermissionLocked(String operation) throws InterruptedException {
+        long pauseStart = System.currentTimeMillis();
+        boolean paused = false;
+        
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                
+                if (state == State.CLOSED) {
+                    return;
+                }
+                
+                if (state == State.OPEN) {
+                    long remaining = openedAtMillis + openDurationMillis - now;
+                    if (remaining <= 0) {
+                        state = State.HALF_OPEN;
+                        probeInFlight = false;
+                        log.info("🟡 SFTP circuit HALF_OPEN: probing origin with next operation");
+                        continue;
+                    }
+                    checkMaxPause(operation, pauseStart, now);
+                    if (!paused) {
+                        log.debug("⏸️  SFTP operation '{}' paused: circuit OPEN ({} ms remaining)", operation, remaining);
+                        paused = true;
+                    }
+                    stateChanged.await(remaining, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                
+                // HALF_OPEN
+                if (!probeInFlight) {
+                    probeInFlight = true;
+                    return;
+                }
+                checkMaxPause(operation, pauseStart, now);
+                paused = true;
+                stateChanged.await(1000, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            if (paused) {
+                totalPausedMillis += System.currentTimeMillis() - pauseStart;
+            }
+        }
+    }
+
+    private void checkMaxPause(String operation, long pauseStart, long now) {
+        if (maxPauseMillis > 0 && now - pauseStart >= maxPauseMillis) {
+            throw new SftpCircuitOpenException(String.format(
+                "SFTP circuit still %s after %d ms; giving up operation '%s'", state, now - pauseStart, operation));
+        }
+    }
+
+    /**
+     * Registra una operación exitosa. Cierra el circuito si estaba abierto.
+     */
+    public void onSuccess() {
+        lock.lock();
+        try {
+            consecutiveFailures = 0;
+            if (state != State.CLOSED) {
+                log.info("🟢 SFTP circuit CLOSED: origin recovered, resuming crawl");
+                state = State.CLOSED;
+                probeInFlight = false;
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra un fallo de operación.
+     * 
+     * @return true si el circuito queda abierto (errores sostenidos): el llamador
+     *         debe pausar y reintentar en lugar de propagar el error
+     */
+    public boolean onFailure(String operation, Throwable error) {
+        if (!enabled) {
+            return false;
+        }
+        
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            lastFailure = String.format("%s: %s", operation, error.getMessage());
+            
+            if (state == State.HALF_OPEN) {
+                open("probe failed");
+            } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+                open(consecutiveFailures + " consecutive failures");
+            }
+            return state != State.CLOSED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra una operación que terminó sin indicar la salud del origen
+     * (p. ej. timeout esperando el pool o un error de ruta como NO_SUCH_FILE).
+     * Libera la prueba HALF_OPEN si la había.
+     */
+    public void onNeutral() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && probeInFlight) {
+                probeInFlight = false;
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAtMillis = System.currentTimeMillis();
+        probeInFlight = false;
+        totalOpens++;
+        log.warn("🔴 SFTP circuit OPEN ({}): pausing crawl for {} ms. Last failure: {}",
+                reason, openDurationMillis, lastFailure);
+        stateChanged.signalAll();
+    }
+
+    /**
+     * Indica si una operación pasaría sin pausa: circuito cerrado, apertura ya
+     * vencida o HALF_OPEN sin prueba en curso. Lo usa el balanceador de réplicas
+     * para no enviar tráfico a una réplica con el circuito abierto.
+     */
+    public boolean isAvailable() {
+        if (!enabled) {
+            return true;
+        }
+        
+        lock.lock();
+        try {
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> System.currentTimeMillis() - openedAtMillis >= openDurationMillis;
+                case HALF_OPEN -> !probeInFlight;
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fuerza el cierre del circuito (mantenimiento manual).
+     */
+    public void reset() {
+        lock.lock();
+        try {
+            log.warn("SFTP circuit manually reset to CLOSED");
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CircuitStatus getStatus() {
+        lock.lock();
+        try {
+            return new CircuitStatus(
+                enabled,
+                state.name(),
+                consecutiveFailures,
+                failureThreshold,
+                totalOpens,
+                totalPausedMillis,
+                state == State.CLOSED ? null : Instant.ofEpochMilli(openedAtMillis),
+                lastFailure
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record CircuitStatus(
+        boolean enabled,
+        String state,
+        int consecutiveFailures,
+        int failureThreshold,
+        long totalOpens,
+        long totalPausedMillis,
+        Instant openedAt,
+        String lastFailure
+    ) {}
+}
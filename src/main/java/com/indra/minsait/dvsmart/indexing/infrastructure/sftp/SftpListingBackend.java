@@ -0,0 +1,33 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 13:41:09
+ * File: SftpListingBackend.java
+ */
+
+/**
+ * Backend de listado de archivos de un origen.
+ * 
+ * - SFTP:      discovery BFS + READDIR directorio a directorio (por defecto)
+ * - EXEC_FIND: un único 'find' remoto por canal exec que vuelca el árbol
+ *              completo en streaming; si el servidor no permite exec se
+ *              vuelve automáticamente a SFTP
+ */
+public enum SftpListingBackend {
+    SFTP,
+    EXEC_FIND
+}
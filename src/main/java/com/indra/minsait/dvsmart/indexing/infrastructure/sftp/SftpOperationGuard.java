@@ -0,0 +1,190 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.SftpCircuitOpenException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.sftp.common.SftpConstants;
+import org.apache.sshd.sftp.common.SftpException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystemException;
+import java.util.NoSuchElementException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 10:37:12
+ * File: SftpOperationGuard.java
+ */
+
+/**
+ * Guardia delante de cada operación de sesión SFTP.
+ * 
+ * Orden de aplicación:
+ * 1. Circuit breaker: pausa si el origen está fallando de forma sostenida
+ * 2. Rate limiter: token bucket + límite de operaciones concurrentes
+ * 3. Operación real
+ * 
+ * Si una operación falla y el breaker queda abierto, la operación no se propaga
+ * como error: se espera a que el circuito se reabra y se reintenta (opcionalmente
+ * tras reemplazar la sesión subyacente). Así un origen inestable pausa el crawl
+ * en lugar de consumir el skipLimit del step.
+ * 
+ * Solo los errores de sesión, transporte o conexión cuentan para el breaker.
+ * Un error de ruta (el servidor responde con un estado SFTP como NO_SUCH_FILE
+ * o PERMISSION_DENIED) es neutro y se propaga sin reintento: un directorio
+ * ilegible o borrado durante el crawl se salta, como antes del breaker, en
+ * lugar de abrir el circuito y convertirse en la prueba HALF_OPEN de cada ciclo.
+ * 
+ * Con réplicas, la pausa no tiene sentido mientras otra réplica pueda atender:
+ * si el llamador indica que hay failover disponible, un circuito abierto no se
+ * espera sino que se propaga el error (o SftpCircuitOpenException) para que el
+ * balanceador vuelva a elegir réplica.
+ */
+@Slf4j
+@Getter
+public class SftpOperationGuard {
+
+    private final SftpRateLimiter rateLimiter;
+    private final SftpCircuitBreaker circuitBreaker;
+
+    public SftpOperationGuard(SftpRateLimiter rateLimiter, SftpCircuitBreaker circuitBreaker) {
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Operación SFTP protegida.
+     */
+    @FunctionalInterface
+    public interface SftpOperation<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Ejecuta una operación limitada por tasa/concurrencia y protegida por el breaker.
+     * 
+     * @param operation   Nombre de la operación (logs)
+     * @param op          Operación a ejecutar
+     * @param beforeRetry Acción previa a cada reintento tras una pausa (p. ej. renovar sesión).
+     *                    Si es null la operación no es reintentable y el error se propaga.
+     */
+    public <T> T execute(String operation, SftpOperation<T> op, Runnable beforeRetry) throws IOException {
+        return run(operation, op, beforeRetry, true, () -> false);
+    }
+
+    /**
+     * Como {@link #execute(String, SftpOperation, Runnable)}, pero sin pausar
+     * mientras failover indique que otra réplica puede atender la operación.
+     */
+    public <T> T execute(String operation, SftpOperation<T> op, Runnable beforeRetry,
+                         BooleanSupplier failover) throws IOException {
+        return run(operation, op, beforeRetry, true, failover);
+    }
+
+    /**
+     * Ejecuta una operación protegida solo por el breaker (sin consumir tokens).
+     * Usado para el préstamo de sesiones del pool.
+     */
+    public <T> T executeUnthrottled(String operation, SftpOperation<T> op) throws IOException {
+        return run(operation, op, () -> { }, false, () -> false);
+    }
+
+    /**
+     * Como {@link #executeUnthrottled(String, SftpOperation)}, con failover.
+     */
+    public <T> T executeUnthrottled(String operation, SftpOperation<T> op, BooleanSupplier failover) throws IOException {
+        return run(operation, op, () -> { }, false, failover);
+    }
+
+    private <T> T run(String operation, SftpOperation<T> op, Runnable beforeRetry, boolean throttled,
+                      BooleanSupplier failover) throws IOException {
+        boolean retry = false;
+        
+        while (true) {
+            if (!circuitBreaker.isAvailable() && failover.getAsBoolean()) {
+                throw new SftpCircuitOpenException(
+                    "SFTP circuit open, failing over operation '" + operation + "' to another replica");
+            }
+            
+            try {
+                circuitBreaker.awaitPermission(operation);
+                if (throttled) {
+                    rateLimiter.acquire();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                circuitBreaker.onNeutral();
+                throw new InterruptedIOException("Interrupted while waiting for SFTP operation permit: " + operation);
+            }
+            
+            try {
+                if (retry) {
+                    beforeRetry.run();
+                }
+                T result = op.call();
+                circuitBreaker.onSuccess();
+                return result;
+                
+            } catch (NoSuchElementException e) {
+                // Timeout esperando el pool: no indica la salud del origen
+                circuitBreaker.onNeutral();
+                throw e;
+                
+            } catch (IOException | RuntimeException e) {
+                if (isPathError(e)) {
+                    // El servidor ha respondido: el origen está sano
+                    circuitBreaker.onNeutral();
+                    throw e;
+                }
+                if (!circuitBreaker.onFailure(operation, e) || beforeRetry == null || failover.getAsBoolean()) {
+                    throw e;
+                }
+                log.warn("⏸️  SFTP operation '{}' failed with circuit open, will retry after pause: {}",
+                         operation, e.getMessage());
+                retry = true;
+                
+            } finally {
+                if (throttled) {
+                    rateLimiter.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Error propio de la ruta y no del origen: cualquier estado SFTP devuelto
+     * por el servidor salvo NO_CONNECTION / CONNECTION_LOST, o un error de
+     * archivo local (origen local / NFS). Se busca en toda la cadena de causas
+     * porque Spring Integration envuelve algunas excepciones del cliente.
+     */
+    static boolean isPathError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SftpException sftp) {
+                return sftp.getStatus() != SftpConstants.SSH_FX_NO_CONNECTION
+                    && sftp.getStatus() != SftpConstants.SSH_FX_CONNECTION_LOST;
+            }
+            if (cause instanceof FileNotFoundException || cause instanceof FileSystemException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
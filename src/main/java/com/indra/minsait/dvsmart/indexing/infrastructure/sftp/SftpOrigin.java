@@ -0,0 +1,149 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.SftpConfigProperties;
+import lombok.Getter;
+import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 11:48:03
+ * File: SftpOrigin.java
+ */
+
+/**
+ * Origen SFTP con nombre y sus recursos asociados.
+ * 
+ * Cada origen tiene:
+ * - Sus directorios raíz
+ * - Un sub-pool lazy por clase de carga (discovery, listing, content)
+ * - Un template por sub-pool
+ * - Su propia guardia (rate limiter + circuit breaker)
+ * - Opcionalmente, un balanceador de listado entre réplicas espejo
+ * - Opcionalmente, un lister por find remoto (backend EXEC_FIND)
+ */
+@Getter
+public class SftpOrigin {
+
+    private final String name;
+    private final List<String> baseDirs;
+    private final Map<SftpWorkloadClass, CustomLazySftpSessionFactory> pools;
+    private final Map<SftpWorkloadClass, SftpRemoteFileTemplate> templates;
+    private final SftpOperationGuard guard;
+    private final LoadBalancedSftpSessionFactory listingBalancer;
+    private final RemoteFindLister remoteFindLister;
+
+    /**
+     * @param pools           Sub-pools del host principal por clase de carga
+     * @param guard           Guardia compartida por todos los pools del origen
+     * @param listingBalancer Balanceador de LISTING entre réplicas (null si no hay réplicas)
+     * @param execFind        Configuración de find remoto (null si el backend es SFTP)
+     */
+    public SftpOrigin(
+            String name,
+            List<String> baseDirs,
+            Map<SftpWorkloadClass, CustomLazySftpSessionFactory> pools,
+            SftpOperationGuard guard,
+            LoadBalancedSftpSessionFactory listingBalancer,
+            SftpConfigProperties.ExecFind execFind) {
+        this.name = name;
+        this.baseDirs = List.copyOf(baseDirs);
+        this.pools = Collections.unmodifiableMap(new EnumMap<>(pools));
+        this.guard = guard;
+        this.listingBalancer = listingBalancer;
+        
+        Map<SftpWorkloadClass, SftpRemoteFileTemplate> byWorkload = new EnumMap<>(SftpWorkloadClass.class);
+        this.pools.forEach((workload, factory) -> byWorkload.put(workload, new SftpRemoteFileTemplate(factory)));
+        if (listingBalancer != null) {
+            byWorkload.put(SftpWorkloadClass.LISTING, new SftpRemoteFileTemplate(listingBalancer));
+        }
+        this.templates = Collections.unmodifiableMap(byWorkload);
+        
+        // El find remoto usa el pool DISCOVERY (sin discovery BFS en ese modo)
+        this.remoteFindLister = execFind == null ? null : new RemoteFindLister(
+            name,
+            templates.get(SftpWorkloadClass.DISCOVERY),
+            execFind.getCommand(),
+            execFind.getQueueCapacity(),
+            execFind.getOpenTimeoutMillis());
+    }
+
+    /**
+     * Pools que atienden una clase de carga (incluye réplicas para LISTING).
+     */
+    public List<CustomLazySftpSessionFactory> getWorkloadPools(SftpWorkloadClass workload) {
+        if (workload == SftpWorkloadClass.LISTING && listingBalancer != null) {
+            return listingBalancer.getPools();
+        }
+        return List.of(getPool(workload));
+    }
+
+    /**
+     * Conexiones máximas para una clase de carga (suma de host principal y réplicas).
+     * Es el límite de operaciones concurrentes en modo virtual threads.
+     */
+    public int getWorkloadCapacity(SftpWorkloadClass workload) {
+        return getWorkloadPools(workload).stream()
+                .mapToInt(CustomLazySftpSessionFactory::getMaxSize)
+                .sum();
+    }
+
+    /**
+     * Todos los pools del origen (host principal y réplicas).
+     */
+    public List<CustomLazySftpSessionFactory> getAllPools() {
+        List<CustomLazySftpSessionFactory> all = new ArrayList<>();
+        for (SftpWorkloadClass workload : pools.keySet()) {
+            all.addAll(getWorkloadPools(workload));
+        }
+        return all;
+    }
+
+    /**
+     * Retorna el pool de una clase de carga.
+     */
+    public CustomLazySftpSessionFactory getPool(SftpWorkloadClass workload) {
+        CustomLazySftpSessionFactory factory = pools.get(workload);
+        if (factory == null) {
+            throw new IllegalStateException(
+                "No SFTP pool configured for workload " + workload + " in origin " + name);
+        }
+        return factory;
+    }
+
+    /**
+     * Retorna el template de una clase de carga.
+     */
+    public SftpRemoteFileTemplate getTemplate(SftpWorkloadClass workload) {
+        SftpRemoteFileTemplate template = templates.get(workload);
+        if (template == null) {
+            throw new IllegalStateException(
+                "No SFTP template configured for workload " + workload + " in origin " + name);
+        }
+        return template;
+    }
+
+    /**
+     * Cierra todos los pools del origen.
+     */
+    public void destroy() {
+        getAllPools().forEach(CustomLazySftpSessionFactory::destroy);
+    }
+}
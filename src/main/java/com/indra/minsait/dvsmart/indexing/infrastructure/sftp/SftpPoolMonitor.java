@@ -13,12 +13,16 @@
  */
 package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
 
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.LatencyHistogram.LatencySummary;
 import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.CustomLazySftpSessionFactory.PoolStats;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpPoolTelemetry.TelemetryStats;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import java.time.Instant;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Author: hahuaranga@indracompany.com
@@ -27,54 +31,121 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 
 /**
- * Monitor del pool de conexiones SFTP.
+ * Monitor de los pools de conexiones SFTP.
  * 
  * Responsabilidades:
- * - Exponer métricas del pool para endpoints
+ * - Exponer métricas de cada sub-pool (por origen y clase de carga) y agregadas
  * - Log periódico de estadísticas
  * - Detectar anomalías (opcional)
- * - Integración con actuator/prometheus (futuro)
+ * - Telemetría de préstamos (SftpPoolTelemetry de cada sub-pool): contadores,
+ *   percentiles de espera/retención/creación/validación y desglose por caller
  */
 @Slf4j
 @Component
 public class SftpPoolMonitor {
 
-    private final CustomLazySftpSessionFactory factory;
-    
-    // Métricas adicionales
-    private final AtomicLong totalBorrowCount = new AtomicLong(0);
-    private final AtomicLong totalReturnCount = new AtomicLong(0);
-    private final AtomicLong totalFailures = new AtomicLong(0);
+    private final SftpSessionPoolRegistry registry;
     private volatile Instant lastLogTime = Instant.now();
 
-    public SftpPoolMonitor(CustomLazySftpSessionFactory factory) {
-        this.factory = factory;
+    public SftpPoolMonitor(SftpSessionPoolRegistry registry) {
+        this.registry = registry;
         log.info("SFTP Pool Monitor initialized");
     }
 
     /**
-     * Obtiene estadísticas actuales del pool.
+     * Obtiene estadísticas agregadas de todos los sub-pools de todos los orígenes.
      */
     public PoolStats getStats() {
-        if (factory == null) {
+        if (registry == null) {
             return new PoolStats(0, 0, 0, 0, 0);
         }
-        return factory.getStats();
+        return sumStats(registry.getAllPools());
+    }
+
+    /**
+     * Obtiene estadísticas de una clase de carga (suma de todos los orígenes).
+     */
+    public PoolStats getStats(SftpWorkloadClass workload) {
+        if (registry == null) {
+            return new PoolStats(0, 0, 0, 0, 0);
+        }
+        return sumStats(registry.getPools(workload));
+    }
+
+    /**
+     * Estado de balanceo de las réplicas de listado, por origen
+     * (solo orígenes con réplicas configuradas).
+     */
+    public Map<String, List<LoadBalancedSftpSessionFactory.ReplicaStatus>> getReplicaStatus() {
+        Map<String, List<LoadBalancedSftpSessionFactory.ReplicaStatus>> result = new LinkedHashMap<>();
+        if (registry == null) {
+            return result;
+        }
+        for (SftpOrigin origin : registry.getOrigins()) {
+            if (origin.getListingBalancer() != null) {
+                result.put(origin.getName(), origin.getListingBalancer().getStatus());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene estadísticas de cada sub-pool, agrupadas por origen.
+     */
+    public Map<String, Map<String, PoolStats>> getOriginStats() {
+        Map<String, Map<String, PoolStats>> result = new LinkedHashMap<>();
+        if (registry == null) {
+            return result;
+        }
+        for (SftpOrigin origin : registry.getOrigins()) {
+            Map<String, PoolStats> byPool = new LinkedHashMap<>();
+            for (CustomLazySftpSessionFactory factory : origin.getAllPools()) {
+                // Clave relativa al origen: "listing", "listing@replica:22"...
+                String key = factory.getPoolName().substring(origin.getName().length() + 1);
+                byPool.put(key, factory.getStats());
+            }
+            result.put(origin.getName(), byPool);
+        }
+        return result;
+    }
+
+    private PoolStats sumStats(List<CustomLazySftpSessionFactory> factories) {
+        int active = 0;
+        int idle = 0;
+        int maxTotal = 0;
+        long created = 0;
+        long destroyed = 0;
+        
+        for (CustomLazySftpSessionFactory factory : factories) {
+            PoolStats stats = factory.getStats();
+            active += stats.active();
+            idle += stats.idle();
+            maxTotal += stats.maxTotal();
+            created += stats.created();
+            destroyed += stats.destroyed();
+        }
+        return new PoolStats(active, idle, maxTotal, created, destroyed);
     }
 
     /**
      * Log manual de estadísticas.
      */
     public void logStats() {
-        if (factory == null) {
-            log.warn("SFTP Pool Monitor: Factory not initialized");
+        if (registry == null) {
+            log.warn("SFTP Pool Monitor: Registry not initialized");
             return;
         }
         
-        PoolStats stats = factory.getStats();
+        for (CustomLazySftpSessionFactory factory : registry.getAllPools()) {
+            logStats(factory.getPoolName(), factory.getStats());
+        }
         
+        lastLogTime = Instant.now();
+    }
+
+    private void logStats(String poolName, PoolStats stats) {
         log.info("╔════════════════════════════════════════════════════╗");
-        log.info("║         SFTP POOL STATISTICS                       ║");
+        log.info("║         SFTP POOL STATISTICS [{}]", poolName);
         log.info("╠════════════════════════════════════════════════════╣");
         log.info("║ Active Connections:      {:>4}                     ║", stats.active());
         log.info("║ Idle Connections:        {:>4}                     ║", stats.idle());
@@ -84,8 +155,6 @@ public class SftpPoolMonitor {
         log.info("║ Utilization:             {:>3.1f}%                   ║", calculateUtilization(stats));
         log.info("║ Available Slots:         {:>4}                     ║", stats.maxTotal() - stats.active());
         log.info("╚════════════════════════════════════════════════════╝");
-        
-        lastLogTime = Instant.now();
     }
 
     /**
@@ -98,30 +167,33 @@ public class SftpPoolMonitor {
     }
 
     /**
-     * Detectar anomalías en el pool.
+     * Detectar anomalías en cada sub-pool.
      * Se ejecuta cada minuto.
      */
     @Scheduled(fixedRate = 60000) // 1 minuto
     public void checkPoolHealth() {
-        if (factory == null) return;
+        if (registry == null) return;
         
-        PoolStats stats = factory.getStats();
-        
-        // Alerta: Pool saturado
-        if (stats.active() >= stats.maxTotal() * 0.9) {
-            log.warn("⚠️  SFTP Pool near capacity: {}/{} connections active", 
-                     stats.active(), stats.maxTotal());
-        }
-        
-        // Alerta: Muchas conexiones destruidas (posible problema de red)
-        if (stats.destroyed() > stats.created() * 0.5 && stats.created() > 10) {
-            log.warn("⚠️  High connection destruction rate: {} destroyed / {} created", 
-                     stats.destroyed(), stats.created());
-        }
-        
-        // Info: Pool completamente idle
-        if (stats.active() == 0 && stats.idle() > 0) {
-            log.debug("ℹ️  SFTP Pool idle: {} connections available", stats.idle());
+        for (CustomLazySftpSessionFactory factory : registry.getAllPools()) {
+            PoolStats stats = factory.getStats();
+            String poolName = factory.getPoolName();
+            
+            // Alerta: Pool saturado
+            if (stats.active() >= stats.maxTotal() * 0.9) {
+                log.warn("⚠️  SFTP Pool [{}] near capacity: {}/{} connections active", 
+                         poolName, stats.active(), stats.maxTotal());
+            }
+            
+            // Alerta: Muchas conexiones destruidas (posible problema de red)
+            if (stats.destroyed() > stats.created() * 0.5 && stats.created() > 10) {
+                log.warn("⚠️  High connection destruction rate in [{}]: {} destroyed / {} created", 
+                         poolName, stats.destroyed(), stats.created());
+            }
+            
+            // Info: Pool completamente idle
+            if (stats.active() == 0 && stats.idle() > 0) {
+                log.debug("ℹ️  SFTP Pool [{}] idle: {} connections available", poolName, stats.idle());
+            }
         }
     }
 
@@ -134,44 +206,82 @@ public class SftpPoolMonitor {
     }
 
     /**
-     * Registra un borrow exitoso (llamado desde el código que usa el pool).
+     * Telemetría sumada de varios sub-pools.
      */
-    public void recordBorrow() {
-        totalBorrowCount.incrementAndGet();
+    private SftpPoolTelemetry sumTelemetry(List<CustomLazySftpSessionFactory> factories) {
+        SftpPoolTelemetry total = new SftpPoolTelemetry();
+        factories.forEach(factory -> factory.getTelemetry().addTo(total));
+        return total;
     }
 
     /**
-     * Registra un return exitoso.
+     * Retorna métricas extendidas agregadas (préstamos medidos en los pools).
      */
-    public void recordReturn() {
-        totalReturnCount.incrementAndGet();
+    public ExtendedPoolStats getExtendedStats() {
+        return toExtendedStats(getStats(), registry != null ? sumTelemetry(registry.getAllPools()) : null);
     }
 
     /**
-     * Registra una falla al obtener conexión.
+     * Retorna métricas extendidas de un sub-pool concreto.
      */
-    public void recordFailure() {
-        totalFailures.incrementAndGet();
-        log.error("❌ SFTP Pool failure recorded. Total failures: {}", totalFailures.get());
+    public ExtendedPoolStats getExtendedStats(SftpWorkloadClass workload) {
+        return toExtendedStats(getStats(workload), registry != null ? sumTelemetry(registry.getPools(workload)) : null);
     }
 
     /**
-     * Retorna métricas extendidas (incluye custom counters).
+     * Telemetría completa (percentiles y desglose por caller): agregada y por
+     * sub-pool ("origen/carga", réplicas incluidas).
      */
-    public ExtendedPoolStats getExtendedStats() {
-        PoolStats baseStats = getStats();
-        
+    public Map<String, TelemetryStats> getTelemetry() {
+        Map<String, TelemetryStats> result = new LinkedHashMap<>();
+        if (registry == null) {
+            return result;
+        }
+        List<CustomLazySftpSessionFactory> pools = registry.getAllPools();
+        result.put("all", sumTelemetry(pools).snapshot());
+        pools.forEach(factory -> result.put(factory.getPoolName(), factory.getTelemetry().snapshot()));
+        return result;
+    }
+
+    /**
+     * Desglose por caller sumado sobre todos los sub-pools.
+     */
+    public Map<String, SftpPoolTelemetry.CallerStats> getCallerStats() {
+        if (registry == null) {
+            return Map.of();
+        }
+        return sumTelemetry(registry.getAllPools()).snapshot().callers();
+    }
+
+    /**
+     * Retorna métricas extendidas de todos los sub-pools, indexadas por nombre.
+     */
+    public Map<String, ExtendedPoolStats> getWorkloadStats() {
+        Map<String, ExtendedPoolStats> result = new LinkedHashMap<>();
+        if (registry == null) {
+            return result;
+        }
+        for (SftpWorkloadClass workload : SftpWorkloadClass.values()) {
+            result.put(workload.getPoolName(), getExtendedStats(workload));
+        }
+        return result;
+    }
+
+    private ExtendedPoolStats toExtendedStats(PoolStats baseStats, SftpPoolTelemetry telemetry) {
+        SftpPoolTelemetry stats = telemetry != null ? telemetry : new SftpPoolTelemetry();
         return new ExtendedPoolStats(
             baseStats.active(),
             baseStats.idle(),
             baseStats.maxTotal(),
             baseStats.created(),
             baseStats.destroyed(),
-            totalBorrowCount.get(),
-            totalReturnCount.get(),
-            totalFailures.get(),
+            stats.getBorrows(),
+            stats.getReturns(),
+            stats.getFailures(),
             calculateUtilization(baseStats),
-            lastLogTime
+            lastLogTime,
+            stats.borrowWaitSummary(),
+            stats.holdSummary()
         );
     }
 
@@ -188,7 +298,9 @@ public class SftpPoolMonitor {
         long totalReturns,
         long totalFailures,
         double utilizationPercent,
-        Instant lastLogTime
+        Instant lastLogTime,
+        LatencySummary borrowWait,
+        LatencySummary hold
     ) {
         public boolean isHealthy() {
             return utilizationPercent < 90.0 && totalFailures < totalBorrows * 0.1;
@@ -202,6 +314,91 @@ public class SftpPoolMonitor {
         }
     }
 
+    /* ========================================
+     * RATE LIMITER Y CIRCUIT BREAKER
+     * ======================================== */
+
+    /**
+     * Estado actual de la guardia de cada origen.
+     */
+    public Map<String, GuardStatus> getGuardStatus() {
+        Map<String, GuardStatus> result = new LinkedHashMap<>();
+        for (SftpOrigin origin : registry.getOrigins()) {
+            result.put(origin.getName(), toGuardStatus(origin.getGuard()));
+        }
+        return result;
+    }
+
+    /**
+     * Ajusta en caliente los límites del rate limiter (null = sin cambios).
+     * 
+     * @param originName Origen a ajustar (null = todos los orígenes)
+     */
+    public Map<String, GuardStatus> updateThrottle(
+            String originName, Double requestsPerSecond, Integer burst, Integer maxConcurrentOperations) {
+        
+        for (SftpOrigin origin : selectOrigins(originName)) {
+            SftpRateLimiter limiter = origin.getGuard().getRateLimiter();
+            
+            if (requestsPerSecond != null) {
+                limiter.setRequestsPerSecond(requestsPerSecond);
+            }
+            if (burst != null) {
+                limiter.setBurst(burst);
+            }
+            if (maxConcurrentOperations != null) {
+                limiter.setMaxConcurrentOperations(maxConcurrentOperations);
+            }
+        }
+        return getGuardStatus();
+    }
+
+    /**
+     * Fuerza el cierre del circuit breaker (del origen y de sus réplicas).
+     * 
+     * @param originName Origen a resetear (null = todos los orígenes)
+     */
+    public Map<String, GuardStatus> resetCircuitBreaker(String originName) {
+        for (SftpOrigin origin : selectOrigins(originName)) {
+            origin.getGuard().getCircuitBreaker().reset();
+            origin.getWorkloadPools(SftpWorkloadClass.LISTING).stream()
+                .map(CustomLazySftpSessionFactory::getGuard)
+                .filter(guard -> guard != origin.getGuard())
+                .forEach(guard -> guard.getCircuitBreaker().reset());
+        }
+        return getGuardStatus();
+    }
+
+    private List<SftpOrigin> selectOrigins(String originName) {
+        if (originName == null || originName.isBlank()) {
+            return List.copyOf(registry.getOrigins());
+        }
+        return List.of(registry.getOrigin(originName));
+    }
+
+    private GuardStatus toGuardStatus(SftpOperationGuard guard) {
+        SftpRateLimiter limiter = guard.getRateLimiter();
+        
+        return new GuardStatus(
+            limiter.getRequestsPerSecond(),
+            limiter.getBurst(),
+            limiter.getMaxConcurrentOperations(),
+            limiter.getInFlightOperations(),
+            guard.getCircuitBreaker().getStatus()
+        );
+    }
+
+    /**
+     * Estado de rate limiter y circuit breaker.
+     */
+    public record GuardStatus(
+        double requestsPerSecond,
+        int burst,
+        int maxConcurrentOperations,
+        int inFlightOperations,
+        SftpCircuitBreaker.CircuitStatus circuitBreaker
+    ) {}
+
     /**
      * Fuerza la limpieza de conexiones inactivas (útil para mantenimiento).
      */
@@ -216,9 +413,9 @@ public class SftpPoolMonitor {
      * Reset de contadores (útil para testing o después de mantenimiento).
      */
     public void resetCounters() {
-        totalBorrowCount.set(0);
-        totalReturnCount.set(0);
-        totalFailures.set(0);
+        if (registry != null) {
+            registry.getAllPools().forEach(factory -> factory.getTelemetry().reset());
+        }
         log.info("SFTP Pool Monitor counters reset");
     }
 
@@ -0,0 +1,236 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.LatencyHistogram;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.LatencyHistogram.LatencySummary;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 10:52:37
+ * File: SftpPoolTelemetry.java
+ */
+
+/**
+ * Telemetría de préstamos de un sub-pool SFTP.
+ * 
+ * Contadores de préstamos, devoluciones, fallos e invalidaciones, e
+ * histogramas de espera de préstamo, tiempo de retención (préstamo →
+ * devolución), creación de sesiones y validación. Los préstamos se
+ * desglosan además por caller: la primera clase de la aplicación fuera del
+ * paquete SFTP en la pila (p. ej. SftpFileSourceAdapter.listFiles), con un
+ * máximo de MAX_CALLERS entradas.
+ */
+public class SftpPoolTelemetry {
+
+    static final int MAX_CALLERS = 64;
+    private static final String APP_PACKAGE = "com.indra.minsait.dvsmart.indexing.";
+    private static final String SFTP_PACKAGE = SftpPoolTelemetry.class.getPackageName() + ".";
+    private static final String OTHER_CALLER = "other";
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder returns = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LatencyHistogram hold = new LatencyHistogram();
+    private final LatencyHistogram creation = new LatencyHistogram();
+    private final LatencyHistogram validation = new LatencyHistogram();
+    private final Map<String, CallerTelemetry> callers = new ConcurrentHashMap<>();
+
+    /**
+     * Préstamos y retenciones de un caller.
+     */
+    public static class CallerTelemetry {
+        private final LongAdder borrows = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LatencyHistogram borrowWait = new LatencyHistogram();
+        private final LatencyHistogram hold = new LatencyHistogram();
+
+        void addTo(CallerTelemetry target) {
+            target.borrows.add(borrows.sum());
+            target.failures.add(failures.sum());
+            borrowWait.addTo(target.borrowWait);
+            hold.addTo(target.hold);
+        }
+
+        CallerStats snapshot() {
+            return new CallerStats(borrows.sum(), failures.sum(), borrowWait.summary(), hold.summary());
+        }
+    }
+
+    /**
+     * Caller del préstamo en curso (hilo actual).
+     */
+    public CallerTelemetry resolveCaller() {
+        String caller = WALKER.walk(frames -> frames
+            .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                && !frame.getClassName().startsWith(SFTP_PACKAGE))
+            .findFirst()
+            .map(frame -> callerName(frame.getClassName(), frame.getMethodName()))
+            .orElse(OTHER_CALLER));
+        CallerTelemetry telemetry = callers.get(caller);
+        if (telemetry != null) {
+            return telemetry;
+        }
+        if (callers.size() >= MAX_CALLERS) {
+            caller = OTHER_CALLER;
+        }
+        return callers.computeIfAbsent(caller, key -> new CallerTelemetry());
+    }
+
+    /**
+     * "Clase.método" sin paquete, sufijos de proxy ni nombres sintéticos de lambdas.
+     */
+    static String callerName(String className, String methodName) {
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int proxy = simpleName.indexOf("$$");
+        if (proxy > 0) {
+            simpleName = simpleName.substring(0, proxy);
+        }
+        String method = methodName;
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', "lambda$".length());
+            method = method.substring("lambda$".length(), end > 0 ? end : method.length());
+        }
+        return simpleName + "." + method;
+    }
+
+    public void recordBorrow(CallerTelemetry caller, long waitNanos) {
+        borrows.increment();
+        borrowWait.recordNanos(waitNanos);
+        caller.borrows.increment();
+        caller.borrowWait.recordNanos(waitNanos);
+    }
+
+    public void recordFailure(CallerTelemetry caller, long waitNanos) {
+        failures.increment();
+        borrowWait.recordNanos(waitNanos);
+        caller.failures.increment();
+        caller.borrowWait.recordNanos(waitNanos);
+    }
+
+    public void recordReturn(CallerTelemetry caller, long holdNanos) {
+        returns.increment();
+        hold.recordNanos(holdNanos);
+        caller.hold.recordNanos(holdNanos);
+    }
+
+    /**
+     * Sesión invalidada y reemplazada sin devolverse (renovación tras fallo).
+     */
+    public void recordInvalidation() {
+        invalidations.increment();
+    }
+
+    public void recordCreation(long nanos) {
+        creation.recordNanos(nanos);
+    }
+
+    public void recordValidation(long nanos) {
+        validation.recordNanos(nanos);
+    }
+
+    public long getBorrows() {
+        return borrows.sum();
+    }
+
+    public long getReturns() {
+        return returns.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Acumula esta telemetría en otra (agregados por clase de carga o globales).
+     */
+    public void addTo(SftpPoolTelemetry target) {
+        target.borrows.add(borrows.sum());
+        target.returns.add(returns.sum());
+        target.failures.add(failures.sum());
+        target.invalidations.add(invalidations.sum());
+        borrowWait.addTo(target.borrowWait);
+        hold.addTo(target.hold);
+        creation.addTo(target.creation);
+        validation.addTo(target.validation);
+        callers.forEach((name, caller) ->
+            caller.addTo(target.callers.computeIfAbsent(name, key -> new CallerTelemetry())));
+    }
+
+    public void reset() {
+        borrows.reset();
+        returns.reset();
+        failures.reset();
+        invalidations.reset();
+        borrowWait.reset();
+        hold.reset();
+        creation.reset();
+        validation.reset();
+        callers.clear();
+    }
+
+    public TelemetryStats snapshot() {
+        Map<String, CallerStats> byCaller = new LinkedHashMap<>();
+        callers.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue().borrows.sum(), a.getValue().borrows.sum()))
+            .forEach(entry -> byCaller.put(entry.getKey(), entry.getValue().snapshot()));
+        return new TelemetryStats(
+            borrows.sum(),
+            returns.sum(),
+            failures.sum(),
+            invalidations.sum(),
+            borrowWait.summary(),
+            hold.summary(),
+            creation.summary(),
+            validation.summary(),
+            byCaller);
+    }
+
+    public LatencySummary borrowWaitSummary() {
+        return borrowWait.summary();
+    }
+
+    public LatencySummary holdSummary() {
+        return hold.summary();
+    }
+
+    /**
+     * Telemetría de un pool (o agregada) con su desglose por caller.
+     */
+    public record TelemetryStats(
+        long borrows,
+        long returns,
+        long failures,
+        long invalidations,
+        LatencySummary borrowWait,
+        LatencySummary hold,
+        LatencySummary creation,
+        LatencySummary validation,
+        Map<String, CallerStats> callers
+    ) {}
+
+    public record CallerStats(
+        long borrows,
+        long failures,
+        LatencySummary borrowWait,
+        LatencySummary hold
+    ) {}
+}
@@ -0,0 +1,180 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import lombok.extern.slf4j.Slf4j;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 10:05:51
+ * File: SftpRateLimiter.java
+ */
+
+/**
+ * Limitador de operaciones SFTP (token bucket + operaciones concurrentes).
+ * 
+ * - requestsPerSecond: tasa sostenida de operaciones (0 = sin límite)
+ * - burst: tokens acumulables para absorber picos
+ * - maxConcurrentOperations: operaciones simultáneas en vuelo (0 = sin límite)
+ * 
+ * Ambos límites se pueden ajustar en caliente sin reiniciar el job.
+ */
+@Slf4j
+public class SftpRateLimiter {
+
+    // Permisos usados cuando no hay límite de concurrencia
+    private static final int UNLIMITED_PERMITS = Integer.MAX_VALUE / 2;
+
+    private final ResizableSemaphore concurrency;
+
+    // Estado del token bucket (protegido por 'this')
+    private double requestsPerSecond;
+    private double burst;
+    private double storedPermits;
+    private long lastRefillNanos;
+    private int maxConcurrentOperations;
+
+    public SftpRateLimiter(double requestsPerSecond, int burst, int maxConcurrentOperations) {
+        this.requestsPerSecond = Math.max(0, requestsPerSecond);
+        this.burst = Math.max(1, burst);
+        this.storedPermits = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.maxConcurrentOperations = Math.max(0, maxConcurrentOperations);
+        this.concurrency = new ResizableSemaphore(toPermits(this.maxConcurrentOperations));
+        
+        log.info("SFTP rate limiter initialized: requestsPerSecond={}, burst={}, maxConcurrentOperations={}",
+                describe(this.requestsPerSecond), burst, describe(this.maxConcurrentOperations));
+    }
+
+    /**
+     * Espera hasta disponer de un token y de un slot de concurrencia.
+     * Cada acquire() debe ir seguido de release().
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        concurrency.acquire();
+    }
+
+    /**
+     * Libera el slot de concurrencia.
+     */
+    public void release() {
+        concurrency.release();
+    }
+
+    /**
+     * Reserva un token; retorna el tiempo a esperar (nanos) para consumirlo.
+     */
+    private synchronized long reserve() {
+        if (requestsPerSecond <= 0) {
+            return 0;
+        }
+        refill(System.nanoTime());
+        storedPermits -= 1;
+        if (storedPermits >= 0) {
+            return 0;
+        }
+        return (long) (-storedPermits / requestsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void refill(long now) {
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        storedPermits = Math.min(burst, storedPermits + elapsedSeconds * requestsPerSecond);
+        lastRefillNanos = now;
+    }
+
+    /**
+     * Ajusta la tasa de operaciones por segundo (0 = sin límite).
+     */
+    public synchronized void setRequestsPerSecond(double requestsPerSecond) {
+        refill(System.nanoTime());
+        this.requestsPerSecond = Math.max(0, requestsPerSecond);
+        log.info("SFTP rate limiter: requestsPerSecond set to {}", describe(this.requestsPerSecond));
+    }
+
+    /**
+     * Ajusta el tamaño del burst (mínimo 1).
+     */
+    public synchronized void setBurst(int burst) {
+        refill(System.nanoTime());
+        this.burst = Math.max(1, burst);
+        this.storedPermits = Math.min(this.storedPermits, this.burst);
+        log.info("SFTP rate limiter: burst set to {}", this.burst);
+    }
+
+    /**
+     * Ajusta el máximo de operaciones concurrentes (0 = sin límite).
+     * Las operaciones en vuelo no se interrumpen.
+     */
+    public synchronized void setMaxConcurrentOperations(int maxConcurrentOperations) {
+        int newMax = Math.max(0, maxConcurrentOperations);
+        int delta = toPermits(newMax) - toPermits(this.maxConcurrentOperations);
+        if (delta > 0) {
+            concurrency.release(delta);
+        } else if (delta < 0) {
+            concurrency.reducePermits(-delta);
+        }
+        this.maxConcurrentOperations = newMax;
+        log.info("SFTP rate limiter: maxConcurrentOperations set to {}", describe(newMax));
+    }
+
+    public synchronized double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public synchronized int getBurst() {
+        return (int) burst;
+    }
+
+    public synchronized int getMaxConcurrentOperations() {
+        return maxConcurrentOperations;
+    }
+
+    /**
+     * Operaciones actualmente en vuelo.
+     */
+    public synchronized int getInFlightOperations() {
+        return Math.max(0, toPermits(maxConcurrentOperations) - concurrency.availablePermits());
+    }
+
+    private static int toPermits(int maxConcurrentOperations) {
+        return maxConcurrentOperations > 0 ? maxConcurrentOperations : UNLIMITED_PERMITS;
+    }
+
+    private static String describe(double limit) {
+        return limit > 0 ? String.valueOf(limit) : "unlimited";
+    }
+
+    /**
+     * Semaphore que permite reducir permisos en caliente.
+     */
+    private static class ResizableSemaphore extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
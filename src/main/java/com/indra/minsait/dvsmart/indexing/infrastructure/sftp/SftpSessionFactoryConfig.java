@@ -14,6 +14,7 @@
 package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
 
 import com.indra.minsait.dvsmart.indexing.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.IndexingMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.sshd.sftp.client.SftpClient;
@@ -21,8 +22,11 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.file.remote.session.SessionFactory;
 import org.springframework.integration.sftp.session.DefaultSftpSessionFactory;
-import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
 import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Author: hahuaranga@indracompany.com
@@ -32,6 +36,16 @@ import jakarta.annotation.PreDestroy;
 
 /**
  * Configuración de SessionFactory con pool lazy y validación.
+ * 
+ * Por cada origen configurado se crea un sub-pool independiente por clase de
+ * carga (SftpWorkloadClass), cada uno con sus propios límites, para evitar
+ * inanición entre discovery, listado y lectura de contenido. Los orígenes no
+ * comparten conexiones, límites ni circuit breaker.
+ * 
+ * Si un origen declara réplicas espejo, el listado se reparte entre el host
+ * principal y las réplicas (LoadBalancedSftpSessionFactory). Cada réplica tiene
+ * su propio circuit breaker (un espejo inestable no pausa al principal) y
+ * comparte el rate limiter del origen.
  */
 @Slf4j
 @Configuration
@@ -39,74 +53,182 @@ import jakarta.annotation.PreDestroy;
 public class SftpSessionFactoryConfig {
 
     private final SftpConfigProperties props;
-    private CustomLazySftpSessionFactory lazyPoolFactory;
+    private final IndexingMetrics indexingMetrics;
+    private SftpSessionPoolRegistry poolRegistry;
 
     /**
      * Factory base (sin pool) que crea conexiones SFTP individuales.
      */
-    private SessionFactory<SftpClient.DirEntry> createBaseSessionFactory() {
+    private SessionFactory<SftpClient.DirEntry> createBaseSessionFactory(
+            SftpConfigProperties.Origin origin,
+            String host,
+            int port,
+            String user,
+            String password) {
         DefaultSftpSessionFactory factory = new DefaultSftpSessionFactory(true);
-        factory.setHost(props.getOrigin().getHost());
-        factory.setPort(props.getOrigin().getPort());
-        factory.setUser(props.getOrigin().getUser());
-        factory.setPassword(props.getOrigin().getPassword());
-        factory.setTimeout(props.getOrigin().getTimeout());
+        factory.setHost(host);
+        factory.setPort(port);
+        factory.setUser(user);
+        factory.setPassword(password);
+        factory.setTimeout(origin.getTimeout());
         factory.setAllowUnknownKeys(true);
         
-        log.info("Base SFTP SessionFactory configured for {}:{}",
-                props.getOrigin().getHost(),
-                props.getOrigin().getPort());
+        log.info("Base SFTP SessionFactory [{}] configured for {}:{}",
+                origin.getName(),
+                host,
+                port);
         
         return factory;
     }
 
     /**
-     * SessionFactory con pool lazy personalizado.
-     * 
-     * Ventajas:
-     * - Conexiones creadas bajo demanda
-     * - Validación pre-uso automática
-     * - Eviction de conexiones inactivas
-     * - Coordinación con otras APIs vía uso responsable
+     * Crea un sub-pool lazy para una clase de carga de un origen.
      */
-    @Bean(name = "sftpOriginSessionFactory")
-    SessionFactory<SftpClient.DirEntry> sftpOriginSessionFactory() {
+    private CustomLazySftpSessionFactory createWorkloadPool(
+            SftpConfigProperties.Origin origin,
+            SftpWorkloadClass workload,
+            String poolName,
+            SessionFactory<SftpClient.DirEntry> baseFactory,
+            SftpOperationGuard guard) {
         
-        SessionFactory<SftpClient.DirEntry> baseFactory = createBaseSessionFactory();
+        SftpConfigProperties.Pool poolConfig = origin.resolvePool(workload);
         
-        SftpConfigProperties.Pool poolConfig = props.getOrigin().getPool();
-        
-        lazyPoolFactory = new CustomLazySftpSessionFactory(
+        CustomLazySftpSessionFactory factory = new CustomLazySftpSessionFactory(
+            poolName,
             baseFactory,
             poolConfig.getMaxSize(),
             poolConfig.getInitialSize(),
             poolConfig.getMaxWaitMillis(),
             poolConfig.isTestOnBorrow(),
             poolConfig.getTimeBetweenEvictionRunsMillis(),
-            poolConfig.getMinEvictableIdleTimeMillis()
+            poolConfig.getMinEvictableIdleTimeMillis(),
+            guard,
+            nanos -> indexingMetrics.recordSessionBorrow(origin.getName(), workload.name(), nanos)
         );
         
-        log.info("Lazy SFTP Session Pool initialized with max size: {}", poolConfig.getMaxSize());
+        log.info("Lazy SFTP Session Pool [{}] initialized with max size: {}",
+                poolName, poolConfig.getMaxSize());
         
-        return lazyPoolFactory;
+        return factory;
     }
 
     /**
-     * Template para operaciones SFTP de alto nivel.
+     * Guardia del origen: rate limiter + circuit breaker, compartida por todos
+     * sus sub-pools (los límites aplican al servidor, no a cada pool).
      */
-    @Bean(name = "sftpOriginTemplate")
-    SftpRemoteFileTemplate sftpOriginTemplate() {
-        SftpRemoteFileTemplate template = new SftpRemoteFileTemplate(sftpOriginSessionFactory());
-        log.info("SFTP RemoteFileTemplate configured");
-        return template;
+    private SftpOperationGuard createGuard(SftpConfigProperties.Origin origin) {
+        SftpConfigProperties.Throttle throttle = origin.getThrottle();
+        
+        return new SftpOperationGuard(
+            new SftpRateLimiter(
+                throttle.getRequestsPerSecond(),
+                throttle.getBurst(),
+                throttle.getMaxConcurrentOperations()),
+            createCircuitBreaker(origin)
+        );
+    }
+
+    private SftpCircuitBreaker createCircuitBreaker(SftpConfigProperties.Origin origin) {
+        SftpConfigProperties.CircuitBreaker breaker = origin.getCircuitBreaker();
+        
+        return new SftpCircuitBreaker(
+            breaker.isEnabled(),
+            breaker.getFailureThreshold(),
+            breaker.getOpenDurationMillis(),
+            breaker.getMaxPauseMillis());
     }
 
     /**
-     * Monitor del pool como bean independiente.
+     * Crea un origen con sus sub-pools y su guardia.
+     */
+    private SftpOrigin createOrigin(SftpConfigProperties.Origin origin) {
+        if (origin.getName() == null || origin.getName().isBlank()) {
+            throw new IllegalStateException("Every SFTP origin must have a name (sftp.origins[n].name)");
+        }
+        
+        SessionFactory<SftpClient.DirEntry> baseFactory = createBaseSessionFactory(
+            origin, origin.getHost(), origin.getPort(), origin.getUser(), origin.getPassword());
+        SftpOperationGuard guard = createGuard(origin);
+        
+        Map<SftpWorkloadClass, CustomLazySftpSessionFactory> pools = new EnumMap<>(SftpWorkloadClass.class);
+        for (SftpWorkloadClass workload : SftpWorkloadClass.values()) {
+            String poolName = origin.getName() + "/" + workload.getPoolName();
+            pools.put(workload, createWorkloadPool(origin, workload, poolName, baseFactory, guard));
+        }
+        
+        LoadBalancedSftpSessionFactory listingBalancer = origin.getReplicas().isEmpty()
+            ? null
+            : createListingBalancer(origin, pools.get(SftpWorkloadClass.LISTING), guard);
+        
+        SftpConfigProperties.ExecFind execFind = origin.getListingBackend() == SftpListingBackend.EXEC_FIND
+            ? origin.getExecFind()
+            : null;
+        
+        return new SftpOrigin(origin.getName(), origin.resolveBaseDirs(), pools, guard, listingBalancer, execFind);
+    }
+
+    /**
+     * Balanceador de LISTING: host principal + un pool LISTING por réplica.
+     * Las réplicas heredan puerto y credenciales del origen si no los indican.
+     * Cada réplica usa su propio circuit breaker y el rate limiter del origen.
+     */
+    private LoadBalancedSftpSessionFactory createListingBalancer(
+            SftpConfigProperties.Origin origin,
+            CustomLazySftpSessionFactory primaryListingPool,
+            SftpOperationGuard guard) {
+        
+        List<CustomLazySftpSessionFactory> replicaPools = new ArrayList<>();
+        replicaPools.add(primaryListingPool);
+        
+        for (SftpConfigProperties.Replica replica : origin.getReplicas()) {
+            int port = replica.getPort() != null ? replica.getPort() : origin.getPort();
+            String user = replica.getUser() != null ? replica.getUser() : origin.getUser();
+            String password = replica.getPassword() != null ? replica.getPassword() : origin.getPassword();
+            
+            SessionFactory<SftpClient.DirEntry> replicaFactory =
+                createBaseSessionFactory(origin, replica.getHost(), port, user, password);
+            String poolName = origin.getName() + "/" + SftpWorkloadClass.LISTING.getPoolName()
+                + "@" + replica.getHost() + ":" + port;
+            
+            SftpOperationGuard replicaGuard = new SftpOperationGuard(guard.getRateLimiter(), createCircuitBreaker(origin));
+            
+            replicaPools.add(createWorkloadPool(origin, SftpWorkloadClass.LISTING, poolName, replicaFactory, replicaGuard));
+        }
+        
+        SftpConfigProperties.ReplicaBalancing balancing = origin.getReplicaBalancing();
+        return new LoadBalancedSftpSessionFactory(
+            origin.getName() + "/" + SftpWorkloadClass.LISTING.getPoolName(),
+            replicaPools,
+            balancing.getEjectAfterFailures(),
+            balancing.getEjectionMillis(),
+            balancing.getSlowThresholdMillis(),
+            balancing.getLatencyEwmaAlpha()
+        );
+    }
+
+    /**
+     * Registro con los orígenes SFTP configurados y un sub-pool lazy por clase de carga.
+     * Los orígenes LOCAL no abren conexiones y no aparecen en el registro.
+     * 
+     * Ventajas:
+     * - Conexiones creadas bajo demanda
+     * - Validación pre-uso automática
+     * - Eviction de conexiones inactivas
+     * - Aislamiento entre clases de carga (sin inanición)
+     * - Aislamiento entre orígenes (un servidor lento no frena al resto)
      */
     @Bean
-    SftpPoolMonitor sftpPoolMonitor() {
-        return new SftpPoolMonitor(lazyPoolFactory);
+    SftpSessionPoolRegistry sftpSessionPoolRegistry() {
+        List<SftpOrigin> origins = new ArrayList<>();
+        for (SftpConfigProperties.Origin origin : props.resolveOrigins()) {
+            if (origin.getSource() == SftpConfigProperties.SourceType.LOCAL) {
+                continue;
+            }
+            origins.add(createOrigin(origin));
+        }
+        
+        poolRegistry = new SftpSessionPoolRegistry(origins);
+        return poolRegistry;
     }
 
     /**
@@ -114,9 +236,9 @@ public class SftpSessionFactoryConfig {
      */
     @PreDestroy
     public void cleanup() {
-        if (lazyPoolFactory != null) {
-            log.info("Shutting down SFTP session pool...");
-            lazyPoolFactory.destroy();
+        if (poolRegistry != null) {
+            log.info("Shutting down SFTP session pools...");
+            poolRegistry.destroy();
         }
     }
-}
\ No newline at end of file
+}
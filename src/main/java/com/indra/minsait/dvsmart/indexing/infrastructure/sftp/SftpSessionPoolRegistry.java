@@ -0,0 +1,111 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 09:21:44
+ * File: SftpSessionPoolRegistry.java
+ */
+
+/**
+ * Registro de orígenes SFTP y sus sub-pools por clase de carga de trabajo.
+ * 
+ * Responsabilidades:
+ * - Resolver un origen por nombre (pools, templates, guardia, directorios raíz)
+ * - Exponer todos los pools para monitorización
+ * - Cerrar todos los pools al apagar la aplicación
+ */
+@Slf4j
+public class SftpSessionPoolRegistry {
+
+    private final Map<String, SftpOrigin> origins;
+
+    public SftpSessionPoolRegistry(Collection<SftpOrigin> origins) {
+        Map<String, SftpOrigin> byName = new LinkedHashMap<>();
+        for (SftpOrigin origin : origins) {
+            if (byName.putIfAbsent(origin.getName(), origin) != null) {
+                throw new IllegalStateException("Duplicated SFTP origin name: " + origin.getName());
+            }
+        }
+        this.origins = Collections.unmodifiableMap(byName);
+        log.info("SFTP Session Pool Registry initialized with origins: {}", this.origins.keySet());
+    }
+
+    /**
+     * Retorna un origen por nombre.
+     */
+    public SftpOrigin getOrigin(String name) {
+        SftpOrigin origin = origins.get(name);
+        if (origin == null) {
+            throw new IllegalArgumentException("Unknown SFTP origin: " + name);
+        }
+        return origin;
+    }
+
+    /**
+     * Busca un origen por nombre (vacío si no es un origen SFTP).
+     */
+    public Optional<SftpOrigin> findOrigin(String name) {
+        return Optional.ofNullable(origins.get(name));
+    }
+
+    /**
+     * Retorna todos los orígenes, en orden de configuración.
+     */
+    public Collection<SftpOrigin> getOrigins() {
+        return origins.values();
+    }
+
+    /**
+     * Nombres de los orígenes, en orden de configuración.
+     */
+    public List<String> getOriginNames() {
+        return new ArrayList<>(origins.keySet());
+    }
+
+    /**
+     * Retorna los pools de una clase de carga de todos los orígenes.
+     */
+    public List<CustomLazySftpSessionFactory> getPools(SftpWorkloadClass workload) {
+        List<CustomLazySftpSessionFactory> pools = new ArrayList<>();
+        origins.values().forEach(origin -> pools.addAll(origin.getWorkloadPools(workload)));
+        return pools;
+    }
+
+    /**
+     * Retorna todos los pools registrados.
+     */
+    public List<CustomLazySftpSessionFactory> getAllPools() {
+        List<CustomLazySftpSessionFactory> pools = new ArrayList<>();
+        origins.values().forEach(origin -> pools.addAll(origin.getAllPools()));
+        return pools;
+    }
+
+    /**
+     * Cierra todos los pools y sus conexiones.
+     */
+    public void destroy() {
+        origins.values().forEach(SftpOrigin::destroy);
+    }
+}
@@ -39,9 +39,19 @@ import org.springframework.integration.file.remote.session.SessionFactory;
 public class SftpSessionPooledObjectFactory extends BasePooledObjectFactory<Session<SftpClient.DirEntry>> {
 
     private final SessionFactory<SftpClient.DirEntry> targetFactory;
+    private final SftpPoolTelemetry telemetry;
 
     public SftpSessionPooledObjectFactory(SessionFactory<SftpClient.DirEntry> targetFactory) {
+        this(targetFactory, new SftpPoolTelemetry());
+    }
+
+    /**
+     * @param telemetry Recibe la latencia de creación y validación de sesiones
+     */
+    public SftpSessionPooledObjectFactory(SessionFactory<SftpClient.DirEntry> targetFactory,
+                                          SftpPoolTelemetry telemetry) {
         this.targetFactory = targetFactory;
+        this.telemetry = telemetry;
     }
 
     /**
@@ -52,8 +62,10 @@ public class SftpSessionPooledObjectFactory extends BasePooledObjectFactory<Sess
     public Session<SftpClient.DirEntry> create() throws Exception {
         log.debug("Creating new SFTP session...");
         
+        long start = System.nanoTime();
         try {
             Session<SftpClient.DirEntry> session = targetFactory.getSession();
+            telemetry.recordCreation(System.nanoTime() - start);
             
             // Verificar que la sesión está realmente abierta
             if (!session.isOpen()) {
@@ -85,6 +97,7 @@ public class SftpSessionPooledObjectFactory extends BasePooledObjectFactory<Sess
     public boolean validateObject(PooledObject<Session<SftpClient.DirEntry>> p) {
         Session<SftpClient.DirEntry> session = p.getObject();
         
+        long start = System.nanoTime();
         try {
             // Verificación básica: está abierta
             if (!session.isOpen()) {
@@ -102,6 +115,8 @@ public class SftpSessionPooledObjectFactory extends BasePooledObjectFactory<Sess
         } catch (Exception e) {
             log.warn("Session validation failed: {}", e.getMessage());
             return false;
+        } finally {
+            telemetry.recordValidation(System.nanoTime() - start);
         }
     }
 
@@ -0,0 +1,48 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 19-10-2026 at 09:14:07
+ * File: SftpWorkloadClass.java
+ */
+
+/**
+ * Clases de carga de trabajo SFTP.
+ * 
+ * Cada clase dispone de su propio sub-pool de sesiones (límites, timeouts y
+ * métricas independientes), de modo que una ráfaga de listados no puede dejar
+ * sin sesiones al discovery (ni viceversa).
+ * 
+ * - DISCOVERY: descubrimiento recursivo de directorios
+ * - LISTING:   listado de archivos directorio por directorio
+ * - CONTENT:   lectura de contenido de archivos (reservado para uso futuro)
+ */
+public enum SftpWorkloadClass {
+
+    DISCOVERY("discovery"),
+    LISTING("listing"),
+    CONTENT("content");
+
+    private final String poolName;
+
+    SftpWorkloadClass(String poolName) {
+        this.poolName = poolName;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+}
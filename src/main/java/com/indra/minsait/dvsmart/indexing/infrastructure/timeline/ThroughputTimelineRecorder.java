@@ -0,0 +1,219 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.timeline;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.ThroughputTimeline;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.LatencyHistogram;
+import com.indra.minsait.dvsmart.indexing.infrastructure.metrics.LatencyHistogram.LatencySummary;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.CustomLazySftpSessionFactory.PoolStats;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 13:38:52
+ * File: ThroughputTimelineRecorder.java
+ */
+
+/**
+ * Timeline de rendimiento de una ejecución.
+ * 
+ * El writer solo registra la latencia de cada bulk write en el histograma del
+ * intervalo en curso (sin locks); el hilo de muestreo cierra el intervalo
+ * (sample), cambia el histograma por uno nuevo y guarda los incrementos de
+ * los contadores de progreso junto con el estado del pool SFTP y del heap.
+ * 
+ * Con más de maxSamples intervalos se fusionan por parejas y el intervalo se
+ * duplica: el tamaño guardado queda acotado en ejecuciones muy largas. Al
+ * fusionar, latencias, sesiones y heap conservan el máximo de la pareja.
+ * El muestreo sigue al intervalo original: tras compactar, las muestras se
+ * acumulan en un intervalo pendiente hasta cubrir el intervalo duplicado,
+ * de modo que todos los intervalos cerrados tienen la misma duración (el
+ * pendiente se publica como último intervalo, más corto).
+ */
+public class ThroughputTimelineRecorder {
+
+    private static final long MB = 1024 * 1024;
+
+    private record Sample(
+        long offsetSeconds,
+        double seconds,
+        int intervals,
+        long filesRead,
+        long filesWritten,
+        long bulkWrites,
+        double bulkP50Millis,
+        double bulkP99Millis,
+        double bulkMaxMillis,
+        int sftpActiveSessions,
+        double sftpPoolUtilization,
+        long heapUsedMb) {
+
+        Sample merge(Sample next) {
+            return new Sample(
+                next.offsetSeconds,
+                seconds + next.seconds,
+                intervals + next.intervals,
+                filesRead + next.filesRead,
+                filesWritten + next.filesWritten,
+                bulkWrites + next.bulkWrites,
+                Math.max(bulkP50Millis, next.bulkP50Millis),
+                Math.max(bulkP99Millis, next.bulkP99Millis),
+                Math.max(bulkMaxMillis, next.bulkMaxMillis),
+                Math.max(sftpActiveSessions, next.sftpActiveSessions),
+                Math.max(sftpPoolUtilization, next.sftpPoolUtilization),
+                Math.max(heapUsedMb, next.heapUsedMb));
+        }
+    }
+
+    private final Instant startTime = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxSamples;
+    private final long heapMaxMb;
+    private final AtomicReference<LatencyHistogram> bulkLatency = new AtomicReference<>(new LatencyHistogram());
+    
+    // Estado del muestreo (solo bajo el monitor)
+    private final List<Sample> samples = new ArrayList<>();
+    private Sample pending;
+    private int samplesPerInterval = 1;
+    private int intervalSeconds;
+    private long lastSampleNanos = startNanos;
+    private long lastFilesRead;
+    private long lastFilesWritten;
+
+    ThroughputTimelineRecorder(int intervalSeconds, int maxSamples, long heapMaxBytes) {
+        this.intervalSeconds = intervalSeconds;
+        this.maxSamples = Math.max(2, maxSamples);
+        this.heapMaxMb = heapMaxBytes > 0 ? heapMaxBytes / MB : 0;
+    }
+
+    public void recordBulkWrite(long nanos) {
+        bulkLatency.get().recordNanos(nanos);
+    }
+
+    /**
+     * Cierra el intervalo en curso.
+     * 
+     * @param filesRead    Total de archivos leídos de la ejecución
+     * @param filesWritten Total de archivos escritos de la ejecución
+     * @param pool         Estado agregado de los pools SFTP (null = sin pools)
+     */
+    synchronized void sample(long filesRead, long filesWritten, PoolStats pool, long heapUsedBytes) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastSampleNanos) / 1e9);
+        LatencySummary bulk = bulkLatency.getAndSet(new LatencyHistogram()).summary();
+        
+        int active = pool != null ? pool.active() : 0;
+        double utilization = pool != null && pool.maxTotal() > 0
+            ? round(100.0 * pool.active() / pool.maxTotal())
+            : 0;
+        Sample closed = new Sample(
+            Math.round((now - startNanos) / 1e9),
+            seconds,
+            1,
+            Math.max(0, filesRead - lastFilesRead),
+            Math.max(0, filesWritten - lastFilesWritten),
+            bulk.count(),
+            bulk.p50Millis(),
+            bulk.p99Millis(),
+            bulk.maxMillis(),
+            active,
+            utilization,
+            heapUsedBytes / MB);
+        pending = pending != null ? pending.merge(closed) : closed;
+        if (pending.intervals() >= samplesPerInterval) {
+            samples.add(pending);
+            pending = null;
+        }
+        
+        lastSampleNanos = now;
+        lastFilesRead = filesRead;
+        lastFilesWritten = filesWritten;
+        
+        if (samples.size() > maxSamples) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        List<Sample> merged = new ArrayList<>(samples.size() / 2 + 1);
+        for (int i = 0; i + 1 < samples.size(); i += 2) {
+            merged.add(samples.get(i).merge(samples.get(i + 1)));
+        }
+        if (samples.size() % 2 != 0) {
+            // El impar cubre medio intervalo nuevo: pasa a ser el pendiente
+            Sample last = samples.get(samples.size() - 1);
+            pending = pending != null ? last.merge(pending) : last;
+        }
+        samples.clear();
+        samples.addAll(merged);
+        samplesPerInterval *= 2;
+        intervalSeconds *= 2;
+    }
+
+    public synchronized ThroughputTimeline timeline() {
+        List<Sample> intervals = new ArrayList<>(samples);
+        if (pending != null) {
+            intervals.add(pending);
+        }
+        int size = intervals.size();
+        List<Long> offsets = new ArrayList<>(size);
+        List<Long> read = new ArrayList<>(size);
+        List<Long> written = new ArrayList<>(size);
+        List<Double> rate = new ArrayList<>(size);
+        List<Long> writes = new ArrayList<>(size);
+        List<Double> p50 = new ArrayList<>(size);
+        List<Double> p99 = new ArrayList<>(size);
+        List<Double> max = new ArrayList<>(size);
+        List<Integer> active = new ArrayList<>(size);
+        List<Double> utilization = new ArrayList<>(size);
+        List<Long> heap = new ArrayList<>(size);
+        for (Sample sample : intervals) {
+            offsets.add(sample.offsetSeconds());
+            read.add(sample.filesRead());
+            written.add(sample.filesWritten());
+            rate.add(round(sample.filesWritten() / sample.seconds()));
+            writes.add(sample.bulkWrites());
+            p50.add(sample.bulkP50Millis());
+            p99.add(sample.bulkP99Millis());
+            max.add(sample.bulkMaxMillis());
+            active.add(sample.sftpActiveSessions());
+            utilization.add(sample.sftpPoolUtilization());
+            heap.add(sample.heapUsedMb());
+        }
+        
+        return ThroughputTimeline.builder()
+            .startTime(startTime)
+            .intervalSeconds(intervalSeconds)
+            .heapMaxMb(heapMaxMb)
+            .offsetSeconds(offsets)
+            .filesRead(read)
+            .filesWritten(written)
+            .filesPerSecond(rate)
+            .bulkWrites(writes)
+            .bulkP50Millis(p50)
+            .bulkP99Millis(p99)
+            .bulkMaxMillis(max)
+            .sftpActiveSessions(active)
+            .sftpPoolUtilization(utilization)
+            .heapUsedMb(heap)
+            .build();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.timeline;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.ThroughputTimeline;
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressCounters;
+import com.indra.minsait.dvsmart.indexing.infrastructure.progress.JobProgressRegistry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.SftpPoolMonitor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.stereotype.Component;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 13:46:15
+ * File: ThroughputTimelineRegistry.java
+ */
+
+/**
+ * Timelines de rendimiento de las ejecuciones en curso.
+ * 
+ * El JobExecutionAuditListener abre el timeline al empezar el job; un único
+ * hilo cierra cada batch.timeline.interval-seconds el intervalo de todas las
+ * ejecuciones abiertas. Al terminar el job se cierra el último intervalo
+ * (más corto) y el timeline se guarda en el registro de auditoría.
+ */
+@Slf4j
+@Component
+public class ThroughputTimelineRegistry {
+
+    private record Running(ThroughputTimelineRecorder recorder, ScheduledFuture<?> sampling) {
+    }
+
+    private final BatchConfigProperties.Timeline config;
+    private final JobProgressRegistry progressRegistry;
+    private final SftpPoolMonitor poolMonitor;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final Map<Long, Running> executions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public ThroughputTimelineRegistry(BatchConfigProperties batchProps, JobProgressRegistry progressRegistry,
+                                      SftpPoolMonitor poolMonitor) {
+        this.config = batchProps.getTimeline();
+        this.progressRegistry = progressRegistry;
+        this.poolMonitor = poolMonitor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "throughput-timeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Abre el timeline de una ejecución (null si está deshabilitado).
+     */
+    public ThroughputTimelineRecorder start(Long jobExecutionId) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        int interval = Math.max(1, config.getIntervalSeconds());
+        return executions.computeIfAbsent(jobExecutionId, id -> {
+            ThroughputTimelineRecorder recorder = new ThroughputTimelineRecorder(
+                interval, config.getMaxSamples(), memory.getHeapMemoryUsage().getMax());
+            ScheduledFuture<?> sampling = scheduler.scheduleAtFixedRate(
+                () -> sample(id, recorder), interval, interval, TimeUnit.SECONDS);
+            return new Running(recorder, sampling);
+        }).recorder();
+    }
+
+    /**
+     * Cierra el último intervalo y devuelve el timeline final (null si no se abrió).
+     */
+    public ThroughputTimeline finish(Long jobExecutionId) {
+        Running running = executions.remove(jobExecutionId);
+        if (running == null) {
+            return null;
+        }
+        running.sampling().cancel(false);
+        sample(jobExecutionId, running.recorder());
+        ThroughputTimeline timeline = running.recorder().timeline();
+        log.debug("Throughput timeline of job execution {} closed with {} intervals",
+                  jobExecutionId, timeline.getOffsetSeconds().size());
+        return timeline;
+    }
+
+    /**
+     * Timeline parcial (intervalos cerrados) de una ejecución en curso.
+     */
+    public Optional<ThroughputTimeline> findRunning(Long jobExecutionId) {
+        return Optional.ofNullable(executions.get(jobExecutionId)).map(running -> running.recorder().timeline());
+    }
+
+    public ThroughputTimelineRecorder forExecution(Long jobExecutionId) {
+        Running running = jobExecutionId != null ? executions.get(jobExecutionId) : null;
+        return running != null ? running.recorder() : null;
+    }
+
+    /**
+     * Timeline de la ejecución del step que corre en el hilo actual.
+     */
+    public ThroughputTimelineRecorder current() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context != null
+            ? forExecution(context.getStepExecution().getJobExecutionId())
+            : null;
+    }
+
+    private void sample(Long jobExecutionId, ThroughputTimelineRecorder recorder) {
+        try {
+            JobProgressCounters counters = progressRegistry.find(jobExecutionId).orElse(null);
+            recorder.sample(
+                counters != null ? counters.getFilesRead() : 0,
+                counters != null ? counters.getFilesWritten() : 0,
+                poolMonitor.getStats(),
+                memory.getHeapMemoryUsage().getUsed());
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría el muestreo periódico
+            log.warn("⚠️  Throughput sample of job execution {} failed: {}", jobExecutionId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
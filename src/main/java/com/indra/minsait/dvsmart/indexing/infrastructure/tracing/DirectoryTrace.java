@@ -0,0 +1,180 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:34:52
+ * File: DirectoryTrace.java
+ */
+
+/**
+ * Traza de un directorio muestreado: span "directory" (desde el inicio del
+ * listado hasta la escritura de su último archivo) con los hijos "list" y,
+ * por cada chunk que contiene archivos suyos, "process" y "write".
+ * 
+ * Los spans de chunk llevan la duración real del chunk; para el resumen se
+ * atribuye al directorio la parte proporcional a sus archivos en el chunk.
+ * El tiempo del span directory no cubierto por esas fases es espera (buffer
+ * del reader, cola del chunk).
+ */
+public final class DirectoryTrace {
+
+    private final JobTrace job;
+    private final String origin;
+    private final String directory;
+    private final String spanId;
+    private final AtomicInteger pendingFiles = new AtomicInteger();
+    private final AtomicInteger chunks = new AtomicInteger();
+    private final AtomicLong processNanos = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private volatile long startNanos;
+    private volatile long listNanos;
+    private volatile int files;
+
+    DirectoryTrace(JobTrace job, String origin, String directory) {
+        this.job = job;
+        this.origin = origin;
+        this.directory = directory;
+        this.spanId = JobTrace.newSpanId();
+    }
+
+    /**
+     * Instancia del path compartida por las entradas del listado
+     * (SftpFileEntry.parentDirectory): el writer la compara por identidad.
+     */
+    String directory() {
+        return directory;
+    }
+
+    /**
+     * Listado terminado. Sin archivos el directorio termina aquí.
+     */
+    public void listed(long listStartNanos, long listEndNanos, int listedFiles, int subdirectories) {
+        this.startNanos = listStartNanos;
+        this.listNanos = listEndNanos - listStartNanos;
+        this.files = listedFiles;
+        pendingFiles.set(listedFiles);
+        
+        Map<String, Object> attributes = attributes();
+        attributes.put("directory.files", listedFiles);
+        attributes.put("directory.subdirectories", subdirectories);
+        job.export("list", spanId, listStartNanos, listEndNanos, "OK", attributes);
+        
+        if (listedFiles == 0) {
+            end(listEndNanos, "OK");
+        }
+    }
+
+    /**
+     * Chunk con directoryFiles archivos del directorio procesado y escrito.
+     * 
+     * @param documents documentos escritos por el chunk (0 = sin bulk)
+     * @param failure   error del bulk (null si se escribió)
+     */
+    void chunkWritten(
+            String chunkId,
+            int directoryFiles,
+            int chunkFiles,
+            int documents,
+            long processStartNanos,
+            long writeStartNanos,
+            long writeEndNanos,
+            Exception failure) {
+        double share = chunkFiles > 0 ? (double) directoryFiles / chunkFiles : 1.0;
+        chunks.incrementAndGet();
+        processNanos.addAndGet((long) ((writeStartNanos - processStartNanos) * share));
+        
+        Map<String, Object> attributes = attributes();
+        attributes.put("chunk.id", chunkId);
+        attributes.put("chunk.files", chunkFiles);
+        attributes.put("directory.files", directoryFiles);
+        job.export("process", spanId, processStartNanos, writeStartNanos, "OK", attributes);
+        
+        if (documents > 0 || failure != null) {
+            writeNanos.addAndGet((long) ((writeEndNanos - writeStartNanos) * share));
+            Map<String, Object> writeAttributes = new LinkedHashMap<>(attributes);
+            writeAttributes.put("chunk.documents", documents);
+            if (failure != null) {
+                writeAttributes.put("error", failure.getClass().getSimpleName() + ": " + failure.getMessage());
+            }
+            job.export("write", spanId, writeStartNanos, writeEndNanos, failure != null ? "ERROR" : "OK",
+                writeAttributes);
+        }
+        
+        // Un chunk fallido se reintenta o se salta: el directorio sigue abierto
+        if (failure == null && pendingFiles.addAndGet(-directoryFiles) <= 0) {
+            end(writeEndNanos, "OK");
+        }
+    }
+
+    /**
+     * Cierra el span directory (una sola vez) y lo retira de los abiertos.
+     */
+    void end(long endNanos, String status) {
+        if (!ended.compareAndSet(false, true)) {
+            return;
+        }
+        long start = startNanos != 0 ? startNanos : endNanos;
+        long total = Math.max(0, endNanos - start);
+        long process = processNanos.get();
+        long write = writeNanos.get();
+        
+        Map<String, Object> attributes = attributes();
+        attributes.put("directory.files", files);
+        attributes.put("directory.chunks", chunks.get());
+        attributes.put("list.ms", millis(listNanos));
+        attributes.put("process.ms", millis(process));
+        attributes.put("write.ms", millis(write));
+        if (pendingFiles.get() > 0) {
+            attributes.put("directory.pending.files", pendingFiles.get());
+        }
+        job.exportDirectory(this, start, endNanos, status, attributes);
+        job.directoryEnded(this, new SpanTracer.DirectoryLatency(
+            origin,
+            directory,
+            files,
+            chunks.get(),
+            status,
+            millis(listNanos),
+            millis(process),
+            millis(write),
+            millis(Math.max(0, total - listNanos - process - write)),
+            millis(total)));
+    }
+
+    String spanId() {
+        return spanId;
+    }
+
+    private Map<String, Object> attributes() {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("job.execution.id", job.getJobExecutionId());
+        attributes.put("origin", origin);
+        attributes.put("directory", directory);
+        return attributes;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 1000) / 1000.0;
+    }
+}
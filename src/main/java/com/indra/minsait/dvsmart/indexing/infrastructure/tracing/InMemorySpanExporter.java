@@ -0,0 +1,75 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.tracing;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import tools.jackson.databind.json.JsonMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:25:48
+ * File: InMemorySpanExporter.java
+ */
+
+/**
+ * Exportador en memoria: conserva como mucho maxSpans spans de la ejecución
+ * (los siguientes se descartan) y los serializa al pedirlos.
+ */
+class InMemorySpanExporter implements SpanExporter {
+
+    private final JsonMapper jsonMapper;
+    private final int maxSpans;
+    private final Queue<SpanData> spans = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    InMemorySpanExporter(JsonMapper jsonMapper, int maxSpans) {
+        this.jsonMapper = jsonMapper;
+        this.maxSpans = Math.max(0, maxSpans);
+    }
+
+    @Override
+    public boolean export(SpanData span) {
+        if (size.incrementAndGet() > maxSpans) {
+            size.decrementAndGet();
+            return false;
+        }
+        spans.add(span);
+        return true;
+    }
+
+    @Override
+    public Resource spans() {
+        StringBuilder ndjson = new StringBuilder();
+        for (SpanData span : spans) {
+            ndjson.append(jsonMapper.writeValueAsString(span)).append('\n');
+        }
+        return new ByteArrayResource(ndjson.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+        // Los spans siguen disponibles hasta discard()
+    }
+
+    @Override
+    public void discard() {
+        spans.clear();
+        size.set(0);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.tracing;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import lombok.Getter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:41:26
+ * File: JobTrace.java
+ */
+
+/**
+ * Traza de una ejecución de job.
+ * 
+ * El traceId lleva el jobExecutionId en sus 16 primeros dígitos y todos los
+ * spans cuelgan del span raíz "job" y llevan el atributo job.execution.id.
+ * 
+ * Los readers muestrean cada directorio con probabilidad sampleRatio (como
+ * mucho maxDirectories por ejecución). Los directorios no muestreados no
+ * crean nada: el coste es un número aleatorio por directorio y, en el
+ * writer, comprobar si hay directorios muestreados abiertos.
+ */
+public class JobTrace {
+
+    @Getter
+    private final long jobExecutionId;
+    @Getter
+    private final String jobName;
+    @Getter
+    private final String traceId;
+    private final String rootSpanId;
+    private final double sampleRatio;
+    private final int maxDirectories;
+    @Getter
+    private final SpanExporter exporter;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+
+    // Directorios muestreados con archivos sin escribir, por path
+    private final Map<String, DirectoryTrace> open = new ConcurrentHashMap<>();
+    private final Queue<SpanTracer.DirectoryLatency> completed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sampled = new AtomicInteger();
+    private final LongAdder exportedSpans = new LongAdder();
+    private final LongAdder droppedSpans = new LongAdder();
+    @Getter
+    private volatile String status = "STARTED";
+    private volatile long endNanoTime;
+
+    JobTrace(
+            long jobExecutionId,
+            String jobName,
+            double sampleRatio,
+            int maxDirectories,
+            SpanExporter exporter) {
+        this.jobExecutionId = jobExecutionId;
+        this.jobName = jobName;
+        this.traceId = String.format("%016x%s", jobExecutionId, newSpanId());
+        this.rootSpanId = newSpanId();
+        this.sampleRatio = sampleRatio;
+        this.maxDirectories = maxDirectories;
+        this.exporter = exporter;
+        Instant now = Instant.now();
+        this.startEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.startNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Decide si se traza el directorio que se va a listar.
+     * 
+     * @return la traza del directorio, o null si no se muestrea
+     */
+    public DirectoryTrace sampleDirectory(String origin, String directory) {
+        if (sampleRatio <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRatio
+                || sampled.get() >= maxDirectories || endNanoTime != 0) {
+            return null;
+        }
+        DirectoryTrace trace = new DirectoryTrace(this, origin, directory);
+        // Mismo path en curso en otro origen: no se puede distinguir en el writer
+        if (open.putIfAbsent(directory, trace) != null) {
+            return null;
+        }
+        sampled.incrementAndGet();
+        return trace;
+    }
+
+    /**
+     * Directorios muestreados presentes en el chunk, con cuántos archivos
+     * aporta cada uno.
+     * 
+     * @return null si el chunk no contiene ninguno (caso habitual)
+     */
+    public Map<DirectoryTrace, int[]> match(List<? extends SftpFileEntry> entries) {
+        if (open.isEmpty()) {
+            return null;
+        }
+        Map<DirectoryTrace, int[]> matched = null;
+        String lastParent = null;
+        DirectoryTrace lastTrace = null;
+        for (SftpFileEntry entry : entries) {
+            String parent = entry.getParentDirectory();
+            if (parent == null) {
+                continue;
+            }
+            // Las entradas de un directorio son consecutivas y comparten instancia
+            if (parent != lastParent) {
+                lastParent = parent;
+                lastTrace = open.get(parent);
+                if (lastTrace != null && lastTrace.directory() != parent) {
+                    lastTrace = null;
+                }
+            }
+            if (lastTrace != null) {
+                if (matched == null) {
+                    matched = new HashMap<>();
+                }
+                matched.computeIfAbsent(lastTrace, trace -> new int[1])[0]++;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Registra el procesamiento y la escritura de un chunk en los
+     * directorios muestreados que contiene (resultado de match()).
+     */
+    public void chunkWritten(
+            Map<DirectoryTrace, int[]> matched,
+            int chunkFiles,
+            int documents,
+            long processStartNanos,
+            long writeStartNanos,
+            long writeEndNanos,
+            Exception failure) {
+        String chunkId = newSpanId();
+        matched.forEach((trace, files) -> trace.chunkWritten(chunkId, files[0], chunkFiles, documents,
+            processStartNanos, writeStartNanos, writeEndNanos, failure));
+    }
+
+    /**
+     * Cierra la traza: los directorios aún abiertos se exportan como
+     * INCOMPLETE y se exporta el span raíz.
+     */
+    void finish(String jobStatus) {
+        long now = System.nanoTime();
+        endNanoTime = now;
+        status = jobStatus;
+        new ArrayList<>(open.values()).forEach(trace -> trace.end(now, "INCOMPLETE"));
+        
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("job.execution.id", jobExecutionId);
+        attributes.put("job.name", jobName);
+        attributes.put("job.status", jobStatus);
+        attributes.put("sample.ratio", sampleRatio);
+        attributes.put("sampled.directories", sampled.get());
+        attributes.put("dropped.spans", droppedSpans.sum());
+        export(SpanData.of(traceId, rootSpanId, null, "job", startEpochNanos, epochNanos(now),
+            "COMPLETED".equals(jobStatus) ? "OK" : "ERROR", attributes));
+        exporter.close();
+    }
+
+    void export(String name, String parentSpanId, long startNanos, long endNanos, String spanStatus,
+                Map<String, Object> attributes) {
+        export(SpanData.of(traceId, newSpanId(), parentSpanId, name, epochNanos(startNanos),
+            epochNanos(endNanos), spanStatus, attributes));
+    }
+
+    void exportDirectory(DirectoryTrace trace, long startNanos, long endNanos, String spanStatus,
+                         Map<String, Object> attributes) {
+        export(SpanData.of(traceId, trace.spanId(), rootSpanId, "directory", epochNanos(startNanos),
+            epochNanos(endNanos), spanStatus, attributes));
+    }
+
+    void directoryEnded(DirectoryTrace trace, SpanTracer.DirectoryLatency latency) {
+        open.remove(trace.directory(), trace);
+        completed.add(latency);
+    }
+
+    private void export(SpanData span) {
+        if (exporter.export(span)) {
+            exportedSpans.increment();
+        } else {
+            droppedSpans.increment();
+        }
+    }
+
+    private long epochNanos(long nanoTime) {
+        return startEpochNanos + (nanoTime - startNanoTime);
+    }
+
+    Instant getStartTime() {
+        return Instant.ofEpochSecond(0, startEpochNanos);
+    }
+
+    Instant getEndTime() {
+        return endNanoTime != 0 ? Instant.ofEpochSecond(0, epochNanos(endNanoTime)) : null;
+    }
+
+    double getSampleRatio() {
+        return sampleRatio;
+    }
+
+    int getSampledDirectories() {
+        return sampled.get();
+    }
+
+    int getOpenDirectories() {
+        return open.size();
+    }
+
+    long getExportedSpans() {
+        return exportedSpans.sum();
+    }
+
+    long getDroppedSpans() {
+        return droppedSpans.sum();
+    }
+
+    List<SpanTracer.DirectoryLatency> getCompletedDirectories() {
+        return List.copyOf(completed);
+    }
+
+    static String newSpanId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+}
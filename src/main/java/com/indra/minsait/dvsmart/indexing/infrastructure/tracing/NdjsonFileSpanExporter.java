@@ -0,0 +1,142 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import tools.jackson.databind.json.JsonMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:29:14
+ * File: NdjsonFileSpanExporter.java
+ */
+
+/**
+ * Exportador a fichero NDJSON (un span por línea).
+ * 
+ * La serialización y la escritura ocurren en el hilo exportador compartido
+ * por todas las ejecuciones (cola acotada): los hilos del step solo encolan.
+ * Con la cola llena el span se descarta. El fichero se vuelca a disco cada
+ * vez que la cola se vacía, de modo que se puede leer con el job en curso.
+ */
+@Slf4j
+class NdjsonFileSpanExporter implements SpanExporter {
+
+    private final JsonMapper jsonMapper;
+    private final ThreadPoolExecutor exportExecutor;
+    private final Path file;
+    // Escrito desde el hilo exportador (o al cerrar, si la cola está llena)
+    private BufferedWriter writer;
+    private boolean failed;
+
+    NdjsonFileSpanExporter(JsonMapper jsonMapper, ThreadPoolExecutor exportExecutor, Path file) {
+        this.jsonMapper = jsonMapper;
+        this.exportExecutor = exportExecutor;
+        this.file = file;
+    }
+
+    @Override
+    public boolean export(SpanData span) {
+        try {
+            exportExecutor.execute(() -> write(span));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private synchronized void write(SpanData span) {
+        if (failed) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            }
+            writer.write(jsonMapper.writeValueAsString(span));
+            writer.write('\n');
+            if (exportExecutor.getQueue().isEmpty()) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            failed = true;
+            log.error("❌ Cannot write spans to {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public Resource spans() {
+        return Files.exists(file)
+            ? new FileSystemResource(file)
+            : new ByteArrayResource(new byte[0]);
+    }
+
+    @Override
+    public String location() {
+        return file.toString();
+    }
+
+    @Override
+    public void close() {
+        submitOrRun(this::closeWriter);
+    }
+
+    @Override
+    public void discard() {
+        submitOrRun(() -> {
+            closeWriter();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Cannot delete span file {}: {}", file, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * El cierre va detrás de los spans encolados; si la cola está llena (o
+     * el exportador parado) se hace en el hilo actual.
+     */
+    private void submitOrRun(Runnable task) {
+        try {
+            exportExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private synchronized void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Cannot close span file {}: {}", file, e.getMessage());
+        } finally {
+            writer = null;
+            failed = true;
+        }
+    }
+}
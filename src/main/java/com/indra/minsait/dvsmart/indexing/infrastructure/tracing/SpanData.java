@@ -0,0 +1,56 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.tracing;
+
+import java.util.Map;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:21:37
+ * File: SpanData.java
+ */
+
+/**
+ * Span terminado, con la forma de un span OpenTelemetry (ids en hexadecimal,
+ * tiempos en nanosegundos Unix) para que el NDJSON exportado se pueda cargar
+ * en herramientas que entienden ese modelo.
+ * 
+ * @param parentSpanId null en el span raíz del job
+ * @param status       OK | ERROR | INCOMPLETE (directorio sin terminar al
+ *                     cerrar el job)
+ */
+public record SpanData(
+    String traceId,
+    String spanId,
+    String parentSpanId,
+    String name,
+    long startTimeUnixNano,
+    long endTimeUnixNano,
+    long durationMicros,
+    String status,
+    Map<String, Object> attributes) {
+
+    static SpanData of(
+            String traceId,
+            String spanId,
+            String parentSpanId,
+            String name,
+            long startTimeUnixNano,
+            long endTimeUnixNano,
+            String status,
+            Map<String, Object> attributes) {
+        return new SpanData(traceId, spanId, parentSpanId, name, startTimeUnixNano, endTimeUnixNano,
+            Math.max(0, endTimeUnixNano - startTimeUnixNano) / 1_000, status, attributes);
+    }
+}
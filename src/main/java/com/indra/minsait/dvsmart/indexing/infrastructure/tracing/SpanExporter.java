@@ -0,0 +1,55 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.tracing;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:23:05
+ * File: SpanExporter.java
+ */
+
+/**
+ * Destino de los spans de una ejecución de job.
+ * 
+ * export() se llama desde los hilos del step: no debe bloquear. Si el
+ * exportador no puede aceptar el span lo descarta y devuelve false.
+ */
+public interface SpanExporter {
+
+    boolean export(SpanData span);
+
+    /**
+     * Spans exportados en NDJSON (un span por línea).
+     */
+    Resource spans();
+
+    /**
+     * Fichero con los spans (null si solo se guardan en memoria).
+     */
+    default String location() {
+        return null;
+    }
+
+    /**
+     * Llamado al terminar el job: no llegarán más spans.
+     */
+    void close();
+
+    /**
+     * Llamado al descartar la ejecución (retención): libera memoria o disco.
+     */
+    void discard();
+}
@@ -0,0 +1,287 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.tracing;
+
+import com.indra.minsait.dvsmart.indexing.infrastructure.config.BatchConfigProperties;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.JobExecutionNotTrackedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 11:50:03
+ * File: SpanTracer.java
+ */
+
+/**
+ * Trazas por directorio de las ejecuciones de job (spans list → process →
+ * write), sin colector externo.
+ * 
+ * El SpanTracingListener abre y cierra la traza de cada ejecución; los
+ * readers muestrean directorios (JobTrace.sampleDirectory) y el
+ * MetadataChunkItemWriter añade los spans de cada chunk. Los spans se
+ * exportan a un NDJSON por ejecución (batch.tracing.exporter=file) o se
+ * guardan en memoria (memory); el resumen por directorio (latencia de listado,
+ * procesamiento, escritura y espera) se calcula siempre en memoria.
+ * 
+ * De las ejecuciones terminadas se conservan las últimas
+ * batch.tracing.retained-executions (spans y resumen).
+ */
+@Slf4j
+@Component
+public class SpanTracer {
+
+    private static final String FILE_PREFIX = "trace-";
+    private static final String FILE_SUFFIX = ".ndjson";
+
+    private final BatchConfigProperties batchProps;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final ThreadPoolExecutor exportExecutor;
+    private final Map<Long, JobTrace> traces = new ConcurrentHashMap<>();
+    private final Deque<Long> finished = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Resumen de la traza de una ejecución.
+     * 
+     * @param phases              Suma de las fases de los directorios terminados
+     * @param slowestDirectories  Directorios terminados con más latencia total
+     */
+    public record TraceSummary(
+        long jobExecutionId,
+        String jobName,
+        String traceId,
+        String status,
+        Instant startTime,
+        Instant endTime,
+        double sampleRatio,
+        int sampledDirectories,
+        int completedDirectories,
+        int openDirectories,
+        long exportedSpans,
+        long droppedSpans,
+        String file,
+        PhaseTotals phases,
+        List<DirectoryLatency> slowestDirectories) {
+    }
+
+    /**
+     * Latencia de un directorio muestreado por fase (ms). process y write son
+     * la parte proporcional a sus archivos de cada chunk; wait es el resto
+     * del span (buffer del reader y cola del chunk).
+     */
+    public record DirectoryLatency(
+        String origin,
+        String directory,
+        int files,
+        int chunks,
+        String status,
+        double listMillis,
+        double processMillis,
+        double writeMillis,
+        double waitMillis,
+        double totalMillis) {
+    }
+
+    /**
+     * Contribución de cada fase a la latencia total de los directorios.
+     */
+    public record PhaseTotals(
+        double listMillis,
+        double processMillis,
+        double writeMillis,
+        double waitMillis,
+        double totalMillis) {
+    }
+
+    public SpanTracer(BatchConfigProperties batchProps) {
+        this.batchProps = batchProps;
+        this.exportExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, batchProps.getTracing().getExportQueueCapacity())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "span-exporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Abre la traza de una ejecución (null si el trazado está deshabilitado).
+     */
+    public JobTrace start(Long jobExecutionId, String jobName) {
+        BatchConfigProperties.Tracing config = batchProps.getTracing();
+        if (!config.isEnabled() || config.getSampleRatio() <= 0) {
+            return null;
+        }
+        return traces.computeIfAbsent(jobExecutionId, id -> {
+            JobTrace trace = new JobTrace(
+                id,
+                jobName,
+                Math.min(1.0, config.getSampleRatio()),
+                Math.max(0, config.getMaxDirectoriesPerExecution()),
+                createExporter(id));
+            log.info("🔭 Tracing job execution {} (trace {}, sample ratio {}, exporter {})",
+                     id, trace.getTraceId(), trace.getSampleRatio(), config.getExporter());
+            return trace;
+        });
+    }
+
+    public void finish(Long jobExecutionId, String status) {
+        JobTrace trace = traces.get(jobExecutionId);
+        if (trace == null) {
+            return;
+        }
+        trace.finish(status);
+        finished.add(jobExecutionId);
+        log.info("🔭 Trace of job execution {} closed: {} directories sampled, {} spans ({} dropped){}",
+                 jobExecutionId, trace.getSampledDirectories(), trace.getExportedSpans(), trace.getDroppedSpans(),
+                 trace.getExporter().location() != null ? " → " + trace.getExporter().location() : "");
+        
+        int retained = Math.max(0, batchProps.getTracing().getRetainedExecutions());
+        while (finished.size() > retained) {
+            Long evicted = finished.poll();
+            JobTrace evictedTrace = evicted != null ? traces.remove(evicted) : null;
+            if (evictedTrace != null) {
+                evictedTrace.getExporter().discard();
+            }
+        }
+    }
+
+    /**
+     * Traza de una ejecución en curso (null si no se traza).
+     */
+    public JobTrace forExecution(Long jobExecutionId) {
+        return jobExecutionId != null ? traces.get(jobExecutionId) : null;
+    }
+
+    /**
+     * Traza de la ejecución del step que corre en el hilo actual.
+     */
+    public JobTrace current() {
+        if (traces.isEmpty()) {
+            return null;
+        }
+        StepContext context = StepSynchronizationManager.getContext();
+        return context != null
+            ? forExecution(context.getStepExecution().getJobExecutionId())
+            : null;
+    }
+
+    public TraceSummary getSummary(Long jobExecutionId) {
+        return summarize(find(jobExecutionId), Math.max(0, batchProps.getTracing().getTopDirectories()));
+    }
+
+    public List<TraceSummary> list() {
+        return traces.values().stream()
+            .sorted(Comparator.comparingLong(JobTrace::getJobExecutionId).reversed())
+            .map(trace -> summarize(trace, 0))
+            .toList();
+    }
+
+    /**
+     * Spans de la ejecución en NDJSON.
+     */
+    public Resource getSpans(Long jobExecutionId) {
+        return find(jobExecutionId).getExporter().spans();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        exportExecutor.shutdown();
+        try {
+            exportExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JobTrace find(Long jobExecutionId) {
+        JobTrace trace = forExecution(jobExecutionId);
+        if (trace == null) {
+            throw new JobExecutionNotTrackedException(jobExecutionId);
+        }
+        return trace;
+    }
+
+    private SpanExporter createExporter(long jobExecutionId) {
+        BatchConfigProperties.Tracing config = batchProps.getTracing();
+        if (config.getExporter() == BatchConfigProperties.TraceExporter.FILE) {
+            try {
+                return new NdjsonFileSpanExporter(jsonMapper, exportExecutor,
+                    traceDirectory(config.getDirectory()).resolve(FILE_PREFIX + jobExecutionId + FILE_SUFFIX));
+            } catch (IOException e) {
+                log.warn("⚠️ Cannot create trace directory, keeping spans in memory: {}", e.getMessage());
+            }
+        }
+        return new InMemorySpanExporter(jsonMapper, config.getMaxSpansInMemory());
+    }
+
+    private static Path traceDirectory(String configured) throws IOException {
+        Path directory = configured == null || configured.isBlank()
+            ? Path.of(System.getProperty("java.io.tmpdir"), "dvsmart-traces")
+            : Path.of(configured);
+        return Files.createDirectories(directory);
+    }
+
+    private static TraceSummary summarize(JobTrace trace, int topDirectories) {
+        List<DirectoryLatency> directories = trace.getCompletedDirectories();
+        PhaseTotals phases = new PhaseTotals(
+            round(directories.stream().mapToDouble(DirectoryLatency::listMillis).sum()),
+            round(directories.stream().mapToDouble(DirectoryLatency::processMillis).sum()),
+            round(directories.stream().mapToDouble(DirectoryLatency::writeMillis).sum()),
+            round(directories.stream().mapToDouble(DirectoryLatency::waitMillis).sum()),
+            round(directories.stream().mapToDouble(DirectoryLatency::totalMillis).sum()));
+        
+        return new TraceSummary(
+            trace.getJobExecutionId(),
+            trace.getJobName(),
+            trace.getTraceId(),
+            trace.getStatus(),
+            trace.getStartTime(),
+            trace.getEndTime(),
+            trace.getSampleRatio(),
+            trace.getSampledDirectories(),
+            directories.size(),
+            trace.getOpenDirectories(),
+            trace.getExportedSpans(),
+            trace.getDroppedSpans(),
+            trace.getExporter().location(),
+            phases,
+            directories.stream()
+                .sorted(Comparator.comparingDouble(DirectoryLatency::totalMillis).reversed())
+                .limit(topDirectories)
+                .toList());
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import com.indra.minsait.dvsmart.indexing.infrastructure.hotspot.DirectoryHotspotTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 17:48:09
+ * File: ConcurrentDirectoryItemReaderTest.java
+ */
+class ConcurrentDirectoryItemReaderTest {
+
+    private final FileFilter filter = FileFilter.compile("test", new FileFilterRules(), Instant.now());
+    private final FileSourcePort source = mock(FileSourcePort.class);
+    private final DirectoryHotspotTracker hotspots = mock(DirectoryHotspotTracker.class);
+    private final ExecutionContext context = new ExecutionContext();
+    private ConcurrentDirectoryItemReader reader;
+
+    @BeforeEach
+    void createReader() throws IOException {
+        when(source.getOriginName()).thenReturn("test");
+        when(source.getBaseDirs()).thenReturn(List.of("/data"));
+        doAnswer(invocation -> {
+            DirectoryFrontier frontier = invocation.getArgument(2);
+            int root = frontier.addRoot("/data");
+            frontier.add(root, "a");
+            frontier.add(root, "b");
+            return null;
+        }).when(source).discoverDirectories(eq("/data"), any(), any());
+        when(source.listFiles(eq("/data"), any())).thenReturn(List.of());
+        when(source.listFiles(eq("/data/a"), any())).thenThrow(new IOException("Permission denied"));
+        when(source.listFiles(eq("/data/b"), any())).thenReturn(List.of(file("/data/b/doc.pdf")));
+
+        reader = new ConcurrentDirectoryItemReader(source, filter, new DirectoryWorkQueueRegistry(), 1L, 0,
+                null, null, null, null, hotspots);
+        reader.open(context);
+    }
+
+    @Test
+    void completesSkippedDirectoriesSoTheCheckpointAdvances() throws Exception {
+        assertThatThrownBy(reader::read).hasMessageContaining("/data/a");
+        verify(hotspots).recordListingFailure(eq("test"), eq("/data/a"), any());
+
+        // El step sigue leyendo: el listado fallido se ha saltado
+        assertThat(reader.read().getFullPath()).isEqualTo("/data/b/doc.pdf");
+        assertThat(reader.read()).isNull();
+        reader.update(context);
+
+        assertThat(context.getInt("completedDirectories")).isEqualTo(3);
+        assertThat(context.getString("discoveredDirectoriesDigest")).hasSize(64);
+    }
+
+    @Test
+    void keepsFailedDirectoryPendingWhenTheStepStops() {
+        assertThatThrownBy(reader::read).hasMessageContaining("/data/a");
+
+        // Sin skip el step no vuelve a leer: el update de cierre no lo da por completado
+        reader.update(context);
+
+        assertThat(context.getInt("completedDirectories")).isEqualTo(1);
+    }
+
+    private static SftpFileEntry file(String path) {
+        return SftpFileEntry.builder()
+                .origin("test")
+                .fullPath(path)
+                .filename(path.substring(path.lastIndexOf('/') + 1))
+                .build();
+    }
+}
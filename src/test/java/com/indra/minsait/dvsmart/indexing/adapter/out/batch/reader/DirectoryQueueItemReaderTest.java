@@ -0,0 +1,190 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryListing;
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.DirectoryListingExhaustedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 19:52:26
+ * File: DirectoryQueueItemReaderTest.java
+ */
+class DirectoryQueueItemReaderTest {
+
+    private final FileFilter filter = FileFilter.compile("test", new FileFilterRules(), Instant.now());
+    private final FileSourcePort source = mock(FileSourcePort.class);
+    private final ExecutionContext context = new ExecutionContext();
+
+    @TempDir
+    Path spillRoot;
+
+    @BeforeEach
+    void mockSource() throws IOException {
+        when(source.getOriginName()).thenReturn("test");
+        when(source.getBaseDirs()).thenReturn(List.of("/data"));
+        when(source.listDirectory(eq("/data"), any()))
+            .thenReturn(new DirectoryListing(List.of(), List.of("/data/a", "/data/b")));
+        when(source.listDirectory(eq("/data/b"), any()))
+            .thenReturn(new DirectoryListing(List.of(file("/data/b/doc.pdf")), List.of()));
+        when(source.listDirectory(eq("/data/a/x"), any()))
+            .thenReturn(new DirectoryListing(List.of(file("/data/a/x/doc.pdf")), List.of()));
+    }
+
+    @Test
+    void requeuesFailedListingsInsteadOfLosingTheSubtree() throws Exception {
+        when(source.listDirectory(eq("/data/a"), any()))
+            .thenThrow(new IOException("Connection reset"))
+            .thenReturn(new DirectoryListing(List.of(file("/data/a/doc.pdf")), List.of("/data/a/x")));
+
+        DirectoryQueueItemReader reader = reader();
+        reader.open(context);
+
+        assertThat(readAll(reader)).containsExactly("/data/b/doc.pdf", "/data/a/doc.pdf", "/data/a/x/doc.pdf");
+        reader.update(context);
+        reader.close();
+        assertThat(context.getLong("frontierCheckpointEntries")).isZero();
+    }
+
+    @Test
+    void failsAfterTheLastAttemptAndResumesFromTheCheckpoint() throws Exception {
+        when(source.listDirectory(eq("/data/a"), any()))
+            .thenThrow(new IOException("Permission denied"))
+            .thenThrow(new IOException("Permission denied"))
+            .thenThrow(new IOException("Permission denied"))
+            .thenReturn(new DirectoryListing(List.of(file("/data/a/doc.pdf")), List.of("/data/a/x")));
+
+        DirectoryQueueItemReader reader = reader();
+        reader.open(context);
+        assertThat(reader.read().getFullPath()).isEqualTo("/data/b/doc.pdf");
+        assertThatThrownBy(reader::read)
+            .isInstanceOf(DirectoryListingExhaustedException.class)
+            .hasMessageContaining("/data/a");
+
+        // El step falla: el update de cierre deja /data/a pendiente en el checkpoint
+        reader.update(context);
+        reader.close();
+        assertThat(context.getLong("frontierCheckpointEntries")).isEqualTo(1);
+
+        DirectoryQueueItemReader restarted = reader();
+        restarted.open(context);
+        assertThat(readAll(restarted)).containsExactly("/data/a/doc.pdf", "/data/a/x/doc.pdf");
+        restarted.close();
+        verify(source, times(1)).listDirectory(eq("/data"), any());
+        verify(source, times(1)).listDirectory(eq("/data/b"), any());
+    }
+
+    @Test
+    void resumesAPartiallyReadDirectoryWithoutQueueingItsSubdirectoriesTwice() throws Exception {
+        when(source.listDirectory(eq("/data/a"), any()))
+            .thenReturn(new DirectoryListing(List.of(file("/data/a/1.pdf"), file("/data/a/2.pdf")),
+                                             List.of("/data/a/x")));
+
+        DirectoryQueueItemReader reader = reader();
+        reader.open(context);
+        assertThat(reader.read().getFullPath()).isEqualTo("/data/a/1.pdf");
+
+        // Checkpoint con /data/a a medio leer: /data/a/x ya está en el log
+        reader.update(context);
+        reader.close();
+
+        DirectoryQueueItemReader restarted = reader();
+        restarted.open(context);
+        assertThat(readAll(restarted))
+            .containsExactly("/data/a/1.pdf", "/data/a/2.pdf", "/data/b/doc.pdf", "/data/a/x/doc.pdf");
+        restarted.update(context);
+        restarted.close();
+        verify(source, times(2)).listDirectory(eq("/data/a"), any());
+        verify(source, times(1)).listDirectory(eq("/data/a/x"), any());
+    }
+
+    @Test
+    void readsTheDiscoveredFrontierInMemoryMode() throws Exception {
+        mockDiscovery();
+
+        DirectoryQueueItemReader reader = new DirectoryQueueItemReader(source, filter);
+        reader.open(context);
+        assertThat(readAll(reader)).containsExactly("/data/a/doc.pdf", "/data/b/doc.pdf");
+        reader.close();
+    }
+
+    @Test
+    void prefetchesListingsInMemoryMode() throws Exception {
+        mockDiscovery();
+
+        DirectoryQueueItemReader reader = new DirectoryQueueItemReader(source, filter, 2, Runnable::run);
+        reader.open(context);
+        assertThat(readAll(reader)).containsExactly("/data/a/doc.pdf", "/data/b/doc.pdf");
+        reader.close();
+    }
+
+    private void mockDiscovery() throws IOException {
+        doAnswer(invocation -> {
+            DirectoryFrontier frontier = invocation.getArgument(2);
+            int root = frontier.addRoot("/data");
+            frontier.add(root, "a");
+            frontier.add(root, "b");
+            return null;
+        }).when(source).discoverDirectories(eq("/data"), any(), any());
+        when(source.listFiles(eq("/data"), any())).thenReturn(List.of());
+        when(source.listFiles(eq("/data/a"), any())).thenReturn(List.of(file("/data/a/doc.pdf")));
+        when(source.listFiles(eq("/data/b"), any())).thenReturn(List.of(file("/data/b/doc.pdf")));
+    }
+
+    private DirectoryQueueItemReader reader() {
+        return new DirectoryQueueItemReader(source, filter, 0, null,
+            checkpoint -> SpillingDirectoryQueue.create(spillRoot, "test", 2, 4096, 1, checkpoint), 3,
+            null, null, null, null, null);
+    }
+
+    private static List<String> readAll(DirectoryQueueItemReader reader) throws Exception {
+        List<String> paths = new ArrayList<>();
+        for (SftpFileEntry entry = reader.read(); entry != null; entry = reader.read()) {
+            paths.add(entry.getFullPath());
+        }
+        return paths;
+    }
+
+    private static SftpFileEntry file(String path) {
+        return SftpFileEntry.builder()
+                .origin("test")
+                .fullPath(path)
+                .filename(path.substring(path.lastIndexOf('/') + 1))
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 17:41:22
+ * File: DirectoryWorkQueueTest.java
+ */
+class DirectoryWorkQueueTest {
+
+    private final FileFilter filter = FileFilter.compile("test", new FileFilterRules(), Instant.now());
+
+    @Test
+    void resumesWhenTheTreeIsTheSame() {
+        DirectoryWorkQueue previous = discovered(0, 0, null, "a", "b", "c");
+
+        DirectoryWorkQueue restarted = discovered(2, previous.size(), previous.getOrderDigest(), "c", "b", "a");
+
+        // El orden canónico no depende del orden del listado
+        assertThat(restarted.getOrderDigest()).isEqualTo(previous.getOrderDigest());
+        assertThat(restarted.getCompletedPrefix()).isEqualTo(2);
+        assertThat(restarted.claim().directory()).isEqualTo("/data/b");
+    }
+
+    @Test
+    void restartsFromTheFirstDirectoryWhenADirectoryWasRenamed() {
+        DirectoryWorkQueue previous = discovered(0, 0, null, "a", "b", "c");
+
+        // Mismo número de directorios, otro árbol
+        DirectoryWorkQueue restarted = discovered(2, previous.size(), previous.getOrderDigest(), "a", "b", "d");
+
+        assertThat(restarted.getOrderDigest()).isNotEqualTo(previous.getOrderDigest());
+        assertThat(restarted.getCompletedPrefix()).isZero();
+        assertThat(restarted.claim().directory()).isEqualTo("/data");
+    }
+
+    @Test
+    void checksOnlyTheCountForCheckpointsWithoutDigest() {
+        DirectoryWorkQueue restarted = discovered(2, 4, null, "a", "b", "c");
+
+        assertThat(restarted.getCompletedPrefix()).isEqualTo(2);
+    }
+
+    @Test
+    void advancesTheLowWatermarkOverContiguousDirectories() {
+        DirectoryWorkQueue queue = discovered(0, 0, null, "a", "b", "c");
+
+        queue.complete(List.of(1, 2));
+        assertThat(queue.getCompletedPrefix()).isZero();
+
+        queue.complete(List.of(0));
+        assertThat(queue.getCompletedPrefix()).isEqualTo(3);
+    }
+
+    @Test
+    void doesNotLockTheQueueOnceDiscovered() throws Exception {
+        DirectoryWorkQueue queue = discovered(0, 0, null, "a", "b");
+        FileSourcePort source = mock(FileSourcePort.class);
+
+        // Con el monitor de la cola ocupado, read() no debe esperar al lock
+        CompletableFuture<Void> call;
+        synchronized (queue) {
+            call = CompletableFuture.runAsync(() -> queue.ensureDiscovered(source, filter, 0, 0, null));
+            call.get(5, TimeUnit.SECONDS);
+        }
+
+        verifyNoInteractions(source);
+        assertThat(queue.size()).isEqualTo(3);
+    }
+
+    private DirectoryWorkQueue discovered(int resumeFrom, int expectedDirectories, String expectedDigest,
+                                          String... children) {
+        FileSourcePort source = mock(FileSourcePort.class);
+        when(source.getBaseDirs()).thenReturn(List.of("/data"));
+        doAnswer(invocation -> {
+            DirectoryFrontier frontier = invocation.getArgument(2);
+            int root = frontier.addRoot("/data");
+            for (String child : children) {
+                frontier.add(root, child);
+            }
+            return null;
+        }).when(source).discoverDirectories(eq("/data"), any(), any());
+
+        DirectoryWorkQueue queue = new DirectoryWorkQueue("test");
+        queue.ensureDiscovered(source, filter, resumeFrom, expectedDirectories, expectedDigest);
+        return queue;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.IngestRun;
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.ingest.IngestRunRegistry;
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import tools.jackson.databind.json.JsonMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 17:12:48
+ * File: IngestStreamItemReaderTest.java
+ */
+class IngestStreamItemReaderTest {
+
+    private IngestRun run;
+    private IngestStreamItemReader reader;
+
+    @BeforeEach
+    void openReader() {
+        run = new IngestRun("run-1", "emea");
+        reader = new IngestStreamItemReader(
+            run,
+            FileFilter.compile("test", new FileFilterRules(), Instant.now()),
+            mock(IngestRunRegistry.class),
+            42L,
+            JsonMapper.builder().build(),
+            30_000);
+        reader.open(new ExecutionContext());
+    }
+
+    @Test
+    void answersBatchOnlyAfterItsLastChunkIsWritten() throws Exception {
+        CompletableFuture<IngestRun.BatchResult> done = submit(
+            record("/data/a/one.pdf"), record("/data/a/two.pdf"), record("/data/a/.hidden"));
+
+        SftpFileEntry first = reader.read();
+        assertThat(first.getFullPath()).isEqualTo("/data/a/one.pdf");
+        assertThat(reader.endsBatch()).isFalse();
+
+        // El registro oculto se descarta en la lectura adelantada: two.pdf cierra el lote
+        SftpFileEntry second = reader.read();
+        assertThat(second.getFullPath()).isEqualTo("/data/a/two.pdf");
+        assertThat(reader.endsBatch()).isTrue();
+        assertThat(done).isNotDone();
+
+        reader.afterChunk(new Chunk<>(first, second));
+
+        assertThat(done.get(5, TimeUnit.SECONDS)).isEqualTo(new IngestRun.BatchResult(3, 0));
+    }
+
+    @Test
+    void answersBatchWithoutIndexableRecordsImmediately() throws Exception {
+        CompletableFuture<IngestRun.BatchResult> empty = submit(record("/data/a/.hidden"));
+        CompletableFuture<SftpFileEntry> next = CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.read();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Ningún chunk va a contener registros de este lote: no espera a afterChunk
+        assertThat(empty.get(5, TimeUnit.SECONDS)).isEqualTo(new IngestRun.BatchResult(1, 0));
+
+        CompletableFuture<IngestRun.BatchResult> done = submit(record("/data/b/doc.pdf"));
+        SftpFileEntry entry = next.get(5, TimeUnit.SECONDS);
+        assertThat(entry.getFullPath()).isEqualTo("/data/b/doc.pdf");
+        assertThat(reader.endsBatch()).isTrue();
+
+        reader.afterChunk(new Chunk<>(entry));
+        assertThat(done.get(5, TimeUnit.SECONDS)).isEqualTo(new IngestRun.BatchResult(1, 0));
+    }
+
+    @Test
+    void failsBatchesWhoseChunkWasNotWrittenOnClose() throws Exception {
+        CompletableFuture<IngestRun.BatchResult> done = submit(record("/data/a/one.pdf"));
+
+        reader.read();
+        assertThat(reader.endsBatch()).isTrue();
+        reader.close();
+
+        assertThat(done).failsWithin(5, TimeUnit.SECONDS);
+    }
+
+    private CompletableFuture<IngestRun.BatchResult> submit(String... records) {
+        byte[] body = String.join("\n", records).getBytes(StandardCharsets.UTF_8);
+        return CompletableFuture.supplyAsync(() -> run.submit(new ByteArrayInputStream(body)));
+    }
+
+    private static String record(String path) {
+        return "{\"path\":\"" + path + "\",\"size\":10,\"mtime\":1760870400000}";
+    }
+}
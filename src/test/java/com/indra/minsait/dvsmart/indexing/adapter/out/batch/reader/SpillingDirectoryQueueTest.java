@@ -0,0 +1,143 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 19:41:03
+ * File: SpillingDirectoryQueueTest.java
+ */
+class SpillingDirectoryQueueTest {
+
+    // Registros de 10 bytes: 6 por segmento de 64 bytes
+    private static final int SEGMENT_BYTES = 64;
+
+    @TempDir
+    Path spillRoot;
+
+    @Test
+    void keepsFifoOrderAcrossSpillAndRecycle() {
+        List<String> polled = new ArrayList<>();
+        try (SpillingDirectoryQueue queue = SpillingDirectoryQueue.create(spillRoot, "test", 3, SEGMENT_BYTES, 1)) {
+            int next = 0;
+            for (int round = 0; round < 40; round++) {
+                for (int i = 0; i < 3; i++) {
+                    queue.offer(path(next++));
+                }
+                polled.add(queue.poll());
+                polled.add(queue.poll());
+                queue.commit(0);
+            }
+            while (!queue.isEmpty()) {
+                polled.add(queue.poll());
+                queue.commit(0);
+            }
+            assertThat(queue.poll()).isNull();
+
+            SpillingDirectoryQueue.SpillStats stats = queue.getStats();
+            assertThat(stats.spilledEntries()).isPositive();
+            assertThat(stats.segmentsRecycled()).isPositive();
+            assertThat(stats.diskEntries()).isZero();
+        }
+
+        assertThat(polled).isEqualTo(paths(0, 120));
+    }
+
+    @Test
+    void resumesExactlyThePendingPathsOfTheCheckpoint() {
+        SpillingDirectoryQueue queue = SpillingDirectoryQueue.create(spillRoot, "test", 4, SEGMENT_BYTES, 1);
+        paths(0, 60).forEach(queue::offer);
+        poll(queue, 20);
+        queue.commit(0);
+        poll(queue, 3);
+        // El último entregado (22) sigue pendiente
+        SpillingDirectoryQueue.Checkpoint checkpoint = queue.commit(1);
+        assertThat(checkpoint.entries()).isEqualTo(38);
+
+        // Después del checkpoint: se consumen segmentos y se escribe en los reciclados
+        poll(queue, 25);
+        paths(60, 90).forEach(queue::offer);
+        queue.release();
+
+        try (SpillingDirectoryQueue resumed =
+                 SpillingDirectoryQueue.create(spillRoot, "test", 4, SEGMENT_BYTES, 1, checkpoint)) {
+            assertThat(resumed.isResumed()).isTrue();
+            assertThat(resumed.size()).isEqualTo(38);
+            assertThat(poll(resumed, 38)).isEqualTo(paths(22, 60));
+            assertThat(resumed.isEmpty()).isTrue();
+
+            // La cola reanudada sigue funcionando (y admite otro checkpoint)
+            resumed.offer(path(999));
+            assertThat(resumed.commit(0).entries()).isEqualTo(1);
+            assertThat(resumed.poll()).isEqualTo(path(999));
+        }
+    }
+
+    @Test
+    void startsEmptyWhenTheCheckpointCannotBeResumed() {
+        SpillingDirectoryQueue queue = SpillingDirectoryQueue.create(spillRoot, "test", 4, SEGMENT_BYTES, 1);
+        paths(0, 20).forEach(queue::offer);
+        SpillingDirectoryQueue.Checkpoint checkpoint = queue.commit(0);
+        queue.close();
+
+        try (SpillingDirectoryQueue fresh =
+                 SpillingDirectoryQueue.create(spillRoot, "test", 4, SEGMENT_BYTES, 1, checkpoint)) {
+            assertThat(fresh.isResumed()).isFalse();
+            assertThat(fresh.isEmpty()).isTrue();
+        }
+    }
+
+    @Test
+    void sweepsReleasedDirectoriesThatAreNotResumed() throws Exception {
+        SpillingDirectoryQueue queue = SpillingDirectoryQueue.create(spillRoot, "test", 1, SEGMENT_BYTES, 1);
+        paths(0, 10).forEach(queue::offer);
+        Path released = Path.of(queue.commit(0).directory());
+        queue.release();
+        assertThat(released).isDirectory();
+
+        try (SpillingDirectoryQueue other = SpillingDirectoryQueue.create(spillRoot, "other", 1, SEGMENT_BYTES, 1)) {
+            assertThat(released).doesNotExist();
+            other.offer(path(0));
+        }
+        try (var remaining = Files.list(spillRoot)) {
+            assertThat(remaining).isEmpty();
+        }
+    }
+
+    private static List<String> poll(SpillingDirectoryQueue queue, int count) {
+        List<String> polled = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            polled.add(queue.poll());
+        }
+        return polled;
+    }
+
+    private static List<String> paths(int from, int to) {
+        return IntStream.range(from, to).mapToObj(SpillingDirectoryQueueTest::path).toList();
+    }
+
+    private static String path(int index) {
+        return String.format("/d/%03d", index);
+    }
+}
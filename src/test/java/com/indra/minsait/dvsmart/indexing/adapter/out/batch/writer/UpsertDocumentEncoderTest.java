@@ -0,0 +1,112 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.batch.writer;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 21:11:02
+ * File: UpsertDocumentEncoderTest.java
+ */
+class UpsertDocumentEncoderTest {
+
+    private final UpsertDocumentEncoder encoder = new UpsertDocumentEncoder();
+
+    @Test
+    void encodesTheSameUpsertAsTheDocumentModel() {
+        ArchivoMetadata metadata = ArchivoMetadata.builder()
+                .idUnico("5f2b")
+                .sourceOrigin("emea")
+                .sourcePath("/data/clientes/C1/facturas/2024/FAC_1.pdf")
+                .fileName("FAC_1.pdf")
+                .extension("pdf")
+                .fileSize(1024L)
+                .lastModificationDate(Instant.ofEpochMilli(1_700_000_000_000L))
+                .indexing_status("COMPLETED")
+                .indexing_indexedAt(Instant.ofEpochMilli(1_700_000_500_000L))
+                .business_tipoDocumento("FACTURA")
+                .business_anio(2024)
+                .build();
+
+        BsonDocument set = new BsonDocument()
+                .append("sourceOrigin", new BsonString("emea"))
+                .append("sourcePath", new BsonString("/data/clientes/C1/facturas/2024/FAC_1.pdf"))
+                .append("fileName", new BsonString("FAC_1.pdf"))
+                .append("extension", new BsonString("pdf"))
+                .append("fileSize", new BsonInt64(1024))
+                .append("lastModificationDate", new BsonDateTime(1_700_000_000_000L))
+                .append("indexing_status", new BsonString("COMPLETED"))
+                .append("indexing_indexedAt", new BsonDateTime(1_700_000_500_000L))
+                .append("indexing_errorDescription", BsonNull.VALUE)
+                .append("reorg_status", new BsonString("PENDING"))
+                .append("reorg_attempts", new BsonInt32(0))
+                .append("business_tipoDocumento", new BsonString("FACTURA"))
+                .append("business_anio", new BsonInt32(2024));
+
+        BsonDocument unset = new BsonDocument()
+                .append("business_codigoCliente", new BsonString(""))
+                .append("business_mes", new BsonString(""));
+
+        assertThat(encoder.filter("5f2b")).isEqualTo(new BsonDocument("idUnico", new BsonString("5f2b")));
+        assertThat(encoder.update(metadata)).isEqualTo(new BsonDocument("$set", set)
+                .append("$unset", unset)
+                .append("$setOnInsert", new BsonDocument("idUnico", new BsonString("5f2b"))));
+    }
+
+    @Test
+    void omitsTheUnsetWhenEveryBusinessFieldIsExtracted() {
+        ArchivoMetadata metadata = ArchivoMetadata.builder()
+                .idUnico("c3")
+                .business_tipoDocumento("FACTURA")
+                .business_codigoCliente("12345")
+                .business_anio(2024)
+                .business_mes(3)
+                .build();
+
+        BsonDocument update = encoder.update(metadata);
+
+        assertThat(update.keySet()).containsExactly("$set", "$setOnInsert");
+        assertThat(update.getDocument("$set").getInt32("business_mes").getValue()).isEqualTo(3);
+    }
+
+    @Test
+    void reusesTheBufferAcrossDocuments() {
+        ArchivoMetadata failed = ArchivoMetadata.builder()
+                .idUnico("a1")
+                .sourcePath("/data/ñandú/informe.pdf")
+                .indexing_status("FAILED")
+                .indexing_errorDescription("Permission denied")
+                .build();
+
+        BsonDocument first = encoder.update(failed);
+        encoder.update(ArchivoMetadata.builder().idUnico("b2").build());
+        BsonDocument set = first.getDocument("$set");
+
+        assertThat(set.getString("sourcePath").getValue()).isEqualTo("/data/ñandú/informe.pdf");
+        assertThat(set.getString("reorg_status").getValue()).isEqualTo("SKIPPED");
+        assertThat(set.get("fileSize")).isEqualTo(BsonNull.VALUE);
+        assertThat(first.getDocument("$setOnInsert").getString("idUnico").getValue()).isEqualTo("a1");
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.source;
+
+import com.indra.minsait.dvsmart.indexing.benchmark.Benchmark;
+import com.indra.minsait.dvsmart.indexing.benchmark.BenchmarkHarness;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 16:52:19
+ * File: LocalCrawlBenchmarkTest.java
+ */
+
+/**
+ * Crawl local/NFS (discovery + listado de todos los directorios) sobre un
+ * árbol sintético.
+ * 
+ *   mvn test -Dbenchmarks=true -Dtest=LocalCrawlBenchmarkTest
+ *   (-Dbenchmark.directories=2000 -Dbenchmark.filesPerDirectory=50)
+ * 
+ * Para medir un montaje NFS real: -Dbenchmark.localRoot=/mnt/origen
+ * (-Dbenchmark.baseDir=/data), sin generar árbol.
+ */
+@Slf4j
+@Benchmark
+class LocalCrawlBenchmarkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void crawlRate() throws Exception {
+        String externalRoot = System.getProperty("benchmark.localRoot");
+        Path root = externalRoot != null ? Path.of(externalRoot) : tempDir;
+        String baseDir = System.getProperty("benchmark.baseDir", "/data");
+        long expectedFiles = externalRoot != null ? -1 : createTree(root.resolve(baseDir.substring(1)),
+                Integer.getInteger("benchmark.directories", 2000),
+                Integer.getInteger("benchmark.filesPerDirectory", 50));
+
+        FileFilter filter = FileFilter.compile("benchmark", new FileFilterRules(), Instant.now());
+        LocalFileSourceAdapter adapter = new LocalFileSourceAdapter("benchmark", root, List.of(baseDir), 0);
+        try {
+            DirectoryFrontier frontier = new DirectoryFrontier();
+            BenchmarkHarness.Measurement discovery =
+                BenchmarkHarness.once(() -> adapter.discoverDirectories(baseDir, filter, frontier));
+
+            long[] files = new long[1];
+            BenchmarkHarness.Measurement listing = BenchmarkHarness.once(() -> {
+                for (int node = 0; node < frontier.size(); node++) {
+                    files[0] += adapter.listFiles(frontier.path(node), filter).size();
+                }
+            });
+
+            log.info("📊 Local crawl: {} directories discovered in {} s ({} dirs/s)",
+                     frontier.size(), String.format("%.2f", discovery.seconds()),
+                     String.format("%.0f", discovery.perSecond(frontier.size())));
+            log.info("📊 Local crawl: {} files listed in {} s ({} files/s)",
+                     files[0], String.format("%.2f", listing.seconds()),
+                     String.format("%.0f", listing.perSecond(files[0])));
+
+            if (expectedFiles >= 0) {
+                assertThat(files[0]).isEqualTo(expectedFiles);
+            }
+        } finally {
+            adapter.shutdown();
+        }
+    }
+
+    /**
+     * Árbol de dos niveles: directories/50 directorios con 50 subdirectorios cada uno.
+     */
+    private static long createTree(Path base, int directories, int filesPerDirectory) throws IOException {
+        long files = 0;
+        for (int i = 0; i < directories; i++) {
+            Path directory = base.resolve("group-" + (i / 50)).resolve("dir-" + i);
+            Files.createDirectories(directory);
+            for (int f = 0; f < filesPerDirectory; f++) {
+                Files.write(directory.resolve("file-" + f + ".pdf"), new byte[0]);
+                files++;
+            }
+        }
+        return files;
+    }
+}
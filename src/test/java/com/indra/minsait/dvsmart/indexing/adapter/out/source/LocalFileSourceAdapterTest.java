@@ -0,0 +1,149 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.adapter.out.source;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryListing;
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.domain.service.FileFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 16:41:05
+ * File: LocalFileSourceAdapterTest.java
+ */
+class LocalFileSourceAdapterTest {
+
+    @TempDir
+    Path root;
+
+    private LocalFileSourceAdapter adapter;
+    private final FileFilter acceptAll = FileFilter.compile("test", new FileFilterRules(), Instant.now());
+
+    @BeforeEach
+    void createTree() throws IOException {
+        Files.createDirectories(root.resolve("data/a/b"));
+        Files.createDirectories(root.resolve("data/tmp-cache"));
+        Files.writeString(root.resolve("data/a/report.pdf"), "12345");
+        Files.writeString(root.resolve("data/a/b/deep.txt"), "x");
+        Files.writeString(root.resolve("data/a/.hidden"), "x");
+        Files.setLastModifiedTime(root.resolve("data/a/report.pdf"),
+                FileTime.from(Instant.ofEpochMilli(1_700_000_000_987L)));
+        adapter = new LocalFileSourceAdapter("local", root, List.of("/data"), 2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        adapter.shutdown();
+    }
+
+    @Test
+    void listsWithLogicalPathsAndSecondPrecision() throws IOException {
+        DirectoryListing listing = adapter.listDirectory("/data/a", acceptAll);
+
+        assertThat(listing.subdirectories()).containsExactly("/data/a/b");
+        assertThat(listing.files()).singleElement().satisfies(file -> {
+            assertThat(file.getOrigin()).isEqualTo("local");
+            assertThat(file.getFullPath()).isEqualTo("/data/a/report.pdf");
+            assertThat(file.getFilename()).isEqualTo("report.pdf");
+            assertThat(file.getSize()).isEqualTo(5);
+            // Como SFTP v3: segundos
+            assertThat(file.getModificationTime()).isEqualTo(1_700_000_000_000L);
+        });
+    }
+
+    @Test
+    void skipsSymlinkedDirectoriesInsteadOfListingThemAsFiles() throws IOException {
+        Files.createSymbolicLink(root.resolve("data/a/link"), root.resolve("data/a/b"));
+        Files.createSymbolicLink(root.resolve("data/a/report-link.pdf"), root.resolve("data/a/report.pdf"));
+
+        DirectoryListing listing = adapter.listDirectory("/data/a", acceptAll);
+        DirectoryFrontier frontier = new DirectoryFrontier();
+        adapter.discoverDirectories("/data", acceptAll, frontier);
+
+        assertThat(listing.subdirectories()).containsExactly("/data/a/b");
+        // El enlace a directorio no se sigue ni se emite como archivo; el enlace a archivo sí se indexa
+        assertThat(listing.files()).extracting(SftpFileEntry::getFilename)
+                .containsExactlyInAnyOrder("report.pdf", "report-link.pdf");
+        assertThat(frontier.size()).isEqualTo(4);
+    }
+
+    @Test
+    void followsASymlinkedBaseDirectory() throws IOException {
+        Files.createSymbolicLink(root.resolve("mirror"), root.resolve("data"));
+        LocalFileSourceAdapter mirrored = new LocalFileSourceAdapter("local", root, List.of("/mirror"), 2);
+        try {
+            DirectoryFrontier frontier = new DirectoryFrontier();
+            mirrored.discoverDirectories("/mirror", acceptAll, frontier);
+            DirectoryListing listing = mirrored.listDirectory("/mirror", acceptAll);
+
+            List<String> paths = new ArrayList<>();
+            for (int node : frontier.canonicalOrder()) {
+                paths.add(frontier.path(node));
+            }
+            assertThat(paths).containsExactly("/mirror", "/mirror/a", "/mirror/a/b", "/mirror/tmp-cache");
+            assertThat(listing.files()).isEmpty();
+            assertThat(listing.subdirectories()).containsExactlyInAnyOrder("/mirror/a", "/mirror/tmp-cache");
+            assertThat(mirrored.listFiles("/mirror/a", acceptAll)).extracting(SftpFileEntry::getFullPath)
+                    .containsExactly("/mirror/a/report.pdf");
+        } finally {
+            mirrored.shutdown();
+        }
+    }
+
+    @Test
+    void discoversTreeAndPrunesExcludedDirectories() {
+        FileFilterRules rules = new FileFilterRules();
+        rules.setExcludeDirectories(List.of("tmp-*"));
+        FileFilter filter = FileFilter.compile("test", rules, Instant.now());
+        DirectoryFrontier frontier = new DirectoryFrontier();
+
+        adapter.discoverDirectories("/data", filter, frontier);
+
+        List<String> paths = new ArrayList<>();
+        for (int node : frontier.canonicalOrder()) {
+            paths.add(frontier.path(node));
+        }
+        assertThat(paths).containsExactly("/data", "/data/a", "/data/a/b");
+    }
+
+    @Test
+    void failsWhenBaseDirectoryIsMissing() {
+        assertThatThrownBy(() -> adapter.discoverDirectories("/missing", acceptAll, new DirectoryFrontier()))
+                .hasMessageContaining("not found");
+        assertThatThrownBy(() -> adapter.listFiles("/missing", acceptAll)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void appliesFileRulesWhileListing() throws IOException {
+        List<SftpFileEntry> files = adapter.listFiles("/data/a", acceptAll);
+
+        assertThat(files).extracting(SftpFileEntry::getFilename).containsExactly("report.pdf");
+    }
+}
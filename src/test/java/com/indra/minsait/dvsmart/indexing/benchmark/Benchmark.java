@@ -0,0 +1,43 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 22:04:51
+ * File: Benchmark.java
+ */
+
+/**
+ * Marca una clase de benchmark: lleva el tag "benchmark" y solo se ejecuta
+ * con -Dbenchmarks=true, de modo que mvn test no la lanza por defecto:
+ * 
+ *   mvn test -Dbenchmarks=true -Dtest='*BenchmarkTest'
+ * 
+ * Las cifras se informan en el log con el prefijo 📊; los parámetros se leen
+ * de propiedades de sistema benchmark.* documentadas en cada clase.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public @interface Benchmark {
+}
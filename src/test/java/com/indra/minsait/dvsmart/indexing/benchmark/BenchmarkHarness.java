@@ -0,0 +1,139 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.benchmark;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 22:11:36
+ * File: BenchmarkHarness.java
+ */
+
+/**
+ * Arnés común de los benchmarks (@Benchmark): rondas con calentamiento,
+ * medida de tiempo y de bytes asignados por el hilo
+ * (com.sun.management.ThreadMXBean) y datos sintéticos.
+ */
+public final class BenchmarkHarness {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static {
+        if (THREADS.isThreadAllocatedMemorySupported()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    private BenchmarkHarness() {
+    }
+
+    /**
+     * Tiempo y bytes asignados por el hilo en una ejecución.
+     */
+    public record Measurement(long nanos, long allocatedBytes) {
+
+        public double seconds() {
+            return nanos / 1e9;
+        }
+
+        public double perSecond(long items) {
+            return items / seconds();
+        }
+
+        public long nanosPer(long items) {
+            return nanos / items;
+        }
+
+        public long bytesPer(long items) {
+            return allocatedBytes / items;
+        }
+    }
+
+    /**
+     * Tarea medida una sola vez, que puede lanzar excepciones comprobadas.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    public static boolean allocationSupported() {
+        return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Una ronda de calentamiento y rounds rondas medidas: devuelve el mínimo
+     * de tiempo y el de bytes asignados entre las medidas. Cada ronda debe
+     * devolver un resultado no nulo, para que el JIT no descarte el trabajo.
+     */
+    public static Measurement bestOf(int rounds, Supplier<?> round) {
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int i = 0; i <= rounds; i++) {
+            long bytes = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            Object result = round.get();
+            long nanos = System.nanoTime() - start;
+            bytes = THREADS.getCurrentThreadAllocatedBytes() - bytes;
+            Objects.requireNonNull(result, "benchmark round returned null");
+            if (i > 0) {
+                bestNanos = Math.min(bestNanos, nanos);
+                bestBytes = Math.min(bestBytes, bytes);
+            }
+        }
+        return new Measurement(bestNanos, bestBytes);
+    }
+
+    /**
+     * Una sola ejecución, sin calentamiento: para operaciones largas o con
+     * estado (un discovery o un crawl completos).
+     */
+    public static Measurement once(Task task) throws Exception {
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        task.run();
+        long nanos = System.nanoTime() - start;
+        return new Measurement(nanos, THREADS.getCurrentThreadAllocatedBytes() - bytes);
+    }
+
+    /**
+     * Archivos sintéticos agrupados en directorios de filesPerDirectory, con
+     * el directorio compartido como en los listados reales:
+     * /disorganized_data/FACTURA/&lt;n&gt;/2024/FAC_&lt;i&gt;_202403&lt;dd&gt;.pdf
+     */
+    public static List<SftpFileEntry> entries(int files, int filesPerDirectory) {
+        List<SftpFileEntry> entries = new ArrayList<>(files);
+        String directory = null;
+        for (int i = 0; i < files; i++) {
+            if (i % filesPerDirectory == 0) {
+                directory = "/disorganized_data/FACTURA/" + (i / filesPerDirectory) + "/2024";
+            }
+            entries.add(SftpFileEntry.builder()
+                    .origin("emea")
+                    .parentDirectory(directory)
+                    .filename("FAC_" + i + "_202403" + String.format("%02d", i % 28 + 1) + ".pdf")
+                    .size(1024 + i)
+                    .modificationTime(1_700_000_000_000L + i)
+                    .build());
+        }
+        return entries;
+    }
+}
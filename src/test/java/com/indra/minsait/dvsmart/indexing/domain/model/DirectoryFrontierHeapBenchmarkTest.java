@@ -0,0 +1,96 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import com.indra.minsait.dvsmart.indexing.benchmark.Benchmark;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 19:03:58
+ * File: DirectoryFrontierHeapBenchmarkTest.java
+ */
+
+/**
+ * Memoria retenida por la frontera de discovery: DirectoryFrontier con benchmark.directories directorios (árbol completo
+ * de aridad benchmark.fanout bajo /data/clientes) frente a una
+ * ConcurrentLinkedQueue&lt;String&gt; de paths absolutos, medida sobre una
+ * muestra y extrapolada. Heap usado tras GC (MemoryMXBean). Con aridad 4 el
+ * árbol tiene 12 niveles y los paths ~190 caracteres, como los árboles de
+ * expedientes reales; la cola de Strings debe ocupar al menos 10 veces más.
+ * Con 5M directorios conviene -Xmx2g.
+ * 
+ *   mvn test -Dbenchmarks=true -Dtest=DirectoryFrontierHeapBenchmarkTest
+ *   (-Dbenchmark.directories=5000000 -Dbenchmark.fanout=4 -Dbenchmark.stringSample=500000)
+ */
+@Slf4j
+@Benchmark
+class DirectoryFrontierHeapBenchmarkTest {
+
+    private final int directories = Integer.getInteger("benchmark.directories", 5_000_000);
+    private final int fanout = Integer.getInteger("benchmark.fanout", 4);
+    private final int stringSample = Integer.getInteger("benchmark.stringSample", 500_000);
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    void retainedHeapPerDirectory() {
+        long baseline = usedHeapAfterGc();
+        DirectoryFrontier frontier = new DirectoryFrontier();
+        frontier.addRoot("/data/clientes");
+        for (int i = 1; i < directories; i++) {
+            frontier.add((i - 1) / fanout, "expediente-" + String.format("%04d", (i - 1) % fanout));
+        }
+        long frontierBytes = usedHeapAfterGc() - baseline;
+        assertThat(frontier.size()).isEqualTo(directories);
+
+        int sample = Math.min(stringSample, directories);
+        long averagePath = 0;
+        long beforeStrings = usedHeapAfterGc();
+        Queue<String> paths = new ConcurrentLinkedQueue<>();
+        for (int i = directories - sample; i < directories; i++) {
+            String path = frontier.path(i);
+            averagePath += path.length();
+            paths.add(path);
+        }
+        long stringBytes = usedHeapAfterGc() - beforeStrings;
+        assertThat(paths).hasSize(sample);
+
+        double frontierPerDirectory = (double) frontierBytes / directories;
+        double stringPerDirectory = (double) stringBytes / sample;
+        log.info("📊 Frontier: {} directories, retained={} MB ({} bytes/dir), footprintBytes={} MB",
+                 directories, frontierBytes >> 20, String.format("%.1f", frontierPerDirectory),
+                 frontier.footprintBytes() >> 20);
+        log.info("📊 Queue<String>: sample={} (avg path {} chars), {} bytes/dir, extrapolated {} MB for {} directories",
+                 sample, averagePath / sample, String.format("%.1f", stringPerDirectory),
+                 (long) (stringPerDirectory * directories) >> 20, directories);
+        log.info("📊 Ratio String queue / frontier: {}x",
+                 String.format("%.1f", stringPerDirectory / frontierPerDirectory));
+        assertThat(stringPerDirectory / frontierPerDirectory).isGreaterThanOrEqualTo(10);
+    }
+
+    private long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.model;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 18:52:36
+ * File: DirectoryFrontierTest.java
+ */
+class DirectoryFrontierTest {
+
+    @Test
+    void materializesAbsolutePaths() {
+        DirectoryFrontier frontier = new DirectoryFrontier();
+        int data = frontier.addRoot("/data/clientes");
+        int year = frontier.add(data, "2024");
+        int month = frontier.add(year, "enero ñ");
+        int root = frontier.addRoot("/");
+        int tmp = frontier.add(root, "tmp");
+
+        assertThat(frontier.path(data)).isEqualTo("/data/clientes");
+        assertThat(frontier.path(month)).isEqualTo("/data/clientes/2024/enero ñ");
+        assertThat(frontier.path(root)).isEqualTo("/");
+        assertThat(frontier.path(tmp)).isEqualTo("/tmp");
+        assertThat(frontier.size()).isEqualTo(5);
+    }
+
+    @Test
+    void rejectsUnknownParentsAndOversizedNames() {
+        DirectoryFrontier frontier = new DirectoryFrontier();
+        assertThat(frontier.isEmpty()).isTrue();
+        int root = frontier.addRoot("/data");
+
+        assertThatThrownBy(() -> frontier.add(1, "a")).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> frontier.path(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> frontier.add(root, "x".repeat(70_000)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void canonicalOrderDoesNotDependOnInsertionOrder() {
+        List<String[]> tree = tree();
+        List<String> expected = null;
+
+        for (long seed = 1; seed <= 5; seed++) {
+            List<String> order = canonicalPaths(insertInRandomOrder(tree, new Random(seed)));
+            if (expected == null) {
+                expected = order;
+            }
+            assertThat(order).isEqualTo(expected);
+        }
+
+        // Preorden con hijos por bytes UTF-8: "Z" < "a" < "ñ"
+        assertThat(expected).containsExactly(
+            "/data",
+            "/data/Z",
+            "/data/a",
+            "/data/a/1",
+            "/data/a/1/x",
+            "/data/a/2",
+            "/data/ab",
+            "/data/ñ",
+            "/data/ñ/b",
+            "/extra",
+            "/extra/c");
+    }
+
+    @Test
+    void footprintStaysCompactAtScale() {
+        DirectoryFrontier frontier = new DirectoryFrontier();
+        frontier.addRoot("/data/clientes");
+        int directories = 300_000;
+        long nameBytes = 0;
+        for (int i = 1; i < directories; i++) {
+            String name = "expediente-" + (i % 10_000);
+            nameBytes += name.length();
+            frontier.add((i - 1) / 10, name);
+        }
+
+        long footprint = frontier.footprintBytes();
+        // 8 bytes de índices + 2 de longitud + nombre; las páginas solo dejan libre la última
+        assertThat(footprint).isGreaterThanOrEqualTo(8L * directories + nameBytes);
+        assertThat(footprint / directories).isLessThan(28);
+        assertThat(frontier.path(directories - 1)).startsWith("/data/clientes/expediente-");
+        assertThat(frontier.canonicalOrder()).hasSize(directories);
+    }
+
+    /**
+     * Árbol de prueba como pares {path del padre, nombre}; las raíces llevan padre null.
+     */
+    private List<String[]> tree() {
+        return List.of(
+            new String[] {null, "/data"},
+            new String[] {null, "/extra"},
+            new String[] {"/data", "a"},
+            new String[] {"/data", "ñ"},
+            new String[] {"/data", "Z"},
+            new String[] {"/data", "ab"},
+            new String[] {"/data/a", "2"},
+            new String[] {"/data/a", "1"},
+            new String[] {"/data/a/1", "x"},
+            new String[] {"/data/ñ", "b"},
+            new String[] {"/extra", "c"});
+    }
+
+    /**
+     * Inserta los nodos en un orden aleatorio que respeta padre antes que
+     * hijo (como el discovery concurrente); las raíces mantienen su orden.
+     */
+    private DirectoryFrontier insertInRandomOrder(List<String[]> tree, Random random) {
+        DirectoryFrontier frontier = new DirectoryFrontier();
+        List<String> indexed = new ArrayList<>();
+        List<String[]> pending = new ArrayList<>(tree);
+        for (String[] node : tree) {
+            if (node[0] == null) {
+                frontier.addRoot(node[1]);
+                indexed.add(node[1]);
+                pending.remove(node);
+            }
+        }
+        while (!pending.isEmpty()) {
+            List<String[]> ready = new ArrayList<>(pending.stream().filter(node -> indexed.contains(node[0])).toList());
+            Collections.shuffle(ready, random);
+            String[] node = ready.get(0);
+            frontier.add(indexed.indexOf(node[0]), node[1]);
+            indexed.add(node[0] + "/" + node[1]);
+            pending.remove(node);
+        }
+        return frontier;
+    }
+
+    private List<String> canonicalPaths(DirectoryFrontier frontier) {
+        return Arrays.stream(frontier.canonicalOrder()).mapToObj(frontier::path).toList();
+    }
+}
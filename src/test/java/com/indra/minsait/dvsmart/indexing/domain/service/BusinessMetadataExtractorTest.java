@@ -0,0 +1,125 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadata;
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadataRules;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 18:33:52
+ * File: BusinessMetadataExtractorTest.java
+ */
+class BusinessMetadataExtractorTest {
+
+    private static final String DIRECTORY_RULE =
+        "^/disorganized_data/(?<tipoDocumento>[A-Z]+)/(?<codigoCliente>\\d+)/(?<anio>\\d{4})/(?<mes>\\d{2})(/|$)";
+    private static final String FILE_RULE = "_(?<anio>\\d{4})(?<mes>\\d{2})\\d{2}\\.";
+
+    @Test
+    void directoryRulesProvideAllFieldsForEveryFile() {
+        BusinessMetadataExtractor extractor = extractor(List.of(DIRECTORY_RULE), List.of(FILE_RULE));
+
+        BusinessMetadata directory = extractor.forDirectory("/disorganized_data/FACTURA/12345/2024/03");
+
+        assertThat(directory).isEqualTo(new BusinessMetadata("FACTURA", "12345", 2024, 3));
+        // Completa: las reglas de archivo no se evalúan
+        assertThat(extractor.forFile(directory, "scan_20230115.pdf")).isSameAs(directory);
+    }
+
+    @Test
+    void fileRulesOnlyFillFieldsTheDirectoryDidNotProvide() {
+        BusinessMetadataExtractor extractor = extractor(
+            List.of("^/clientes/(?<codigoCliente>\\d+)/(?<anio>\\d{4})"), List.of(FILE_RULE));
+
+        BusinessMetadata directory = extractor.forDirectory("/clientes/777/2024");
+        BusinessMetadata file = extractor.forFile(directory, "scan_20230115.pdf");
+
+        assertThat(file).isEqualTo(new BusinessMetadata(null, "777", 2024, 1));
+    }
+
+    @Test
+    void firstRuleThatProvidesAFieldWins() {
+        BusinessMetadataExtractor extractor = extractor(List.of(
+            "/(?<tipoDocumento>FACTURA|CONTRATO)/",
+            "/(?<tipoDocumento>[A-Z]+)/(?<codigoCliente>\\d+)"), List.of());
+
+        BusinessMetadata metadata = extractor.forDirectory("/data/FACTURA/OTRO/999");
+
+        assertThat(metadata.tipoDocumento()).isEqualTo("FACTURA");
+        assertThat(metadata.codigoCliente()).isEqualTo("999");
+    }
+
+    @Test
+    void discardsYearsAndMonthsOutOfRange() {
+        BusinessMetadataExtractor extractor = extractor(
+            List.of("/(?<anio>\\d{4,5})/(?<mes>\\d{2})$"), List.of());
+
+        assertThat(extractor.forDirectory("/data/2024/13")).isEqualTo(new BusinessMetadata(null, null, 2024, null));
+        assertThat(extractor.forDirectory("/data/0000/00")).isEqualTo(BusinessMetadata.EMPTY);
+        assertThat(extractor.forDirectory("/data/10000/12")).isEqualTo(new BusinessMetadata(null, null, null, 12));
+    }
+
+    @Test
+    void withoutRulesReturnsEmptyMetadata() {
+        BusinessMetadataExtractor extractor = extractor(List.of(), List.of());
+
+        assertThat(extractor.isEnabled()).isFalse();
+        assertThat(extractor.forFile(extractor.forDirectory("/data/FACTURA"), "a.pdf"))
+                .isSameAs(BusinessMetadata.EMPTY);
+    }
+
+    @Test
+    void evictsOnlyTheLeastRecentlyUsedDirectoryWhenTheCacheIsFull() {
+        BusinessMetadataRules rules = rules(List.of(DIRECTORY_RULE), List.of());
+        rules.setDirectoryCacheSize(2);
+        BusinessMetadataExtractor extractor = new BusinessMetadataExtractor(rules);
+
+        BusinessMetadata first = extractor.forDirectory("/disorganized_data/FACTURA/1/2024/01");
+        BusinessMetadata second = extractor.forDirectory("/disorganized_data/FACTURA/2/2024/01");
+        assertThat(extractor.forDirectory("/disorganized_data/FACTURA/1/2024/01")).isSameAs(first);
+
+        // Lleno: sale el segundo (el usado hace más tiempo), no toda la caché
+        extractor.forDirectory("/disorganized_data/FACTURA/3/2024/01");
+        assertThat(extractor.forDirectory("/disorganized_data/FACTURA/1/2024/01")).isSameAs(first);
+        assertThat(extractor.forDirectory("/disorganized_data/FACTURA/2/2024/01"))
+                .isEqualTo(second).isNotSameAs(second);
+    }
+
+    @Test
+    void rejectsPatternsWithoutNamedGroupsOrInvalidSyntax() {
+        assertThatThrownBy(() -> extractor(List.of("^/data/(\\d+)"), List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("without named groups");
+        assertThatThrownBy(() -> extractor(List.of(), List.of("(?<anio>\\d{4}")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid business metadata pattern");
+    }
+
+    private static BusinessMetadataExtractor extractor(List<String> directoryPatterns, List<String> filePatterns) {
+        return new BusinessMetadataExtractor(rules(directoryPatterns, filePatterns));
+    }
+
+    private static BusinessMetadataRules rules(List<String> directoryPatterns, List<String> filePatterns) {
+        BusinessMetadataRules rules = new BusinessMetadataRules();
+        rules.setDirectoryPatterns(directoryPatterns);
+        rules.setFilePatterns(filePatterns);
+        return rules;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.benchmark.Benchmark;
+import com.indra.minsait.dvsmart.indexing.benchmark.BenchmarkHarness;
+import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadataRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.IdUnicoRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 18:41:17
+ * File: BusinessRulesBenchmarkTest.java
+ */
+
+/**
+ * Coste de las reglas de metadata de negocio en la conversión por chunk: sin
+ * reglas, con reglas y archivos agrupados por directorio (caso real: una
+ * extracción por directorio) y con reglas y un directorio por archivo (peor
+ * caso).
+ * 
+ *   mvn test -Dbenchmarks=true -Dtest=BusinessRulesBenchmarkTest
+ *   (-Dbenchmark.files=200000 -Dbenchmark.filesPerDirectory=100 -Dbenchmark.rounds=5)
+ */
+@Slf4j
+@Benchmark
+class BusinessRulesBenchmarkTest {
+
+    private static final String DIRECTORY_RULE =
+        "^/disorganized_data/(?<tipoDocumento>[A-Z]+)/(?<codigoCliente>\\d+)/(?<anio>\\d{4})(/|$)";
+    private static final String FILE_RULE = "_(?<anio>\\d{4})(?<mes>\\d{2})\\d{2}\\.";
+
+    private final int files = Integer.getInteger("benchmark.files", 200_000);
+    private final int filesPerDirectory = Integer.getInteger("benchmark.filesPerDirectory", 100);
+    private final int rounds = Integer.getInteger("benchmark.rounds", 5);
+
+    @Test
+    void throughputWithAndWithoutRules() {
+        List<SftpFileEntry> grouped = BenchmarkHarness.entries(files, filesPerDirectory);
+        List<SftpFileEntry> scattered = BenchmarkHarness.entries(files, 1);
+
+        double none = measure("no rules", service(List.of(), List.of()), grouped);
+        double cached = measure("rules, " + filesPerDirectory + " files/directory",
+                service(List.of(DIRECTORY_RULE), List.of(FILE_RULE)), grouped);
+        double perFile = measure("rules, 1 file/directory",
+                service(List.of(DIRECTORY_RULE), List.of(FILE_RULE)), scattered);
+
+        log.info("📊 Business rules overhead: {}% grouped by directory, {}% one directory per file",
+                 String.format("%.1f", (none / cached - 1) * 100), String.format("%.1f", (none / perFile - 1) * 100));
+    }
+
+    /**
+     * Archivos por segundo en la mejor ronda, con un ChunkConverter por ronda.
+     */
+    private double measure(String name, FileMetadataService service, List<SftpFileEntry> entries) {
+        double rate = BenchmarkHarness.bestOf(rounds, () -> {
+            FileMetadataService.ChunkConverter converter = service.newChunkConverter();
+            ArchivoMetadata last = null;
+            for (SftpFileEntry entry : entries) {
+                last = converter.toMetadata(entry);
+            }
+            return last;
+        }).perSecond(entries.size());
+        log.info("📊 {}: {} files/s", name, String.format("%.0f", rate));
+        return rate;
+    }
+
+    private static FileMetadataService service(List<String> directoryPatterns, List<String> filePatterns) {
+        BusinessMetadataRules rules = new BusinessMetadataRules();
+        rules.setDirectoryPatterns(directoryPatterns);
+        rules.setFilePatterns(filePatterns);
+        return new FileMetadataService(new BusinessMetadataExtractor(rules), new IdUnicoRules());
+    }
+}
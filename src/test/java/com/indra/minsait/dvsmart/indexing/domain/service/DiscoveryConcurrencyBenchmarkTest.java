@@ -0,0 +1,266 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.reader.DirectoryQueueItemReader;
+import com.indra.minsait.dvsmart.indexing.application.port.out.FileSourcePort;
+import com.indra.minsait.dvsmart.indexing.benchmark.Benchmark;
+import com.indra.minsait.dvsmart.indexing.benchmark.BenchmarkHarness;
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadataRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryFrontier;
+import com.indra.minsait.dvsmart.indexing.domain.model.DirectoryListing;
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.IdUnicoRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.integration.file.remote.session.Session;
+import org.springframework.integration.file.remote.session.SessionFactory;
+import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 17:26:03
+ * File: DiscoveryConcurrencyBenchmarkTest.java
+ */
+
+/**
+ * Hilos de plataforma frente a virtual threads (batch.execution-mode) sobre
+ * un servidor simulado que tarda benchmark.latencyMillis en cada listado:
+ * - Discovery: BFS en una sola sesión frente a listados concurrentes
+ * - Reader: listado y conversión por directorio con DirectoryQueueItemReader,
+ *   sin lectura anticipada (PLATFORM) frente a benchmark.concurrency listados
+ *   anticipados en virtual threads (VIRTUAL)
+ * 
+ *   mvn test -Dbenchmarks=true -Dtest=DiscoveryConcurrencyBenchmarkTest
+ *   (-Dbenchmark.fanout=8 -Dbenchmark.depth=3 -Dbenchmark.latencyMillis=5 -Dbenchmark.concurrency=16
+ *    -Dbenchmark.filesPerDirectory=20)
+ */
+@Slf4j
+@Benchmark
+class DiscoveryConcurrencyBenchmarkTest {
+
+    private static final String BASE_DIR = "/data";
+
+    private final int fanout = Integer.getInteger("benchmark.fanout", 8);
+    private final int depth = Integer.getInteger("benchmark.depth", 3);
+    private final int latencyMillis = Integer.getInteger("benchmark.latencyMillis", 5);
+    private final int concurrency = Integer.getInteger("benchmark.concurrency", 16);
+    private final int filesPerDirectory = Integer.getInteger("benchmark.filesPerDirectory", 20);
+
+    private final DirectoryDiscoveryService service = new DirectoryDiscoveryService();
+    private final FileFilter filter = FileFilter.compile("benchmark", new FileFilterRules(), Instant.now());
+    private final FileMetadataService metadataService =
+        new FileMetadataService(new BusinessMetadataExtractor(new BusinessMetadataRules()), new IdUnicoRules());
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        SftpRemoteFileTemplate template = new SftpRemoteFileTemplate(slowServer());
+        long expected = expectedDirectories();
+
+        DirectoryFrontier platform = new DirectoryFrontier();
+        double platformSeconds = BenchmarkHarness.once(
+            () -> service.discoverDirectories(template, BASE_DIR, filter, platform)).seconds();
+
+        DirectoryFrontier virtual = new DirectoryFrontier();
+        double virtualSeconds = BenchmarkHarness.once(
+            () -> service.discoverDirectoriesConcurrently(template, BASE_DIR, concurrency, filter, virtual)).seconds();
+
+        log.info("📊 Discovery ({} dirs, {} ms/listing): platform {} s ({} dirs/s), virtual x{} {} s ({} dirs/s), speedup {}x",
+                 expected, latencyMillis,
+                 String.format("%.2f", platformSeconds), String.format("%.0f", expected / platformSeconds),
+                 concurrency,
+                 String.format("%.2f", virtualSeconds), String.format("%.0f", expected / virtualSeconds),
+                 String.format("%.1f", platformSeconds / virtualSeconds));
+
+        assertThat(platform.size()).isEqualTo(expected);
+        assertThat(virtual.size()).isEqualTo(expected);
+        assertThat(paths(virtual)).isEqualTo(paths(platform));
+    }
+
+    @Test
+    void readerPlatformVersusVirtualThreads() throws Exception {
+        long directories = expectedDirectories();
+        long expectedFiles = directories * filesPerDirectory;
+
+        double platformSeconds = readAll(new DirectoryQueueItemReader(slowSource(), filter, 0, null), expectedFiles);
+
+        // Como el reader del step en modo VIRTUAL: virtual threads con límite de concurrencia
+        SimpleAsyncTaskExecutor listingExecutor = new SimpleAsyncTaskExecutor("benchmark-list-");
+        listingExecutor.setVirtualThreads(true);
+        listingExecutor.setConcurrencyLimit(concurrency);
+        double virtualSeconds = readAll(
+            new DirectoryQueueItemReader(slowSource(), filter, concurrency, listingExecutor), expectedFiles);
+
+        log.info("📊 Reader ({} dirs, {} files, {} ms/listing): platform {} s ({} files/s), virtual prefetch {} {} s ({} files/s), speedup {}x",
+                 directories, expectedFiles, latencyMillis,
+                 String.format("%.2f", platformSeconds), String.format("%.0f", expectedFiles / platformSeconds),
+                 concurrency,
+                 String.format("%.2f", virtualSeconds), String.format("%.0f", expectedFiles / virtualSeconds),
+                 String.format("%.1f", platformSeconds / virtualSeconds));
+    }
+
+    /**
+     * Lee y convierte todos los archivos como el step (open, read hasta null,
+     * close) y devuelve los segundos empleados.
+     */
+    private double readAll(DirectoryQueueItemReader reader, long expectedFiles) throws Exception {
+        FileMetadataService.ChunkConverter converter = metadataService.newChunkConverter();
+        long[] files = new long[1];
+        double seconds = BenchmarkHarness.once(() -> {
+            reader.open(new ExecutionContext());
+            try {
+                for (SftpFileEntry entry = reader.read(); entry != null; entry = reader.read()) {
+                    converter.toMetadata(entry);
+                    files[0]++;
+                }
+            } finally {
+                reader.close();
+            }
+        }).seconds();
+        assertThat(files[0]).isEqualTo(expectedFiles);
+        return seconds;
+    }
+
+    /**
+     * Servidor simulado: cada directorio por encima de depth tiene fanout
+     * subdirectorios y un archivo; cada listado duerme latencyMillis.
+     */
+    @SuppressWarnings("unchecked")
+    private SessionFactory<SftpClient.DirEntry> slowServer() throws Exception {
+        SftpClient.DirEntry[] children = new SftpClient.DirEntry[fanout + 1];
+        for (int i = 0; i < fanout; i++) {
+            children[i] = entry("dir-" + i, true);
+        }
+        children[fanout] = entry("file.pdf", false);
+        SftpClient.DirEntry[] leaf = { entry("file.pdf", false) };
+
+        Session<SftpClient.DirEntry> session = mock(Session.class, withSettings().stubOnly());
+        when(session.list(anyString())).thenAnswer(invocation -> {
+            String directory = invocation.getArgument(0);
+            Thread.sleep(latencyMillis);
+            long level = directory.chars().filter(c -> c == '/').count() - 1;
+            return level < depth ? children : leaf;
+        });
+        return () -> session;
+    }
+
+    /**
+     * Origen simulado del reader: el mismo árbol que slowServer() con
+     * filesPerDirectory archivos por directorio. Cada listado duerme
+     * latencyMillis; el discovery (fuera de lo que se compara) no.
+     */
+    private FileSourcePort slowSource() {
+        return new FileSourcePort() {
+
+            @Override
+            public String getOriginName() {
+                return "benchmark";
+            }
+
+            @Override
+            public List<String> getBaseDirs() {
+                return List.of(BASE_DIR);
+            }
+
+            @Override
+            public void discoverDirectories(String baseDir, FileFilter filter, DirectoryFrontier frontier) {
+                addSubtree(frontier, frontier.addRoot(baseDir), 0);
+            }
+
+            @Override
+            public List<SftpFileEntry> listFiles(String directory, FileFilter filter) throws IOException {
+                return listDirectory(directory, filter).files();
+            }
+
+            @Override
+            public DirectoryListing listDirectory(String directory, FileFilter filter) throws IOException {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Listing interrupted: " + directory);
+                }
+                List<SftpFileEntry> files = new ArrayList<>(filesPerDirectory);
+                for (int i = 0; i < filesPerDirectory; i++) {
+                    files.add(SftpFileEntry.builder()
+                            .origin("benchmark")
+                            .parentDirectory(directory)
+                            .filename("file-" + i + ".pdf")
+                            .size(1024)
+                            .modificationTime(1_700_000_000_000L)
+                            .build());
+                }
+                List<String> subdirectories = new ArrayList<>();
+                if (directory.chars().filter(c -> c == '/').count() - 1 < depth) {
+                    for (int i = 0; i < fanout; i++) {
+                        subdirectories.add(directory + "/dir-" + i);
+                    }
+                }
+                return new DirectoryListing(files, subdirectories);
+            }
+
+            @Override
+            public int getListingConcurrency() {
+                return concurrency;
+            }
+        };
+    }
+
+    private void addSubtree(DirectoryFrontier frontier, int node, int level) {
+        if (level < depth) {
+            for (int i = 0; i < fanout; i++) {
+                addSubtree(frontier, frontier.add(node, "dir-" + i), level + 1);
+            }
+        }
+    }
+
+    private static SftpClient.DirEntry entry(String name, boolean directory) {
+        SftpClient.Attributes attributes = mock(SftpClient.Attributes.class, withSettings().stubOnly());
+        when(attributes.isDirectory()).thenReturn(directory);
+        SftpClient.DirEntry entry = mock(SftpClient.DirEntry.class, withSettings().stubOnly());
+        when(entry.getFilename()).thenReturn(name);
+        when(entry.getAttributes()).thenReturn(attributes);
+        return entry;
+    }
+
+    private static List<String> paths(DirectoryFrontier frontier) {
+        return Arrays.stream(frontier.canonicalOrder()).mapToObj(frontier::path).toList();
+    }
+
+    private long expectedDirectories() {
+        long total = 1;
+        long level = 1;
+        for (int i = 0; i < depth; i++) {
+            level *= fanout;
+            total += level;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.FileFilterRules;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 18:24:05
+ * File: FileFilterTest.java
+ */
+class FileFilterTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-20T12:00:00Z");
+    private static final long NOW_MILLIS = NOW.toEpochMilli();
+
+    @Test
+    void defaultRulesExcludeHiddenAndTemporaryFiles() {
+        FileFilter filter = FileFilter.compile("default", new FileFilterRules(), NOW);
+
+        assertThat(filter.acceptsFile("/data/doc.pdf", "doc.pdf", 10, NOW_MILLIS)).isTrue();
+        assertThat(filter.acceptsFile("/data/.hidden", ".hidden", 10, NOW_MILLIS)).isFalse();
+        assertThat(filter.acceptsFile("/data/doc.pdf~", "doc.pdf~", 10, NOW_MILLIS)).isFalse();
+        assertThat(filter.acceptsFile("/data/~$doc.docx", "~$doc.docx", 10, NOW_MILLIS)).isFalse();
+        assertThat(filter.acceptsFile("/data/cache.TMP", "cache.TMP", 10, NOW_MILLIS)).isFalse();
+        assertThat(filter.prunesDirectories()).isFalse();
+        assertThat(filter.acceptsTree("/data", "/data/.git/objects")).isTrue();
+    }
+
+    @Test
+    void appliesIncludeGlobsSizeAndAgeRanges() {
+        FileFilterRules rules = new FileFilterRules();
+        rules.setIncludeGlobs(List.of("*.pdf"));
+        rules.setMinSize(1);
+        rules.setMaxSize(1000);
+        rules.setMinAge(Duration.ofHours(1));
+        rules.setMaxAge(Duration.ofDays(30));
+        FileFilter filter = FileFilter.compile("pdf", rules, NOW);
+        long twoHoursAgo = NOW_MILLIS - Duration.ofHours(2).toMillis();
+
+        assertThat(filter.acceptsFile("/data/doc.pdf", "doc.pdf", 100, twoHoursAgo)).isTrue();
+        assertThat(filter.acceptsFile("/data/doc.xml", "doc.xml", 100, twoHoursAgo)).isFalse();
+        assertThat(filter.acceptsFile("/data/doc.pdf", "doc.pdf", 0, twoHoursAgo)).isFalse();
+        assertThat(filter.acceptsFile("/data/doc.pdf", "doc.pdf", 1001, twoHoursAgo)).isFalse();
+        // Demasiado reciente (aún puede estar escribiéndose) y demasiado antiguo
+        assertThat(filter.acceptsFile("/data/doc.pdf", "doc.pdf", 100, NOW_MILLIS)).isFalse();
+        assertThat(filter.acceptsFile("/data/doc.pdf", "doc.pdf", 100,
+                NOW_MILLIS - Duration.ofDays(31).toMillis())).isFalse();
+    }
+
+    @Test
+    void appliesPathPatternsToListingsWithoutJoiningWhenThereAreNone() {
+        FileFilterRules rules = new FileFilterRules();
+        rules.setExcludePathPatterns(List.of("/tmp/", "^/data/archive/"));
+        FileFilter filter = FileFilter.compile("paths", rules, NOW);
+
+        assertThat(filter.acceptsFileIn("/data/archive", "doc.pdf", 10, NOW_MILLIS)).isFalse();
+        assertThat(filter.acceptsFileIn("/data/a/tmp/", "doc.pdf", 10, NOW_MILLIS)).isFalse();
+        assertThat(filter.acceptsFileIn("/data/a", "doc.pdf", 10, NOW_MILLIS)).isTrue();
+        assertThat(filter.acceptsFile("/data/archive/doc.pdf", "doc.pdf", 10, NOW_MILLIS)).isFalse();
+    }
+
+    @Test
+    void prunesDirectoriesByNameAndPath() {
+        FileFilter filter = FileFilter.compile("pruning", pruningRules(), NOW);
+
+        assertThat(filter.prunesDirectories()).isTrue();
+        assertThat(filter.acceptsDirectory("/data", ".snapshot")).isFalse();
+        assertThat(filter.acceptsDirectory("/data/a", "Cache-2024")).isFalse();
+        assertThat(filter.acceptsDirectory("/data", "legacy")).isFalse();
+        assertThat(filter.acceptsDirectory("/data/a", "legacy")).isTrue();
+        assertThat(filter.acceptsDirectory("/data/.snapshot/")).isFalse();
+        assertThat(filter.acceptsDirectory("/data/legacy")).isFalse();
+        assertThat(filter.acceptsDirectory("/data/docs")).isTrue();
+    }
+
+    @Test
+    void acceptsTreeChecksEveryDirectoryBelowTheBaseDir() {
+        FileFilter filter = FileFilter.compile("pruning", pruningRules(), NOW);
+
+        assertThat(filter.acceptsTree("/data", "/data")).isTrue();
+        assertThat(filter.acceptsTree("/data", "/data/docs/2024")).isTrue();
+        assertThat(filter.acceptsTree("/data", "/data/.snapshot/hourly/docs")).isFalse();
+        assertThat(filter.acceptsTree("/data", "/data/docs/cache-tmp")).isFalse();
+        assertThat(filter.acceptsTree("/data/", "/data/legacy/2024")).isFalse();
+        assertThat(filter.acceptsTree(null, "/data/docs/cache-1/x")).isFalse();
+    }
+
+    @Test
+    void acceptsTreeDoesNotCheckTheBaseDirItself() {
+        FileFilter filter = FileFilter.compile("pruning", pruningRules(), NOW);
+
+        // La raíz configurada se indexa aunque su nombre coincida con una regla
+        assertThat(filter.acceptsTree("/srv/cache-root", "/srv/cache-root/docs")).isTrue();
+        assertThat(filter.acceptsTree("/srv/cache-root", "/srv/cache-root/docs/.snapshot")).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidRegexWithTheRuleSetName() {
+        FileFilterRules rules = new FileFilterRules();
+        rules.setExcludeDirectoryPatterns(List.of("(unclosed"));
+
+        assertThatThrownBy(() -> FileFilter.compile("broken", rules, NOW))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("[broken]");
+    }
+
+    private static FileFilterRules pruningRules() {
+        FileFilterRules rules = new FileFilterRules();
+        rules.setExcludeDirectories(List.of(".snapshot", "cache-*"));
+        rules.setExcludeDirectoryPatterns(List.of("^/data/legacy$"));
+        return rules;
+    }
+}
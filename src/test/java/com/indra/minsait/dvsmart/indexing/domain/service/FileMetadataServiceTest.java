@@ -0,0 +1,123 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadataRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.IdUnicoRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 17:58:36
+ * File: FileMetadataServiceTest.java
+ */
+class FileMetadataServiceTest {
+
+    private static final String ASCII_PATH = "/data/facturas/2024/FAC_000123.pdf";
+    private static final String NON_ASCII_PATH = "/datos/año 2024/niño € 文件.PDF";
+
+    private final FileMetadataService service = newService(Map.of(
+        "emea", "emea", "españa", "españa", "emea-nfs", "emea", "latam", " "));
+
+    @Test
+    void originsWithoutPrefixHashThePathAlone() throws Exception {
+        String expected = sha256(ASCII_PATH);
+
+        assertThat(service.generateIdUnico(ASCII_PATH)).isEqualTo(expected);
+        assertThat(service.generateIdUnico(SftpFileEntry.DEFAULT_ORIGIN, ASCII_PATH)).isEqualTo(expected);
+        assertThat(service.generateIdUnico(null, ASCII_PATH)).isEqualTo(expected);
+        assertThat(service.generateIdUnico("apac", ASCII_PATH)).isEqualTo(expected);
+        assertThat(service.generateIdUnico("latam", ASCII_PATH)).isEqualTo(expected);
+    }
+
+    @Test
+    void configuredPrefixIsHashedBeforeThePath() throws Exception {
+        assertThat(service.generateIdUnico("emea", ASCII_PATH)).isEqualTo(sha256("emea:" + ASCII_PATH));
+    }
+
+    @Test
+    void originsSharingAPrefixShareTheIdUnicoWhateverTheirName() throws Exception {
+        // Un origen LOCAL sobre el montaje NFS de 'emea' deduplica contra su crawl SFTP
+        assertThat(service.generateIdUnico("emea-nfs", ASCII_PATH))
+                .isEqualTo(service.generateIdUnico("emea", ASCII_PATH));
+        // Renombrar el origen conservando el prefijo no cambia los idUnico
+        assertThat(newService(Map.of("emea-renamed", "emea")).generateIdUnico("emea-renamed", ASCII_PATH))
+                .isEqualTo(sha256("emea:" + ASCII_PATH));
+    }
+
+    @Test
+    void encodesNonAsciiPathsAndOriginsAsUtf8() throws Exception {
+        assertThat(service.generateIdUnico(NON_ASCII_PATH)).isEqualTo(sha256(NON_ASCII_PATH));
+        assertThat(service.generateIdUnico("emea", NON_ASCII_PATH)).isEqualTo(sha256("emea:" + NON_ASCII_PATH));
+        assertThat(service.generateIdUnico("españa", ASCII_PATH)).isEqualTo(sha256("españa:" + ASCII_PATH));
+        assertThat(service.generateIdUnico("españa", NON_ASCII_PATH)).isEqualTo(sha256("españa:" + NON_ASCII_PATH));
+    }
+
+    @Test
+    void growsAndReusesTheBufferOfTheThread() throws Exception {
+        String longAscii = "/data" + "/segmento-largo".repeat(60) + "/doc.pdf";
+        String longNonAscii = "/datos" + "/categoría-€".repeat(60) + "/doc.pdf";
+        assertThat(longAscii.getBytes(StandardCharsets.UTF_8).length).isGreaterThan(512);
+        assertThat(longNonAscii.getBytes(StandardCharsets.UTF_8).length).isGreaterThan(512);
+
+        assertThat(service.generateIdUnico("emea", longAscii)).isEqualTo(sha256("emea:" + longAscii));
+        assertThat(service.generateIdUnico("emea", longNonAscii)).isEqualTo(sha256("emea:" + longNonAscii));
+        // Tras un path largo, uno corto no arrastra bytes del anterior
+        assertThat(service.generateIdUnico("emea", ASCII_PATH)).isEqualTo(sha256("emea:" + ASCII_PATH));
+    }
+
+    @Test
+    void chunkConverterProducesTheSameMetadata() {
+        SftpFileEntry entry = SftpFileEntry.builder()
+                .origin("emea")
+                .parentDirectory("/datos/año 2024")
+                .filename("niño € 文件.PDF")
+                .size(2048)
+                .modificationTime(1_700_000_000_000L)
+                .build();
+        FileMetadataService.ChunkConverter converter = service.newChunkConverter();
+
+        ArchivoMetadata single = service.toMetadata(entry);
+        ArchivoMetadata chunked = converter.toMetadata(entry);
+
+        assertThat(chunked.getIdUnico()).isEqualTo(single.getIdUnico())
+                .isEqualTo(converter.generateIdUnico("emea", NON_ASCII_PATH));
+        assertThat(chunked.getSourcePath()).isEqualTo(NON_ASCII_PATH);
+        assertThat(chunked.getExtension()).isEqualTo("pdf");
+        assertThat(chunked.getIndexing_status()).isEqualTo("COMPLETED");
+        assertThat(chunked).usingRecursiveComparison()
+                .ignoringFields("indexing_indexedAt")
+                .isEqualTo(single);
+    }
+
+    private static FileMetadataService newService(Map<String, String> prefixes) {
+        IdUnicoRules idUnicoRules = new IdUnicoRules();
+        idUnicoRules.setOriginPrefixes(prefixes);
+        return new FileMetadataService(
+            new BusinessMetadataExtractor(new BusinessMetadataRules()), idUnicoRules);
+    }
+
+    private static String sha256(String value) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import com.indra.minsait.dvsmart.indexing.adapter.out.batch.writer.UpsertDocumentEncoder;
+import com.indra.minsait.dvsmart.indexing.benchmark.Benchmark;
+import com.indra.minsait.dvsmart.indexing.benchmark.BenchmarkHarness;
+import com.indra.minsait.dvsmart.indexing.domain.model.ArchivoMetadata;
+import com.indra.minsait.dvsmart.indexing.domain.model.BusinessMetadataRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.IdUnicoRules;
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 18:07:14
+ * File: MetadataAllocationBenchmarkTest.java
+ */
+
+/**
+ * Memoria asignada por archivo al convertir a ArchivoMetadata: conversión por
+ * item (toMetadata), por chunk (ChunkConverter), solo el idUnico y la
+ * codificación BSON del upsert (UpsertDocumentEncoder), cada una con un techo
+ * de bytes por archivo.
+ * 
+ *   mvn test -Dbenchmarks=true -Dtest=MetadataAllocationBenchmarkTest
+ *   (-Dbenchmark.files=200000 -Dbenchmark.rounds=5)
+ */
+@Slf4j
+@Benchmark
+class MetadataAllocationBenchmarkTest {
+
+    private final int files = Integer.getInteger("benchmark.files", 200_000);
+    private final int rounds = Integer.getInteger("benchmark.rounds", 5);
+
+    private final FileMetadataService service =
+        new FileMetadataService(new BusinessMetadataExtractor(new BusinessMetadataRules()), new IdUnicoRules());
+
+    @Test
+    void bytesAllocatedPerFile() {
+        assertThat(BenchmarkHarness.allocationSupported()).isTrue();
+        List<SftpFileEntry> entries = BenchmarkHarness.entries(files, 100);
+
+        assertThat(measure("toMetadata (per item)", entries, service::toMetadata)).isLessThanOrEqualTo(448);
+        FileMetadataService.ChunkConverter converter = service.newChunkConverter();
+        assertThat(measure("ChunkConverter", entries, converter::toMetadata)).isLessThanOrEqualTo(320);
+        assertThat(measure("idUnico only", entries,
+            entry -> service.generateIdUnico(entry.getOrigin(), entry.getFullPath()))).isLessThanOrEqualTo(128);
+
+        // Filtro y update del bulk upsert, codificados sobre el buffer del chunk
+        UpsertDocumentEncoder encoder = new UpsertDocumentEncoder();
+        List<ArchivoMetadata> metadata = entries.stream().map(converter::toMetadata).toList();
+        assertThat(measure("upsert encoding", metadata, item -> {
+            encoder.filter(item.getIdUnico());
+            return encoder.update(item);
+        })).isLessThanOrEqualTo(832);
+    }
+
+    /**
+     * Bytes asignados por archivo en la mejor ronda.
+     */
+    private <T> long measure(String name, List<T> entries, Function<T, Object> conversion) {
+        BenchmarkHarness.Measurement best = BenchmarkHarness.bestOf(rounds, () -> {
+            Object last = null;
+            for (T entry : entries) {
+                last = conversion.apply(entry);
+            }
+            return last;
+        });
+        log.info("📊 {}: {} bytes/file, {} ns/file ({} files)",
+                 name, best.bytesPer(entries.size()), best.nanosPer(entries.size()), entries.size());
+        return best.bytesPer(entries.size());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.domain.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 18:16:40
+ * File: NameMatcherTest.java
+ */
+class NameMatcherTest {
+
+    @Test
+    void matchesLiteralsOnlyAsWholeNames() {
+        NameMatcher matcher = NameMatcher.compile(List.of("Thumbs.db"));
+
+        assertThat(matcher.matches("thumbs.DB")).isTrue();
+        assertThat(matcher.matches("old-thumbs.db")).isFalse();
+        assertThat(matcher.matches("thumbs.db.bak")).isFalse();
+    }
+
+    @Test
+    void matchesSuffixesAndExtensionsInAnyCase() {
+        NameMatcher matcher = NameMatcher.compile(List.of("*~"), List.of("tmp", ".BAK", "*.temp"));
+
+        assertThat(matcher.matches("informe.docx~")).isTrue();
+        assertThat(matcher.matches("datos.TMP")).isTrue();
+        assertThat(matcher.matches("copia.bak")).isTrue();
+        assertThat(matcher.matches("cache.temp")).isTrue();
+        assertThat(matcher.matches("tmp")).isFalse();
+        assertThat(matcher.matches("informe.tmpl")).isFalse();
+    }
+
+    @Test
+    void matchesPrefixes() {
+        NameMatcher matcher = NameMatcher.compile(List.of("~$*"));
+
+        assertThat(matcher.matches("~$informe.docx")).isTrue();
+        assertThat(matcher.matches("informe~$.docx")).isFalse();
+    }
+
+    @Test
+    void matchesOtherGlobsWithTheCombinedExpression() {
+        NameMatcher matcher = NameMatcher.compile(List.of("IMG_????.*", "*backup*"));
+
+        assertThat(matcher.matches("img_0001.jpg")).isTrue();
+        assertThat(matcher.matches("IMG_01.jpg")).isFalse();
+        assertThat(matcher.matches("db-BACKUP-2024.sql")).isTrue();
+        // Los metacaracteres de regex del glob son literales
+        assertThat(NameMatcher.compile(List.of("a+b?.txt")).matches("a+bc.txt")).isTrue();
+        assertThat(NameMatcher.compile(List.of("a+b?.txt")).matches("aabc.txt")).isFalse();
+    }
+
+    @Test
+    void emptyAndMatchAll() {
+        assertThat(NameMatcher.compile(List.of()).isEmpty()).isTrue();
+        assertThat(NameMatcher.compile(List.of(" ", "")).matches("doc.pdf")).isFalse();
+
+        NameMatcher all = NameMatcher.compile(List.of("*"));
+        assertThat(all.isEmpty()).isFalse();
+        assertThat(all.matches("doc.pdf")).isTrue();
+    }
+
+    @Test
+    void matchesNonAsciiNamesIgnoringCase() {
+        NameMatcher matcher = NameMatcher.compile(List.of("AÑO*", "*.ÑÑ", "borrador-?.txt"));
+
+        assertThat(matcher.matches("año-2024.pdf")).isTrue();
+        assertThat(matcher.matches("datos.ññ")).isTrue();
+        assertThat(matcher.matches("BORRADOR-É.TXT")).isTrue();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import org.apache.sshd.sftp.client.SftpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.file.remote.session.Session;
+import org.springframework.integration.file.remote.session.SessionFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 20:06:12
+ * File: CustomLazySftpSessionFactoryTest.java
+ */
+class CustomLazySftpSessionFactoryTest {
+
+    private final Session<SftpClient.DirEntry> first = session();
+    private final Session<SftpClient.DirEntry> second = session();
+    private CustomLazySftpSessionFactory factory;
+
+    @AfterEach
+    void destroy() {
+        factory.destroy();
+    }
+
+    @Test
+    void renewalAfterACircuitPauseIsNotASecondBorrow() throws IOException {
+        SftpClient.DirEntry[] entries = new SftpClient.DirEntry[0];
+        when(first.list("/data")).thenThrow(new IOException("Connection reset"));
+        when(second.list("/data")).thenReturn(entries);
+        factory = factory(false);
+
+        try (Session<SftpClient.DirEntry> session = factory.getSession()) {
+            assertThat(session.list("/data")).isSameAs(entries);
+            assertThat(session.getHostPort()).isEqualTo("second:22");
+        }
+
+        SftpPoolTelemetry.TelemetryStats stats = factory.getTelemetry().snapshot();
+        assertThat(stats.borrows()).isEqualTo(1);
+        assertThat(stats.returns()).isEqualTo(1);
+        assertThat(stats.invalidations()).isEqualTo(1);
+        assertThat(factory.getStats().active()).isZero();
+    }
+
+    @Test
+    void poolTimeoutDuringRenewalIsRethrownUnchanged() throws IOException {
+        when(first.list("/")).thenReturn(new SftpClient.DirEntry[0]);
+        when(first.list("/data")).thenThrow(new IOException("Connection reset"));
+        // La sesión nueva no valida: el pool responde con NoSuchElementException
+        when(second.list("/")).thenThrow(new IOException("Connection reset"));
+        factory = factory(true);
+
+        Session<SftpClient.DirEntry> session = factory.getSession();
+        try {
+            assertThatThrownBy(() -> session.list("/data")).isExactlyInstanceOf(NoSuchElementException.class);
+
+            // Sin sesión subyacente: error claro en lugar de NullPointerException
+            assertThat(session.isOpen()).isFalse();
+            assertThatThrownBy(session::getHostPort).isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("renewal failed");
+            assertThatThrownBy(session::getClientInstance).isInstanceOf(UncheckedIOException.class);
+        } finally {
+            session.close();
+        }
+
+        SftpPoolTelemetry.TelemetryStats stats = factory.getTelemetry().snapshot();
+        assertThat(stats.borrows()).isEqualTo(stats.returns()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Session<SftpClient.DirEntry> session() {
+        Session<SftpClient.DirEntry> session = mock(Session.class);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CustomLazySftpSessionFactory factory(boolean testOnBorrow) {
+        when(first.getHostPort()).thenReturn("first:22");
+        when(second.getHostPort()).thenReturn("second:22");
+        SessionFactory<SftpClient.DirEntry> target = mock(SessionFactory.class);
+        when(target.getSession()).thenReturn(first, second);
+        // Umbral 1 y pausa corta: el primer fallo abre el circuito y se reintenta con otra sesión
+        SftpOperationGuard guard = new SftpOperationGuard(new SftpRateLimiter(0, 1, 0),
+            new SftpCircuitBreaker(true, 1, 10, 0));
+        return new CustomLazySftpSessionFactory("test", target, 1, 0, 1000, testOnBorrow, 60_000, 60_000, guard,
+            nanos -> { });
+    }
+}
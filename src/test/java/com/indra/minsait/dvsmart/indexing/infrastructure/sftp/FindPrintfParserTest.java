@@ -0,0 +1,175 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 15:58:12
+ * File: FindPrintfParserTest.java
+ */
+class FindPrintfParserTest {
+
+    private final FindPrintfParser parser = new FindPrintfParser("origin");
+
+    @Test
+    void parsesFilesAndDirectories() throws Exception {
+        byte[] output = records(
+                "d\t4096\t1700000000.5000000000\t/data/dir",
+                "f\t1024\t1700000001.9999999999\t/data/dir/report.pdf");
+
+        List<SftpFileEntry> entries = parse(new ByteArrayInputStream(output));
+
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).isDirectory()).isTrue();
+        SftpFileEntry file = entries.get(1);
+        assertThat(file.isDirectory()).isFalse();
+        assertThat(file.getOrigin()).isEqualTo("origin");
+        assertThat(file.getFullPath()).isEqualTo("/data/dir/report.pdf");
+        assertThat(file.getFilename()).isEqualTo("report.pdf");
+        assertThat(file.getSize()).isEqualTo(1024);
+        // Truncado a segundos, como el listado SFTP
+        assertThat(file.getModificationTime()).isEqualTo(1_700_000_001_000L);
+    }
+
+    @Test
+    void keepsTabsAndNewlinesInNames() throws Exception {
+        byte[] output = records("f\t7\t1700000000.0\t/data/a\tb\nc.txt");
+
+        List<SftpFileEntry> entries = parse(new ByteArrayInputStream(output));
+
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.getFullPath()).isEqualTo("/data/a\tb\nc.txt");
+            assertThat(entry.getFilename()).isEqualTo("a\tb\nc.txt");
+            assertThat(entry.getSize()).isEqualTo(7);
+        });
+    }
+
+    @Test
+    void reassemblesRecordsSplitAcrossReads() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // Nombres con caracteres multibyte para cortar también dentro de un carácter
+            lines.add("f\t" + i + "\t1700000000.0\t/data/dir" + (i % 37) + "/ficheró-ñ-" + i + ".txt");
+        }
+        byte[] output = records(lines.toArray(String[]::new));
+        assertThat(output.length).isGreaterThan(3 * 64 * 1024);
+
+        for (int chunk : new int[] {1, 7, 4096, 64 * 1024 - 1, 64 * 1024, 64 * 1024 + 3}) {
+            List<SftpFileEntry> entries = parse(new ChunkedInputStream(output, chunk));
+
+            assertThat(entries).hasSize(5000);
+            for (int i = 0; i < 5000; i += 499) {
+                assertThat(entries.get(i).getFilename()).isEqualTo("ficheró-ñ-" + i + ".txt");
+                assertThat(entries.get(i).getSize()).isEqualTo(i);
+            }
+        }
+    }
+
+    @Test
+    void rejectsTruncatedOutput() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(records("f\t1\t1700000000.0\t/data/a.txt"));
+        out.writeBytes("f\t2\t17000".getBytes(StandardCharsets.UTF_8));
+        byte[] truncated = out.toByteArray();
+
+        assertThatThrownBy(() -> parse(new ByteArrayInputStream(truncated)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Truncated");
+    }
+
+    @Test
+    void rejectsOversizedRecordsRegardlessOfReadBoundaries() {
+        String longName = "x".repeat(70 * 1024);
+        byte[] unterminated = ("f\t1\t1700000000.0\t/data/" + longName).getBytes(StandardCharsets.UTF_8);
+        byte[] terminated = records("f\t1\t1700000000.0\t/data/" + longName);
+
+        assertThatThrownBy(() -> parse(new ByteArrayInputStream(unterminated)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds");
+        for (int chunk : new int[] {1000, 64 * 1024, 128 * 1024}) {
+            assertThatThrownBy(() -> parse(new ChunkedInputStream(terminated, chunk)))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("exceeds");
+        }
+    }
+
+    @Test
+    void rejectsMalformedRecords() {
+        assertThatThrownBy(() -> parse(new ByteArrayInputStream(records("f\tnot-a-size\t1700000000.0\t/a"))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Malformed");
+        assertThatThrownBy(() -> parse(new ByteArrayInputStream(records("f\t1\t/a"))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Malformed");
+    }
+
+    private List<SftpFileEntry> parse(InputStream in) throws IOException, InterruptedException {
+        List<SftpFileEntry> entries = new ArrayList<>();
+        long count = parser.parse(in, entries::add);
+        assertThat(count).isEqualTo(entries.size());
+        return entries;
+    }
+
+    private static byte[] records(String... records) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String record : records) {
+            out.writeBytes(record.getBytes(StandardCharsets.UTF_8));
+            out.write(0);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Entrega como mucho chunk bytes por lectura.
+     */
+    private static final class ChunkedInputStream extends InputStream {
+        private final byte[] data;
+        private final int chunk;
+        private int position = 0;
+
+        ChunkedInputStream(byte[] data, int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= data.length) {
+                return -1;
+            }
+            int n = Math.min(Math.min(length, chunk), data.length - position);
+            System.arraycopy(data, position, buffer, offset, n);
+            position += n;
+            return n;
+        }
+    }
+}
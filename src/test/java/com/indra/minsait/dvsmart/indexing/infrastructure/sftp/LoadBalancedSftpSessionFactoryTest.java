@@ -0,0 +1,163 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import org.apache.sshd.sftp.client.SftpClient;
+import org.apache.sshd.sftp.common.SftpConstants;
+import org.apache.sshd.sftp.common.SftpException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.file.remote.session.Session;
+import org.springframework.integration.file.remote.session.SessionFactory;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 15:31:48
+ * File: LoadBalancedSftpSessionFactoryTest.java
+ */
+class LoadBalancedSftpSessionFactoryTest {
+
+    private final SftpRateLimiter sharedLimiter = new SftpRateLimiter(0, 1, 0);
+    private final Session<SftpClient.DirEntry> primarySession = session();
+    private final Session<SftpClient.DirEntry> mirrorSession = session();
+    private final CustomLazySftpSessionFactory primary = pool("primary", primarySession);
+    private final CustomLazySftpSessionFactory mirror = pool("mirror", mirrorSession);
+    private final LoadBalancedSftpSessionFactory balancer =
+            new LoadBalancedSftpSessionFactory("test", List.of(primary, mirror), 3, 60_000, 0, 0.2);
+
+    @AfterEach
+    void destroy() {
+        primary.destroy();
+        mirror.destroy();
+    }
+
+    @Test
+    void failedListingIsRetriedOnTheOtherReplica() throws IOException {
+        SftpClient.DirEntry[] entries = new SftpClient.DirEntry[0];
+        when(primarySession.list("/ok")).thenThrow(new IOException("Connection reset"));
+        when(mirrorSession.list("/ok")).thenReturn(entries);
+        when(primarySession.list("/data")).thenThrow(new IOException("Connection reset"));
+        when(mirrorSession.list("/data")).thenThrow(new IOException("Connection reset"));
+
+        // Se repite en la otra réplica; solo falla si fallan todas
+        Session<SftpClient.DirEntry> session = balancer.getSession();
+        try {
+            assertThat(session.list("/ok")).isSameAs(entries);
+            assertThatThrownBy(() -> session.list("/data")).isInstanceOf(IOException.class);
+        } finally {
+            session.close();
+        }
+
+        verify(mirrorSession).list("/ok");
+        assertThat(balancer.getStatus()).allMatch(status -> status.outstanding() == 0);
+    }
+
+    @Test
+    void replicaFailuresDoNotOpenThePrimaryCircuit() throws IOException {
+        when(primarySession.list(anyString())).thenReturn(new SftpClient.DirEntry[0]);
+        when(mirrorSession.list(anyString())).thenThrow(new IOException("Connection reset"));
+
+        for (int i = 0; i < 10; i++) {
+            try (Session<SftpClient.DirEntry> session = balancer.getSession()) {
+                session.list("/dir" + i);
+            }
+        }
+
+        assertThat(primary.getGuard().getCircuitBreaker().getStatus().state()).isEqualTo("CLOSED");
+        assertThat(primary.getGuard().getRateLimiter()).isSameAs(mirror.getGuard().getRateLimiter());
+        assertThat(balancer.getStatus())
+                .filteredOn(status -> status.poolName().equals("mirror"))
+                .allMatch(LoadBalancedSftpSessionFactory.ReplicaStatus::ejected);
+    }
+
+    @Test
+    void pathErrorDoesNotPenaliseReplica() throws IOException {
+        when(primarySession.list(anyString()))
+                .thenThrow(new SftpException(SftpConstants.SSH_FX_NO_SUCH_FILE, "gone"));
+        when(mirrorSession.list(anyString()))
+                .thenThrow(new SftpException(SftpConstants.SSH_FX_NO_SUCH_FILE, "gone"));
+
+        for (int i = 0; i < 5; i++) {
+            try (Session<SftpClient.DirEntry> session = balancer.getSession()) {
+                assertThatThrownBy(() -> session.list("/gone")).isInstanceOf(SftpException.class);
+            }
+        }
+
+        assertThat(balancer.getStatus()).noneMatch(LoadBalancedSftpSessionFactory.ReplicaStatus::ejected);
+        assertThat(balancer.getStatus()).allMatch(status -> status.failures() == 0);
+    }
+
+    @Test
+    void circuitOpeningMidListingFailsOverInsteadOfPausing() throws IOException {
+        // Breakers que se abren al primer fallo y no se reabren durante el test
+        Session<SftpClient.DirEntry> failingSession = session();
+        Session<SftpClient.DirEntry> healthySession = session();
+        CustomLazySftpSessionFactory failing = pool("failing", failingSession, 1);
+        CustomLazySftpSessionFactory healthy = pool("healthy", healthySession, 1);
+        LoadBalancedSftpSessionFactory failover =
+                new LoadBalancedSftpSessionFactory("failover", List.of(failing, healthy), 0, 60_000, 0, 0.2);
+        SftpClient.DirEntry[] entries = new SftpClient.DirEntry[0];
+        when(failingSession.list(anyString())).thenThrow(new IOException("Connection reset"));
+        when(healthySession.list(anyString())).thenReturn(entries);
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                try (Session<SftpClient.DirEntry> session = failover.getSession()) {
+                    assertThat(session.list("/data")).isSameAs(entries);
+                    assertThat(session.list("/data/2024")).isSameAs(entries);
+                }
+            });
+        } finally {
+            failing.destroy();
+            healthy.destroy();
+        }
+
+        // La primera réplica elegida abrió su circuito y el listado siguió en la otra
+        assertThat(failing.getGuard().getCircuitBreaker().getStatus().state()).isEqualTo("OPEN");
+        assertThat(failing.getGuard().getCircuitBreaker().getStatus().totalPausedMillis()).isZero();
+        verify(failingSession).list("/data");
+        verify(healthySession).list("/data/2024");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Session<SftpClient.DirEntry> session() {
+        Session<SftpClient.DirEntry> session = mock(Session.class);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private CustomLazySftpSessionFactory pool(String name, Session<SftpClient.DirEntry> session) {
+        return pool(name, session, 3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CustomLazySftpSessionFactory pool(String name, Session<SftpClient.DirEntry> session, int failureThreshold) {
+        SessionFactory<SftpClient.DirEntry> target = mock(SessionFactory.class);
+        when(target.getSession()).thenReturn(session);
+        SftpOperationGuard guard = new SftpOperationGuard(sharedLimiter,
+                new SftpCircuitBreaker(true, failureThreshold, 60_000, 0));
+        return new CustomLazySftpSessionFactory(name, target, 1, 0, 1000, false, 60_000, 60_000, guard, nanos -> { });
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.SftpFileEntry;
+import com.indra.minsait.dvsmart.indexing.infrastructure.exception.RemoteExecUnavailableException;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.Environment;
+import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.channel.ChannelSession;
+import org.apache.sshd.server.command.Command;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.integration.sftp.session.DefaultSftpSessionFactory;
+import org.springframework.integration.sftp.session.SftpRemoteFileTemplate;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 16:14:37
+ * File: RemoteFindListerTest.java
+ */
+class RemoteFindListerTest {
+
+    private static final long OPEN_TIMEOUT_MILLIS = 3000;
+
+    @TempDir
+    Path root;
+
+    private SshServer server;
+    private final List<String> commands = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = SshServer.setUpDefaultServer();
+        server.setHost("localhost");
+        server.setPort(0);
+        server.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(root.resolve("hostkey.ser")));
+        server.setPasswordAuthenticator((username, password, session) -> true);
+        server.setSubsystemFactories(List.of(new SftpSubsystemFactory()));
+        server.setFileSystemFactory(new VirtualFileSystemFactory(root));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.stop(true);
+    }
+
+    @Test
+    void streamsFilesAndCountsDirectories() throws Exception {
+        answerExec(0,
+                "d\t4096\t1700000000.0\t/data/a",
+                "f\t10\t1700000000.0\t/data/a/one.txt",
+                "d\t4096\t1700000000.0\t/data/a/b",
+                "f\t20\t1700000000.0\t/data/a/b/two.txt",
+                "f\t30\t1700000000.0\t/data/a/three.txt");
+
+        try (RemoteFindStream stream = lister().open("/data")) {
+            List<String> paths = new ArrayList<>();
+            SftpFileEntry entry;
+            while ((entry = stream.next()) != null) {
+                paths.add(entry.getFullPath());
+            }
+
+            assertThat(paths).containsExactly("/data/a/one.txt", "/data/a/b/two.txt", "/data/a/three.txt");
+            assertThat(stream.getDirectoryCount()).isEqualTo(2);
+        }
+        assertThat(commands).singleElement().asString().startsWith("find -H '/data' -mindepth 1 -printf");
+    }
+
+    @Test
+    void emptyTreeIsNotAFallback() throws Exception {
+        answerExec(0);
+
+        try (RemoteFindStream stream = lister().open("/data")) {
+            assertThat(stream.next()).isNull();
+        }
+    }
+
+    @Test
+    void findNotFoundOrNotExecutableFallsBack() throws Exception {
+        for (int exitStatus : new int[] {126, 127}) {
+            answerExec(exitStatus);
+
+            try (RemoteFindStream stream = lister().open("/data")) {
+                assertThatThrownBy(stream::next)
+                        .isInstanceOf(RemoteExecUnavailableException.class)
+                        .hasMessageContaining("exit status " + exitStatus);
+            }
+        }
+    }
+
+    @Test
+    void partialOutputWithUnreadableDirectoriesIsKept() throws Exception {
+        answerExec(1, "f\t10\t1700000000.0\t/data/ok.txt");
+
+        try (RemoteFindStream stream = lister().open("/data")) {
+            assertThat(stream.next().getFullPath()).isEqualTo("/data/ok.txt");
+            assertThat(stream.next()).isNull();
+        }
+    }
+
+    @Test
+    void deniedExecFallsBack() throws Exception {
+        // Sin CommandFactory el servidor rechaza las peticiones exec (solo SFTP)
+        try (RemoteFindStream stream = lister().open("/data")) {
+            assertThatThrownBy(stream::next).isInstanceOf(RemoteExecUnavailableException.class);
+        }
+    }
+
+    private RemoteFindLister lister() {
+        DefaultSftpSessionFactory factory = new DefaultSftpSessionFactory(true);
+        factory.setHost("localhost");
+        factory.setPort(server.getPort());
+        factory.setUser("test");
+        factory.setPassword("test");
+        factory.setAllowUnknownKeys(true);
+        return new RemoteFindLister("test", new SftpRemoteFileTemplate(factory), "find", 100, OPEN_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Responde a cualquier exec con los registros indicados y el exit status dado.
+     */
+    private void answerExec(int exitStatus, String... records) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (String record : records) {
+            output.writeBytes(record.getBytes(StandardCharsets.UTF_8));
+            output.write(0);
+        }
+        byte[] bytes = output.toByteArray();
+        server.setCommandFactory((channel, command) -> {
+            commands.add(command);
+            return new ScriptedCommand(bytes, exitStatus);
+        });
+    }
+
+    /**
+     * Comando que emite una salida fija y termina con un exit status.
+     */
+    private static final class ScriptedCommand implements Command {
+        private final byte[] output;
+        private final int exitStatus;
+        private OutputStream out;
+        private ExitCallback callback;
+
+        ScriptedCommand(byte[] output, int exitStatus) {
+            this.output = output;
+            this.exitStatus = exitStatus;
+        }
+
+        @Override
+        public void setInputStream(InputStream in) {
+        }
+
+        @Override
+        public void setOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void setErrorStream(OutputStream err) {
+        }
+
+        @Override
+        public void setExitCallback(ExitCallback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void start(ChannelSession channel, Environment env) {
+            Thread thread = new Thread(() -> {
+                try {
+                    out.write(output);
+                    out.flush();
+                    callback.onExit(exitStatus);
+                } catch (IOException e) {
+                    callback.onExit(255);
+                }
+            }, "scripted-find");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void destroy(ChannelSession channel) {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.sftp;
+
+import org.apache.sshd.sftp.common.SftpConstants;
+import org.apache.sshd.sftp.common.SftpException;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 15:04:31
+ * File: SftpOperationGuardTest.java
+ */
+class SftpOperationGuardTest {
+
+    private final SftpCircuitBreaker breaker = new SftpCircuitBreaker(true, 3, 50, 0);
+    private final SftpOperationGuard guard = new SftpOperationGuard(new SftpRateLimiter(0, 1, 0), breaker);
+
+    @Test
+    void pathErrorsAreRethrownWithoutRetryAndKeepCircuitClosed() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger renewals = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            int status = i % 2 == 0 ? SftpConstants.SSH_FX_NO_SUCH_FILE : SftpConstants.SSH_FX_PERMISSION_DENIED;
+            assertThatThrownBy(() -> guard.execute("list", () -> {
+                calls.incrementAndGet();
+                throw new SftpException(status, "path error");
+            }, renewals::incrementAndGet)).isInstanceOf(SftpException.class);
+        }
+
+        assertThat(calls).hasValue(10);
+        assertThat(renewals).hasValue(0);
+        assertThat(breaker.getStatus().state()).isEqualTo("CLOSED");
+        assertThat(breaker.getStatus().consecutiveFailures()).isZero();
+    }
+
+    @Test
+    void wrappedPathErrorIsNeutral() {
+        IOException wrapped = new IOException("list failed",
+                new SftpException(SftpConstants.SSH_FX_NO_SUCH_FILE, "gone"));
+
+        assertThat(SftpOperationGuard.isPathError(wrapped)).isTrue();
+        assertThat(SftpOperationGuard.isPathError(new java.io.FileNotFoundException("/x"))).isTrue();
+    }
+
+    @Test
+    void connectionErrorsCountTowardsTheBreaker() {
+        assertThat(SftpOperationGuard.isPathError(
+                new SftpException(SftpConstants.SSH_FX_CONNECTION_LOST, "lost"))).isFalse();
+        assertThat(SftpOperationGuard.isPathError(new IOException("Connection reset"))).isFalse();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> guard.execute("list", () -> {
+                throw new IOException("Connection reset");
+            }, null)).isInstanceOf(IOException.class);
+        }
+
+        assertThat(breaker.getStatus().state()).isEqualTo("OPEN");
+    }
+
+    @Test
+    void transportFailureIsRetriedAfterPauseOnceCircuitOpens() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger renewals = new AtomicInteger();
+        SftpOperationGuard.SftpOperation<String> flaky = () -> {
+            if (calls.incrementAndGet() <= 3) {
+                throw new SftpException(SftpConstants.SSH_FX_CONNECTION_LOST, "lost");
+            }
+            return "ok";
+        };
+
+        // Por debajo del umbral el error se propaga
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.execute("list", flaky, renewals::incrementAndGet))
+                    .isInstanceOf(SftpException.class);
+        }
+
+        // El tercer fallo abre el circuito: se pausa, se renueva y se reintenta
+        assertThat(guard.execute("list", flaky, renewals::incrementAndGet)).isEqualTo("ok");
+        assertThat(renewals).hasValue(1);
+        assertThat(breaker.getStatus().state()).isEqualTo("CLOSED");
+    }
+}
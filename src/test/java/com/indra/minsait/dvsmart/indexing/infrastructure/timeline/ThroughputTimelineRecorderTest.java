@@ -0,0 +1,66 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.indexing.infrastructure.timeline;
+
+import com.indra.minsait.dvsmart.indexing.domain.model.ThroughputTimeline;
+import com.indra.minsait.dvsmart.indexing.infrastructure.sftp.CustomLazySftpSessionFactory.PoolStats;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author: hahuaranga@indracompany.com
+ * Created on: 20-10-2026 at 20:18:49
+ * File: ThroughputTimelineRecorderTest.java
+ */
+class ThroughputTimelineRecorderTest {
+
+    private static final PoolStats POOL = new PoolStats(2, 0, 4, 2, 0);
+
+    @Test
+    void keepsEveryClosedIntervalAtTheCompactedWidth() {
+        ThroughputTimelineRecorder recorder = new ThroughputTimelineRecorder(1, 3, 0);
+        // 10 archivos por muestra del intervalo original
+        for (int i = 1; i <= 21; i++) {
+            recorder.sample(10L * i, 10L * i, POOL, 0);
+        }
+
+        ThroughputTimeline timeline = recorder.timeline();
+        List<Long> written = timeline.getFilesWritten();
+        assertThat(timeline.getIntervalSeconds()).isEqualTo(8);
+        assertThat(written.subList(0, written.size() - 1)).containsOnly(80L);
+        // El pendiente es el último intervalo, más corto
+        assertThat(written.get(written.size() - 1)).isEqualTo(50L);
+        assertThat(written.stream().mapToLong(Long::longValue).sum()).isEqualTo(210);
+        assertThat(written).hasSizeLessThanOrEqualTo(4);
+        assertThat(timeline.getSftpPoolUtilization()).containsOnly(50.0);
+    }
+
+    @Test
+    void oddSampleLeftByCompactionStartsThePendingInterval() {
+        ThroughputTimelineRecorder recorder = new ThroughputTimelineRecorder(1, 2, 0);
+        for (int i = 1; i <= 3; i++) {
+            recorder.sample(i, i, null, 0);
+        }
+
+        // Tres muestras de 1 s con máximo 2: una pareja y el impar pendiente
+        ThroughputTimeline timeline = recorder.timeline();
+        assertThat(timeline.getIntervalSeconds()).isEqualTo(2);
+        assertThat(timeline.getFilesRead()).containsExactly(2L, 1L);
+
+        recorder.sample(4, 4, null, 0);
+        assertThat(recorder.timeline().getFilesRead()).containsExactly(2L, 2L);
+    }
+}